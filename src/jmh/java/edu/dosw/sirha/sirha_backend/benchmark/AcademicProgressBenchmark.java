@@ -0,0 +1,63 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.dto.AcademicIndicatorsDTO;
+import edu.dosw.sirha.sirha_backend.dto.SubjectDecoratorDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Consultas del semáforo que alimentan las vistas del estudiante: indicadores
+ * académicos y pensum agrupado por color.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcademicProgressBenchmark {
+
+    @Param({"40", "160", "640"})
+    public int planSize;
+
+    @Param("2")
+    public int groupsPerSubject;
+
+    @Param("42")
+    public long seed;
+
+    private Semaforo semaforo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SirhaException {
+        semaforo = new BenchmarkDataset(planSize, groupsPerSubject, seed).getSemaforo();
+    }
+
+    @Benchmark
+    public AcademicIndicatorsDTO semaforoGetAcademicIndicators() {
+        return semaforo.getAcademicIndicators();
+    }
+
+    @Benchmark
+    public Map<SemaforoColores, List<SubjectDecoratorDTO>> semaforoGetAcademicPensum() {
+        return semaforo.getAcademicPensum();
+    }
+}
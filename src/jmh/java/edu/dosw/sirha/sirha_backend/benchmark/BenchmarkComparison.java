@@ -0,0 +1,87 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dos resultados de JMH en formato JSON ({@code -rf json}).
+ *
+ * Empareja cada benchmark por nombre y parámetros e imprime el puntaje de ambas corridas,
+ * la variación porcentual y si la diferencia supera la suma de los márgenes de error
+ * (intervalo de confianza del 99.9 % que reporta JMH). Solo las filas marcadas con
+ * {@code *} deberían usarse para justificar un cambio.
+ *
+ * Uso: {@code BenchmarkComparison <base.json> <candidato.json>}
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: BenchmarkComparison <base.json> <candidato.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> candidate = read(args[1]);
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Candidato", "Cambio");
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            JsonNode after = candidate.get(entry.getKey());
+            if (after == null) {
+                System.out.printf("%-90s %14s %14s %9s%n", entry.getKey(), score(entry.getValue()), "-", "");
+                continue;
+            }
+            JsonNode before = entry.getValue();
+            double b = before.path("primaryMetric").path("score").asDouble();
+            double a = after.path("primaryMetric").path("score").asDouble();
+            double noise = error(before) + error(after);
+            String significant = Math.abs(a - b) > noise ? " *" : "";
+            System.out.printf("%-90s %14s %14s %+8.1f%%%s%n", entry.getKey(), score(before), score(after),
+                    b == 0 ? 0.0 : (a - b) * 100.0 / b, significant);
+        }
+        for (String key : candidate.keySet()) {
+            if (!baseline.containsKey(key)) {
+                System.out.printf("%-90s %14s %14s %9s%n", key, "-", score(candidate.get(key)), "");
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        String name = result.path("benchmark").asText();
+        name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        return params.isEmpty() ? name : name + " " + params;
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String score(JsonNode result) {
+        JsonNode metric = result.path("primaryMetric");
+        return String.format("%.3f %s", metric.path("score").asDouble(), metric.path("scoreUnit").asText());
+    }
+}
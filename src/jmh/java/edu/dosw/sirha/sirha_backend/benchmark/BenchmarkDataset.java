@@ -0,0 +1,198 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
+import edu.dosw.sirha.sirha_backend.domain.model.MustHaveApprovedSubject;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Datos en memoria para los benchmarks del dominio.
+ *
+ * Arma un plan de estudios con cadenas de prerrequisitos, grupos con dos franjas
+ * semanales cada uno y un estudiante con historia académica: 40 % de las materias
+ * aprobadas, 5 % reprobadas y algunas en curso. La generación depende solo de los
+ * tamaños y de la semilla, así dos corridas con los mismos parámetros miden lo mismo.
+ */
+public final class BenchmarkDataset {
+
+    /** Contraseña ya cifrada para no medir (ni esperar) BCrypt al crear estudiantes. */
+    public static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa5Q8yQ2mB1S1E5oT0r8j1m3GQb9iW2";
+
+    private static final DiasSemana[] WEEKDAYS = {
+        DiasSemana.LUNES, DiasSemana.MARTES, DiasSemana.MIERCOLES, DiasSemana.JUEVES, DiasSemana.VIERNES
+    };
+    private static final int IN_PROGRESS = 5;
+
+    private final Random random;
+    private final AcademicPeriod period;
+    private final StudyPlan plan;
+    private final List<Subject> subjects = new ArrayList<>();
+    private final List<Subject> enrolledSubjects = new ArrayList<>();
+    private final Student student;
+    private int studentSequence;
+
+    /**
+     * @param planSize materias del plan
+     * @param groupsPerSubject grupos abiertos por materia
+     * @param seed semilla de la generación
+     */
+    public BenchmarkDataset(int planSize, int groupsPerSubject, long seed) throws SirhaException {
+        this.random = new Random(seed);
+        this.period = new AcademicPeriod("2025-1", LocalDate.now().minusDays(10), LocalDate.now().plusMonths(4));
+        this.plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        for (int i = 0; i < planSize; i++) {
+            Subject subject = new Subject("S" + i, String.format("MAT%04d", i), 3 + random.nextInt(2));
+            // Cadenas de cinco materias: cada una exige la anterior dentro de su cadena
+            if (i % 5 != 0) {
+                subject.addPrerequisite(new MustHaveApprovedSubject(subjects.get(i - 1)));
+            }
+            for (int g = 0; g < groupsPerSubject; g++) {
+                addRandomSchedules(new Group(subject, 30, period));
+            }
+            plan.addSubject(subject);
+            subjects.add(subject);
+        }
+        this.student = newStudent();
+        buildHistory();
+    }
+
+    private void addRandomSchedules(Group group) throws SirhaException {
+        int first = random.nextInt(WEEKDAYS.length);
+        int second = (first + 1 + random.nextInt(WEEKDAYS.length - 1)) % WEEKDAYS.length;
+        group.addSchedule(randomSlot(WEEKDAYS[first]));
+        group.addSchedule(randomSlot(WEEKDAYS[second]));
+    }
+
+    private Schedule randomSlot(DiasSemana day) throws SirhaException {
+        int start = 7 + random.nextInt(11);
+        return new Schedule(day, LocalTime.of(start, 0), LocalTime.of(start + 2, 0));
+    }
+
+    /**
+     * Recorre el plan en orden: aprueba o reprueba materias cuyos prerrequisitos ya se
+     * cumplen y deja algunas en curso en grupos sin choque de horario.
+     */
+    private void buildHistory() throws SirhaException {
+        Semaforo semaforo = (Semaforo) student.getAcademicProgress();
+        int approved = 0;
+        int failed = 0;
+        for (Subject subject : subjects) {
+            SubjectDecorator decorator = decorator(semaforo, subject);
+            if (!subject.canEnroll(semaforo)) {
+                continue;
+            }
+            if (approved < subjects.size() * 4 / 10) {
+                decorator.inscribir(subject.getGroups().get(0));
+                decorator.aprobar();
+                approved++;
+            } else if (failed < subjects.size() / 20) {
+                decorator.inscribir(subject.getGroups().get(0));
+                decorator.reprobar();
+                failed++;
+            }
+        }
+        // Solo se inscribe una de cada dos materias disponibles, para que queden
+        // inscripciones válidas que medir
+        boolean skip = false;
+        for (Subject subject : subjects) {
+            if (enrolledSubjects.size() == IN_PROGRESS) {
+                break;
+            }
+            if (!semaforo.isSubjectNoCursada(subject.getName()) || !subject.canEnroll(semaforo)) {
+                continue;
+            }
+            skip = !skip;
+            if (!skip) {
+                continue;
+            }
+            Group group = findEnrollableGroup(subject);
+            if (group != null) {
+                student.enrollSubject(subject, group);
+                enrolledSubjects.add(subject);
+            }
+        }
+    }
+
+    private static SubjectDecorator decorator(Semaforo semaforo, Subject subject) {
+        return semaforo.getSubjects().stream()
+            .filter(d -> d.getName().equals(subject.getName()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Primer grupo de la materia en el que el estudiante se puede inscribir, o null.
+     */
+    public Group findEnrollableGroup(Subject subject) {
+        for (Group group : subject.getGroups()) {
+            try {
+                if (student.canEnrollInGroup(subject, group)) {
+                    return group;
+                }
+            } catch (SirhaException e) {
+                // Materia no disponible o grupo con choque; se prueba el siguiente
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Crea un estudiante nuevo del plan, sin historia, con el período vigente.
+     */
+    public Student newStudent() throws SirhaException {
+        studentSequence++;
+        Student created = new Student("bench" + studentSequence, "bench" + studentSequence + "@sirha.edu",
+                PASSWORD_HASH, String.format("2025%05d", studentSequence));
+        created.setAcademicProgress(new Semaforo(plan));
+        created.setCurrentPeriod(period);
+        return created;
+    }
+
+    /**
+     * Solicitud de cambio de grupo del estudiante principal sobre una materia en curso.
+     */
+    public CambioGrupo newGroupChangeRequest() {
+        Subject subject = enrolledSubjects.get(0);
+        Group target = subject.getGroups().get(subject.getGroups().size() - 1);
+        return new CambioGrupo(student, subject, target, period);
+    }
+
+    public Random random() {
+        return random;
+    }
+
+    public AcademicPeriod getPeriod() {
+        return period;
+    }
+
+    public StudyPlan getPlan() {
+        return plan;
+    }
+
+    public List<Subject> getSubjects() {
+        return subjects;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Semaforo getSemaforo() {
+        return (Semaforo) student.getAcademicProgress();
+    }
+}
@@ -0,0 +1,120 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga HTTP para comparar el modo de hilos de plataforma con el de hilos
+ * virtuales (perfil {@code virtual}).
+ *
+ * Mantiene {@code concurrencia} peticiones GET en vuelo durante {@code segundos} contra una
+ * instancia en ejecución y reporta peticiones por segundo, latencias y errores. Con hilos
+ * de plataforma el servidor atiende como mucho 200 peticiones a la vez (pool de Tomcat) y
+ * el resto espera en la cola de aceptación, así que el rendimiento se estanca en
+ * 200 / latencia de Mongo; con hilos virtuales el límite pasa a ser el pool de Mongo. La
+ * concurrencia que el servidor atiende se ve durante la prueba en
+ * {@code /actuator/metrics/http.server.requests.active}.
+ *
+ * Para comparar, levantar la aplicación dos veces con el mismo heap:
+ * <pre>
+ * java -Xmx512m -jar sirha.jar
+ * java -Xmx512m -jar sirha.jar --spring.profiles.active=virtual
+ * </pre>
+ * y en cada una ejecutar, sobre un endpoint que consulte Mongo:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec \
+ *   -Djmh.main=edu.dosw.sirha.sirha_backend.benchmark.ConcurrencyLoadTest \
+ *   -Djmh.args="http://localhost:8080/api/students?limit=50 1000 60 $TOKEN"
+ * </pre>
+ *
+ * Uso: {@code ConcurrencyLoadTest <url> <concurrencia> <segundos> [token]}
+ */
+public final class ConcurrencyLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private ConcurrencyLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Uso: ConcurrencyLoadTest <url> <concurrencia> <segundos> [token]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(30));
+        if (args.length > 3) {
+            builder.header("Authorization", "Bearer " + args[3]);
+        }
+        HttpRequest request = builder.build();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        System.out.printf("Calentando %d s con %d peticiones en vuelo...%n", WARMUP.toSeconds(), concurrency);
+        run(client, request, concurrency, WARMUP);
+        Result result = run(client, request, concurrency, duration);
+        result.print(concurrency, duration);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        Result result = new Result();
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        result.record(System.nanoTime() - start, error == null && response.statusCode() < 400);
+                        inFlight.release();
+                    });
+        }
+        // Esperar a que terminen las peticiones en vuelo
+        inFlight.acquire(concurrency);
+        return result;
+    }
+
+    private static final class Result {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void print(int concurrency, Duration duration) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            double seconds = duration.toNanos() / 1e9;
+            System.out.printf("Concurrencia solicitada: %d, duración: %d s%n", concurrency, duration.toSeconds());
+            System.out.printf("Peticiones: %d (%d con error)%n", sorted.length, errors.get());
+            System.out.printf("Rendimiento: %.1f pet/s%n", sorted.length / seconds);
+            System.out.printf("Latencia p50 %s, p95 %s, p99 %s, máx %s%n",
+                    millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), millis(sorted, 1.0));
+        }
+
+        private static String millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return "-";
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return String.format("%.1f ms", sorted[Math.max(0, index)] / 1e6);
+        }
+    }
+}
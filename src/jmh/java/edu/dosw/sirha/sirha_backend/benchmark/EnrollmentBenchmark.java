@@ -0,0 +1,130 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Validaciones que se ejecutan en cada inscripción: choque entre horarios, choque de un
+ * grupo con la ocupación del estudiante y la validación completa de
+ * {@link Student#canEnrollInGroup(Subject, Group)}.
+ *
+ * Los candidatos se recorren en ronda para que el JIT no se especialice en un solo grupo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentBenchmark {
+
+    @Param({"40", "160"})
+    public int planSize;
+
+    @Param({"4", "16"})
+    public int groupsPerSubject;
+
+    @Param("42")
+    public long seed;
+
+    private Student student;
+    private Schedule[] schedules;
+    private Group[] groups;
+    private Subject[] groupSubjects;
+    private Subject[] eligibleSubjects;
+    private Group[] eligibleGroups;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SirhaException {
+        BenchmarkDataset dataset = new BenchmarkDataset(planSize, groupsPerSubject, seed);
+        student = dataset.getStudent();
+
+        List<Schedule> allSchedules = new ArrayList<>();
+        List<Group> allGroups = new ArrayList<>();
+        List<Subject> owners = new ArrayList<>();
+        for (Subject subject : dataset.getSubjects()) {
+            for (Group group : subject.getGroups()) {
+                allSchedules.addAll(group.getSchedules());
+                allGroups.add(group);
+                owners.add(subject);
+            }
+        }
+        schedules = allSchedules.toArray(new Schedule[0]);
+        groups = allGroups.toArray(new Group[0]);
+        groupSubjects = owners.toArray(new Subject[0]);
+
+        // Inscripciones que superan todas las validaciones (el camino feliz)
+        List<Subject> subjects = new ArrayList<>();
+        List<Group> targets = new ArrayList<>();
+        for (SubjectDecorator eligible : dataset.getSemaforo().getEligibleSubjects()) {
+            Group group = dataset.findEnrollableGroup(eligible.getSubject());
+            if (group != null) {
+                subjects.add(eligible.getSubject());
+                targets.add(group);
+            }
+        }
+        if (subjects.isEmpty()) {
+            throw new IllegalStateException("El dataset no tiene inscripciones válidas; aumente planSize");
+        }
+        eligibleSubjects = subjects.toArray(new Subject[0]);
+        eligibleGroups = targets.toArray(new Group[0]);
+    }
+
+    private int next(int bound) {
+        cursor = cursor + 1 == Integer.MAX_VALUE ? 0 : cursor + 1;
+        return cursor % bound;
+    }
+
+    @Benchmark
+    public boolean scheduleOverlapsWith() {
+        int i = next(schedules.length);
+        return schedules[i].overlapsWith(schedules[(i * 31 + 7) % schedules.length]);
+    }
+
+    @Benchmark
+    public boolean studentHasScheduleConflictWith() {
+        return student.hasScheduleConflictWith(groups[next(groups.length)]);
+    }
+
+    @Benchmark
+    public boolean studentCanEnrollInGroup() throws SirhaException {
+        int i = next(eligibleSubjects.length);
+        return student.canEnrollInGroup(eligibleSubjects[i], eligibleGroups[i]);
+    }
+
+    /**
+     * Validación sobre cualquier grupo del plan: incluye materias ya cursadas, sin
+     * prerrequisitos o con choque, así que también mide el costo de construir la excepción.
+     */
+    @Benchmark
+    public boolean studentCanEnrollInAnyGroup() {
+        int i = next(groups.length);
+        try {
+            return student.canEnrollInGroup(groupSubjects[i], groups[i]);
+        } catch (SirhaException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.RequestApprovalRateDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Flujo de solicitudes: recepción y aprobación en una decanatura con cola grande y
+ * tasa de aprobación de un estudiante con muchas solicitudes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBenchmark {
+
+    /**
+     * Decanatura con {@code queueSize} solicitudes en revisión. Cada invocación recibe una
+     * solicitud nueva y aprueba la más antigua, así el tamaño de la cola se mantiene.
+     */
+    @State(Scope.Thread)
+    public static class DecanateQueue {
+
+        @Param({"100", "1000", "10000"})
+        public int queueSize;
+
+        @Param("42")
+        public long seed;
+
+        BenchmarkDataset dataset;
+        Decanate decanate;
+        Deque<BaseRequest> received;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws SirhaException {
+            dataset = new BenchmarkDataset(40, 4, seed);
+            decanate = new Decanate(Careers.INGENIERIA_DE_SISTEMAS);
+            received = new ArrayDeque<>(queueSize + 1);
+            for (int i = 0; i < queueSize; i++) {
+                BaseRequest request = dataset.newGroupChangeRequest();
+                decanate.receiveRequest(request);
+                received.add(request);
+            }
+        }
+    }
+
+    /**
+     * Estudiante con {@code requestsPerStudent} solicitudes: 40 % aprobadas, 20 % rechazadas,
+     * 20 % en revisión y 20 % pendientes.
+     */
+    @State(Scope.Thread)
+    public static class StudentRequests {
+
+        @Param({"10", "100", "1000"})
+        public int requestsPerStudent;
+
+        @Param("42")
+        public long seed;
+
+        Student student;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SirhaException {
+            BenchmarkDataset dataset = new BenchmarkDataset(40, 4, seed);
+            student = dataset.getStudent();
+            Decanate decanate = new Decanate(Careers.INGENIERIA_DE_SISTEMAS);
+            for (int i = 0; i < requestsPerStudent; i++) {
+                BaseRequest request = dataset.newGroupChangeRequest();
+                student.addRequest(request);
+                int bucket = i % 5;
+                if (bucket == 4) {
+                    continue;
+                }
+                decanate.receiveRequest(request);
+                if (bucket <= 1) {
+                    decanate.approveRequest(request);
+                } else if (bucket == 2) {
+                    decanate.rejectRequest(request);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public BaseRequest decanateReceiveThenApprove(DecanateQueue state) throws SirhaException {
+        BaseRequest incoming = state.dataset.newGroupChangeRequest();
+        state.decanate.receiveRequest(incoming);
+        state.received.add(incoming);
+        BaseRequest oldest = state.received.poll();
+        state.decanate.approveRequest(oldest);
+        return oldest;
+    }
+
+    @Benchmark
+    public RequestApprovalRateDTO studentGetRequestApprovalRate(StudentRequests state) {
+        return state.student.getRequestApprovalRate();
+    }
+}
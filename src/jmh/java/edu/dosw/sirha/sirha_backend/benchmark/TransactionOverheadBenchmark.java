@@ -0,0 +1,126 @@
+package edu.dosw.sirha.sirha_backend.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import edu.dosw.sirha.sirha_backend.SirhaBackEndApplication;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.BaseRequestMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.SeatReservationService;
+import edu.dosw.sirha.sirha_backend.service.StudentService;
+import edu.dosw.sirha.sirha_backend.service.WaitlistService;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Costo de inscribir y desinscribir dentro de transacciones de Mongo frente al camino sin
+ * transacciones, que compensa a mano.
+ *
+ * Levanta la aplicación con el perfil {@code transactions} (datos sintéticos pequeños en
+ * la base {@code sirha_transactions}, que se recrea), busca una inscripción válida y la
+ * repite {@code rondas} veces con cada servicio: el de la aplicación, con transacciones, y
+ * uno armado con los mismos beans y un {@link TransactionRunner} sin gestor. Reporta el
+ * tiempo medio por inscripción + desinscripción y la razón entre ambos.
+ *
+ * Necesita un replica set (basta uno de un solo nodo) en {@code SIRHA_TX_MONGODB_URI}:
+ * <pre>
+ * SIRHA_TX_MONGODB_URI="mongodb://localhost:27017/?replicaSet=rs0" \
+ * mvn -Pbenchmarks test-compile exec:exec \
+ *   -Djmh.main=edu.dosw.sirha.sirha_backend.benchmark.TransactionOverheadBenchmark \
+ *   -Djmh.args="500"
+ * </pre>
+ *
+ * Uso: {@code TransactionOverheadBenchmark [rondas]}
+ */
+public final class TransactionOverheadBenchmark {
+
+    private static final int WARMUP_ROUNDS = 50;
+
+    private TransactionOverheadBenchmark() {
+    }
+
+    public static void main(String[] args) throws SirhaException {
+        String uri = System.getenv("SIRHA_TX_MONGODB_URI");
+        if (uri == null || uri.isBlank()) {
+            System.err.println("SIRHA_TX_MONGODB_URI debe apuntar a un replica set de Mongo");
+            System.exit(2);
+        }
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SirhaBackEndApplication.class)
+                .profiles("transactions")
+                .properties("server.port=0")
+                .run()) {
+            StudentService transactional = context.getBean(StudentService.class);
+            StudentService direct = new StudentServiceImpl(context.getBean(StudentMongoRepository.class),
+                    context.getBean(BaseRequestMongoRepository.class), context.getBean(CatalogCache.class),
+                    context.getBean(SeatReservationService.class), context.getBean(SirhaMetrics.class),
+                    context.getBean(GroupCompatibilityIndex.class), context.getBean(WaitlistService.class),
+                    new TransactionRunner(Optional.empty(), context.getBean(MeterRegistry.class), 1, Duration.ZERO, 1, Duration.ZERO),
+                    12, BatchEnrollmentMode.ALL_OR_NOTHING);
+            if (!context.getBean(TransactionRunner.class).isEnabled()) {
+                System.err.println("El perfil transactions no activó las transacciones");
+                System.exit(2);
+            }
+
+            String[] enrollment = findEnrollable(transactional, context);
+            System.out.printf("Inscripción medida: %s en %s, grupo %s%n", enrollment[0], enrollment[1], enrollment[2]);
+
+            cycle(direct, enrollment, WARMUP_ROUNDS);
+            cycle(transactional, enrollment, WARMUP_ROUNDS);
+            long directNanos = cycle(direct, enrollment, rounds);
+            long transactionalNanos = cycle(transactional, enrollment, rounds);
+
+            double directMs = directNanos / 1_000_000.0 / rounds;
+            double transactionalMs = transactionalNanos / 1_000_000.0 / rounds;
+            System.out.printf("%-18s %10s%n", "Camino", "ms/ronda");
+            System.out.printf("%-18s %10.3f%n", "sin transacciones", directMs);
+            System.out.printf("%-18s %10.3f%n", "con transacciones", transactionalMs);
+            System.out.printf("Sobrecosto: %.2fx en %d rondas%n", transactionalMs / directMs, rounds);
+        }
+    }
+
+    private static long cycle(StudentService service, String[] enrollment, int rounds) throws SirhaException {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            service.enrollSubject(enrollment[0], enrollment[1], enrollment[2]);
+            service.unenrollSubject(enrollment[0], enrollment[1], enrollment[2]);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** Primera combinación estudiante, materia y grupo que las reglas dejan inscribir; queda desinscrita. */
+    private static String[] findEnrollable(StudentService service, ConfigurableApplicationContext context) throws SirhaException {
+        List<Student> students = context.getBean(StudentMongoRepository.class).findAllByOrderByIdAsc(Limit.of(50));
+        List<Subject> subjects = context.getBean(MongoTemplate.class).findAll(Subject.class);
+        for (Student student : students) {
+            for (Subject subject : subjects) {
+                for (Group group : subject.getGroups()) {
+                    try {
+                        service.enrollSubject(student.getUsername(), subject.getName(), group.getCode());
+                    } catch (SirhaException e) {
+                        continue;
+                    }
+                    service.unenrollSubject(student.getUsername(), subject.getName(), group.getCode());
+                    return new String[] {student.getUsername(), subject.getName(), group.getCode()};
+                }
+            }
+        }
+        throw new IllegalStateException("El conjunto de datos no tiene una inscripción válida");
+    }
+}
@@ -0,0 +1,43 @@
+package edu.dosw.sirha.sirha_backend.config;
+
+import java.io.IOException;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Configuración de Jackson.
+ *
+ * Las referencias perezosas de Mongo ({@code @DocumentReference(lazy = true)}) son proxies;
+ * al serializarlas se escribe el documento resuelto y no los detalles del proxy.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module lazyReferenceModule() {
+        SimpleModule module = new SimpleModule("SirhaLazyReferences");
+        module.addSerializer(LazyLoadingProxy.class, new LazyReferenceSerializer());
+        return module;
+    }
+
+    static final class LazyReferenceSerializer extends JsonSerializer<LazyLoadingProxy> {
+
+        @Override
+        public void serialize(LazyLoadingProxy proxy, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Object target = proxy.getTarget();
+            if (target == null) {
+                provider.defaultSerializeNull(gen);
+            } else {
+                provider.defaultSerializeValue(target, gen);
+            }
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package edu.dosw.sirha.sirha_backend.config;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
-import edu.dosw.sirha.sirha_backend.util.JwtUtil;
+import edu.dosw.sirha.sirha_backend.util.VerifiedTokenCache;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -19,10 +21,10 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-  private final JwtUtil jwtUtil;
-  private static final AntPathMatcher matcher = new AntPathMatcher();
+  private final VerifiedTokenCache tokenCache;
 
-  private static final List<String> PUBLIC_PATHS = List.of(
+  // Patrones compilados una sola vez, no en cada petición
+  private static final List<PathPattern> PUBLIC_PATHS = compile(
       "/v3/api-docs/**",
       "/swagger-ui/**",
       "/swagger-ui.html",
@@ -31,14 +33,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       "/api/auth/refresh-token"
   );
 
-  public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-    this.jwtUtil = jwtUtil;
+  public JwtAuthenticationFilter(VerifiedTokenCache tokenCache) {
+    this.tokenCache = tokenCache;
+  }
+
+  private static List<PathPattern> compile(String... patterns) {
+    PathPatternParser parser = new PathPatternParser();
+    return Arrays.stream(patterns).map(parser::parse).toList();
   }
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
-    String path = request.getServletPath();
-    return PUBLIC_PATHS.stream().anyMatch(p -> matcher.match(p, path));
+    PathContainer path = PathContainer.parsePath(request.getServletPath());
+    for (PathPattern pattern : PUBLIC_PATHS) {
+      if (pattern.matches(path)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -52,15 +64,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     try {
-      var token = header.substring(7);
-      var claims = jwtUtil.parse(token);
-      var username = claims.getSubject();
-      var role = claims.get("role", String.class);  
+      var token = tokenCache.verify(header.substring(7));
 
       var auth = new UsernamePasswordAuthenticationToken(
-          username,
+          token.username(),
           null,
-          List.of(new SimpleGrantedAuthority("ROLE_" + role)) 
+          token.authorities()
       );
       SecurityContextHolder.getContext().setAuthentication(auth);
     } catch (Exception e) {
@@ -0,0 +1,42 @@
+package edu.dosw.sirha.sirha_backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Pool de conexiones del driver síncrono de Mongo.
+ *
+ * Cada petición bloquea su hilo mientras espera a Mongo. Con el pool de hilos de Tomcat
+ * ese pool limita la concurrencia; con hilos virtuales (perfil {@code virtual}) el límite
+ * pasa a ser el número de conexiones, así que se configura aquí junto con la espera máxima
+ * por una conexión libre ({@code sirha.mongo.pool.*}).
+ */
+@Configuration
+public class MongoPoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoPoolConfig.class);
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${sirha.mongo.pool.max-size:100}") int maxSize,
+            @Value("${sirha.mongo.pool.max-wait:2m}") Duration maxWait,
+            Environment environment) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("sirha.mongo.pool.max-size debe ser positivo: " + maxSize);
+        }
+        log.info("Pool de Mongo: máximo {} conexiones, espera máxima {} (hilos virtuales: {})",
+                maxSize, maxWait, Threading.VIRTUAL.isActive(environment) ? "activos" : "inactivos");
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,68 @@
+package edu.dosw.sirha.sirha_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import com.mongodb.MongoException;
+import com.mongodb.ReadConcern;
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+
+/**
+ * Gestor de transacciones de Mongo ({@code sirha.mongo.transactions.enabled}).
+ *
+ * Las transacciones necesitan un replica set (basta uno de un solo nodo); con un Mongo
+ * standalone se deja apagado y las inscripciones compensan a mano. Las transacciones leen
+ * una instantánea y confirman con mayoría.
+ *
+ * Las consultas de los servicios no llevan {@code @Transactional}: con este gestor cualquier
+ * método anotado, aunque sea {@code readOnly = true}, abre una sesión y una transacción de
+ * instantánea, que suma idas y vueltas al servidor sin proteger ninguna escritura. Solo van
+ * en transacción los métodos que escriben.
+ *
+ * Si el commit falla con la etiqueta {@code UnknownTransactionCommitResult} no se sabe si
+ * quedó aplicado; se reintenta solo el commit, que es idempotente, hasta
+ * {@code sirha.mongo.transactions.max-attempts} veces. Repetir la transacción completa
+ * podría aplicarla dos veces.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sirha.mongo.transactions.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoTransactionConfig.class);
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory,
+            @Value("${sirha.mongo.transactions.max-attempts:3}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("sirha.mongo.transactions.max-attempts debe ser positivo: " + maxAttempts);
+        }
+        TransactionOptions options = TransactionOptions.builder()
+                .readConcern(ReadConcern.SNAPSHOT)
+                .writeConcern(WriteConcern.MAJORITY)
+                .build();
+        log.info("Transacciones de Mongo activas (hasta {} intentos de commit)", maxAttempts);
+        return new MongoTransactionManager(databaseFactory, options) {
+            @Override
+            protected void doCommit(MongoTransactionObject transactionObject) throws Exception {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        transactionObject.commitTransaction();
+                        return;
+                    } catch (MongoException e) {
+                        if (attempt >= maxAttempts || !e.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL)) {
+                            throw e;
+                        }
+                        log.debug("Resultado del commit desconocido, reintentando ({} de {})", attempt, maxAttempts);
+                    }
+                }
+            }
+        };
+    }
+}
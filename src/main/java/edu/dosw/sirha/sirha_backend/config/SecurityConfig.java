@@ -13,15 +13,17 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
-import edu.dosw.sirha.sirha_backend.util.JwtUtil;
+import edu.dosw.sirha.sirha_backend.util.VerifiedTokenCache;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Role;
 import edu.dosw.sirha.sirha_backend.service.impl.CustomUserDetailsService;
 
@@ -39,10 +41,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(CustomUserDetailsService uds, PasswordEncoder enc){
+    public AuthenticationManager authenticationManager(CustomUserDetailsService uds, PasswordEncoder enc, UserCache userCache){
         var provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(uds);
         provider.setPasswordEncoder(enc);
+        provider.setUserCache(userCache);
+        // El principal es la AccountUserDetails cacheada: eraseCredentials no la modifica
         return new ProviderManager(provider);
     }
 
@@ -50,7 +54,7 @@ public class SecurityConfig {
         @SuppressWarnings("squid:S4502") // justified: API is stateless and uses JWT Bearer tokens for auth
         public SecurityFilterChain filterChain(
         HttpSecurity http,
-        JwtUtil jwtUtil ,
+        VerifiedTokenCache tokenCache,
         @Value("${FRONTEND_URL:http://localhost:5173}") String frontendUrl
     ) throws Exception {
         // CSRF is intentionally disabled because this application exposes a stateless
@@ -84,6 +88,9 @@ public class SecurityConfig {
       }))
 
       .authorizeHttpRequests(auth -> auth
+        // Segundo despacho de las respuestas en streaming (exportaciones): la petición
+        // original ya se autorizó y el contexto JWT no se conserva entre despachos
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
         .requestMatchers(
             
           "/v3/api-docs/**",
@@ -92,6 +99,7 @@ public class SecurityConfig {
           "/actuator/health",
           "/actuator/info"
         ).permitAll()
+            .requestMatchers("/actuator/metrics", "/actuator/metrics/**", "/actuator/prometheus").hasRole(Role.ADMIN.name())
             .requestMatchers(
                 HttpMethod.POST,
                 "/api/auth/login",
@@ -112,15 +120,24 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.POST,
                 "/api/students/*/solicitudes/cambio-grupo",
                 "/api/students/*/solicitudes/cambio-materia",
-                "/api/students/*/enroll"
+                "/api/students/*/enroll",
+                "/api/students/*/enroll/batch",
+                "/api/students/*/waitlist"
+            ).hasRole(Role.STUDENT.name())
+            .requestMatchers(HttpMethod.DELETE,
+                "/api/students/*/unenroll",
+                "/api/students/*/waitlist"
             ).hasRole(Role.STUDENT.name())
-            .requestMatchers(HttpMethod.DELETE, "/api/students/*/unenroll").hasRole(Role.STUDENT.name())
             // STUDENT / DEAN / ADMIN
             .requestMatchers(HttpMethod.GET,
                 "/api/students/schedule/**",
                 "/api/students/schedules/**",
                 "/api/students/academicPensum/**",
                 "/api/students/*/percentage-by-color",
+                "/api/students/*/eligible-subjects",
+                "/api/students/*/dashboard",
+                "/api/students/*/timetables",
+                "/api/students/*/compatible-groups",
                 "/api/students/*/subjects/color/**",
                 "/api/students/*/requests/**"
             ).hasAnyRole(Role.STUDENT.name(),Role.DEAN.name(),Role.ADMIN.name())
@@ -152,6 +169,7 @@ public class SecurityConfig {
                 "/api/decanates/*/requests/*/receive",
                 "/api/decanates/*/requests/*/approve",
                 "/api/decanates/*/requests/*/reject",
+                "/api/decanates/*/requests/*/urgency",
                 "/api/decanates/*/study-plans",
                 "/api/decanates/*/statistics/**",
                 "/api/decanates/study-plans",
@@ -189,6 +207,9 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.POST, "/api/decanates").hasRole(Role.ADMIN.name())
 
             // SubjectAndGroupController  (/api/subjects/**)
+            // DEAN / ADMIN
+            .requestMatchers(HttpMethod.GET, "/api/subjects/groups/*/roster")
+                .hasAnyRole(Role.DEAN.name(),Role.ADMIN.name())
 
             // STUDENT / DEAN / ADMIN 
             .requestMatchers(HttpMethod.GET,
@@ -223,11 +244,18 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.POST, "/api/subjects").hasRole(Role.ADMIN.name())
             .requestMatchers(HttpMethod.DELETE, "/api/subjects/*").hasRole(Role.ADMIN.name())
 
+            // EnrollmentJobController (/api/enrollment-jobs/**)
+            .requestMatchers("/api/enrollment-jobs", "/api/enrollment-jobs/**").hasRole(Role.ADMIN.name())
+
+            // ExportController (/api/exports/**)
+            .requestMatchers(HttpMethod.GET, "/api/exports/**")
+                .hasAnyRole(Role.DEAN.name(), Role.ADMIN.name())
+
             // any other request
         .anyRequest().authenticated()
         )
 
-        .addFilterBefore(new JwtAuthenticationFilter(jwtUtil),
+        .addFilterBefore(new JwtAuthenticationFilter(tokenCache),
                         UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -16,11 +16,15 @@ import edu.dosw.sirha.sirha_backend.dto.MeResponse;
 import edu.dosw.sirha.sirha_backend.dto.RegisterRequest;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.AccountUserDetails;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.LoginThrottle;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.PasswordVerificationExecutor;
 import edu.dosw.sirha.sirha_backend.repository.mongo.AccountMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.DecanateService;
 import edu.dosw.sirha.sirha_backend.service.StudentService;
 import edu.dosw.sirha.sirha_backend.util.JwtUtil;
 import edu.dosw.sirha.sirha_backend.util.ValidationUtil;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -32,19 +36,25 @@ public class AuthController {
     private final JwtUtil jwt;
     private final StudentService studentService;
     private final DecanateService decanateService;
+    private final LoginThrottle loginThrottle;
+    private final PasswordVerificationExecutor passwordVerifier;
 
     public AuthController(AccountMongoRepository accounts,
                           PasswordEncoder passwordEncoder,
                           AuthenticationManager authManager,
                           JwtUtil jwt,
                           StudentService studentService,
-                          DecanateService decanateService) {
+                          DecanateService decanateService,
+                          LoginThrottle loginThrottle,
+                          PasswordVerificationExecutor passwordVerifier) {
         this.accounts = accounts;
         this.passwordEncoder = passwordEncoder;
         this.authManager = authManager;
         this.jwt = jwt;
         this.studentService = studentService;
         this.decanateService = decanateService;
+        this.loginThrottle = loginThrottle;
+        this.passwordVerifier = passwordVerifier;
     }
 
     @PostMapping("/register-student")
@@ -112,16 +122,20 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest req) {
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest req, HttpServletRequest request) throws SirhaException {
+        // Con server.forward-headers-strategy=native es la IP del cliente, no la del proxy
+        loginThrottle.acquire(req.getUsername(), request.getRemoteAddr());
         try {
-            authManager.authenticate(new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword()));
+            var auth = passwordVerifier.verify(() -> authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())));
 
-            var acc = accounts.findByUsername(req.getUsername()).orElseThrow();
+            var acc = (AccountUserDetails) auth.getPrincipal();
 
             String token = jwt.generate(acc.getUsername(), acc.getRole().name());
             return ResponseEntity.ok(new AuthResponse(acc.getUsername(), acc.getEmail(), token));
 
         } catch (AuthenticationException ex) {
+            loginThrottle.recordFailure(req.getUsername());
             AuthResponse resp = new AuthResponse(req.getUsername(), "invalid_credentials");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                  .body(resp);
@@ -14,9 +14,11 @@ import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
 import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import edu.dosw.sirha.sirha_backend.service.DecanateService;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
 
 /**
  * Controlador REST para la gestión de Decanaturas en el sistema SIRHA.
@@ -44,21 +46,26 @@ import edu.dosw.sirha.sirha_backend.service.DecanateService;
 public class DecanateController {
 
     private final DecanateService decanateService;
+    private final PageLimits pageLimits;
 
-    public DecanateController(DecanateService decanateService) {
+    public DecanateController(DecanateService decanateService, PageLimits pageLimits) {
         this.decanateService = decanateService;
+        this.pageLimits = pageLimits;
     }
 
 
     @GetMapping
     @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
-    @Operation(summary = "Obtener todas las decanaturas", description = "Retorna una lista completa de todas las decanaturas registradas en el sistema")
+    @Operation(summary = "Obtener todas las decanaturas", description = "Retorna las decanaturas registradas en orden de nombre, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de decanaturas obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<Decanate>> getAllDecanates() throws SirhaException {
-        List<Decanate> decanates = decanateService.getAllDecanates();
+    public ResponseEntity<CursorPageDTO<Decanate>> getAllDecanates(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<Decanate> decanates = decanateService.getAllDecanates(cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(decanates);
     }
 
@@ -77,13 +84,16 @@ public class DecanateController {
 
     @GetMapping("/requests")
     @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
-    @Operation(summary = "Obtener todas las solicitudes", description = "Obtiene todas las solicitudes pendientes de todas las decanaturas del sistema")
+    @Operation(summary = "Obtener todas las solicitudes", description = "Obtiene las solicitudes pendientes de todas las decanaturas, por decanatura y en orden de llegada, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Solicitudes obtenidas exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<BaseRequest>> getAllRequests() throws SirhaException {
-        List<BaseRequest> requests = decanateService.getAllRequests();
+    public ResponseEntity<CursorPageDTO<BaseRequest>> getAllRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<BaseRequest> requests = decanateService.getAllRequests(cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(requests);
     }
 
@@ -102,14 +112,18 @@ public class DecanateController {
 
     @GetMapping("/{decanateName}/requests")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('DEAN') and authentication.name == #decanateName)")
-    @Operation(summary = "Obtener solicitudes de una decanatura", description = "Obtiene todas las solicitudes pendientes de una decanatura específica")
+    @Operation(summary = "Obtener solicitudes de una decanatura", description = "Obtiene las solicitudes pendientes de una decanatura en el orden de su cola, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Solicitudes de la decanatura obtenidas exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "404", description = "Decanatura no encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<BaseRequest>> getAllRequestsForDecanate(@PathVariable String decanateName) throws SirhaException {
-        List<BaseRequest> requests = decanateService.getAllRequestsForDecanate(decanateName);
+    public ResponseEntity<CursorPageDTO<BaseRequest>> getAllRequestsForDecanate(
+            @PathVariable String decanateName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<BaseRequest> requests = decanateService.getAllRequestsForDecanate(decanateName, cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(requests);
     }
 
@@ -155,6 +169,21 @@ public class DecanateController {
         return ResponseEntity.ok(request);
     }
 
+    @PostMapping("/{decanateName}/requests/{requestId}/urgency")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DEAN') and authentication.name == #decanateName)")
+    @Operation(summary = "Cambiar urgencia de solicitud", description = "Cambia la urgencia de una solicitud en la cola de la decanatura; cada nivel adelanta la solicitud un día de espera")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Urgencia actualizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Urgencia no válida"),
+        @ApiResponse(responseCode = "404", description = "Decanatura o solicitud no encontrada"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<BaseRequest> reprioritizeRequest(@PathVariable String decanateName, @PathVariable String requestId,
+                                                           @RequestParam int urgency) throws SirhaException {
+        BaseRequest request = decanateService.reprioritizeRequest(decanateName, requestId, urgency);
+        return ResponseEntity.ok(request);
+    }
+
     @GetMapping("/students/{username}/basic-info")
     @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
     @Operation(summary = "Obtener información básica de estudiante", description = "Obtiene la información básica de un estudiante específico")
@@ -205,8 +234,7 @@ public class DecanateController {
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     public ResponseEntity<Integer> getPendingRequestsCount(@PathVariable String decanateName) throws SirhaException {
-        List<BaseRequest> requests = decanateService.getAllRequestsForDecanate(decanateName);
-        return ResponseEntity.ok(requests.size());
+        return ResponseEntity.ok(decanateService.countPendingRequests(decanateName));
     }
 
     @GetMapping("/{decanateName}/statistics/study-plans-count")
@@ -0,0 +1,88 @@
+package edu.dosw.sirha.sirha_backend.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobErrorDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.service.CohortEnrollmentService;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
+
+/**
+ * Controlador REST para la inscripción masiva de cohortes desde un archivo CSV.
+ *
+ * El archivo tiene una fila {@code codigo,materia,grupo} por inscripción (el encabezado
+ * es opcional). La carga devuelve el trabajo en cola; su avance y los errores por fila se
+ * consultan mientras corre.
+ *
+ * Los endpoints están mapeados bajo la ruta base "/api/enrollment-jobs".
+ *
+ * @see CohortEnrollmentService
+ */
+@RestController
+@RequestMapping("/api/enrollment-jobs")
+@Tag(name = "Enrollment jobs", description = "API para la inscripción masiva de cohortes")
+public class EnrollmentJobController {
+
+    private final CohortEnrollmentService cohortEnrollmentService;
+    private final PageLimits pageLimits;
+
+    public EnrollmentJobController(CohortEnrollmentService cohortEnrollmentService, PageLimits pageLimits) {
+        this.cohortEnrollmentService = cohortEnrollmentService;
+        this.pageLimits = pageLimits;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Iniciar inscripción masiva", description = "Recibe un CSV codigo,materia,grupo y lo procesa en segundo plano")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Trabajo en cola"),
+        @ApiResponse(responseCode = "400", description = "Archivo faltante"),
+        @ApiResponse(responseCode = "503", description = "No se pudo programar el trabajo")
+    })
+    public ResponseEntity<EnrollmentJobDTO> submit(@RequestParam("file") MultipartFile file) throws SirhaException, IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cohortEnrollmentService.submit(csv));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Consultar avance", description = "Filas leídas, inscritas y con error, y ritmo del trabajo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Avance del trabajo"),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    public ResponseEntity<EnrollmentJobDTO> getJob(@PathVariable String jobId) throws SirhaException {
+        return ResponseEntity.ok(cohortEnrollmentService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/errors")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Consultar errores por fila", description = "Filas que no se pudieron inscribir, en el orden en que se resolvieron")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de errores"),
+        @ApiResponse(responseCode = "400", description = "Desplazamiento o límite inválido"),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    public ResponseEntity<List<EnrollmentJobErrorDTO>> getErrors(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        return ResponseEntity.ok(cohortEnrollmentService.getErrors(jobId, offset, pageLimits.resolve(limit)));
+    }
+}
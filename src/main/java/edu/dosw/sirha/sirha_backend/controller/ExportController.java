@@ -0,0 +1,91 @@
+package edu.dosw.sirha.sirha_backend.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.ExportFormat;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
+import edu.dosw.sirha.sirha_backend.service.ExportService;
+
+/**
+ * Controlador REST para las exportaciones masivas de datos (cierre de período).
+ *
+ * Las respuestas se escriben en streaming mientras se recorre la colección, en NDJSON
+ * (un objeto por línea) o CSV, así que la memoria usada no depende de cuántos registros
+ * se exporten. Los filtros son opcionales y se aplican en el servidor.
+ *
+ * Los endpoints están mapeados bajo la ruta base "/api/exports".
+ *
+ * @see ExportService
+ */
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "Exports", description = "API para exportaciones masivas en NDJSON o CSV")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/students")
+    @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
+    @Operation(summary = "Exportar estudiantes", description = "Exporta los estudiantes, opcionalmente de una carrera")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Carrera o formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(required = false) Careers career,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("students", format, out -> exportService.exportStudents(career, format, out));
+    }
+
+    @GetMapping("/groups")
+    @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
+    @Operation(summary = "Exportar grupos", description = "Exporta los grupos con su ocupación, opcionalmente de un período académico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportGroups(
+            @RequestParam(required = false) String period,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("groups", format, out -> exportService.exportGroups(period, format, out));
+    }
+
+    @GetMapping("/requests")
+    @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
+    @Operation(summary = "Exportar solicitudes", description = "Exporta las solicitudes, opcionalmente por estado, carrera del estudiante y período académico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Estado, carrera o formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportRequests(
+            @RequestParam(required = false) RequestStateEnum state,
+            @RequestParam(required = false) Careers career,
+            @RequestParam(required = false) String period,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("requests", format, out -> exportService.exportRequests(state, career, period, format, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + "." + format.getExtension()).build().toString())
+                .body(body);
+    }
+}
@@ -7,12 +7,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.ResponseRequest;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.domain.port.RequestProcess;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import edu.dosw.sirha.sirha_backend.service.RequestService;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
 
 import java.util.List;
 import java.util.Optional;
@@ -43,20 +45,25 @@ import java.util.Optional;
 public class RequestController {
 
     private final RequestService requestService;
+    private final PageLimits pageLimits;
 
-    public RequestController(RequestService requestService) {
+    public RequestController(RequestService requestService, PageLimits pageLimits) {
         this.requestService = requestService;
+        this.pageLimits = pageLimits;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
-    @Operation(summary = "Obtener todas las solicitudes", description = "Retorna una lista completa de todas las solicitudes registradas en el sistema")
+    @Operation(summary = "Obtener todas las solicitudes", description = "Retorna las solicitudes registradas en el sistema, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de solicitudes obtenida exitosamente"),
+        @ApiResponse(responseCode = "200", description = "Página de solicitudes obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<BaseRequest>> getAll() throws SirhaException {
-        List<BaseRequest> requests = requestService.findAll();
+    public ResponseEntity<CursorPageDTO<BaseRequest>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<BaseRequest> requests = requestService.findAll(cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(requests);
     }
 
@@ -79,11 +86,13 @@ public class RequestController {
     @Operation(summary = "Buscar solicitudes por estado", description = "Obtiene todas las solicitudes que se encuentran en un estado específico")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Solicitudes filtradas por estado obtenidas exitosamente"),
-        @ApiResponse(responseCode = "400", description = "Estado inválido"),
+        @ApiResponse(responseCode = "400", description = "Estado, cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<BaseRequest>> getRequestsByStatus(@PathVariable RequestStateEnum status) throws SirhaException {
-        List<BaseRequest> requests = requestService.getByStatus(status);
+    public ResponseEntity<CursorPageDTO<BaseRequest>> getRequestsByStatus(@PathVariable RequestStateEnum status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<BaseRequest> requests = requestService.getByStatus(status, cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(requests);
     }
 
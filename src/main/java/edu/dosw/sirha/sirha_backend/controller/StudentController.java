@@ -14,20 +14,34 @@ import edu.dosw.sirha.sirha_backend.domain.model.CambioMateria;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DashboardSection;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentRequest;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO;
+import edu.dosw.sirha.sirha_backend.dto.CompatibleGroupDTO;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
+import edu.dosw.sirha.sirha_backend.dto.StudentDashboardDTO;
 import edu.dosw.sirha.sirha_backend.dto.SubjectDecoratorDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentReportDTO;
 import edu.dosw.sirha.sirha_backend.dto.RequestApprovalRateDTO;
+import edu.dosw.sirha.sirha_backend.dto.TimetablePlanDTO;
+import edu.dosw.sirha.sirha_backend.dto.WaitlistPositionDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import edu.dosw.sirha.sirha_backend.service.StudentService;
+import edu.dosw.sirha.sirha_backend.service.TimetableService;
+import edu.dosw.sirha.sirha_backend.service.WaitlistService;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
 import edu.dosw.sirha.sirha_backend.util.StudentMapper;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para la gestión de estudiantes en el sistema SIRHA.
@@ -55,23 +69,31 @@ import java.util.Map;
 public class StudentController {
 
     private final StudentService studentService;
+    private final PageLimits pageLimits;
+    private final TimetableService timetableService;
+    private final WaitlistService waitlistService;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, PageLimits pageLimits, TimetableService timetableService,
+                             WaitlistService waitlistService) {
         this.studentService = studentService;
+        this.pageLimits = pageLimits;
+        this.timetableService = timetableService;
+        this.waitlistService = waitlistService;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
-    @Operation(summary = "Obtener todos los estudiantes", description = "Retorna una lista completa de todos los estudiantes registrados en el sistema")
+    @Operation(summary = "Obtener todos los estudiantes", description = "Retorna los estudiantes registrados en el sistema, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de estudiantes obtenida exitosamente"),
+        @ApiResponse(responseCode = "200", description = "Página de estudiantes obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<StudentDTO>> getAll() throws SirhaException {
-        List<StudentDTO> students = studentService.findAll()
-                .stream()
-                .map(StudentMapper::toDTO)
-                .toList();
+    public ResponseEntity<CursorPageDTO<StudentDTO>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<StudentDTO> students = studentService.findAll(cursor, pageLimits.resolve(limit))
+                .map(StudentMapper::toDTO);
         return ResponseEntity.ok(students);
     }
 
@@ -250,6 +272,19 @@ public class StudentController {
         return ResponseEntity.ok(percentages);
     }
 
+    @GetMapping("/{username}/eligible-subjects")
+    @Operation(summary = "Obtener materias elegibles", description = "Obtiene las materias no cursadas cuyos prerrequisitos ya cumple el estudiante, en orden del plan de estudios")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Materias elegibles obtenidas exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("#username == authentication.name or hasAnyRole('DEAN','ADMIN')")
+    public ResponseEntity<List<SubjectDecoratorDTO>> getEligibleSubjects(@PathVariable String username) throws SirhaException {
+        List<SubjectDecoratorDTO> eligible = studentService.getEligibleSubjects(username);
+        return ResponseEntity.ok(eligible);
+    }
+
     @GetMapping("/{username}/basic-info")
     @Operation(summary = "Obtener información básica del estudiante", description = "Obtiene la información básica y esencial del estudiante")
     @ApiResponses(value = {
@@ -392,6 +427,74 @@ public class StudentController {
         return ResponseEntity.ok(approvalRate);
     }
 
+    @GetMapping("/{username}/dashboard")
+    @Operation(summary = "Obtener tablero del estudiante",
+               description = "Obtiene en una sola consulta el pensum, el horario actual, los indicadores y las solicitudes del estudiante. "
+                   + "Con fields (por ejemplo fields=pensum,schedule) se eligen las secciones: info, pensum, schedule, indicators, requests, request_stats")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tablero obtenido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Sección no válida en fields"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("#username == authentication.name or hasAnyRole('DEAN','ADMIN')")
+    public ResponseEntity<StudentDashboardDTO> getDashboard(@PathVariable String username,
+                                                            @RequestParam(required = false) List<String> fields) throws SirhaException {
+        StudentDashboardDTO dashboard = studentService.getDashboard(username, parseSections(fields));
+        return ResponseEntity.ok(dashboard);
+    }
+
+    @GetMapping("/{username}/timetables")
+    @Operation(summary = "Generar horarios sin cruces",
+               description = "Propone combinaciones de grupos abiertos, con cupos y sin cruces de horario para las materias indicadas "
+                   + "(por ejemplo subjects=Calculo,Fisica), ordenadas de mejor a peor. Las materias que no se pueden inscribir "
+                   + "se devuelven en excluded con el motivo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Horarios generados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Materias o límite no válidos, o período académico inactivo"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("#username == authentication.name or hasAnyRole('DEAN','ADMIN')")
+    public ResponseEntity<TimetablePlanDTO> generateTimetables(@PathVariable String username,
+                                                               @RequestParam List<String> subjects,
+                                                               @RequestParam(required = false) Integer limit) throws SirhaException {
+        return ResponseEntity.ok(timetableService.generate(username, subjects, limit));
+    }
+
+    @GetMapping("/{username}/compatible-groups")
+    @Operation(summary = "Grupos compatibles con el horario",
+               description = "Lista, en una sola consulta, los grupos abiertos de todas las materias del período actual "
+                   + "que no se cruzan con el horario que el estudiante ya tiene inscrito")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grupos obtenidos exitosamente"),
+        @ApiResponse(responseCode = "400", description = "El estudiante no tiene un período académico activo"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("#username == authentication.name or hasAnyRole('DEAN','ADMIN')")
+    public ResponseEntity<List<CompatibleGroupDTO>> getCompatibleGroups(@PathVariable String username) throws SirhaException {
+        return ResponseEntity.ok(timetableService.findCompatibleGroups(username));
+    }
+
+    private static Set<DashboardSection> parseSections(List<String> fields) throws SirhaException {
+        Set<DashboardSection> sections = EnumSet.noneOf(DashboardSection.class);
+        if (fields == null) {
+            return sections;
+        }
+        for (String field : fields) {
+            if (field == null || field.isBlank()) {
+                continue;
+            }
+            try {
+                sections.add(DashboardSection.valueOf(field.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+            } catch (IllegalArgumentException e) {
+                throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Sección del tablero no válida: " + field);
+            }
+        }
+        return sections;
+    }
+
     @GetMapping("/{username}/requests/approval-percentage")
     @Operation(summary = "Porcentaje de solicitudes aprobadas", description = "Obtiene el porcentaje de solicitudes aprobadas del estudiante")
     @ApiResponses(value = {
@@ -461,6 +564,24 @@ public class StudentController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{studentName}/enroll/batch")
+    @Operation(summary = "Inscribir varias materias",
+               description = "Inscribe varias materias en una sola operación. Valida todas juntas, incluidos los cruces "
+                   + "entre los grupos pedidos, y reserva los cupos en una sola escritura. Con mode=ALL_OR_NOTHING no se "
+                   + "inscribe ninguna si alguna falla; con BEST_EFFORT se inscriben las que se puedan")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultado por materia, en el orden de la solicitud"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "400", description = "Solicitud vacía, incompleta o con demasiadas materias"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("hasRole('STUDENT') and authentication.name == #studentName")
+    public ResponseEntity<BatchEnrollmentResultDTO> enrollSubjects(
+            @PathVariable String studentName,
+            @RequestBody BatchEnrollmentRequest request) throws SirhaException {
+        return ResponseEntity.ok(studentService.enrollSubjects(studentName, request));
+    }
+
     @DeleteMapping("/{studentName}/unenroll")
     @Operation(summary = "Desinscribir materia", description = "Desinscribe una materia de un grupo para el estudiante autenticado")
     @ApiResponses(value = {
@@ -477,4 +598,38 @@ public class StudentController {
         studentService.unenrollSubject(studentName, subjectName, groupCode);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/{studentName}/waitlist")
+    @Operation(summary = "Entrar a la lista de espera",
+               description = "Agrega al estudiante autenticado a la lista de espera de un grupo lleno. Cuando se libera "
+                   + "un cupo, el siguiente de la lista que cumpla las reglas de inscripción queda inscrito automáticamente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estudiante agregado, con su posición en la lista"),
+        @ApiResponse(responseCode = "404", description = "Estudiante, materia o grupo no encontrado"),
+        @ApiResponse(responseCode = "400", description = "El grupo tiene cupos, la lista está llena o el estudiante no puede inscribir el grupo"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("hasRole('STUDENT') and authentication.name == #studentName")
+    public ResponseEntity<WaitlistPositionDTO> joinWaitlist(
+            @PathVariable String studentName,
+            @RequestParam String subjectName,
+            @RequestParam String groupCode) throws SirhaException {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(studentName, subjectName, groupCode));
+    }
+
+    @DeleteMapping("/{studentName}/waitlist")
+    @Operation(summary = "Salir de la lista de espera", description = "Retira al estudiante autenticado de la lista de espera de un grupo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estudiante retirado de la lista"),
+        @ApiResponse(responseCode = "404", description = "Estudiante o grupo no encontrado"),
+        @ApiResponse(responseCode = "400", description = "El estudiante no está en la lista de espera"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PreAuthorize("hasRole('STUDENT') and authentication.name == #studentName")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable String studentName,
+            @RequestParam String groupCode) throws SirhaException {
+        waitlistService.leaveWaitlist(studentName, groupCode);
+        return ResponseEntity.ok().build();
+    }
 }
\ No newline at end of file
@@ -13,12 +13,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import edu.dosw.sirha.sirha_backend.util.GroupMapper;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
 import edu.dosw.sirha.sirha_backend.util.SubjectMapper;
 import edu.dosw.sirha.sirha_backend.domain.model.MustHaveApprovedSubject;
 import edu.dosw.sirha.sirha_backend.domain.model.Professor;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.GroupDTO;
 import edu.dosw.sirha.sirha_backend.dto.SubjectDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
@@ -52,20 +54,25 @@ import edu.dosw.sirha.sirha_backend.service.SubjectService;
 public class SubjectAndGroupController {
 
     private final SubjectService subjectService;
+    private final PageLimits pageLimits;
 
-    public SubjectAndGroupController(SubjectService subjectService) {
+    public SubjectAndGroupController(SubjectService subjectService, PageLimits pageLimits) {
         this.subjectService = subjectService;
+        this.pageLimits = pageLimits;
     }
         
     @GetMapping
     @PreAuthorize("hasAnyRole('STUDENT','DEAN','ADMIN')")
-    @Operation(summary = "Obtener todas las materias", description = "Retorna una lista de todas las materias disponibles")
+    @Operation(summary = "Obtener todas las materias", description = "Retorna las materias disponibles, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de materias obtenida exitosamente"),
+        @ApiResponse(responseCode = "200", description = "Página de materias obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<Subject>> findAllSubjects() {
-        List<Subject> subjects = subjectService.findAll();
+    public ResponseEntity<CursorPageDTO<Subject>> findAllSubjects(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<Subject> subjects = subjectService.findAll(cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(subjects);
     }
     
@@ -124,13 +131,16 @@ public class SubjectAndGroupController {
     
     @GetMapping("/groups")
     @PreAuthorize("hasAnyRole('STUDENT','DEAN','ADMIN')")
-    @Operation(summary = "Obtener todos los grupos", description = "Retorna una lista de todos los grupos disponibles")
+    @Operation(summary = "Obtener todos los grupos", description = "Retorna los grupos disponibles, por páginas; para la siguiente página envíe el nextCursor recibido")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de grupos obtenida exitosamente"),
+        @ApiResponse(responseCode = "200", description = "Página de grupos obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<Group>> findAllGroups() throws SirhaException {
-        List<Group> groups = subjectService.findAllGroups();
+    public ResponseEntity<CursorPageDTO<Group>> findAllGroups(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws SirhaException {
+        CursorPageDTO<Group> groups = subjectService.findAllGroups(cursor, pageLimits.resolve(limit));
         return ResponseEntity.ok(groups);
     }
     
@@ -295,6 +305,22 @@ public class SubjectAndGroupController {
         return ResponseEntity.ok(isFull);
     }
 
+    @GetMapping("/groups/{groupId}/roster")
+    @PreAuthorize("hasAnyRole('DEAN','ADMIN')")
+    @Operation(summary = "Obtener grupo con roster paginado", description = "Obtiene el grupo con una página de los códigos estudiantiles inscritos, en orden de inscripción")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grupo obtenido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Página o tamaño de página inválido"),
+        @ApiResponse(responseCode = "404", description = "Grupo no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<GroupDTO> getGroupRoster(@PathVariable String groupId,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "" + GroupMapper.DEFAULT_ROSTER_PAGE_SIZE) int size) throws SirhaException {
+        Group group = subjectService.getGroupById(groupId);
+        return ResponseEntity.ok(GroupMapper.toDTO(group, page, size));
+    }
+
     @GetMapping("/groups/{groupId}/available-seats")
     @PreAuthorize("hasAnyRole('STUDENT','DEAN','ADMIN')")
     @Operation(summary = "Obtener cupos disponibles", description = "Obtiene el número de cupos disponibles en un grupo")
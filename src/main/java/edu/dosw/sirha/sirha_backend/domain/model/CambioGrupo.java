@@ -1,10 +1,13 @@
 package edu.dosw.sirha.sirha_backend.domain.model;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
 public class CambioGrupo extends BaseRequest {
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Subject subject;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Group newGroup;
 
     public CambioGrupo(Student student, Subject subject, Group newGroup, AcademicPeriod currentPeriod) {
@@ -1,12 +1,16 @@
 package edu.dosw.sirha.sirha_backend.domain.model;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
 public class CambioMateria extends BaseRequest {
 
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Subject oldSubject;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Subject newSubject;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Group newGroup;
 
     public CambioMateria(Student student, Subject oldSubject, Subject newSubject, Group newGroup, AcademicPeriod currentPeriod) {
@@ -1,8 +1,13 @@
 package edu.dosw.sirha.sirha_backend.domain.model;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
@@ -13,14 +18,32 @@ import edu.dosw.sirha.sirha_backend.dto.ResponseRequest;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
+/**
+ * Decanatura de una carrera: recibe y resuelve las solicitudes de sus estudiantes.
+ *
+ * Las solicitudes en revisión se atienden con una {@link RequestPriorityQueue}; la lista
+ * {@code receivedRequests} que se persiste es el montículo de esa cola, así que al resolver
+ * una solicitud solo se mueven O(log n) posiciones y no se reescribe la prioridad de las demás.
+ *
+ * La cola completa se guarda con cada cambio, por eso el documento lleva {@code version}: dos
+ * decisiones simultáneas sobre la misma decanatura no pueden perder una a la otra.
+ */
 @Document("decanaturas")
 public class Decanate implements RequestReceiver {
+    /** Espera que equivale a un nivel de urgencia de una solicitud. */
+    public static final Duration AGING_STEP = Duration.ofDays(1);
+
     @Id
     private String id;
     private String name;
     private Careers career;
     private List<StudyPlan> studyPlans;
     private List<BaseRequest> receivedRequests;
+    private long requestSequence;
+    @Version
+    private Long version;
+    @Transient
+    private RequestPriorityQueue queue;
 
     public Decanate() {
         this.receivedRequests = new ArrayList<>();
@@ -68,6 +91,14 @@ public class Decanate implements RequestReceiver {
 
     @Override
     public void receiveRequest(BaseRequest request) throws SirhaException {
+        receiveRequest(request, Instant.now());
+    }
+
+    /**
+     * Recibe la solicitud como si hubiera llegado en el instante indicado; útil para
+     * cargar solicitudes históricas conservando su antigüedad en la cola.
+     */
+    public void receiveRequest(BaseRequest request, Instant receivedAt) throws SirhaException {
         if (request == null) {
             throw SirhaException.of(ErrorCodeSirha.VALIDATION_ERROR);
         }
@@ -77,67 +108,118 @@ public class Decanate implements RequestReceiver {
                 "Esta decanatura no puede recibir solicitudes de la carrera: %s", 
                 request.getStudentCareer());
         }
-        
-        setAutoPrioritie(request);
-        
-        receivedRequests.add(request);
+
+        RequestPriorityQueue pending = queue();
+        request.markReceived(receivedAt, ++requestSequence);
+        pending.add(request);
 
         request.reviewRequest(new ResponseRequest("Solicitud recibida por la decanatura " + this.name, RequestStateEnum.EN_REVISION));
     }
 
-    private void setAutoPrioritie(BaseRequest request) { //FIFO??
-        int priority = receivedRequests.size() + 1;
-        request.setPriority(priority);
+    /**
+     * Cola de solicitudes sobre la lista persistida. Se reconstruye si la lista fue
+     * reemplazada (por ejemplo, al materializar desde Mongo); las solicitudes guardadas
+     * antes de existir la cola conservan su orden de llegada.
+     */
+    private RequestPriorityQueue queue() {
+        if (queue == null || !queue.isBackedBy(receivedRequests)) {
+            if (receivedRequests == null) {
+                receivedRequests = new ArrayList<>();
+            }
+            for (BaseRequest legacy : receivedRequests) {
+                if (legacy.getReceivedAt() == null) {
+                    legacy.markReceived(Instant.EPOCH, ++requestSequence);
+                }
+            }
+            queue = new RequestPriorityQueue(receivedRequests, AGING_STEP);
+        }
+        return queue;
     }
 
     @Override
     public List<BaseRequest> getPendingRequests() {
-        return receivedRequests.stream()
+        return queue().ordered().stream()
             .filter(req -> req.getActualState() == RequestStateEnum.EN_REVISION || req.getActualState() == RequestStateEnum.PENDIENTE)
             .toList();
     }
 
+    /**
+     * Clave de prioridad de una solicitud en la cola de esta decanatura; ver
+     * {@link RequestPriorityQueue#priorityKey(BaseRequest)}.
+     */
+    public long priorityKey(BaseRequest request) {
+        return queue().priorityKey(request);
+    }
+
+    /**
+     * Solicitudes pendientes en orden de llegada. A diferencia del orden de prioridad,
+     * que cambia con la antigüedad, este orden es estable y sirve para paginar.
+     */
+    public List<BaseRequest> getPendingRequestsByArrival() {
+        return getPendingRequests().stream()
+            .sorted(Comparator.comparingLong(BaseRequest::getQueueSequence))
+            .toList();
+    }
+
     @Override
     public void approveRequest(BaseRequest request) throws SirhaException {
         if (request == null) {
             throw SirhaException.of(ErrorCodeSirha.VALIDATION_ERROR, "La solicitud no puede ser nula");
         }
 
-        if (!receivedRequests.contains(request)) {
+        if (!queue().contains(request)) {
             throw SirhaException.of(ErrorCodeSirha.REQUEST_NOT_FOUND, "La solicitud no se encontró.");
         }
 
         request.approveRequest(new ResponseRequest("Solicitud aprobada por la decanatura " + this.name, RequestStateEnum.APROBADA));
 
-        receivedRequests.remove(request);
-        updateRequestsAfterResolveOne();
+        queue().remove(request);
     }
     public String getId() {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public void rejectRequest(BaseRequest request) throws SirhaException {
         if (request == null) {
             throw SirhaException.of(ErrorCodeSirha.VALIDATION_ERROR, "La solicitud no puede ser nula");
         }
 
-        if (!receivedRequests.contains(request)) {
+        if (!queue().contains(request)) {
             throw SirhaException.of(ErrorCodeSirha.REQUEST_NOT_FOUND, "La solicitud no se encontró.");
         }
 
         request.rejectRequest(new ResponseRequest("Solicitud rechazada por la decanatura " + this.name, RequestStateEnum.RECHAZADA));
-        receivedRequests.remove(request);
-        updateRequestsAfterResolveOne();
+        queue().remove(request);
     }
 
     @Override
-    public void updateRequestsAfterResolveOne() {
-        
-        List<BaseRequest> pendingRequests = getPendingRequests();
-        for (int i = 0; i < pendingRequests.size(); i++) {
-            BaseRequest req = pendingRequests.get(i);
-            req.setPriority(i + 1);
+    public void reprioritizeRequest(BaseRequest request, int urgency) throws SirhaException {
+        if (request == null) {
+            throw SirhaException.of(ErrorCodeSirha.VALIDATION_ERROR, "La solicitud no puede ser nula");
+        }
+        if (urgency < 0) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "La urgencia no puede ser negativa");
         }
+        BaseRequest stored = queue().get(request);
+        if (stored == null) {
+            throw SirhaException.of(ErrorCodeSirha.REQUEST_NOT_FOUND, "La solicitud no se encontró.");
+        }
+        // La solicitud en cola se reubica sola al cambiar su urgencia
+        stored.setUrgency(urgency);
+        if (stored != request) {
+            request.setUrgency(urgency);
+        }
+    }
+
+    /**
+     * @return la siguiente solicitud a atender, o null si no hay solicitudes en la cola
+     */
+    public BaseRequest peekNextRequest() {
+        return queue().peek();
     }
-}
\ No newline at end of file
+}
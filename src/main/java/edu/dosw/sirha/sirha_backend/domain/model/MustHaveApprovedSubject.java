@@ -14,5 +14,9 @@ public class MustHaveApprovedSubject implements PrerequisiteRule {
     public boolean canEnroll(Subject subject, AcademicProgress progress) {
         return progress.isSubjectApproved(requiredSubject.getName());
     }
+
+    public Subject getRequiredSubject() {
+        return requiredSubject;
+    }
     
 }
@@ -0,0 +1,224 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.dosw.sirha.sirha_backend.domain.port.PrerequisiteRule;
+
+/**
+ * Grafo de prerrequisitos compilado a partir de un plan de estudios.
+ *
+ * Cada materia del plan recibe un ordinal denso, asignado en orden topológico
+ * (los prerrequisitos antes que las materias que los exigen). Los requisitos de cada
+ * materia se guardan como un conjunto de bits sobre esos ordinales, de modo que, dado
+ * el conjunto de materias aprobadas de un estudiante en el mismo formato, saber si
+ * puede inscribir una materia es una comparación de máscaras.
+ *
+ * Solo las reglas {@link MustHaveApprovedSubject} sobre materias del plan se compilan.
+ * Una materia con cualquier otra regla (o que exige una materia fuera del plan) queda
+ * marcada como opaca y se evalúa con sus reglas originales, así el resultado coincide
+ * siempre con {@link Subject#evaluateRules(edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress)}.
+ *
+ * El orden topológico y la detección de ciclos se calculan una sola vez al compilar.
+ * Las instancias son inmutables.
+ */
+public final class PrerequisiteGraph {
+
+    private static final PrerequisiteGraph EMPTY = compile(Collections.emptyMap());
+
+    private final List<String> order;
+    private final Map<String, Integer> ordinals;
+    private final long[][] requirements;
+    private final int[] ruleCounts;
+    private final boolean[] opaque;
+    private final List<String> cycle;
+
+    private PrerequisiteGraph(List<String> order, Map<String, Integer> ordinals, long[][] requirements,
+            int[] ruleCounts, boolean[] opaque, List<String> cycle) {
+        this.order = order;
+        this.ordinals = ordinals;
+        this.requirements = requirements;
+        this.ruleCounts = ruleCounts;
+        this.opaque = opaque;
+        this.cycle = cycle;
+    }
+
+    public static PrerequisiteGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compila las materias de un plan (indexadas por nombre).
+     */
+    public static PrerequisiteGraph compile(Map<String, Subject> subjects) {
+        // Orden por nombre para que los ordinales sean deterministas
+        Map<String, Subject> byName = new TreeMap<>(subjects);
+        Map<String, List<String>> dependents = new HashMap<>();
+        Map<String, Integer> pending = new HashMap<>();
+        for (Map.Entry<String, Subject> entry : byName.entrySet()) {
+            int inPlan = 0;
+            for (String required : requiredNames(entry.getValue())) {
+                if (byName.containsKey(required)) {
+                    dependents.computeIfAbsent(required, k -> new ArrayList<>()).add(entry.getKey());
+                    inPlan++;
+                }
+            }
+            pending.put(entry.getKey(), inPlan);
+        }
+
+        // Kahn: lo que no alcanza grado cero forma parte de un ciclo o depende de uno
+        List<String> order = new ArrayList<>(byName.size());
+        Deque<String> ready = new ArrayDeque<>();
+        for (String name : byName.keySet()) {
+            if (pending.get(name) == 0) {
+                ready.add(name);
+            }
+        }
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(name);
+            for (String dependent : dependents.getOrDefault(name, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        List<String> cycle = new ArrayList<>();
+        for (String name : byName.keySet()) {
+            if (pending.get(name) > 0) {
+                cycle.add(name);
+            }
+        }
+        order.addAll(cycle);
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            ordinals.put(order.get(i), i);
+        }
+        int words = wordsFor(order.size());
+        long[][] requirements = new long[order.size()][];
+        int[] ruleCounts = new int[order.size()];
+        boolean[] opaque = new boolean[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            Subject subject = byName.get(order.get(i));
+            long[] mask = new long[words];
+            List<PrerequisiteRule> rules = subject.getPrerequisites();
+            ruleCounts[i] = rules == null ? 0 : rules.size();
+            if (rules != null) {
+                for (PrerequisiteRule rule : rules) {
+                    Integer required = rule instanceof MustHaveApprovedSubject must && must.getRequiredSubject() != null
+                            ? ordinals.get(must.getRequiredSubject().getName())
+                            : null;
+                    if (required == null) {
+                        opaque[i] = true;
+                    } else {
+                        mask[required >>> 6] |= 1L << required;
+                    }
+                }
+            }
+            requirements[i] = mask;
+        }
+        return new PrerequisiteGraph(Collections.unmodifiableList(order), ordinals, requirements,
+                ruleCounts, opaque, Collections.unmodifiableList(cycle));
+    }
+
+    private static List<String> requiredNames(Subject subject) {
+        List<String> names = new ArrayList<>();
+        if (subject.getPrerequisites() != null) {
+            for (PrerequisiteRule rule : subject.getPrerequisites()) {
+                if (rule instanceof MustHaveApprovedSubject must && must.getRequiredSubject() != null) {
+                    names.add(must.getRequiredSubject().getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    static int wordsFor(int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Crea un conjunto de bits vacío del tamaño del grafo.
+     */
+    public long[] newMask() {
+        return new long[wordsFor(order.size())];
+    }
+
+    public int size() {
+        return order.size();
+    }
+
+    /**
+     * @return el ordinal de la materia o -1 si no pertenece al plan compilado
+     */
+    public int ordinal(String subjectName) {
+        Integer ordinal = subjectName == null ? null : ordinals.get(subjectName);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String nameOf(int ordinal) {
+        return order.get(ordinal);
+    }
+
+    /**
+     * Materias en orden topológico; las que participan en un ciclo van al final.
+     */
+    public List<String> getTopologicalOrder() {
+        return order;
+    }
+
+    public boolean hasCycle() {
+        return !cycle.isEmpty();
+    }
+
+    /**
+     * Materias que forman parte de un ciclo de prerrequisitos o dependen de uno.
+     */
+    public List<String> getCycle() {
+        return cycle;
+    }
+
+    /**
+     * @return true si la materia tiene reglas que no se pueden expresar como máscara
+     */
+    public boolean isOpaque(int ordinal) {
+        return opaque[ordinal];
+    }
+
+    /**
+     * Número de reglas con las que se compiló la materia; permite detectar que una copia
+     * de la materia cambió sus prerrequisitos después de compilar el plan.
+     */
+    public int ruleCount(int ordinal) {
+        return ruleCounts[ordinal];
+    }
+
+    /**
+     * Verifica que todos los prerrequisitos compilados de la materia estén en el conjunto aprobado.
+     * No considera las reglas opacas; ver {@link #isOpaque(int)}.
+     */
+    public boolean isSatisfiedBy(int ordinal, long[] approved) {
+        long[] required = requirements[ordinal];
+        for (int w = 0; w < required.length; w++) {
+            if ((required[w] & ~approved[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void set(long[] mask, int ordinal, boolean value) {
+        if (value) {
+            mask[ordinal >>> 6] |= 1L << ordinal;
+        } else {
+            mask[ordinal >>> 6] &= ~(1L << ordinal);
+        }
+    }
+}
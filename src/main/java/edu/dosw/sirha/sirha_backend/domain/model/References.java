@@ -0,0 +1,47 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+
+/**
+ * Utilidades para las referencias entre documentos ({@code @DocumentReference}).
+ *
+ * El estudiante, su progreso por materia y sus solicitudes guardan solo el id de
+ * los documentos relacionados (plan, materias, grupos, solicitudes, estudiante), como
+ * {@code {_id: ...}}, y los resuelven de forma perezosa la primera vez que se usan.
+ */
+public final class References {
+
+    /**
+     * Búsqueda por el {@code _id} guardado en la referencia. El formato anterior, con el
+     * documento referenciado embebido, también tiene {@code _id}, así que los documentos
+     * que la migración aún no ha normalizado se siguen leyendo.
+     */
+    public static final String BY_ID = "{ '_id' : ?#{_id} }";
+
+    private References() {
+    }
+
+    /**
+     * Id del documento referenciado sin resolver la referencia si aún es perezosa.
+     *
+     * @param reference valor de la referencia (puede ser un proxy perezoso)
+     * @param id cómo obtener el id cuando el objeto ya está en memoria
+     * @return id del documento referenciado, o null si no hay referencia
+     */
+    public static <T> String idOf(T reference, Function<T, String> id) {
+        if (reference == null) {
+            return null;
+        }
+        if (reference instanceof LazyLoadingProxy proxy) {
+            Object source = proxy.getSource();
+            if (source instanceof Document embedded) {
+                source = embedded.get("_id");
+            }
+            return source == null ? null : source.toString();
+        }
+        return id.apply(reference);
+    }
+}
@@ -0,0 +1,247 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+
+/**
+ * Cola de prioridad indexada de las solicitudes recibidas por una decanatura.
+ *
+ * Es un montículo binario guardado sobre la misma lista que se persiste en la
+ * decanatura, con un índice de posiciones para ubicar cualquier solicitud en O(1).
+ * Insertar, resolver (quitar) y cambiar la urgencia de una solicitud cuestan O(log n).
+ *
+ * La clave de cada solicitud es su instante de recepción menos un adelanto por urgencia
+ * ({@code urgencia * agingStep}). Como la clave no depende del momento en que se consulta,
+ * el envejecimiento es implícito: una solicitud antigua de baja urgencia termina por
+ * superar a una nueva más urgente cuando su espera excede la diferencia de adelantos.
+ * Los empates se resuelven por orden de llegada.
+ *
+ * La prioridad que ve cada solicitud es su posición en la cola y se calcula al
+ * consultarla, de modo que resolver una solicitud no modifica las demás. El montículo no
+ * da posiciones: el orden completo se obtiene ordenando una copia, O(n log n), la primera
+ * vez que se consulta tras un cambio. Hasta el siguiente cambio, {@link #rankOf} y
+ * {@link #ordered()} reutilizan ese orden y cuestan O(1).
+ */
+public final class RequestPriorityQueue {
+
+    private final List<BaseRequest> heap;
+    private final long agingStepMillis;
+    private final Map<BaseRequest, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, BaseRequest> byId = new HashMap<>();
+    private final Comparator<BaseRequest> order;
+
+    private long modifications;
+    private long rankedAt = -1;
+    private List<BaseRequest> ranking = List.of();
+    private Map<BaseRequest, Integer> ranks = new IdentityHashMap<>();
+
+    /**
+     * Construye la cola sobre la lista dada, reordenándola como montículo si hace falta.
+     *
+     * @param heap lista persistida de solicitudes; la cola la modifica en su lugar
+     * @param agingStep espera equivalente a un nivel de urgencia
+     */
+    public RequestPriorityQueue(List<BaseRequest> heap, Duration agingStep) {
+        this.heap = heap;
+        this.agingStepMillis = agingStep.toMillis();
+        this.order = Comparator.comparingLong(this::key).thenComparingLong(BaseRequest::getQueueSequence);
+        for (int i = 0; i < heap.size(); i++) {
+            index(heap.get(i), i);
+        }
+        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * @return true si la cola opera sobre esa lista (y no sobre una reemplazada al materializar)
+     */
+    public boolean isBackedBy(List<BaseRequest> list) {
+        return heap == list;
+    }
+
+    /**
+     * Clave de orden de la solicitud: menor se atiende antes; empata con la secuencia de
+     * llegada. Junto con esa secuencia sirve de cursor estable para paginar la cola.
+     */
+    public long priorityKey(BaseRequest request) {
+        return key(request);
+    }
+
+    private long key(BaseRequest request) {
+        long received = request.getReceivedAt() == null ? 0 : request.getReceivedAt().toEpochMilli();
+        return received - request.getUrgency() * agingStepMillis;
+    }
+
+    public void add(BaseRequest request) {
+        heap.add(request);
+        index(request, heap.size() - 1);
+        siftUp(heap.size() - 1);
+        modifications++;
+    }
+
+    /**
+     * Quita la solicitud (o la copia guardada con el mismo id).
+     *
+     * @return la solicitud que estaba en la cola, o null si no estaba
+     */
+    public BaseRequest remove(BaseRequest request) {
+        BaseRequest stored = find(request);
+        if (stored == null) {
+            return null;
+        }
+        int position = positions.remove(stored);
+        if (stored.getId() != null) {
+            byId.remove(stored.getId());
+        }
+        stored.detachFromQueue(this);
+        BaseRequest last = heap.remove(heap.size() - 1);
+        if (position < heap.size()) {
+            heap.set(position, last);
+            positions.put(last, position);
+            if (!siftUp(position)) {
+                siftDown(position);
+            }
+        }
+        modifications++;
+        return stored;
+    }
+
+    /**
+     * Reubica la solicitud tras un cambio en su urgencia.
+     */
+    public void update(BaseRequest request) {
+        BaseRequest stored = find(request);
+        if (stored == null) {
+            return;
+        }
+        int position = positions.get(stored);
+        if (!siftUp(position)) {
+            siftDown(position);
+        }
+        modifications++;
+    }
+
+    public boolean contains(BaseRequest request) {
+        return find(request) != null;
+    }
+
+    /**
+     * @return la instancia guardada en la cola para la solicitud (o su id), o null
+     */
+    public BaseRequest get(BaseRequest request) {
+        return find(request);
+    }
+
+    private BaseRequest find(BaseRequest request) {
+        if (request == null) {
+            return null;
+        }
+        if (positions.containsKey(request)) {
+            return request;
+        }
+        return request.getId() == null ? null : byId.get(request.getId());
+    }
+
+    /**
+     * @return la solicitud con mayor prioridad, o null si la cola está vacía
+     */
+    public BaseRequest peek() {
+        return heap.isEmpty() ? null : heap.get(0);
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Posición de la solicitud en la cola, empezando en 1; 0 si no está en la cola.
+     */
+    public int rankOf(BaseRequest request) {
+        BaseRequest stored = find(request);
+        if (stored == null) {
+            return 0;
+        }
+        rank();
+        return ranks.get(stored);
+    }
+
+    /**
+     * @return las solicitudes en orden de atención, como lista no modificable que se
+     *         conserva hasta el siguiente cambio en la cola
+     */
+    public List<BaseRequest> ordered() {
+        rank();
+        return ranking;
+    }
+
+    /** Recalcula el orden y las posiciones si la cola cambió desde el último cálculo. */
+    private void rank() {
+        if (rankedAt == modifications) {
+            return;
+        }
+        List<BaseRequest> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        Map<BaseRequest, Integer> computed = new IdentityHashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            computed.put(sorted.get(i), i + 1);
+        }
+        ranking = Collections.unmodifiableList(sorted);
+        ranks = computed;
+        rankedAt = modifications;
+    }
+
+    private void index(BaseRequest request, int position) {
+        positions.put(request, position);
+        if (request.getId() != null) {
+            byId.put(request.getId(), request);
+        }
+        request.attachToQueue(this);
+    }
+
+    private boolean siftUp(int position) {
+        int start = position;
+        BaseRequest moving = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (order.compare(moving, heap.get(parent)) >= 0) {
+                break;
+            }
+            place(heap.get(parent), position);
+            position = parent;
+        }
+        place(moving, position);
+        return position != start;
+    }
+
+    private void siftDown(int position) {
+        BaseRequest moving = heap.get(position);
+        int half = heap.size() >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < heap.size() && order.compare(heap.get(right), heap.get(child)) < 0) {
+                child = right;
+            }
+            if (order.compare(moving, heap.get(child)) <= 0) {
+                break;
+            }
+            place(heap.get(child), position);
+            position = child;
+        }
+        place(moving, position);
+    }
+
+    private void place(BaseRequest request, int position) {
+        heap.set(position, request);
+        positions.put(request, position);
+    }
+}
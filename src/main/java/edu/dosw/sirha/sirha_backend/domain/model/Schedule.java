@@ -57,6 +57,16 @@ public class Schedule {
         return this.startHour.isBefore(other.endHour) && other.startHour.isBefore(this.endHour);
     }
 
+    /**
+     * Máscara de franjas de {@link WeeklyTimetable#SLOT_MINUTES} minutos que ocupa
+     * este horario dentro de su día.
+     *
+     * @return bits encendidos por cada franja tocada por el horario.
+     */
+    public long getSlotMask() {
+        return WeeklyTimetable.slotMask(this);
+    }
+
     /**
      * Obtiene la hora de fin del horario.
      *
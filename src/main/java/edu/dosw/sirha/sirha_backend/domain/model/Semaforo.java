@@ -2,11 +2,16 @@ package edu.dosw.sirha.sirha_backend.domain.model;
 
 import java.util.*;
 
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
+
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
 import edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress;
+import edu.dosw.sirha.sirha_backend.domain.port.ColorChangeListener;
 import edu.dosw.sirha.sirha_backend.dto.AcademicIndicatorsDTO;
 import edu.dosw.sirha.sirha_backend.dto.SubjectDecoratorDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
@@ -15,11 +20,51 @@ import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 /**
  * Implementación del progreso académico que mantiene el estado de las materias
  * de un estudiante mediante un sistema de semáforo por colores.
+ *
+ * Los conteos y créditos por color se mantienen de forma incremental: cada
+ * {@link SubjectDecorator} avisa sus cambios de color y el semáforo ajusta el
+ * acumulado, por lo que los indicadores se leen en O(1). Los acumulados no se
+ * persisten; se reconstruyen en el primer acceso tras cargar el documento.
+ *
+ * De la misma forma se mantiene el conjunto de materias aprobadas como máscara de bits
+ * sobre los ordinales del {@link PrerequisiteGraph} del plan, lo que permite evaluar
+ * prerrequisitos con una comparación de máscaras.
+ *
+ * El plan de estudios se guarda como referencia a {@code study_plans} y se resuelve
+ * la primera vez que se consulta.
  */
 public class Semaforo implements AcademicProgress {
     private Map<String, SubjectDecorator> subjects;
-    private final StudyPlan studyPlan;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
+    private StudyPlan studyPlan;
     private AcademicPeriod currentPeriod;
+    @Transient
+    private EnumMap<SemaforoColores, ColorTally> tallies;
+    @Transient
+    private Map<String, SubjectDecorator> talliedSubjects; // mapa sobre el que se calcularon los acumulados
+    @Transient
+    private final ColorChangeListener tallyListener = this::onColorChange;
+    @Transient
+    private long[] approvedMask;
+    @Transient
+    private PrerequisiteGraph maskGraph; // grafo sobre cuyos ordinales se construyó la máscara
+    @Transient
+    private Map<String, SubjectDecorator> maskSubjects;
+
+    /** Cantidad de materias y créditos de un color. */
+    private static final class ColorTally {
+        private int subjects;
+        private int credits;
+    }
+
+    /**
+     * Constructor usado al leer desde Mongo: las materias se cargan del documento,
+     * sin resolver el plan para recrearlas.
+     */
+    @PersistenceCreator
+    private Semaforo() {
+        this.subjects = new HashMap<>();
+    }
 
     public Semaforo(StudyPlan studyPlan) throws SirhaException {
         this.subjects = new HashMap<>();
@@ -36,6 +81,78 @@ public class Semaforo implements AcademicProgress {
     }
 }
 
+    /**
+     * Obtiene los acumulados por color, reconstruyéndolos si aún no existen o si el
+     * mapa de materias fue reemplazado (por ejemplo, al materializar desde Mongo).
+     */
+    private EnumMap<SemaforoColores, ColorTally> tallies() {
+        if (tallies == null || talliedSubjects != subjects) {
+            recountTallies();
+        }
+        return tallies;
+    }
+
+    private void recountTallies() {
+        EnumMap<SemaforoColores, ColorTally> fresh = new EnumMap<>(SemaforoColores.class);
+        for (SemaforoColores color : SemaforoColores.values()) {
+            fresh.put(color, new ColorTally());
+        }
+        for (SubjectDecorator sd : subjects.values()) {
+            sd.setColorListener(tallyListener);
+            if (sd.getEstadoColor() != null) {
+                ColorTally tally = fresh.get(sd.getEstadoColor());
+                tally.subjects++;
+                tally.credits += sd.getCredits();
+            }
+        }
+        tallies = fresh;
+        talliedSubjects = subjects;
+    }
+
+    /**
+     * Obtiene la máscara de materias aprobadas para el grafo actual del plan,
+     * reconstruyéndola si el grafo se recompiló o el mapa de materias fue reemplazado.
+     */
+    private long[] approvedMask(PrerequisiteGraph graph) {
+        if (approvedMask == null || maskGraph != graph || maskSubjects != subjects) {
+            tallies(); // asegura que las materias notifican sus cambios de color
+            long[] mask = graph.newMask();
+            for (SubjectDecorator sd : subjects.values()) {
+                int ordinal = graph.ordinal(sd.getName());
+                if (ordinal >= 0 && sd.getEstadoColor() == SemaforoColores.VERDE) {
+                    PrerequisiteGraph.set(mask, ordinal, true);
+                }
+            }
+            approvedMask = mask;
+            maskGraph = graph;
+            maskSubjects = subjects;
+        }
+        return approvedMask;
+    }
+
+    private void onColorChange(SubjectDecorator materia, SemaforoColores anterior, SemaforoColores nuevo) {
+        if (approvedMask != null && maskSubjects == subjects) {
+            int ordinal = maskGraph.ordinal(materia.getName());
+            if (ordinal >= 0) {
+                PrerequisiteGraph.set(approvedMask, ordinal, nuevo == SemaforoColores.VERDE);
+            }
+        }
+        if (tallies == null || talliedSubjects != subjects) {
+            // Se recalcula completo en el próximo acceso
+            return;
+        }
+        if (anterior != null) {
+            ColorTally tally = tallies.get(anterior);
+            tally.subjects--;
+            tally.credits -= materia.getCredits();
+        }
+        if (nuevo != null) {
+            ColorTally tally = tallies.get(nuevo);
+            tally.subjects++;
+            tally.credits += materia.getCredits();
+        }
+    }
+
     public Collection<SubjectDecorator> getSubjects() {
         return subjects.values();
     }
@@ -75,25 +192,22 @@ public class Semaforo implements AcademicProgress {
     }
 
     public int getPassedSubjectsCount() {
-        return getPassedSubjects().size();
+        return getSubjectsByColorCount(SemaforoColores.VERDE);
     }
     public int getSubjectsInProgressCount() {
-        return getSubjectsInProgress().size();
+        return getSubjectsByColorCount(SemaforoColores.AMARILLO);
     }
     public int getFailedSubjectsCount() {
-        return getFailedSubjects().size();
+        return getSubjectsByColorCount(SemaforoColores.ROJO);
     }
     public int getSubjectsNotTakenCount() {
-        return getSubjectsNotTaken().size();
+        return getSubjectsByColorCount(SemaforoColores.GRIS);
     }
     public int getTotalSubjectsCount() {
         return subjects.size();
     }
     public int getCreditsByColor(SemaforoColores color) {
-        return subjects.values().stream()
-            .filter(s -> s.getEstadoColor() == color)
-            .mapToInt(SubjectDecorator::getCredits)
-            .sum();
+        return tallies().get(color).credits;
     }
     
     @Override
@@ -112,6 +226,34 @@ public class Semaforo implements AcademicProgress {
         return subjects.containsKey(subject.getName());
     }
 
+    @Override
+    public boolean meetsPrerequisites(Subject subject) {
+        PrerequisiteGraph graph = studyPlan.getPrerequisiteGraph();
+        return meetsPrerequisites(graph, graph.ordinal(subject.getName()), subject);
+    }
+
+    private boolean meetsPrerequisites(PrerequisiteGraph graph, int ordinal, Subject subject) {
+        // Si la materia no es la del plan compilado (o cambió sus reglas) se evalúan las reglas
+        if (ordinal < 0 || graph.isOpaque(ordinal) || graph.ruleCount(ordinal) != subject.getPrerequisites().size()) {
+            return subject.evaluateRules(this);
+        }
+        return graph.isSatisfiedBy(ordinal, approvedMask(graph));
+    }
+
+    @Override
+    public List<SubjectDecorator> getEligibleSubjects() {
+        PrerequisiteGraph graph = studyPlan.getPrerequisiteGraph();
+        List<SubjectDecorator> eligible = new ArrayList<>();
+        for (int ordinal = 0; ordinal < graph.size(); ordinal++) {
+            SubjectDecorator sd = subjects.get(graph.nameOf(ordinal));
+            if (sd != null && sd.getEstadoColor() == SemaforoColores.GRIS
+                    && meetsPrerequisites(graph, ordinal, sd.getSubject())) {
+                eligible.add(sd);
+            }
+        }
+        return eligible;
+    }
+
     @Override
     public Careers getCareer() {
         return studyPlan.getCareer();
@@ -248,10 +390,9 @@ public class Semaforo implements AcademicProgress {
 
         if (totalSubjects == 0) {return porcentajes;}
 
-        porcentajes.put(SemaforoColores.VERDE, (getSubjectsByColorCount(SemaforoColores.VERDE) / (double) totalSubjects) * 100);
-        porcentajes.put(SemaforoColores.AMARILLO, (getSubjectsByColorCount(SemaforoColores.AMARILLO) / (double) totalSubjects) * 100);
-        porcentajes.put(SemaforoColores.ROJO, (getSubjectsByColorCount(SemaforoColores.ROJO) / (double) totalSubjects) * 100);
-        porcentajes.put(SemaforoColores.GRIS, (getSubjectsByColorCount(SemaforoColores.GRIS) / (double) totalSubjects) * 100);
+        for (Map.Entry<SemaforoColores, ColorTally> entry : tallies().entrySet()) {
+            porcentajes.put(entry.getKey(), (entry.getValue().subjects / (double) totalSubjects) * 100);
+        }
 
 
         return porcentajes;
@@ -372,9 +513,7 @@ public class Semaforo implements AcademicProgress {
 
     @Override
     public int getSubjectsByColorCount(SemaforoColores color) {
-        return (int) subjects.values().stream()
-            .filter(s -> s.getEstadoColor() == color)
-            .count();
+        return tallies().get(color).subjects;
     }
 
     @Override
@@ -6,7 +6,10 @@ import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
@@ -39,12 +42,20 @@ import edu.dosw.sirha.sirha_backend.exception.SirhaException;
  * principales (inscripciones, cambios de grupo, solicitudes) se realizan en
  * torno a esta entidad.
  *
+ * Las solicitudes se guardan en la colección {@code requests} y el estudiante solo
+ * conserva sus ids; la lista se resuelve con una sola consulta al primer uso.
+ *
+ * {@code version} detecta escrituras concurrentes: guardar una copia leída antes de otro
+ * cambio falla con {@code OptimisticLockingFailureException} en lugar de pisarlo.
  */
 @Document(collection = "students")
 public class Student extends User implements SolicitudFactory, ScheduleManager, AcademicProgressViewer, AcademicOperations, RequestManager {
     private String codigo;
     private AcademicProgress academicProgress;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private List<BaseRequest> solicitudes;
+    @Version
+    private Long version;
     
  
     public Student() {
@@ -84,11 +95,12 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
 
     @Override
     public void removeRequest(BaseRequest solicitud) throws SirhaException {
-        if (!this.solicitudes.contains(solicitud)) {
+        // La solicitud puede venir de otra lectura: se compara también por id
+        boolean removed = this.solicitudes.removeIf(s -> s == solicitud
+                || (s.getId() != null && s.getId().equals(solicitud.getId())));
+        if (!removed) {
             throw SirhaException.of(ErrorCodeSirha.REQUEST_NOT_FOUND, "La solicitud no existe en la lista del estudiante");
         }
-
-        this.solicitudes.remove(solicitud);
     }
 
     /**
@@ -98,6 +110,14 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
     public String getCodigo() {
         return codigo;
     }
+
+    /**
+     * Versión del documento, que Mongo incrementa en cada escritura.
+     * @return versión leída, o null si el estudiante aún no se ha guardado
+     */
+    public Long getVersion() {
+        return version;
+    }
  
     /**
      * Establece el código estudiantil.
@@ -241,18 +261,25 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
         if (nuevoGrupo == null || academicProgress == null) {
             return false;
         }
+        return getOccupancy().conflictsWith(nuevoGrupo.getTimetable());
+    }
 
+    /**
+     * Ocupación semanal agregada de los grupos de las materias en curso.
+     *
+     * @return máscara de franjas ocupadas por el estudiante
+     */
+    @JsonIgnore
+    public WeeklyTimetable getOccupancy() {
+        if (academicProgress == null) {
+            return WeeklyTimetable.empty();
+        }
+        List<WeeklyTimetable> ocupados = new ArrayList<>();
         for (SubjectDecorator materia : getSubjectsInProgress()) {
-            try {
-                Group g = materia.getGroup();
-                if (g != null && g.conflictoConHorario(nuevoGrupo)) {
-                    return true;
-                }
-            } catch (SirhaException e) {
-                // materia sin grupo asignado -> no puede haber conflicto, saltar
-            }
+            // materia sin grupo asignado -> no aporta horarios
+            materia.findGroup().ifPresent(g -> ocupados.add(g.getTimetable()));
         }
-        return false;
+        return WeeklyTimetable.merge(ocupados);
     }
     
     
@@ -374,6 +401,25 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
             throw SirhaException.of(ErrorCodeSirha.GROUP_CLOSED, "El grupo está cerrado");
         }
         
+        checkGroupFitsCurrentPeriod(group);
+        
+        // 9. Verificar límite de créditos por semestre FALTA IMPLEMENTAR AAAAAAAAAAAAAAAAAAA
+
+        return true;
+    }
+
+    /**
+     * Valida que el estudiante pueda esperar o recibir un cupo retenido del grupo: las
+     * mismas reglas de {@link #canEnrollInGroup(Subject, Group)} salvo que el grupo esté
+     * abierto, porque un grupo con lista de espera sigue cerrado.
+     */
+    public boolean canTakeWaitlistedSeat(Subject subject, Group group) throws SirhaException {
+        canEnroll(subject);
+        checkGroupFitsCurrentPeriod(group);
+        return true;
+    }
+
+    private void checkGroupFitsCurrentPeriod(Group group) throws SirhaException {
         // 6. Verificar período académico activo
         AcademicPeriod currentPeriod = getCurrentPeriod();
         if (currentPeriod == null || !currentPeriod.isActive() || !group.sameAcademicPeriod(currentPeriod)) {
@@ -384,10 +430,6 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
         if (hasScheduleConflictWith(group)) {
             throw SirhaException.of(ErrorCodeSirha.SCHEDULE_CONFLICT, "Conflicto de horarios detectado");
         }
-        
-        // 9. Verificar límite de créditos por semestre FALTA IMPLEMENTAR AAAAAAAAAAAAAAAAAAA
-
-        return true;
     }
 
     public void enrollSubject(Subject subject, Group group) throws SirhaException {
@@ -406,16 +448,39 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
 
     }
 
+    /**
+     * Registra en el progreso académico una inscripción cuyo cupo ya fue reservado
+     * de forma atómica en el grupo (ver {@code SeatReservationService}).
+     *
+     * @param subject materia inscrita
+     * @param reservedGroup grupo devuelto por la reserva, que ya contiene al estudiante
+     * @throws SirhaException si el grupo no tiene reservado el cupo del estudiante
+     */
+    public void confirmEnrollment(Subject subject, Group reservedGroup) throws SirhaException {
+        if (!reservedGroup.contieneEstudiante(this)) {
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_NOT_IN_GROUP, "El grupo no tiene un cupo reservado para el estudiante");
+        }
+        academicProgress.enrollSubjectInGroup(subject, reservedGroup);
+    }
+
     @Override
     public void unenrollSubject(Subject subject, Group group) throws SirhaException {
+        withdrawSubject(subject, group);
+        group.unenrollStudent(this);
+        
+    }
+
+    /**
+     * Retira la materia del progreso académico sin tocar el roster del grupo. El cupo
+     * se libera aparte, de forma atómica, por quien persiste el cambio.
+     */
+    public void withdrawSubject(Subject subject, Group group) throws SirhaException {
         AcademicPeriod currentPeriod = getCurrentPeriod();
         if (currentPeriod == null || !currentPeriod.isActive() || !group.sameAcademicPeriod(currentPeriod)) {
             throw SirhaException.of(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_VALID, "El período académico no es válido para el grupo especificado");
         }
-        
+
         academicProgress.unenrollSubjectFromGroup(subject.getName(), group);
-        group.unenrollStudent(this);
-        
     }
 
     @Override
@@ -548,6 +613,24 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
         return academicProgress.getAcademicPensum();
     }
 
+    /**
+     * Materias que el estudiante puede inscribir: no cursadas y con los prerrequisitos cumplidos.
+     * @return materias elegibles en orden topológico del plan de estudios
+     */
+    @Override
+    @JsonIgnore
+    public List<SubjectDecoratorDTO> getEligibleSubjects() {
+        if (academicProgress == null) {
+            return new ArrayList<>();
+        }
+        List<SubjectDecoratorDTO> eligible = new ArrayList<>();
+        for (SubjectDecorator sd : academicProgress.getEligibleSubjects()) {
+            eligible.add(new SubjectDecoratorDTO(sd.getId(), sd.getName(), sd.getCredits(),
+                    sd.getSemester(), sd.getEstadoColor(), sd.getGrade()));
+        }
+        return eligible;
+    }
+
 
     @Override
     public Map<SemaforoColores, Double> getPercentageByColor() {
@@ -661,18 +744,20 @@ public class Student extends User implements SolicitudFactory, ScheduleManager,
         if (solicitudes.isEmpty()) {
             return new RequestApprovalRateDTO(0, 0, 0, 0, 0);
         }
-        int totalRequests = getTotalRequestsMade();
-        int approvedRequests = getTotalApprovedRequests();
-        int rejectedRequests = getTotalRejectedRequests();
-        int pendingRequests = getTotalPendingRequests();
-        int inReviewRequests = getTotalInReviewRequests();
+        // Un solo recorrido de las solicitudes para todos los conteos
+        int[] byState = new int[RequestStateEnum.values().length];
+        for (BaseRequest solicitud : solicitudes) {
+            if (solicitud.getActualState() != null) {
+                byState[solicitud.getActualState().ordinal()]++;
+            }
+        }
 
         return new RequestApprovalRateDTO(
-            totalRequests,
-            approvedRequests,
-            rejectedRequests,
-            pendingRequests,
-            inReviewRequests
+            getTotalRequestsMade(),
+            byState[RequestStateEnum.APROBADA.ordinal()],
+            byState[RequestStateEnum.RECHAZADA.ordinal()],
+            byState[RequestStateEnum.PENDIENTE.ordinal()],
+            byState[RequestStateEnum.EN_REVISION.ordinal()]
         );
     }
 
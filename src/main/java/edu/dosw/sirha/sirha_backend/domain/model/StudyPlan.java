@@ -2,9 +2,21 @@ package edu.dosw.sirha.sirha_backend.domain.model;
 import java.util.*;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
+/**
+ * Plan de estudios de una carrera.
+ *
+ * Los prerrequisitos de sus materias se compilan en un {@link PrerequisiteGraph} que se
+ * guarda en memoria y solo se recompila cuando cambian las materias del plan o sus reglas.
+ */
 @Document(collection = "study_plans")
 public class StudyPlan {
     @Id
@@ -12,6 +24,12 @@ public class StudyPlan {
     private String name;
     private Careers career;
     private Map<String, Subject> subjects;
+    @Transient
+    private PrerequisiteGraph prerequisiteGraph;
+    @Transient
+    private long compiledVersion;
+    @Transient
+    private int compiledSize;
 
 
     public StudyPlan(Careers career) {
@@ -31,13 +49,57 @@ public class StudyPlan {
 
     public void addSubject(Subject m) {
         subjects.put(m.getName(), m);
+        prerequisiteGraph = null;
         calculateTotalCredits();
     }
 
+    /**
+     * Obtiene el grafo de prerrequisitos compilado, recompilándolo si las materias o sus
+     * reglas cambiaron desde la última compilación.
+     *
+     * La versión del plan es la suma de las versiones de prerrequisitos de sus materias.
+     * Cada una solo sube, así que cualquier cambio de reglas cambia la suma, y como viajan
+     * en los documentos una réplica que lee el plan ve también los cambios de las demás.
+     */
+    @JsonIgnore
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        long version = prerequisitesVersion();
+        PrerequisiteGraph graph = prerequisiteGraph;
+        if (graph == null || compiledVersion != version || compiledSize != subjects.size()) {
+            graph = subjects.isEmpty() ? PrerequisiteGraph.empty() : PrerequisiteGraph.compile(subjects);
+            prerequisiteGraph = graph;
+            compiledVersion = version;
+            compiledSize = subjects.size();
+        }
+        return graph;
+    }
+
+    private long prerequisitesVersion() {
+        long version = 0;
+        for (Subject subject : subjects.values()) {
+            version += subject.getPrerequisitesVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Verifica que los prerrequisitos del plan no formen ciclos.
+     * @throws SirhaException si alguna materia depende, directa o indirectamente, de sí misma
+     */
+    public void validatePrerequisites() throws SirhaException {
+        PrerequisiteGraph graph = getPrerequisiteGraph();
+        if (graph.hasCycle()) {
+            throw SirhaException.of(ErrorCodeSirha.PREREQUISITE_CYCLE,
+                    "Ciclo de prerrequisitos en el plan " + name + ": " + graph.getCycle());
+        }
+    }
+
     public Map<String, Subject> getSubjects() {
         return subjects;
     }
 
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
     public String getName() { return name; }
     
     public boolean hasSubject(Subject subject) {
@@ -6,6 +6,8 @@ import java.util.Objects;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress;
 import edu.dosw.sirha.sirha_backend.domain.port.PrerequisiteRule;
@@ -27,6 +29,8 @@ public class Subject {
     private int credits;
     private List<Group> groups;
     private List<PrerequisiteRule> prerequisites;
+    // Sube con cada cambio de prerrequisitos y se guarda con la materia; los planes lo usan para saber si deben recompilar su grafo
+    private long prerequisitesVersion;
 
     public Subject() {
         this.groups = new ArrayList<>();
@@ -112,7 +116,10 @@ public class Subject {
         this.credits = credits;
     }
 
-    public void setPrerequisites(List<PrerequisiteRule> prerequisites) {this.prerequisites = prerequisites;}
+    public void setPrerequisites(List<PrerequisiteRule> prerequisites) {
+        this.prerequisites = prerequisites;
+        prerequisitesVersion++;
+    }
     public void setGroups(List<Group> groups) {this.groups = groups;}
 
     public String getId() {return id;}
@@ -122,14 +129,31 @@ public class Subject {
     public void deleteGroups() {this.groups.clear();}
     public int getCredits() {return credits;}
 
+    /**
+     * Verifica los prerrequisitos de la materia contra el progreso del estudiante.
+     * El progreso puede resolverlo con el grafo compilado de su plan de estudios.
+     */
     public boolean canEnroll(AcademicProgress progress) {
         if (prerequisites.isEmpty()) {
             return true;
         }
+        return progress.meetsPrerequisites(this);
+    }
+
+    /**
+     * Evalúa una por una las reglas de prerrequisito, sin usar el grafo compilado.
+     */
+    public boolean evaluateRules(AcademicProgress progress) {
         return prerequisites.stream().allMatch(rule -> rule.canEnroll(this, progress));
     }
     public boolean hasPrerequisites() {return !prerequisites.isEmpty();}
-    public void addPrerequisite(PrerequisiteRule prerequisite) {this.prerequisites.add(prerequisite);}
+    public void addPrerequisite(PrerequisiteRule prerequisite) {
+        this.prerequisites.add(prerequisite);
+        prerequisitesVersion++;
+    }
+
+    @JsonIgnore
+    public long getPrerequisitesVersion() {return prerequisitesVersion;}
 
 
     @Override
@@ -137,8 +161,9 @@ public class Subject {
         if (this == o) return true;
         if (!(o instanceof Subject)) return false;
         Subject subject = (Subject) o;
-        return this.id.equals(subject.id) && this.name.equals(subject.name)
-                && this.credits == subject.credits;
+        // getters: la otra materia puede ser una referencia perezosa (proxy)
+        return this.id.equals(subject.getId()) && this.name.equals(subject.getName())
+                && this.credits == subject.getCredits();
     }
 
     @Override
@@ -2,6 +2,7 @@ package edu.dosw.sirha.sirha_backend.domain.model;
 
 import java.time.LocalDateTime;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.port.SubjectStateProcess;
@@ -12,6 +13,7 @@ public class SubjectProgress implements SubjectStateProcess {
     private SemaforoColores state;
     private LocalDateTime creadoEn;
     private int semestre;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Group group;
     private int grade;
 
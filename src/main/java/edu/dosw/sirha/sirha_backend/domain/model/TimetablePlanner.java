@@ -0,0 +1,366 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+
+/**
+ * Genera horarios sin cruces a partir de los grupos candidatos de varias materias.
+ *
+ * La búsqueda es un backtracking que asigna un grupo (o ninguno) a cada materia, empezando
+ * por las materias con menos grupos. Una rama se descarta si, aun asignando todas las
+ * materias que faltan, no alcanza la cobertura del mejor horario encontrado hasta el
+ * momento; por eso solo se devuelven los horarios con la máxima cobertura posible.
+ * Los cruces entre grupos se precalculan una vez con {@link WeeklyTimetable}.
+ *
+ * Si el espacio de búsqueda supera {@code parallelThreshold} combinaciones, las primeras
+ * materias se reparten en tareas fork/join que comparten la cobertura máxima. La búsqueda
+ * se corta al agotar {@code timeBudget} y el resultado queda marcado como truncado.
+ *
+ * Los horarios se ordenan por cobertura (descendente), días con clase, minutos libres
+ * entre clases del mismo día y cupos del grupo más lleno (descendente). Las métricas
+ * incluyen la ocupación que el estudiante ya tiene.
+ */
+public final class TimetablePlanner {
+
+    private static final DiasSemana[] DAYS = DiasSemana.values();
+
+    static final Comparator<Plan> RANKING = Comparator.comparingInt(Plan::coverage).reversed()
+            .thenComparingInt(Plan::days)
+            .thenComparingInt(Plan::gapMinutes)
+            .thenComparing(Comparator.comparingInt(Plan::minSeats).reversed())
+            .thenComparing(Plan::key);
+
+    private final int maxPlans;
+    private final Duration timeBudget;
+    private final long parallelThreshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param maxPlans          número máximo de horarios a devolver
+     * @param timeBudget        tiempo máximo de búsqueda
+     * @param parallelThreshold combinaciones a partir de las cuales se reparte la búsqueda
+     * @param pool              pool fork/join para las búsquedas grandes
+     */
+    public TimetablePlanner(int maxPlans, Duration timeBudget, long parallelThreshold, ForkJoinPool pool) {
+        if (maxPlans < 1) {
+            throw new IllegalArgumentException("maxPlans debe ser positivo: " + maxPlans);
+        }
+        this.maxPlans = maxPlans;
+        this.timeBudget = timeBudget;
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        this.pool = pool;
+    }
+
+    /** Grupos entre los que se puede elegir para una materia. */
+    public record Candidates(String subject, List<Group> groups) {
+    }
+
+    /** Grupo elegido para una materia. */
+    public record Assignment(String subject, Group group) {
+    }
+
+    /**
+     * Horario generado.
+     *
+     * @param assignments grupos elegidos, en el orden en que se pidieron las materias
+     * @param unassigned  materias que no caben en este horario
+     * @param days        días de la semana con alguna clase
+     * @param gapMinutes  minutos libres entre la primera y la última clase de cada día
+     * @param minSeats    cupos disponibles del grupo elegido con menos cupos
+     */
+    public record Plan(List<Assignment> assignments, List<String> unassigned, int days, int gapMinutes, int minSeats) {
+
+        public int coverage() {
+            return assignments.size();
+        }
+
+        String key() {
+            StringBuilder key = new StringBuilder();
+            for (Assignment a : assignments) {
+                key.append(a.group().getCode()).append('|');
+            }
+            return key.toString();
+        }
+    }
+
+    /**
+     * @param plans     mejores horarios, ya ordenados
+     * @param truncated true si se agotó el tiempo antes de recorrer todo el espacio
+     * @param explored  nodos visitados por la búsqueda
+     */
+    public record Result(List<Plan> plans, boolean truncated, long explored) {
+    }
+
+    /**
+     * Busca los mejores horarios.
+     *
+     * @param occupied  ocupación actual del estudiante; los candidatos ya deben ser compatibles con ella
+     * @param requested candidatos por materia, en el orden pedido por el estudiante
+     */
+    public Result plan(WeeklyTimetable occupied, List<Candidates> requested) {
+        Search search = new Search(occupied, requested, System.nanoTime() + timeBudget.toNanos());
+        TopPlans top;
+        if (search.remaining(0) > parallelThreshold) {
+            top = pool.invoke(new SearchTask(search, 0, search.emptyChoice(), 0));
+        } else {
+            top = new TopPlans(maxPlans);
+            search.explore(0, search.emptyChoice(), 0, top);
+        }
+        int best = search.best.get();
+        List<Plan> plans = new ArrayList<>();
+        for (Plan p : top.plans) {
+            if (p.coverage() == best) {
+                plans.add(p);
+            }
+        }
+        plans.sort(RANKING);
+        return new Result(List.copyOf(plans), search.truncated.get(), search.explored.sum());
+    }
+
+    /** Estado compartido de una búsqueda: candidatos ordenados, cruces y mejor cobertura. */
+    private final class Search {
+
+        private final int n;
+        private final String[] subjects;
+        private final int[] requestOrder;
+        private final Group[][] options;
+        private final int[] offsets;
+        private final boolean[][] conflicts;
+        private final long[][] dayMasks;
+        private final long[] occupiedMasks;
+        private final long[] remaining;
+        private final long deadline;
+
+        final AtomicInteger best = new AtomicInteger(1);
+        final AtomicBoolean truncated = new AtomicBoolean();
+        final LongAdder explored = new LongAdder();
+
+        Search(WeeklyTimetable occupied, List<Candidates> requested, long deadline) {
+            this.deadline = deadline;
+            // Primero las materias con menos grupos: las ramas sin salida se cortan antes
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < requested.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparingInt(i -> requested.get(i).groups().size()));
+            n = order.size();
+            subjects = new String[n];
+            requestOrder = new int[n];
+            options = new Group[n][];
+            offsets = new int[n + 1];
+            for (int d = 0; d < n; d++) {
+                Candidates c = requested.get(order.get(d));
+                subjects[d] = c.subject();
+                requestOrder[d] = order.get(d);
+                options[d] = c.groups().toArray(new Group[0]);
+                offsets[d + 1] = offsets[d] + options[d].length;
+            }
+            int total = offsets[n];
+            Group[] all = new Group[total];
+            int[] owner = new int[total];
+            for (int d = 0; d < n; d++) {
+                for (int i = 0; i < options[d].length; i++) {
+                    all[offsets[d] + i] = options[d][i];
+                    owner[offsets[d] + i] = d;
+                }
+            }
+            conflicts = new boolean[total][total];
+            dayMasks = new long[total][];
+            for (int a = 0; a < total; a++) {
+                WeeklyTimetable ta = all[a].getTimetable();
+                dayMasks[a] = masks(ta);
+                for (int b = a + 1; b < total; b++) {
+                    if (owner[a] != owner[b] && ta.conflictsWith(all[b].getTimetable())) {
+                        conflicts[a][b] = true;
+                        conflicts[b][a] = true;
+                    }
+                }
+            }
+            occupiedMasks = masks(occupied);
+            remaining = new long[n + 1];
+            remaining[n] = 1;
+            for (int d = n - 1; d >= 0; d--) {
+                remaining[d] = saturatedMultiply(remaining[d + 1], options[d].length + 1L);
+            }
+        }
+
+        int[] emptyChoice() {
+            return new int[n];
+        }
+
+        long remaining(int depth) {
+            return remaining[depth];
+        }
+
+        /**
+         * Visita un nodo y decide si la rama sigue. {@code chosen[d]} es el índice del grupo
+         * elegido para la materia {@code d}, o -1 si se omitió.
+         */
+        boolean visit(int depth, int covered) {
+            explored.increment();
+            if (System.nanoTime() - deadline >= 0) {
+                truncated.set(true);
+                return false;
+            }
+            return covered + (n - depth) >= best.get();
+        }
+
+        boolean compatible(int depth, int option, int[] chosen) {
+            boolean[] row = conflicts[offsets[depth] + option];
+            for (int d = 0; d < depth; d++) {
+                if (chosen[d] >= 0 && row[offsets[d] + chosen[d]]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void explore(int depth, int[] chosen, int covered, TopPlans out) {
+            if (!visit(depth, covered)) {
+                return;
+            }
+            if (depth == n) {
+                best.accumulateAndGet(covered, Math::max);
+                out.offer(toPlan(chosen));
+                return;
+            }
+            for (int i = 0; i < options[depth].length; i++) {
+                if (compatible(depth, i, chosen)) {
+                    chosen[depth] = i;
+                    explore(depth + 1, chosen, covered + 1, out);
+                }
+            }
+            chosen[depth] = -1;
+            explore(depth + 1, chosen, covered, out);
+        }
+
+        private Plan toPlan(int[] chosen) {
+            Assignment[] byRequest = new Assignment[n];
+            List<String> unassigned = new ArrayList<>();
+            long[] week = occupiedMasks.clone();
+            int minSeats = Integer.MAX_VALUE;
+            for (int d = 0; d < n; d++) {
+                if (chosen[d] < 0) {
+                    unassigned.add(subjects[d]);
+                    continue;
+                }
+                Group g = options[d][chosen[d]];
+                byRequest[requestOrder[d]] = new Assignment(subjects[d], g);
+                long[] masks = dayMasks[offsets[d] + chosen[d]];
+                for (int day = 0; day < week.length; day++) {
+                    week[day] |= masks[day];
+                }
+                minSeats = Math.min(minSeats, g.getCuposDisponibles());
+            }
+            List<Assignment> assignments = new ArrayList<>();
+            for (Assignment a : byRequest) {
+                if (a != null) {
+                    assignments.add(a);
+                }
+            }
+            int days = 0;
+            int gapSlots = 0;
+            for (long mask : week) {
+                if (mask != 0) {
+                    days++;
+                    int span = Long.SIZE - Long.numberOfLeadingZeros(mask) - Long.numberOfTrailingZeros(mask);
+                    gapSlots += span - Long.bitCount(mask);
+                }
+            }
+            return new Plan(List.copyOf(assignments), List.copyOf(unassigned), days,
+                    gapSlots * WeeklyTimetable.SLOT_MINUTES, minSeats == Integer.MAX_VALUE ? 0 : minSeats);
+        }
+    }
+
+    /** Reparte las opciones de un nivel en subtareas mientras el subárbol siga siendo grande. */
+    private final class SearchTask extends RecursiveTask<TopPlans> {
+
+        private final transient Search search;
+        private final int depth;
+        private final int[] chosen;
+        private final int covered;
+
+        SearchTask(Search search, int depth, int[] chosen, int covered) {
+            this.search = search;
+            this.depth = depth;
+            this.chosen = chosen;
+            this.covered = covered;
+        }
+
+        @Override
+        protected TopPlans compute() {
+            TopPlans out = new TopPlans(maxPlans);
+            if (depth == search.n || search.remaining(depth) <= parallelThreshold) {
+                search.explore(depth, chosen, covered, out);
+                return out;
+            }
+            if (!search.visit(depth, covered)) {
+                return out;
+            }
+            List<SearchTask> tasks = new ArrayList<>();
+            for (int i = 0; i < search.options[depth].length; i++) {
+                if (search.compatible(depth, i, chosen)) {
+                    int[] next = chosen.clone();
+                    next[depth] = i;
+                    tasks.add(new SearchTask(search, depth + 1, next, covered + 1));
+                }
+            }
+            int[] skip = chosen.clone();
+            skip[depth] = -1;
+            tasks.add(new SearchTask(search, depth + 1, skip, covered));
+            for (SearchTask task : invokeAll(tasks)) {
+                out.addAll(task.join());
+            }
+            return out;
+        }
+    }
+
+    /** Los mejores horarios vistos por una tarea; el peor queda en la cabeza para descartarlo. */
+    private static final class TopPlans {
+
+        private final int capacity;
+        private final PriorityQueue<Plan> plans = new PriorityQueue<>(RANKING.reversed());
+
+        TopPlans(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(Plan plan) {
+            plans.add(plan);
+            if (plans.size() > capacity) {
+                plans.poll();
+            }
+        }
+
+        void addAll(TopPlans other) {
+            for (Plan plan : other.plans) {
+                offer(plan);
+            }
+        }
+    }
+
+    private static long[] masks(WeeklyTimetable timetable) {
+        long[] masks = new long[DAYS.length];
+        for (DiasSemana day : DAYS) {
+            masks[day.ordinal()] = timetable.getDayMask(day);
+        }
+        return masks;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return high != 0 || low < 0 ? Long.MAX_VALUE : low;
+    }
+}
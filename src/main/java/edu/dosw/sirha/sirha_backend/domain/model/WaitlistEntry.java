@@ -0,0 +1,77 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Estudiante en la lista de espera de un grupo lleno.
+ *
+ * Se guarda embebido en el documento del grupo, junto al roster, para que la actualización
+ * atómica que libera un cupo pueda retenerlo para la lista en la misma escritura.
+ * La prioridad se calcula al entrar a la lista (ver
+ * {@link edu.dosw.sirha.sirha_backend.domain.model.enums.WaitlistPriority}) y no cambia después.
+ */
+public class WaitlistEntry {
+
+    /** Orden de promoción: mayor prioridad primero y, a igual prioridad, el que llegó antes. */
+    public static final Comparator<WaitlistEntry> PROMOTION_ORDER = Comparator
+            .comparingInt(WaitlistEntry::getPriority).reversed()
+            .thenComparing(WaitlistEntry::getJoinedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaitlistEntry::getCodigo, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private String codigo;
+    private String username;
+    private String subjectName;
+    private int priority;
+    private Instant joinedAt;
+
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(String codigo, String username, String subjectName, int priority, Instant joinedAt) {
+        this.codigo = codigo;
+        this.username = username;
+        this.subjectName = subjectName;
+        this.priority = priority;
+        this.joinedAt = joinedAt;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /** Materia que el estudiante quiere inscribir con el cupo del grupo. */
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public Instant getJoinedAt() {
+        return joinedAt;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof WaitlistEntry other)) return false;
+        return Objects.equals(codigo, other.codigo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(codigo);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WaitlistEntry{codigo='%s', materia='%s', prioridad=%d}", codigo, subjectName, priority);
+    }
+}
@@ -0,0 +1,173 @@
+package edu.dosw.sirha.sirha_backend.domain.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+
+/**
+ * Representación compacta de la ocupación semanal de un conjunto de horarios.
+ *
+ * Cada día se modela como un {@code long} en el que el bit {@code i} indica que la
+ * franja de {@value #SLOT_MINUTES} minutos número {@code i} está (total o parcialmente)
+ * ocupada. Con 48 franjas por día, detectar un conflicto entre dos horarios semanales
+ * son siete operaciones AND.
+ *
+ * Las franjas son una aproximación por exceso: si ninguna franja coincide, no hay
+ * solapamiento. Si coinciden y todos los horarios están alineados a franjas completas,
+ * el solapamiento es seguro. Solo cuando hay horas no alineadas (por ejemplo 9:10) se
+ * confirma el resultado con {@link Schedule#overlapsWith(Schedule)} para los días
+ * afectados, de modo que el resultado coincide siempre con la comparación exacta.
+ *
+ * Las instancias son inmutables.
+ */
+public final class WeeklyTimetable {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final long SLOT_NANOS = SLOT_MINUTES * 60L * 1_000_000_000L;
+    private static final DiasSemana[] DAYS = DiasSemana.values();
+    private static final WeeklyTimetable EMPTY = new WeeklyTimetable(new long[DAYS.length], true, List.of());
+
+    private final long[] days;
+    private final boolean aligned;
+    private final List<Schedule> schedules;
+
+    private WeeklyTimetable(long[] days, boolean aligned, List<Schedule> schedules) {
+        this.days = days;
+        this.aligned = aligned;
+        this.schedules = schedules;
+    }
+
+    public static WeeklyTimetable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construye la ocupación de una colección de horarios.
+     */
+    public static WeeklyTimetable of(Iterable<Schedule> horarios) {
+        if (horarios == null) {
+            return EMPTY;
+        }
+        long[] days = new long[DAYS.length];
+        boolean aligned = true;
+        List<Schedule> list = new ArrayList<>();
+        for (Schedule s : horarios) {
+            days[s.getDay().ordinal()] |= slotMask(s);
+            aligned &= isSlotAligned(s);
+            list.add(s);
+        }
+        return list.isEmpty() ? EMPTY : new WeeklyTimetable(days, aligned, Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Une varias ocupaciones en una sola (por ejemplo, todos los grupos en curso de un estudiante).
+     */
+    public static WeeklyTimetable merge(Iterable<WeeklyTimetable> timetables) {
+        long[] days = new long[DAYS.length];
+        boolean aligned = true;
+        List<Schedule> list = new ArrayList<>();
+        for (WeeklyTimetable t : timetables) {
+            if (t.isEmpty()) {
+                continue;
+            }
+            for (int d = 0; d < days.length; d++) {
+                days[d] |= t.days[d];
+            }
+            aligned &= t.aligned;
+            list.addAll(t.schedules);
+        }
+        return list.isEmpty() ? EMPTY : new WeeklyTimetable(days, aligned, Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Máscara de franjas que ocupa un horario dentro de su día.
+     */
+    public static long slotMask(Schedule s) {
+        int from = (int) (s.getStartHour().toNanoOfDay() / SLOT_NANOS);
+        int to = (int) ((s.getEndHour().toNanoOfDay() + SLOT_NANOS - 1) / SLOT_NANOS);
+        long upper = to >= Long.SIZE ? -1L : (1L << to) - 1;
+        return upper & (-1L << from);
+    }
+
+    /**
+     * Indica si el horario empieza y termina exactamente en límites de franja.
+     */
+    public static boolean isSlotAligned(Schedule s) {
+        return s.getStartHour().toNanoOfDay() % SLOT_NANOS == 0
+                && s.getEndHour().toNanoOfDay() % SLOT_NANOS == 0;
+    }
+
+    public boolean isEmpty() {
+        return schedules.isEmpty();
+    }
+
+    /**
+     * @return true si todos los horarios están alineados a franjas, es decir, la máscara es exacta
+     */
+    public boolean isAligned() {
+        return aligned;
+    }
+
+    public long getDayMask(DiasSemana day) {
+        return days[day.ordinal()];
+    }
+
+    public List<Schedule> getSchedules() {
+        return schedules;
+    }
+
+    /**
+     * Verifica si algún horario de esta ocupación se solapa con alguno de la otra.
+     */
+    public boolean conflictsWith(WeeklyTimetable other) {
+        if (other == null || isEmpty() || other.isEmpty()) {
+            return false;
+        }
+        boolean exact = aligned && other.aligned;
+        for (int d = 0; d < days.length; d++) {
+            if ((days[d] & other.days[d]) != 0 && (exact || overlapsOn(DAYS[d], other.schedules))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica si un horario se solapa con alguno de esta ocupación.
+     */
+    public boolean conflictsWith(Schedule horario) {
+        if (horario == null || isEmpty()) {
+            return false;
+        }
+        if ((days[horario.getDay().ordinal()] & slotMask(horario)) == 0) {
+            return false;
+        }
+        if (aligned && isSlotAligned(horario)) {
+            return true;
+        }
+        for (Schedule s : schedules) {
+            if (s.overlapsWith(horario)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean overlapsOn(DiasSemana day, List<Schedule> others) {
+        for (Schedule mine : schedules) {
+            if (mine.getDay() != day) {
+                continue;
+            }
+            for (Schedule theirs : others) {
+                if (mine.overlapsWith(theirs)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package edu.dosw.sirha.sirha_backend.domain.model.enums;
+
+/**
+ * Qué hacer cuando algunas materias de una inscripción en lote no se pueden inscribir.
+ */
+public enum BatchEnrollmentMode {
+    ALL_OR_NOTHING,  // si una falla no se inscribe ninguna
+    BEST_EFFORT      // se inscriben las que pasan la validación y tienen cupo
+}
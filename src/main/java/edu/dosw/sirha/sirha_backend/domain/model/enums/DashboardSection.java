@@ -0,0 +1,13 @@
+package edu.dosw.sirha.sirha_backend.domain.model.enums;
+
+/**
+ * Secciones del tablero del estudiante que el cliente puede pedir con {@code fields}.
+ */
+public enum DashboardSection {
+    INFO,          // datos básicos del estudiante
+    PENSUM,        // materias agrupadas por color del semáforo
+    SCHEDULE,      // horario del período actual
+    INDICATORS,    // indicadores académicos y porcentajes por color
+    REQUESTS,      // solicitudes del estudiante
+    REQUEST_STATS  // conteos y tasas de las solicitudes
+}
@@ -0,0 +1,22 @@
+package edu.dosw.sirha.sirha_backend.domain.model.enums;
+
+/**
+ * Formatos de las exportaciones masivas.
+ */
+public enum ExportFormat {
+    /** Un objeto JSON por línea. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Valores separados por comas con fila de encabezado. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+}
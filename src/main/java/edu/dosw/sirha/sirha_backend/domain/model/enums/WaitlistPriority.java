@@ -0,0 +1,24 @@
+package edu.dosw.sirha.sirha_backend.domain.model.enums;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+
+/**
+ * Criterio con el que se ordena la lista de espera de un grupo. A igual prioridad se
+ * respeta el orden de llegada.
+ */
+public enum WaitlistPriority {
+    FIFO,                 // solo orden de llegada
+    SEMESTER,             // primero los estudiantes de semestres más avanzados
+    CREDITS_IN_PROGRESS;  // primero los estudiantes con menos créditos en curso
+
+    /**
+     * Prioridad del estudiante al entrar a la lista; un valor mayor se promueve antes.
+     */
+    public int priorityOf(Student student) {
+        return switch (this) {
+            case FIFO -> 0;
+            case SEMESTER -> student.getCurrentSemester();
+            case CREDITS_IN_PROGRESS -> -student.getCreditsInProgress();
+        };
+    }
+}
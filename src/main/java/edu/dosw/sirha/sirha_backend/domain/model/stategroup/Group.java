@@ -2,12 +2,17 @@ package edu.dosw.sirha.sirha_backend.domain.model.stategroup;
 
 import java.util.*;
 import org.springframework.data.annotation.Id;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
 import edu.dosw.sirha.sirha_backend.domain.model.Professor;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
 import edu.dosw.sirha.sirha_backend.domain.port.GroupState;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
@@ -23,13 +28,25 @@ import edu.dosw.sirha.sirha_backend.exception.SirhaException;
  * Características principales:
  * - Gestión de capacidad y cupos disponibles
  * - Estado dinámico que controla las inscripciones (State Pattern)
- * - Lista de estudiantes inscritos
+ * - Roster de códigos estudiantiles con verificación de pertenencia O(1)
  * - Información del profesor y curso asignado
  * - Control de inscripciones duplicadas
  *
+ * El grupo no guarda a los estudiantes, solo sus códigos: el documento persistido
+ * crece con unos bytes por inscrito en lugar de un estudiante completo (con su
+ * progreso y solicitudes) por inscrito.
+ *
  * Estados del grupo:
  * - ABIERTO: Acepta nuevas inscripciones si hay cupos
  * - CERRADO: No acepta mas inscripciones
+ *
+ * Lista de espera: un grupo cerrado acepta estudiantes en espera. Mientras la lista no esté
+ * vacía, el cupo que libera un inscrito no vuelve a abrir el grupo sino que queda retenido
+ * ({@code cuposRetenidos}) hasta asignarse al siguiente de la lista; así nadie que no esté
+ * en la lista puede tomarlo primero.
+ *
+ * {@code version} sube en cada escritura, también en las de cupos y lista de espera, así que
+ * guardar el grupo completo a partir de una copia anterior falla en lugar de deshacerlas.
  * @see GroupState
  * @see Professor
  * @see Subject
@@ -46,19 +63,27 @@ public class Group {
     private List<Schedule> schedules;
     private String aula;
     private AcademicPeriod currentPeriod;
-    private List<Student> estudiantes;
+    private Set<String> codigosInscritos; // Roster, también usado por la reserva atómica de cupos
+    private int cuposDisponibles;
+    private List<WaitlistEntry> waitlist;
+    private int cuposRetenidos; // Cupos liberados reservados para la lista de espera
+    @Version
+    private Long version;
+    @Transient
+    private WeeklyTimetable timetable; // Se reconstruye a partir de schedules
 
     public Group() {
         this.estadoGrupo = new StatusOpen(); // Estado inicial: abierto
-        this.estudiantes = new ArrayList<>();
+        this.codigosInscritos = new LinkedHashSet<>();
         this.schedules = new ArrayList<>();
+        this.waitlist = new ArrayList<>();
     }
 
     /**
      * Constructor principal para crear un nuevo grupo académico.
      *
      * Inicializa el grupo con una capacidad específica y lo establece
-     * en estado ABIERTO por defecto. La lista de estudiantes se inicializa vacía.
+     * en estado ABIERTO por defecto. El roster se inicializa vacío.
      * @throws SirhaException 
      */
 
@@ -98,7 +123,7 @@ public class Group {
      *
      * El estado se encarga de:
      * - Validar si se puede realizar la inscripción
-     * - Actualizar la lista de estudiantes y contador
+     * - Actualizar el roster y los cupos disponibles
      * - Cambiar el estado del grupo si es necesario
      *
      * @param estudiante estudiante a inscribir en el grupo. No debe ser null.
@@ -121,47 +146,65 @@ public class Group {
     /**
      * Calcula el número de cupos disponibles en el grupo.
      *
-     * @return número de cupos libres (capacidad - inscritos).
+     * @return número de cupos libres (capacidad - inscritos - retenidos para la lista de espera).
      *         Retorna 0 si el grupo está lleno.
      */
     public int getCuposDisponibles() {
-        return Math.max(0, capacidad - getStudentCount());
+        return Math.max(0, capacidad - getStudentCount() - cuposRetenidos);
     }
 
     /**
-     * Agrega un estudiante directamente a la lista del grupo. Se usa internamente por los estados.
-     *
-     * Este método es utilizado internamente por los estados del grupo
-     * para realizar la inscripción efectiva. Actualiza tanto la lista
-     * de estudiantes como el contador de inscritos.
+     * Agrega el código de un estudiante al roster. Se usa internamente por los estados.
      *
      * Validaciones realizadas:
      * - Verifica que el estudiante no esté ya inscrito
-     * - Mantiene consistencia entre la lista y el contador
+     * - Mantiene consistencia entre el roster y los cupos disponibles
      * @throws SirhaException 
      *
      */
     void addStudent(Student student) throws SirhaException {
-
-        if (estudiantes.contains(student)) {
+        if (!codigosInscritos.add(rosterKey(student))) {
             throw SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
         }
-        estudiantes.add(student);
+        syncCuposDisponibles();
     }
 
     /**
-     * Remueve un estudiante del grupo. Se usa internamente por los estados.
-     *
-     * Elimina al estudiante de la lista y actualiza el contador.
-     * Puede cambiar el estado del grupo si es necesario.
+     * Remueve el código de un estudiante del roster. Se usa internamente por los estados.
+     * Si hay estudiantes en espera, el cupo queda retenido para ellos.
      * @throws SirhaException 
      */
     void removeStudent(Student estudiante) throws SirhaException {
-        if (!estudiantes.contains(estudiante) || estudiante == null) {
+        if (estudiante == null || !codigosInscritos.remove(estudiante.getCodigo())) {
             throw SirhaException.of(ErrorCodeSirha.STUDENT_NOT_IN_GROUP);
         }
+        if (!waitlist.isEmpty()) {
+            cuposRetenidos++;
+        }
+        syncCuposDisponibles();
+    }
+
+    /**
+     * Clave con la que el estudiante aparece en el roster del grupo.
+     * Es la misma que usa la reserva atómica de cupos en la colección {@code groups}.
+     */
+    private static String rosterKey(Student student) throws SirhaException {
+        if (student == null) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El estudiante no puede ser null");
+        }
+        if (student.getCodigo() == null || student.getCodigo().isBlank()) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El estudiante no tiene código estudiantil");
+        }
+        return student.getCodigo();
+    }
 
-        estudiantes.remove(estudiante);
+    /**
+     * Mantiene el contador persistido de cupos alineado con el roster. Ese contador es
+     * el que evalúa la actualización condicional en base de datos, por lo que debe
+     * reflejar siempre capacidad - inscritos - retenidos.
+     */
+    private void syncCuposDisponibles() {
+        this.cuposDisponibles = getCuposDisponibles();
     }
 
     public boolean enrollStudent(Student estudiante) throws SirhaException {
@@ -181,7 +224,7 @@ public class Group {
      * @return true si no hay cupos disponibles, false en caso contrario
      */
     public boolean isFull() {
-        return getStudentCount() >= capacidad;
+        return getStudentCount() + cuposRetenidos >= capacidad;
     }
 
     public boolean isOpen() {
@@ -194,7 +237,16 @@ public class Group {
      * @return true si está inscrito, false en caso contrario
      */
     public boolean contieneEstudiante(Student estudiante) {
-        return estudiante != null && estudiantes.contains(estudiante);
+        return estudiante != null && codigosInscritos.contains(estudiante.getCodigo());
+    }
+
+    /**
+     * Verifica si un código estudiantil hace parte del roster del grupo.
+     * @param codigo código estudiantil a verificar
+     * @return true si está inscrito, false en caso contrario
+     */
+    public boolean contieneCodigo(String codigo) {
+        return codigo != null && codigosInscritos.contains(codigo);
     }
 
     // Getters y Setters con documentación
@@ -206,6 +258,10 @@ public class Group {
     public void setId(String id) {
         this.id = id;
     }
+
+    public Long getVersion() {
+        return version;
+    }
     public AcademicPeriod getCurrentPeriod() {
         return currentPeriod;
     }
@@ -232,11 +288,12 @@ public class Group {
         if (capacidad <= 0) {
             throw SirhaException.of(ErrorCodeSirha.INVALID_CAPACITY_GROUP, "La capacidad debe ser mayor a cero");
         }
-        if (capacidad < getStudentCount()) {
+        if (capacidad < getStudentCount() + cuposRetenidos) {
             throw SirhaException.of(ErrorCodeSirha.INVALID_CAPACITY_GROUP, "La nueva capacidad no puede ser menor que el número actual de inscritos");
         }
         canEditGroup();
         this.capacidad = capacidad;
+        syncCuposDisponibles();
     }
 
     /**
@@ -264,11 +321,203 @@ public class Group {
     }
 
     /**
-     * Obtiene una copia de la lista de estudiantes inscritos.
-     * @return lista inmutable de estudiantes para evitar modificaciones externas
+     * Obtiene los códigos de los estudiantes inscritos, en orden de inscripción.
+     * @return conjunto inmutable de códigos estudiantiles
      */
-    public List<Student> getEstudiantes() {
-        return Collections.unmodifiableList(estudiantes);
+    public Set<String> getCodigosInscritos() {
+        return Collections.unmodifiableSet(codigosInscritos);
+    }
+
+    /**
+     * Obtiene una página del roster, en orden de inscripción.
+     * @param page número de página, desde 0
+     * @param size tamaño de página, mayor a cero
+     * @return códigos de la página solicitada; vacía si la página no existe
+     */
+    public List<String> getCodigosInscritos(int page, int size) throws SirhaException {
+        if (page < 0 || size <= 0) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Página o tamaño de página inválido");
+        }
+        long from = (long) page * size;
+        if (from >= codigosInscritos.size()) {
+            return List.of();
+        }
+        return codigosInscritos.stream().skip(from).limit(size).toList();
+    }
+
+    /**
+     * Agrega un estudiante a la lista de espera. Solo se puede esperar en un grupo cerrado:
+     * si el grupo está abierto, el estudiante debe inscribirse directamente.
+     *
+     * @param entry   estudiante en espera, con su prioridad ya calculada
+     * @param maxSize tamaño máximo de la lista
+     * @throws SirhaException si el grupo está abierto, la lista está llena o el estudiante
+     *                        ya está inscrito o en espera
+     */
+    public void addToWaitlist(WaitlistEntry entry, int maxSize) throws SirhaException {
+        if (entry == null) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "La entrada de la lista de espera no puede ser null");
+        }
+        checkWaitlistAdmission(entry.getCodigo(), maxSize);
+        waitlist.add(entry);
+    }
+
+    /**
+     * Verifica, sin modificar el grupo, que el estudiante pueda entrar a la lista de espera.
+     * Son las mismas condiciones que evalúa la actualización atómica en base de datos.
+     *
+     * @throws SirhaException con el motivo por el que no puede entrar
+     */
+    public void checkWaitlistAdmission(String codigo, int maxSize) throws SirhaException {
+        if (codigo == null || codigo.isBlank()) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El estudiante no tiene código estudiantil");
+        }
+        if (codigosInscritos.contains(codigo)) {
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
+        }
+        if (isWaitlisted(codigo)) {
+            throw SirhaException.of(ErrorCodeSirha.DUPLICATE_REQUEST, "El estudiante ya está en la lista de espera del grupo");
+        }
+        if (isOpen()) {
+            throw SirhaException.of(ErrorCodeSirha.OPERATION_NOT_ALLOWED, "El grupo tiene cupos disponibles, inscríbase directamente");
+        }
+        if (waitlist.size() >= maxSize) {
+            throw SirhaException.of(ErrorCodeSirha.OPERATION_NOT_ALLOWED, "La lista de espera del grupo está llena");
+        }
+    }
+
+    /**
+     * Saca a un estudiante de la lista de espera.
+     * @return true si estaba en la lista
+     */
+    public boolean removeFromWaitlist(String codigo) {
+        return waitlist.removeIf(entry -> entry.getCodigo().equals(codigo));
+    }
+
+    /**
+     * Asigna un cupo retenido a un estudiante de la lista de espera: pasa de la lista al
+     * roster. El grupo sigue cerrado, el cupo ya no contaba como disponible.
+     *
+     * @throws SirhaException si no hay cupos retenidos o el estudiante no está en espera
+     */
+    public void assignHeldSeat(String codigo) throws SirhaException {
+        if (cuposRetenidos <= 0) {
+            throw SirhaException.of(ErrorCodeSirha.OPERATION_NOT_ALLOWED, "No hay cupos retenidos para la lista de espera");
+        }
+        if (!isWaitlisted(codigo)) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El estudiante no está en la lista de espera del grupo");
+        }
+        if (!codigosInscritos.add(codigo)) {
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
+        }
+        removeFromWaitlist(codigo);
+        cuposRetenidos--;
+        syncCuposDisponibles();
+    }
+
+    /**
+     * Deshace {@link #assignHeldSeat(String)}: el estudiante sale del roster, vuelve a la
+     * lista con la misma entrada (conserva prioridad y hora de llegada) y el cupo queda
+     * retenido otra vez.
+     *
+     * @throws SirhaException si el estudiante no está inscrito o ya está en espera
+     */
+    public void returnHeldSeat(WaitlistEntry entry) throws SirhaException {
+        if (isWaitlisted(entry.getCodigo())) {
+            throw SirhaException.of(ErrorCodeSirha.DUPLICATE_REQUEST, "El estudiante ya está en la lista de espera del grupo");
+        }
+        if (!codigosInscritos.remove(entry.getCodigo())) {
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_NOT_IN_GROUP);
+        }
+        waitlist.add(entry);
+        cuposRetenidos++;
+        syncCuposDisponibles();
+    }
+
+    /**
+     * Deshace la salida de un estudiante del roster: vuelve con el cupo que su salida dejó
+     * retenido para la lista de espera o, si no hay retenidos, con uno libre. Si era el
+     * último cupo libre, el grupo queda cerrado.
+     *
+     * @throws SirhaException si el estudiante ya está inscrito o no queda cupo que devolverle
+     */
+    public void restoreSeat(String codigo) throws SirhaException {
+        if (codigosInscritos.contains(codigo)) {
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
+        }
+        if (cuposRetenidos > 0) {
+            cuposRetenidos--;
+        } else if (getCuposDisponibles() <= 0) {
+            throw SirhaException.of(ErrorCodeSirha.GROUP_FULL);
+        }
+        codigosInscritos.add(codigo);
+        syncCuposDisponibles();
+        if (getCuposDisponibles() <= 0) {
+            closeGroup();
+        }
+    }
+
+    /**
+     * Devuelve los cupos retenidos al grupo cuando ya no queda nadie en espera, y lo
+     * reabre si quedan cupos.
+     *
+     * @return true si había cupos retenidos que liberar
+     */
+    public boolean releaseHeldSeats() {
+        if (!waitlist.isEmpty() || cuposRetenidos == 0) {
+            return false;
+        }
+        cuposRetenidos = 0;
+        syncCuposDisponibles();
+        if (getCuposDisponibles() > 0) {
+            openGroup();
+        }
+        return true;
+    }
+
+    /**
+     * Siguiente estudiante a promover, según {@link WaitlistEntry#PROMOTION_ORDER}.
+     */
+    public Optional<WaitlistEntry> nextInWaitlist() {
+        return waitlist.stream().min(WaitlistEntry.PROMOTION_ORDER);
+    }
+
+    /**
+     * Posición del estudiante en la lista de espera, desde 1.
+     * @return la posición, o 0 si no está en la lista
+     */
+    public int getWaitlistPosition(String codigo) {
+        List<WaitlistEntry> ordered = waitlist.stream().sorted(WaitlistEntry.PROMOTION_ORDER).toList();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).getCodigo().equals(codigo)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    public boolean isWaitlisted(String codigo) {
+        return codigo != null && waitlist.stream().anyMatch(entry -> codigo.equals(entry.getCodigo()));
+    }
+
+    /**
+     * Estudiantes en espera, en orden de llegada. No se expone en la API: son datos de
+     * otros estudiantes.
+     */
+    @JsonIgnore
+    public List<WaitlistEntry> getWaitlist() {
+        return Collections.unmodifiableList(waitlist);
+    }
+
+    public int getWaitlistSize() {
+        return waitlist.size();
+    }
+
+    /**
+     * Cupos liberados que esperan ser asignados a la lista de espera.
+     */
+    public int getCuposRetenidos() {
+        return cuposRetenidos;
     }
 
     /**
@@ -278,14 +527,14 @@ public class Group {
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
+        // instanceof y getters: el otro grupo puede ser una referencia perezosa (proxy)
+        if (!(obj instanceof Group group)) return false;
 
-        Group group = (Group) obj;
-        return Objects.equals(currentPeriod, group.currentPeriod)
-                && Objects.equals(code, group.code)
-                && Objects.equals(professor, group.professor)
-                && Objects.equals(aula, group.aula)
-                && Objects.equals(schedules, group.schedules);
+        return Objects.equals(currentPeriod, group.getCurrentPeriod())
+                && Objects.equals(code, group.getCode())
+                && Objects.equals(professor, group.getProfessor())
+                && Objects.equals(aula, group.getAula())
+                && Objects.equals(schedules, group.getSchedules());
     }
 
     @Override
@@ -302,12 +551,26 @@ public class Group {
 
     public void addSchedule(Schedule horario) throws SirhaException {
         canEditGroup();
-        for (Schedule existente : schedules) {
-            if (existente.overlapsWith(horario)) {
-                throw SirhaException.of(ErrorCodeSirha.SCHEDULE_CONFLICT);
-            }
+        if (getTimetable().conflictsWith(horario)) {
+            throw SirhaException.of(ErrorCodeSirha.SCHEDULE_CONFLICT);
         }
         schedules.add(horario);
+        timetable = null;
+    }
+
+    /**
+     * Obtiene la ocupación semanal del grupo como máscara de franjas.
+     * Se calcula una vez y se invalida al agregar horarios.
+     * @return ocupación semanal, vacía si el grupo no tiene horarios
+     */
+    @JsonIgnore
+    public WeeklyTimetable getTimetable() {
+        WeeklyTimetable current = timetable;
+        if (current == null || current.getSchedules().size() != schedules.size()) {
+            current = WeeklyTimetable.of(schedules);
+            timetable = current;
+        }
+        return current;
     }
 
     public boolean canEditGroup() throws SirhaException {
@@ -317,7 +580,7 @@ public class Group {
         return getStudentCount() == 0;
     }
     public int getStudentCount() {
-        return estudiantes.size();
+        return codigosInscritos.size();
     }
 
     public List<Schedule> getSchedules() {
@@ -325,12 +588,7 @@ public class Group {
     }
 
     public boolean conflictoConHorario(Schedule horario) {
-        for (Schedule existente : schedules) {
-            if (existente.overlapsWith(horario)) {
-                return true;
-            }
-        }
-        return false;
+        return getTimetable().conflictsWith(horario);
     }
 
 
@@ -338,12 +596,7 @@ public class Group {
         if (otroGrupo == null || otroGrupo.getSchedules() == null) {
             return false;
         }
-        for (Schedule horarioOtro : otroGrupo.getSchedules()) {
-            if (conflictoConHorario(horarioOtro)) {
-                return true;
-            }
-        }
-        return false;
+        return getTimetable().conflictsWith(otroGrupo.getTimetable());
     }
 
     public void closeGroup() {
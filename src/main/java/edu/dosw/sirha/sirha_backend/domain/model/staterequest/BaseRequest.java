@@ -1,12 +1,19 @@
 package edu.dosw.sirha.sirha_backend.domain.model.staterequest;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.References;
+import edu.dosw.sirha.sirha_backend.domain.model.RequestPriorityQueue;
 import edu.dosw.sirha.sirha_backend.domain.model.ResponseProcess;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.*;
@@ -33,17 +40,26 @@ import edu.dosw.sirha.sirha_backend.exception.SirhaException;
  * - APROBADA: Solicitud aceptada y procesada
  * - RECHAZADA: Solicitud denegada con razón específica
  * - EN_REVISION: Solicitud en proceso de evaluación
+ *
+ * El estudiante se guarda como referencia por id y se resuelve al primer uso.
  */
 @Document(collection = "requests")  
 public abstract class BaseRequest implements RequestTo {
     @Id
     private String id;
     private LocalDateTime creadoEn;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     protected Student student;
     private AcademicPeriod currentPeriod;
     private ArrayList<RequestProcess> processes;
     private RequestState state;
-    private int priority;
+    /** Estado del último proceso; se persiste para poder consultar e indexar por estado. */
+    private RequestStateEnum actualState;
+    private Instant receivedAt;
+    private long queueSequence;
+    private int urgency;
+    @Transient
+    private RequestPriorityQueue queue;
 
     protected BaseRequest(Student student, AcademicPeriod currentPeriod) {
         this.creadoEn = LocalDateTime.now();
@@ -60,12 +76,55 @@ public abstract class BaseRequest implements RequestTo {
 
     public List<RequestProcess> getProcesses() {return processes;}
 
+    /**
+     * Posición de la solicitud en la cola de la decanatura que la recibió (1 es la
+     * siguiente en atenderse). Se deriva de la cola al consultarla; 0 si la solicitud
+     * no está en una cola. La primera consulta tras un cambio en la cola la ordena
+     * completa; las siguientes reutilizan ese orden.
+     */
     public int getPriority() {
-        return priority;
+        return queue == null ? 0 : queue.rankOf(this);
     }
 
-    public void setPriority(int priority) {
-        this.priority = priority;
+    /**
+     * Instante en que la decanatura recibió la solicitud; null si aún no se ha recibido.
+     */
+    public Instant getReceivedAt() {return receivedAt;}
+    public long getQueueSequence() {return queueSequence;}
+
+    /**
+     * Registra la recepción en una cola de decanatura.
+     *
+     * @param receivedAt instante de recepción, base del envejecimiento
+     * @param queueSequence orden de llegada, para desempatar
+     */
+    public void markReceived(Instant receivedAt, long queueSequence) {
+        this.receivedAt = receivedAt;
+        this.queueSequence = queueSequence;
+    }
+
+    public int getUrgency() {return urgency;}
+
+    /**
+     * Cambia la urgencia de la solicitud. Si está en una cola, se reubica en O(log n).
+     */
+    public void setUrgency(int urgency) {
+        this.urgency = urgency;
+        if (queue != null) {
+            queue.update(this);
+        }
+    }
+
+    /** Uso de {@link RequestPriorityQueue}: la solicitud entró a la cola. */
+    public void attachToQueue(RequestPriorityQueue queue) {
+        this.queue = queue;
+    }
+
+    /** Uso de {@link RequestPriorityQueue}: la solicitud salió de la cola. */
+    public void detachFromQueue(RequestPriorityQueue queue) {
+        if (this.queue == queue) {
+            this.queue = null;
+        }
     }
 
     public RequestState getState() {return state;}
@@ -94,16 +153,25 @@ public abstract class BaseRequest implements RequestTo {
     void setState(RequestState state) {this.state = state;}
 
     public RequestProcess getActualProcess(){return processes.get(processes.size() - 1);}
-    public RequestStateEnum getActualState(){return getActualProcess().getStatus();}
-    private void setActualState(RequestStateEnum estado){getActualProcess().setStatus(estado);}
+    public RequestStateEnum getActualState(){return actualState != null ? actualState : getActualProcess().getStatus();}
+    private void setActualState(RequestStateEnum estado){
+        getActualProcess().setStatus(estado);
+        this.actualState = estado;
+    }
 
     /**
      * Obtiene la fecha y hora de creación de la solicitud.
      * @return timestamp de creación
      */
     public LocalDateTime getCreadoEn() {return creadoEn;}
+    @JsonIgnore
     public Student getStudent() {return student;}
 
+    /**
+     * @return id del estudiante que hizo la solicitud, sin cargar el estudiante
+     */
+    public String getStudentId() {return References.idOf(student, Student::getId);}
+
 
     public Careers getStudentCareer() {
         if (student == null) {
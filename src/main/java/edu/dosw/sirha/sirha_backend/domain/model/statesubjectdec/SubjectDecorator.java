@@ -1,7 +1,12 @@
 package edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.References;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.SubjectProgress;
@@ -11,17 +16,38 @@ import edu.dosw.sirha.sirha_backend.domain.port.*;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
+/**
+ * Progreso del estudiante en una materia del plan.
+ *
+ * La materia y el grupo se guardan como referencias a {@code subjects} y {@code groups}
+ * y se resuelven la primera vez que se usan. El nombre y los créditos se copian en el
+ * progreso porque los consultan el semáforo y sus indicadores en cada lectura.
+ */
 public class SubjectDecorator {
-    private final Subject subject;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
+    private Subject subject;
+    private String name;
+    private Integer credits;
     private SemaforoColores estadoColor;
     private int semestre;
     private SubjectState state;
+    @DocumentReference(lazy = true, lookup = References.BY_ID)
     private Group group;
     private int grade;
     private List<SubjectStateProcess> history;
+    @Transient
+    private ColorChangeListener colorListener;
+
+    /** Constructor usado al leer desde Mongo; no resuelve la materia referenciada. */
+    @PersistenceCreator
+    private SubjectDecorator() {
+        history = new ArrayList<>();
+    }
 
     public SubjectDecorator(Subject subject) throws SirhaException {
         this.subject = subject;
+        this.name = subject.getName();
+        this.credits = subject.getCredits();
         this.state = new NoCursadaState();
         state.setState(this);
         history = new ArrayList<>();
@@ -32,7 +58,19 @@ public class SubjectDecorator {
     public void setGrade(int grade) throws SirhaException { state.setGrade(this, grade); }
 
     void setState(SubjectState state) {this.state = state;}
-    void setEstadoColor(SemaforoColores estadoColor) {this.estadoColor = estadoColor;}
+    void setEstadoColor(SemaforoColores estadoColor) {
+        SemaforoColores anterior = this.estadoColor;
+        this.estadoColor = estadoColor;
+        if (colorListener != null && anterior != estadoColor) {
+            colorListener.onColorChange(this, anterior, estadoColor);
+        }
+    }
+
+    /**
+     * Registra quién debe enterarse de los cambios de color de la materia.
+     * No se persiste: el semáforo lo vuelve a registrar al reconstruir sus contadores.
+     */
+    public void setColorListener(ColorChangeListener colorListener) { this.colorListener = colorListener; }
     void setSemesterDirect(int semester){this.semestre = semester;}
     void setGroupDirect(Group group) { this.group = group; }
     void setGradeDirect(int grade) { this.grade = grade; }
@@ -75,10 +113,10 @@ public class SubjectDecorator {
     public void addState(SubjectStateProcess state) {history.add(state);}
     public SubjectStateProcess getLastStateProcess() {return history.get(history.size() - 1);}
 
-    public String getName() {return subject.getName();}
-    public int getCredits() {return subject.getCredits();}    
+    public String getName() {return name != null ? name : subject.getName();}
+    public int getCredits() {return credits != null ? credits : subject.getCredits();}
     public List<Group> getGroups() {return subject.getGroups();}
-    public String getId() { return subject.getId(); }
+    public String getId() { return References.idOf(subject, Subject::getId); }
     public SemaforoColores getEstadoColor() {return estadoColor;}
     public int getSemester() {return semestre;}
     public Subject getSubject() {return subject;}
@@ -89,6 +127,7 @@ public class SubjectDecorator {
         }
         return group;
     }
+    public Optional<Group> findGroup() { return Optional.ofNullable(group); }
     public int getGrade() { return grade; }
     public List<SubjectStateProcess> getHistory() { return new ArrayList<>(history); }
 }
@@ -82,6 +82,20 @@ public interface AcademicProgress {
 
     boolean hasSubject(Subject subject);
 
+    /**
+     * Verifica si se cumplen los prerrequisitos de una materia.
+     * @param subject materia a evaluar
+     * @return true si todas sus reglas de prerrequisito se cumplen
+     */
+    boolean meetsPrerequisites(Subject subject);
+
+    /**
+     * Obtiene las materias no cursadas cuyos prerrequisitos ya se cumplen,
+     * en orden topológico del plan de estudios.
+     * @return lista de materias que el estudiante puede inscribir
+     */
+    List<SubjectDecorator> getEligibleSubjects();
+
     boolean isSubjectApproved(String subject);
     boolean isSubjectCursando(String subject);
     boolean isSubjectReprobada(String subject);
@@ -35,6 +35,7 @@ public interface AcademicProgressViewer {
     // Resúmenes (Summaries)
     String getAcademicSummary();
     Map<SemaforoColores, List<SubjectDecoratorDTO>> getAcademicPensum();
+    List<SubjectDecoratorDTO> getEligibleSubjects();
 
     // Información general del estudiante (General Student Information)
     Careers getCareer();
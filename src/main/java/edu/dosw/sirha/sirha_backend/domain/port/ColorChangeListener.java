@@ -0,0 +1,13 @@
+package edu.dosw.sirha.sirha_backend.domain.port;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+
+/**
+ * Recibe los cambios de color de una materia en el semáforo, para que quien
+ * agrega el progreso académico pueda mantener sus contadores sin recorrer el plan.
+ */
+@FunctionalInterface
+public interface ColorChangeListener {
+    void onColorChange(SubjectDecorator materia, SemaforoColores anterior, SemaforoColores nuevo);
+}
@@ -13,5 +13,8 @@ public interface RequestReceiver {
     void approveRequest(BaseRequest request) throws SirhaException;
     void rejectRequest(BaseRequest request) throws SirhaException;
 
-    void updateRequestsAfterResolveOne();
+    /**
+     * Cambia la urgencia de una solicitud en revisión; las más urgentes se atienden antes.
+     */
+    void reprioritizeRequest(BaseRequest request, int urgency) throws SirhaException;
 }
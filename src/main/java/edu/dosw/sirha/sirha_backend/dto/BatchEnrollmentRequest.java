@@ -0,0 +1,58 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+
+/**
+ * Materias y grupos que un estudiante quiere inscribir en una sola operación.
+ * Si {@code mode} no se envía se usa {@code sirha.enrollment.batch.default-mode}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchEnrollmentRequest {
+
+    private BatchEnrollmentMode mode;
+    private List<Item> items;
+
+    public BatchEnrollmentRequest() {
+        this.items = new ArrayList<>();
+    }
+
+    public BatchEnrollmentRequest(BatchEnrollmentMode mode, List<Item> items) {
+        this.mode = mode;
+        this.items = items;
+    }
+
+    public BatchEnrollmentMode getMode() { return mode; }
+    public void setMode(BatchEnrollmentMode mode) { this.mode = mode; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    /**
+     * Una materia y el grupo en que se quiere inscribir.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String subjectName;
+        private String groupCode;
+
+        public Item() {
+            // constructor vacío
+        }
+
+        public Item(String subjectName, String groupCode) {
+            this.subjectName = subjectName;
+            this.groupCode = groupCode;
+        }
+
+        public String getSubjectName() { return subjectName; }
+        public void setSubjectName(String subjectName) { this.subjectName = subjectName; }
+
+        public String getGroupCode() { return groupCode; }
+        public void setGroupCode(String groupCode) { this.groupCode = groupCode; }
+    }
+}
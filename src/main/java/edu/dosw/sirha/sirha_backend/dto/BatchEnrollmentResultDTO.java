@@ -0,0 +1,72 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+
+/**
+ * Resultado de una inscripción en lote, con una entrada por materia pedida y en el mismo
+ * orden de la solicitud.
+ *
+ * {@code REJECTED} lleva el código y el mensaje del motivo. {@code SKIPPED} solo aparece en
+ * modo {@code ALL_OR_NOTHING}: la materia era válida pero no se inscribió porque otra falló.
+ */
+public class BatchEnrollmentResultDTO {
+
+    public enum Status { ENROLLED, REJECTED, SKIPPED }
+
+    private BatchEnrollmentMode mode;
+    private int enrolled;
+    private List<Entry> results;
+
+    public BatchEnrollmentResultDTO(BatchEnrollmentMode mode, List<Entry> results) {
+        this.mode = mode;
+        this.results = results;
+        this.enrolled = (int) results.stream().filter(r -> r.getStatus() == Status.ENROLLED).count();
+    }
+
+    public BatchEnrollmentMode getMode() {
+        return mode;
+    }
+    public int getEnrolled() {
+        return enrolled;
+    }
+    public List<Entry> getResults() {
+        return results;
+    }
+
+    /**
+     * Resultado de una materia de la solicitud.
+     */
+    public static class Entry {
+        private String subject;
+        private String groupCode;
+        private Status status;
+        private String code;
+        private String message;
+
+        public Entry(String subject, String groupCode, Status status, String code, String message) {
+            this.subject = subject;
+            this.groupCode = groupCode;
+            this.status = status;
+            this.code = code;
+            this.message = message;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+        public String getGroupCode() {
+            return groupCode;
+        }
+        public Status getStatus() {
+            return status;
+        }
+        public String getCode() {
+            return code;
+        }
+        public String getMessage() {
+            return message;
+        }
+    }
+}
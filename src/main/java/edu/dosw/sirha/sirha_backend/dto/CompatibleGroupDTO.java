@@ -0,0 +1,30 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+
+/**
+ * Grupo abierto que cabe en el horario actual de un estudiante.
+ */
+public class CompatibleGroupDTO {
+    private String subject;
+    private String groupCode;
+    private List<Schedule> schedules;
+
+    public CompatibleGroupDTO(String subject, String groupCode, List<Schedule> schedules) {
+        this.subject = subject;
+        this.groupCode = groupCode;
+        this.schedules = schedules;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+    public String getGroupCode() {
+        return groupCode;
+    }
+    public List<Schedule> getSchedules() {
+        return schedules;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado paginado por cursor.
+ *
+ * {@code nextCursor} es opaco: se envía tal cual en el parámetro {@code cursor} para
+ * pedir la página siguiente, y es null en la última página.
+ */
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+
+    public CursorPageDTO() {
+        this.items = new ArrayList<>();
+    }
+
+    public CursorPageDTO(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Arma la página a partir de una consulta que pidió {@code limit + 1} elementos:
+     * si llegó el elemento de más, hay página siguiente y su cursor es la clave del
+     * último elemento devuelto.
+     *
+     * @param fetched elementos leídos, como máximo {@code limit + 1}
+     * @param limit tamaño de la página
+     * @param cursorOf cursor que continúa después de un elemento
+     */
+    public static <T> CursorPageDTO<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPageDTO<>(fetched, null, limit);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPageDTO<>(items, cursorOf.apply(items.get(limit - 1)), limit);
+    }
+
+    /**
+     * @return la misma página con los elementos convertidos
+     */
+    public <R> CursorPageDTO<R> map(Function<T, R> mapper) {
+        return new CursorPageDTO<>(items.stream().map(mapper).toList(), nextCursor, limit);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public int getLimit() {
+        return limit;
+    }
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Avance de un trabajo de inscripción masiva.
+ *
+ * {@code rowsRead} cuenta las filas leídas del archivo; {@code enrolled} y {@code failed}
+ * las ya resueltas, así que mientras el trabajo corre su suma puede ser menor.
+ * {@code rowsPerSecond} es el ritmo de filas resueltas desde el inicio.
+ */
+public class EnrollmentJobDTO {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private Status status;
+    private long rowsRead;
+    private long enrolled;
+    private long failed;
+    private double rowsPerSecond;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+
+    public EnrollmentJobDTO(String id, Status status, long rowsRead, long enrolled, long failed, double rowsPerSecond,
+                            Instant submittedAt, Instant startedAt, Instant finishedAt, String message) {
+        this.id = id;
+        this.status = status;
+        this.rowsRead = rowsRead;
+        this.enrolled = enrolled;
+        this.failed = failed;
+        this.rowsPerSecond = rowsPerSecond;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.message = message;
+    }
+
+    public String getId() {
+        return id;
+    }
+    public Status getStatus() {
+        return status;
+    }
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    public long getEnrolled() {
+        return enrolled;
+    }
+    public long getFailed() {
+        return failed;
+    }
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    public String getMessage() {
+        return message;
+    }
+}
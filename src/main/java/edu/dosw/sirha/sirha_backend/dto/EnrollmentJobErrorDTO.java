@@ -0,0 +1,42 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+/**
+ * Fila de un trabajo de inscripción masiva que no se pudo inscribir. {@code line} es el
+ * número de línea en el archivo, empezando en 1.
+ */
+public class EnrollmentJobErrorDTO {
+    private long line;
+    private String codigo;
+    private String subject;
+    private String groupCode;
+    private String code;
+    private String message;
+
+    public EnrollmentJobErrorDTO(long line, String codigo, String subject, String groupCode, String code, String message) {
+        this.line = line;
+        this.codigo = codigo;
+        this.subject = subject;
+        this.groupCode = groupCode;
+        this.code = code;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+    public String getCodigo() {
+        return codigo;
+    }
+    public String getSubject() {
+        return subject;
+    }
+    public String getGroupCode() {
+        return groupCode;
+    }
+    public String getCode() {
+        return code;
+    }
+    public String getMessage() {
+        return message;
+    }
+}
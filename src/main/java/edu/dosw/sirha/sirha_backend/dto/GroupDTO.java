@@ -6,7 +6,6 @@ import java.util.List;
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
 import edu.dosw.sirha.sirha_backend.domain.model.Professor;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
-import edu.dosw.sirha.sirha_backend.domain.model.Student;
 
 public class GroupDTO {
     private int capacidad;
@@ -15,7 +14,7 @@ public class GroupDTO {
     private AcademicPeriod currentPeriod;
     private List<Schedule> schedules;
     private String aula;
-    private List<Student> estudiantes;
+    private RosterPageDTO roster;
 
     public GroupDTO(int capacidad, int inscritos, Professor profesor, AcademicPeriod currentPeriod) {
         this.capacidad = capacidad;
@@ -23,7 +22,7 @@ public class GroupDTO {
         this.profesor = profesor;
         this.currentPeriod = currentPeriod;
         this.schedules =  new ArrayList<>();
-        this.estudiantes = new ArrayList<>();
+        this.roster = new RosterPageDTO();
     }
 
     public int getCapacidad() {
@@ -44,8 +43,8 @@ public class GroupDTO {
     public AcademicPeriod getCurrentPeriod() {
         return currentPeriod;
     }
-    public List<Student> getEstudiantes() {
-        return estudiantes;
+    public RosterPageDTO getRoster() {
+        return roster;
     }
     public void setSchedules(List<Schedule> schedules) {
         this.schedules = schedules;
@@ -53,7 +52,7 @@ public class GroupDTO {
     public void setAula(String aula) {
         this.aula = aula;
     }
-    public void setEstudiantes(List<Student> estudiantes) {
-        this.estudiantes = estudiantes;
+    public void setRoster(RosterPageDTO roster) {
+        this.roster = roster;
     }
 }
\ No newline at end of file
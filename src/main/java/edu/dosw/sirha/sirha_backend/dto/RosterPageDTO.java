@@ -0,0 +1,44 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página del roster de un grupo: códigos estudiantiles en orden de inscripción.
+ */
+public class RosterPageDTO {
+    private List<String> codigos;
+    private int page;
+    private int size;
+    private int total;
+
+    public RosterPageDTO() {
+        this.codigos = new ArrayList<>();
+    }
+
+    public RosterPageDTO(List<String> codigos, int page, int size, int total) {
+        this.codigos = codigos;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    public List<String> getCodigos() {
+        return codigos;
+    }
+    public int getPage() {
+        return page;
+    }
+    public int getSize() {
+        return size;
+    }
+    public int getTotal() {
+        return total;
+    }
+    public int getTotalPages() {
+        return size <= 0 ? 0 : (total + size - 1) / size;
+    }
+    public boolean isHasNext() {
+        return (long) (page + 1) * size < total;
+    }
+}
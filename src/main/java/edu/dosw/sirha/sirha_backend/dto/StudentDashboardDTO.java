@@ -0,0 +1,61 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+
+/**
+ * Tablero del estudiante armado con una sola carga del documento.
+ * Las secciones que no se pidieron quedan en null y no se serializan.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentDashboardDTO {
+    private StudentDTO info;
+    private Map<SemaforoColores, List<SubjectDecoratorDTO>> pensum;
+    private List<Schedule> schedule;
+    private AcademicIndicatorsDTO indicators;
+    private List<BaseRequest> requests;
+    private RequestApprovalRateDTO requestStats;
+
+    public StudentDTO getInfo() {
+        return info;
+    }
+    public void setInfo(StudentDTO info) {
+        this.info = info;
+    }
+    public Map<SemaforoColores, List<SubjectDecoratorDTO>> getPensum() {
+        return pensum;
+    }
+    public void setPensum(Map<SemaforoColores, List<SubjectDecoratorDTO>> pensum) {
+        this.pensum = pensum;
+    }
+    public List<Schedule> getSchedule() {
+        return schedule;
+    }
+    public void setSchedule(List<Schedule> schedule) {
+        this.schedule = schedule;
+    }
+    public AcademicIndicatorsDTO getIndicators() {
+        return indicators;
+    }
+    public void setIndicators(AcademicIndicatorsDTO indicators) {
+        this.indicators = indicators;
+    }
+    public List<BaseRequest> getRequests() {
+        return requests;
+    }
+    public void setRequests(List<BaseRequest> requests) {
+        this.requests = requests;
+    }
+    public RequestApprovalRateDTO getRequestStats() {
+        return requestStats;
+    }
+    public void setRequestStats(RequestApprovalRateDTO requestStats) {
+        this.requestStats = requestStats;
+    }
+}
@@ -0,0 +1,146 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+
+/**
+ * Horarios sin cruces propuestos para las materias que pidió un estudiante.
+ *
+ * {@code options} viene ordenado del mejor al peor horario. Las materias que no se pueden
+ * inscribir en ningún horario van en {@code excluded} con el código del motivo.
+ * {@code truncated} indica que la búsqueda se cortó por tiempo y puede haber mejores opciones.
+ */
+public class TimetablePlanDTO {
+    private List<Option> options;
+    private List<Exclusion> excluded;
+    private boolean truncated;
+    private long explored;
+
+    public TimetablePlanDTO() {
+        this.options = new ArrayList<>();
+        this.excluded = new ArrayList<>();
+    }
+
+    public TimetablePlanDTO(List<Option> options, List<Exclusion> excluded, boolean truncated, long explored) {
+        this.options = options;
+        this.excluded = excluded;
+        this.truncated = truncated;
+        this.explored = explored;
+    }
+
+    public List<Option> getOptions() {
+        return options;
+    }
+    public List<Exclusion> getExcluded() {
+        return excluded;
+    }
+    public boolean isTruncated() {
+        return truncated;
+    }
+    public long getExplored() {
+        return explored;
+    }
+
+    /**
+     * Un horario: un grupo por materia, más las materias que no caben en él.
+     */
+    public static class Option {
+        private List<Entry> groups;
+        private List<String> unassigned;
+        private int days;
+        private int gapMinutes;
+        private int minSeats;
+
+        public Option(List<Entry> groups, List<String> unassigned, int days, int gapMinutes, int minSeats) {
+            this.groups = groups;
+            this.unassigned = unassigned;
+            this.days = days;
+            this.gapMinutes = gapMinutes;
+            this.minSeats = minSeats;
+        }
+
+        public List<Entry> getGroups() {
+            return groups;
+        }
+        public List<String> getUnassigned() {
+            return unassigned;
+        }
+        public int getDays() {
+            return days;
+        }
+        public int getGapMinutes() {
+            return gapMinutes;
+        }
+        public int getMinSeats() {
+            return minSeats;
+        }
+    }
+
+    /**
+     * Grupo elegido para una materia.
+     */
+    public static class Entry {
+        private String subject;
+        private String groupCode;
+        private String professor;
+        private String aula;
+        private int cuposDisponibles;
+        private List<Schedule> schedules;
+
+        public Entry(String subject, String groupCode, String professor, String aula, int cuposDisponibles,
+                     List<Schedule> schedules) {
+            this.subject = subject;
+            this.groupCode = groupCode;
+            this.professor = professor;
+            this.aula = aula;
+            this.cuposDisponibles = cuposDisponibles;
+            this.schedules = schedules;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+        public String getGroupCode() {
+            return groupCode;
+        }
+        public String getProfessor() {
+            return professor;
+        }
+        public String getAula() {
+            return aula;
+        }
+        public int getCuposDisponibles() {
+            return cuposDisponibles;
+        }
+        public List<Schedule> getSchedules() {
+            return schedules;
+        }
+    }
+
+    /**
+     * Materia pedida que no entra en ningún horario.
+     */
+    public static class Exclusion {
+        private String subject;
+        private String code;
+        private String message;
+
+        public Exclusion(String subject, String code, String message) {
+            this.subject = subject;
+            this.code = code;
+            this.message = message;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+        public String getCode() {
+            return code;
+        }
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.dosw.sirha.sirha_backend.dto;
+
+/**
+ * Lugar de un estudiante en la lista de espera de un grupo. {@code position} empieza en 1.
+ */
+public class WaitlistPositionDTO {
+    private String groupCode;
+    private String subject;
+    private int position;
+    private int waiting;
+
+    public WaitlistPositionDTO(String groupCode, String subject, int position, int waiting) {
+        this.groupCode = groupCode;
+        this.subject = subject;
+        this.position = position;
+        this.waiting = waiting;
+    }
+
+    public String getGroupCode() {
+        return groupCode;
+    }
+    public String getSubject() {
+        return subject;
+    }
+    public int getPosition() {
+        return position;
+    }
+    public int getWaiting() {
+        return waiting;
+    }
+}
@@ -15,6 +15,7 @@ public enum ErrorCodeSirha {
     GROUP_NOT_FOUND("Grupo no encontrado"),
     REQUEST_NOT_FOUND("Solicitud no encontrada"),
     ACADEMIC_PERIOD_NOT_FOUND("Período académico no encontrado"),
+    ENROLLMENT_JOB_NOT_FOUND("Trabajo de inscripción masiva no encontrado"),
     
     // ========== VALIDATION ERRORS ==========
     INVALID_CREDENTIALS("Credenciales inválidas"),
@@ -27,6 +28,7 @@ public enum ErrorCodeSirha {
     CODE_ALREADY_EXISTS("El código estudiantil ya está registrado"),
     USERNAME_ALREADY_EXISTS("El nombre de usuario ya existe"),
     DUPLICATE_REQUEST("Ya existe una solicitud similar"),
+    CONCURRENT_MODIFICATION("El recurso fue modificado por otra operación"),
     
     // ========== BUSINESS LOGIC ERRORS ==========
     INSUFFICIENT_PERMISSIONS("Permisos insuficientes para realizar esta operación"),
@@ -45,6 +47,8 @@ public enum ErrorCodeSirha {
     INTERNAL_ERROR("Error interno del sistema"),
     EXTERNAL_SERVICE_ERROR("Error en servicio externo"),
     DATABASE_ERROR("Error de base de datos"), 
+    TOO_MANY_REQUESTS("Demasiadas solicitudes, intente más tarde"),
+    SERVICE_UNAVAILABLE("El servicio está saturado, intente más tarde"),
     INVALID_CAPACITY_GROUP("Capacidad del grupo inválida"),
 
     INVALID_CAREER("Carrera inválida para esta operación"),
@@ -56,6 +60,7 @@ public enum ErrorCodeSirha {
     SUBJECT_ALREADY_ENROLLED("El estudiante ya tiene la materia inscrita o aprobada"),
     SUBJECT_NOT_IN_STUDY_PLAN("La materia no está en el plan de estudios del estudiante"),
     PREREQUISITES_NOT_MET("No se cumplen los prerrequisitos para inscribir la materia"), 
+    PREREQUISITE_CYCLE("Los prerrequisitos del plan de estudios forman un ciclo"),
     CANNOT_CHANGE_SEMESTER("No se puede cambiar el semestre"),
     CANNOT_CHANGE_GROUP("No se puede cambiar el grupo"),
     CANNOT_CHANGE_GRADE("No se puede cambiar la nota"),
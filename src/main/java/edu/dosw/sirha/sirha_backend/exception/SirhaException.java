@@ -19,6 +19,15 @@ public class SirhaException extends Exception {
         super(String.format(messageFormat, args));
         this.errorCode = errorCode;
     }
+
+    /**
+     * Conserva la excepción original como causa: sin esta sobrecarga, {@code (código,
+     * mensaje, e)} caía en la de formato y la causa se perdía.
+     */
+    public SirhaException(ErrorCodeSirha errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
     
     
     public ErrorCodeSirha getErrorCode() {
@@ -42,6 +51,10 @@ public class SirhaException extends Exception {
         return new SirhaException(errorCode, errorCode.getDefaultMessage() + " - " + context);
     }
     
+    public static SirhaException of(ErrorCodeSirha errorCode, String message, Throwable cause) {
+        return new SirhaException(errorCode, message, cause);
+    }
+
     public static SirhaException of(ErrorCodeSirha errorCode, String messageFormat, Object... args) {
         return new SirhaException(errorCode, messageFormat, args);
     }
@@ -143,20 +143,21 @@ public class GlobalExceptionHandler {
         return switch (errorCode) {
             // 404 Not Found - Recursos no encontrados
             case STUDENT_NOT_FOUND, SUBJECT_NOT_FOUND, GROUP_NOT_FOUND, 
-                 REQUEST_NOT_FOUND, ACADEMIC_PERIOD_NOT_FOUND -> 
+                 REQUEST_NOT_FOUND, ACADEMIC_PERIOD_NOT_FOUND, ENROLLMENT_JOB_NOT_FOUND -> 
                 HttpStatus.NOT_FOUND;
             
             // 409 Conflict - Conflictos de estado o datos
             case REQUEST_ALREADY_APPROVED, REQUEST_ALREADY_REJECTED, REQUEST_ALREADY_PENDING,
                  REQUEST_ALREADY_IN_REVIEW, INVALID_STATE_TRANSITION, EMAIL_ALREADY_EXISTS,
                  CODE_ALREADY_EXISTS, USERNAME_ALREADY_EXISTS, DUPLICATE_REQUEST,
-                 SCHEDULE_CONFLICT, GROUP_FULL, STUDENT_ALREADY_IN_GROUP -> 
+                 CONCURRENT_MODIFICATION, SCHEDULE_CONFLICT, GROUP_FULL, STUDENT_ALREADY_IN_GROUP -> 
                 HttpStatus.CONFLICT;
             
             // 400 Bad Request - Datos inválidos o errores de validación
             case INVALID_CREDENTIALS, VALIDATION_ERROR, INVALID_ARGUMENT, 
                  MISSING_REQUIRED_FIELD, REQUEST_NOT_IN_REVIEW, INVALID_CAPACITY_GROUP,
-                 INVALID_CAREER, GROUP_CLOSED, STUDENT_NOT_IN_GROUP, NO_STUDENTS_TO_REMOVE -> 
+                 INVALID_CAREER, GROUP_CLOSED, STUDENT_NOT_IN_GROUP, NO_STUDENTS_TO_REMOVE,
+                 PREREQUISITE_CYCLE -> 
                 HttpStatus.BAD_REQUEST;
             
             // 403 Forbidden - Permisos insuficientes
@@ -167,6 +168,14 @@ public class GlobalExceptionHandler {
             case EXTERNAL_SERVICE_ERROR -> 
                 HttpStatus.BAD_GATEWAY;
             
+            // 429 Too Many Requests - Límite de intentos superado
+            case TOO_MANY_REQUESTS -> 
+                HttpStatus.TOO_MANY_REQUESTS;
+            
+            // 503 Service Unavailable - Capacidad agotada, reintentar más tarde
+            case SERVICE_UNAVAILABLE -> 
+                HttpStatus.SERVICE_UNAVAILABLE;
+            
             // 500 Internal Server Error - Errores del sistema
             case INTERNAL_ERROR, DATABASE_ERROR -> 
                 HttpStatus.INTERNAL_SERVER_ERROR;
@@ -218,6 +227,9 @@ public class GlobalExceptionHandler {
                 
             case ACADEMIC_PERIOD_NOT_FOUND -> 
                 "Verifique que el período académico esté configurado correctamente.";
+
+            case ENROLLMENT_JOB_NOT_FOUND -> 
+                "Verifique el identificador del trabajo; los trabajos terminados se conservan por un tiempo limitado.";
             
             // ========== VALIDATION ERRORS ==========
             case INVALID_CREDENTIALS -> 
@@ -244,6 +256,9 @@ public class GlobalExceptionHandler {
                 
             case DUPLICATE_REQUEST -> 
                 "Ya existe una solicitud similar. Revise sus solicitudes pendientes.";
+
+            case CONCURRENT_MODIFICATION ->
+                "Otra operación modificó los mismos datos al mismo tiempo. Reintente en unos segundos.";
             
             // ========== BUSINESS LOGIC ERRORS ==========
             case INSUFFICIENT_PERMISSIONS -> 
@@ -290,6 +305,10 @@ public class GlobalExceptionHandler {
                 
             case DATABASE_ERROR -> 
                 "Error de base de datos. Contacte soporte técnico si el problema persiste.";
+            case TOO_MANY_REQUESTS ->
+                "Se superó el número de intentos permitidos. Espere unos segundos antes de reintentar.";
+            case SERVICE_UNAVAILABLE ->
+                "El servicio está atendiendo demasiadas solicitudes. Reintente en unos segundos.";
             case INVALID_DATE_RANGE ->
                 "Verifique que las fechas proporcionadas sean correctas y estén en el formato adecuado.";
 
@@ -310,6 +329,8 @@ public class GlobalExceptionHandler {
                 "La materia no está en el plan de estudios del estudiante. Verifique el plan de estudios.";
             case PREREQUISITES_NOT_MET ->
                 "No se cumplen los prerrequisitos para inscribir la materia. Revise los requisitos previos.";
+            case PREREQUISITE_CYCLE ->
+                "Los prerrequisitos forman un ciclo. Revise las materias indicadas en el plan de estudios.";
 
             case CANNOT_CHANGE_SEMESTER ->
                 "No se puede cambiar el semestre de la materia en su estado actual.";
@@ -0,0 +1,117 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.metrics;
+
+import org.springframework.stereotype.Component;
+
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de las operaciones de inscripción y del flujo de solicitudes.
+ *
+ * Cada operación se mide con el timer {@code sirha.operations}, etiquetado con
+ * {@code operation}, {@code outcome} ({@code success} o {@code error}) y {@code code}: el
+ * {@link edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha} con el que falló, o
+ * {@code NONE}. Los fallos se cuentan además en {@code sirha.errors}, para ver qué
+ * validación está rechazando el tráfico.
+ *
+ * Las llamadas a los repositorios las mide Spring Data en
+ * {@code spring.data.repository.invocations}.
+ */
+@Component
+public class SirhaMetrics {
+
+    public static final String OPERATIONS = "sirha.operations";
+    public static final String ERRORS = "sirha.errors";
+
+    public static final String ENROLL = "enrollment.enroll";
+    public static final String UNENROLL = "enrollment.unenroll";
+    public static final String ENROLL_CHECK = "enrollment.check";
+    public static final String ENROLL_BATCH = "enrollment.enroll-batch";
+    public static final String TIMETABLE = "enrollment.timetable";
+    public static final String WAITLIST_JOIN = "waitlist.join";
+    public static final String WAITLIST_LEAVE = "waitlist.leave";
+    public static final String WAITLIST_PROMOTE = "waitlist.promote";
+    public static final String CREATE_CAMBIO_GRUPO = "request.create.cambio-grupo";
+    public static final String CREATE_CAMBIO_MATERIA = "request.create.cambio-materia";
+    public static final String RECEIVE_REQUEST = "request.receive";
+    public static final String APPROVE_REQUEST = "request.approve";
+    public static final String REJECT_REQUEST = "request.reject";
+    public static final String REPRIORITIZE_REQUEST = "request.reprioritize";
+    public static final String ADD_STUDY_PLAN = "decanate.add-study-plan";
+    public static final String GROUP_UPDATE = "group.update";
+    public static final String STUDENT_UPDATE = "student.update";
+
+    /** Código de los fallos que no son {@link SirhaException}. */
+    static final String UNEXPECTED = "UNEXPECTED";
+    private static final String NO_ERROR = "NONE";
+
+    private final MeterRegistry registry;
+
+    public SirhaMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Ejecuta y mide una operación.
+     *
+     * @param operation nombre de la operación (etiqueta {@code operation})
+     * @param call operación a ejecutar
+     * @return el resultado de la operación
+     * @throws SirhaException la excepción de la operación, sin modificar
+     */
+    public <T> T record(String operation, SirhaCall<T> call) throws SirhaException {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            T result = call.call();
+            stop(sample, operation, "success", NO_ERROR);
+            return result;
+        } catch (SirhaException e) {
+            fail(sample, operation, e.getErrorCode().name());
+            throw e;
+        } catch (RuntimeException e) {
+            fail(sample, operation, UNEXPECTED);
+            throw e;
+        }
+    }
+
+    /**
+     * Igual que {@link #record(String, SirhaCall)} para operaciones sin resultado.
+     */
+    public void record(String operation, SirhaRunnable call) throws SirhaException {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private void fail(Timer.Sample sample, String operation, String code) {
+        stop(sample, operation, "error", code);
+        Counter.builder(ERRORS)
+                .description("Operaciones SIRHA fallidas, por código de error")
+                .tag("operation", operation)
+                .tag("code", code)
+                .register(registry)
+                .increment();
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome, String code) {
+        sample.stop(Timer.builder(OPERATIONS)
+                .description("Duración de las operaciones de inscripción y solicitudes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("code", code)
+                .register(registry));
+    }
+
+    @FunctionalInterface
+    public interface SirhaCall<T> {
+        T call() throws SirhaException;
+    }
+
+    @FunctionalInterface
+    public interface SirhaRunnable {
+        void run() throws SirhaException;
+    }
+}
@@ -0,0 +1,88 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.Projections;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Gauges de carga durante las inscripciones: cupos abiertos por grupo
+ * ({@code sirha.groups.open.seats}, etiquetas {@code group} y {@code period}) y solicitudes
+ * pendientes por decanatura ({@code sirha.decanates.pending.requests}, etiqueta
+ * {@code decanate}).
+ *
+ * Los valores se leen de Mongo cada {@code sirha.metrics.gauges.refresh-ms} con una
+ * proyección de los campos necesarios, no en cada scrape; los grupos y decanaturas que
+ * desaparecen dejan de publicarse en la siguiente lectura.
+ *
+ * Se activa con {@code sirha.metrics.gauges.enabled=true}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "sirha.metrics.gauges.enabled", havingValue = "true")
+public class WorkloadGauges {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadGauges.class);
+
+    public static final String OPEN_SEATS = "sirha.groups.open.seats";
+    public static final String PENDING_REQUESTS = "sirha.decanates.pending.requests";
+
+    private final MongoTemplate mongoTemplate;
+    private final MultiGauge openSeats;
+    private final MultiGauge pendingRequests;
+
+    public WorkloadGauges(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.openSeats = MultiGauge.builder(OPEN_SEATS)
+                .description("Cupos disponibles por grupo")
+                .register(meterRegistry);
+        this.pendingRequests = MultiGauge.builder(PENDING_REQUESTS)
+                .description("Solicitudes en la cola de cada decanatura")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sirha.metrics.gauges.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            List<MultiGauge.Row<?>> seats = new ArrayList<>();
+            mongoTemplate.getCollection("groups").find()
+                    .projection(Projections.include("code", "currentPeriod.period", "cuposDisponibles"))
+                    .forEach(group -> seats.add(MultiGauge.Row.of(
+                            Tags.of("group", String.valueOf(group.getString("code")),
+                                    "period", String.valueOf(group.getEmbedded(List.of("currentPeriod", "period"), String.class))),
+                            number(group.get("cuposDisponibles")))));
+            openSeats.register(seats, true);
+
+            List<MultiGauge.Row<?>> pending = new ArrayList<>();
+            mongoTemplate.getCollection("decanaturas").aggregate(List.of(new Document("$project",
+                            new Document("name", 1).append("pending",
+                                    new Document("$size", new Document("$ifNull", List.of("$receivedRequests", List.of())))))))
+                    .forEach(decanate -> pending.add(MultiGauge.Row.of(
+                            Tags.of("decanate", String.valueOf(decanate.getString("name"))),
+                            number(decanate.get("pending")))));
+            pendingRequests.register(pending, true);
+            log.debug("Gauges actualizados: {} grupos, {} decanaturas", seats.size(), pending.size());
+        } catch (MongoException | DataAccessException e) {
+            log.warn("No se pudieron actualizar los gauges de carga: {}", e.getMessage());
+        }
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number n ? n : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.scheduling;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepository;
+import edu.dosw.sirha.sirha_backend.service.WaitlistService;
+
+/**
+ * Reintenta la promoción de las listas de espera con cupos retenidos sin asignar.
+ *
+ * La desinscripción promueve al siguiente de la lista en la misma petición; este barrido
+ * cubre los casos en que esa promoción falló o la instancia se detuvo entre la liberación
+ * del cupo y la promoción. Los grupos se leen con el índice parcial sobre
+ * {@code cuposRetenidos}, así que el barrido no recorre la colección.
+ *
+ * Se activa con {@code sirha.waitlist.sweeper.enabled=true}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "sirha.waitlist.sweeper.enabled", havingValue = "true")
+public class WaitlistSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistSweeper.class);
+
+    private final GroupWaitlistRepository waitlistRepository;
+    private final WaitlistService waitlistService;
+
+    public WaitlistSweeper(@Qualifier("groupMongoRepository") GroupWaitlistRepository waitlistRepository,
+                           WaitlistService waitlistService) {
+        this.waitlistRepository = waitlistRepository;
+        this.waitlistService = waitlistService;
+    }
+
+    @Scheduled(fixedDelayString = "${sirha.waitlist.sweeper.interval-ms:30000}")
+    public void sweep() {
+        List<String> groupCodes;
+        try {
+            groupCodes = waitlistRepository.findCodesWithHeldSeats();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron leer los grupos con cupos retenidos: {}", e.getMessage());
+            return;
+        }
+        int promoted = 0;
+        for (String groupCode : groupCodes) {
+            try {
+                promoted += waitlistService.promote(groupCode);
+            } catch (SirhaException e) {
+                log.warn("No se pudo promover la lista de espera del grupo {}: {}", groupCode, e.getMessage());
+            }
+        }
+        if (!groupCodes.isEmpty()) {
+            log.info("Barrido de listas de espera: {} grupos con cupos retenidos, {} estudiantes promovidos",
+                    groupCodes.size(), promoted);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.security;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Account;
+
+/**
+ * Saca de la {@link UserCache} cada cuenta que se guarda, para que un cambio de contraseña
+ * o de rol se vea en el siguiente login de esta instancia en lugar de esperar a que venza
+ * la entrada.
+ */
+@Component
+public class AccountCacheEviction extends AbstractMongoEventListener<Account> {
+
+    private final UserCache userCache;
+
+    public AccountCacheEviction(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Account> event) {
+        userCache.removeUserFromCache(event.getSource().getUsername());
+    }
+}
@@ -0,0 +1,58 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Account;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Role;
+
+/**
+ * Cuenta autenticada tal como la leyó {@code CustomUserDetailsService}: además del hash
+ * trae el correo y el rol, así el login arma su respuesta sin volver a consultar
+ * {@code accounts}.
+ *
+ * No implementa {@code CredentialsContainer}: al terminar la autenticación
+ * {@code ProviderManager} borra las credenciales del principal, y este mismo objeto es el
+ * que queda en {@link CaffeineUserCache}.
+ */
+public final class AccountUserDetails implements UserDetails {
+
+    private final String username;
+    private final String email;
+    private final String passwordHash;
+    private final Role role;
+
+    public AccountUserDetails(Account account) {
+        this.username = account.getUsername();
+        this.email = account.getEmail();
+        this.passwordHash = account.getPasswordHash();
+        this.role = account.getRole();
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,58 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de las cuentas consultadas en el login, para no leer {@code accounts} en cada intento.
+ *
+ * La usa {@code DaoAuthenticationProvider}: si la contraseña no coincide con la cuenta
+ * cacheada vuelve a leerla de Mongo antes de rechazar el login, así que la contraseña nueva
+ * funciona de inmediato. La vieja, en cambio, seguiría coincidiendo con la entrada cacheada:
+ * {@link AccountCacheEviction} la quita al guardar la cuenta. Las cuentas guardadas desde
+ * otra instancia solo salen al vencer la entrada ({@code expire-after-write}). Aciertos y
+ * fallos se publican como métricas {@code cache.*} con la etiqueta {@code cache=auth.users}.
+ */
+@Component
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public CaffeineUserCache(MeterRegistry meterRegistry,
+                             @Value("${sirha.auth.user-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${sirha.auth.user-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.users");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return username == null ? null : cache.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limita los intentos de login con token buckets por dirección IP y por usuario.
+ *
+ * Cada intento consume un token del bucket de la IP. El bucket del usuario solo se
+ * consume con los intentos fallidos: frena la prueba de contraseñas contra una cuenta sin
+ * castigar a quien entra varias veces con la contraseña correcta. Los buckets inactivos
+ * se descartan de la memoria.
+ *
+ * Los rechazos se cuentan en {@code sirha.auth.rejections} con la etiqueta {@code reason}.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    public static final String REJECTIONS = "sirha.auth.rejections";
+
+    private final Limit userLimit;
+    private final Limit ipLimit;
+    private final Cache<String, TokenBucket> users;
+    private final Cache<String, TokenBucket> ips;
+    private final Counter userRejections;
+    private final Counter ipRejections;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${sirha.auth.throttle.user.capacity:10}") int userCapacity,
+                         @Value("${sirha.auth.throttle.user.refill-per-minute:10}") int userRefill,
+                         @Value("${sirha.auth.throttle.ip.capacity:200}") int ipCapacity,
+                         @Value("${sirha.auth.throttle.ip.refill-per-minute:200}") int ipRefill,
+                         @Value("${sirha.auth.throttle.maximum-keys:100000}") long maximumKeys) {
+        this.userLimit = new Limit("sirha.auth.throttle.user", userCapacity, userRefill);
+        this.ipLimit = new Limit("sirha.auth.throttle.ip", ipCapacity, ipRefill);
+        this.users = buckets(userLimit, maximumKeys);
+        this.ips = buckets(ipLimit, maximumKeys);
+        this.userRejections = rejections(meterRegistry, "user_throttled");
+        this.ipRejections = rejections(meterRegistry, "ip_throttled");
+    }
+
+    static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTIONS)
+                .description("Intentos de login rechazados antes de verificar la contraseña")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Cache<String, TokenBucket> buckets(Limit limit, long maximumKeys) {
+        // Un bucket inactivo más tiempo del que tarda en llenarse equivale a uno nuevo
+        return Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(limit.timeToFill())
+                .build();
+    }
+
+    /**
+     * Registra un intento de login y comprueba que la IP y el usuario tengan intentos disponibles.
+     *
+     * @throws SirhaException {@code TOO_MANY_REQUESTS} si alguno de los dos agotó su bucket
+     */
+    public void acquire(String username, String clientIp) throws SirhaException {
+        if (!ips.get(key(clientIp), k -> new TokenBucket(ipLimit)).tryConsume()) {
+            ipRejections.increment();
+            log.warn("Login rechazado: demasiados intentos desde {}", clientIp);
+            throw SirhaException.of(ErrorCodeSirha.TOO_MANY_REQUESTS, "Demasiados intentos de login desde esta dirección");
+        }
+        TokenBucket user = users.getIfPresent(key(username));
+        if (user != null && !user.hasToken()) {
+            userRejections.increment();
+            log.warn("Login rechazado: demasiados intentos fallidos para {}", username);
+            throw SirhaException.of(ErrorCodeSirha.TOO_MANY_REQUESTS, "Demasiados intentos fallidos para este usuario");
+        }
+    }
+
+    /**
+     * Descuenta un intento fallido del bucket del usuario.
+     */
+    public void recordFailure(String username) {
+        users.get(key(username), k -> new TokenBucket(userLimit)).tryConsume();
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value;
+    }
+
+    /** Capacidad y recarga de un tipo de bucket. */
+    record Limit(double capacity, double tokensPerNano) {
+
+        Limit(String property, int capacity, int refillPerMinute) {
+            this(capacity, refillPerMinute / (double) Duration.ofMinutes(1).toNanos());
+            if (capacity < 1 || refillPerMinute < 1) {
+                throw new IllegalArgumentException(property + ": capacidad y recarga deben ser positivas");
+            }
+        }
+
+        Duration timeToFill() {
+            return Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano));
+        }
+    }
+
+    /**
+     * Token bucket sin bloqueos: el estado es inmutable y se reemplaza con CAS, así que
+     * nunca retiene un hilo (tampoco un hilo virtual).
+     */
+    static final class TokenBucket {
+
+        private record State(double tokens, long at) {
+        }
+
+        private final Limit limit;
+        private final AtomicReference<State> state;
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.state = new AtomicReference<>(new State(limit.capacity(), System.nanoTime()));
+        }
+
+        boolean hasToken() {
+            return refilled(state.get(), System.nanoTime()).tokens() >= 1;
+        }
+
+        boolean tryConsume() {
+            while (true) {
+                State current = state.get();
+                State refilled = refilled(current, System.nanoTime());
+                if (refilled.tokens() < 1) {
+                    return false;
+                }
+                if (state.compareAndSet(current, new State(refilled.tokens() - 1, refilled.at()))) {
+                    return true;
+                }
+            }
+        }
+
+        private State refilled(State current, long now) {
+            double tokens = Math.min(limit.capacity(), current.tokens() + (now - current.at()) * limit.tokensPerNano());
+            return new State(tokens, now);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Pool acotado para las verificaciones de contraseña (BCrypt) del login.
+ *
+ * BCrypt consume CPU a propósito; con un pool de pocos hilos y una cola de capacidad fija,
+ * una avalancha de logins al inicio del período no puede quitarle toda la CPU a las
+ * inscripciones. Si la cola está llena el login se rechaza de inmediato con
+ * {@code SERVICE_UNAVAILABLE}, y también si la verificación no termina a tiempo.
+ *
+ * Métricas: {@code sirha.auth.verification} (duración de la verificación, por
+ * {@code outcome}), {@code sirha.auth.verification.wait} (espera en la cola),
+ * {@code sirha.auth.rejections} con {@code reason=queue_full} o {@code timeout}, y las
+ * del pool con {@code name=auth.verification}.
+ */
+@Component
+public class PasswordVerificationExecutor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerificationExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+    private final Timer waitTimer;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public PasswordVerificationExecutor(MeterRegistry meterRegistry,
+                                        @Value("${sirha.auth.verification.threads:0}") int threads,
+                                        @Value("${sirha.auth.verification.queue-capacity:64}") int queueCapacity,
+                                        @Value("${sirha.auth.verification.timeout:5s}") Duration timeout) {
+        // Por defecto la mitad de los núcleos: el resto queda para las demás peticiones
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("sirha.auth.verification.queue-capacity debe ser positivo: " + queueCapacity);
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "password-verification-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        this.waitTimer = Timer.builder("sirha.auth.verification.wait")
+                .description("Espera en cola antes de verificar una contraseña")
+                .register(meterRegistry);
+        this.queueFull = LoginThrottle.rejections(meterRegistry, "queue_full");
+        this.timedOut = LoginThrottle.rejections(meterRegistry, "timeout");
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.verification");
+        log.info("Verificación de contraseñas: {} hilos, cola de {}, tiempo máximo {}", size, queueCapacity, timeout);
+    }
+
+    /**
+     * Ejecuta una verificación en el pool y espera su resultado.
+     *
+     * @param verification verificación a ejecutar; sus excepciones no comprobadas se
+     *                     propagan sin cambios
+     * @throws SirhaException {@code SERVICE_UNAVAILABLE} si la cola está llena o se agota el tiempo
+     */
+    public <T> T verify(Supplier<T> verification) throws SirhaException {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "failure";
+                try {
+                    T result = verification.get();
+                    outcome = "success";
+                    return result;
+                } finally {
+                    sample.stop(Timer.builder("sirha.auth.verification")
+                            .description("Duración de la verificación de credenciales")
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            log.warn("Verificación de contraseña rechazada: cola llena ({} en espera)", executor.getQueue().size());
+            throw SirhaException.of(ErrorCodeSirha.SERVICE_UNAVAILABLE, "Demasiados inicios de sesión simultáneos");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw SirhaException.of(ErrorCodeSirha.SERVICE_UNAVAILABLE, "La verificación de credenciales tardó demasiado");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw SirhaException.of(ErrorCodeSirha.SERVICE_UNAVAILABLE, "Verificación de credenciales interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al verificar credenciales: " + e.getCause().getMessage(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,248 @@
+package edu.dosw.sirha.sirha_backend.infrastructure.transaction;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mongodb.MongoException;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics.SirhaCall;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics.SirhaRunnable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ejecuta una unidad de trabajo de varias escrituras dentro de una transacción de Mongo y
+ * la repite cuando pierde una carrera con otra escritura.
+ *
+ * Si la transacción aborta con la etiqueta {@code TransientTransactionError} (conflicto de
+ * escritura, elección de primario) no se aplicó nada y se repite la unidad completa, hasta
+ * {@code sirha.mongo.transactions.max-attempts} intentos con una espera creciente. Por eso
+ * la unidad debe leer dentro del callback todo lo que escribe: cada intento parte de lo
+ * que hay en la base, no del intento anterior. Una {@link SirhaException} de la unidad
+ * deshace la transacción y se propaga tal cual.
+ *
+ * Sin gestor de transacciones ({@code sirha.mongo.transactions.enabled=false}) la unidad se
+ * ejecuta directamente y {@link #isEnabled()} devuelve {@code false}, para que el servicio
+ * compense a mano lo que haya escrito. Dentro de una transacción ya abierta no se reintenta
+ * nada: eso le toca a quien la abrió.
+ *
+ * Con o sin transacciones, si la unidad falla con {@link OptimisticLockingFailureException}
+ * (guardó un estudiante, grupo o decanatura cuya {@code version} ya había cambiado) se repite
+ * también, hasta {@code sirha.mongo.optimistic.max-attempts} intentos con su propia espera;
+ * al agotarlos responde {@code CONCURRENT_MODIFICATION}.
+ *
+ * Cada transacción se cuenta en {@code sirha.transactions}, etiquetado con
+ * {@code operation} y {@code outcome} ({@code commit}, {@code rollback} o {@code retry}).
+ * Los conflictos de versión se cuentan en {@code sirha.version-conflicts}, con
+ * {@code outcome} {@code retry} o {@code exhausted}; su tasa frente a
+ * {@code sirha.operations} es la tasa de reintentos de cada operación.
+ */
+@Component
+public class TransactionRunner {
+
+    public static final String TRANSACTIONS = "sirha.transactions";
+    public static final String VERSION_CONFLICTS = "sirha.version-conflicts";
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionRunner.class);
+
+    private final TransactionTemplate template;
+    private final MeterRegistry registry;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final int maxConflictAttempts;
+    private final Duration conflictBackoff;
+
+    public TransactionRunner(Optional<PlatformTransactionManager> transactionManager,
+                             MeterRegistry registry,
+                             @Value("${sirha.mongo.transactions.max-attempts:3}") int maxAttempts,
+                             @Value("${sirha.mongo.transactions.retry-backoff:20ms}") Duration backoff,
+                             @Value("${sirha.mongo.optimistic.max-attempts:5}") int maxConflictAttempts,
+                             @Value("${sirha.mongo.optimistic.retry-backoff:10ms}") Duration conflictBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("sirha.mongo.transactions.max-attempts debe ser positivo: " + maxAttempts);
+        }
+        if (maxConflictAttempts < 1) {
+            throw new IllegalArgumentException("sirha.mongo.optimistic.max-attempts debe ser positivo: " + maxConflictAttempts);
+        }
+        this.template = transactionManager.map(TransactionTemplate::new).orElse(null);
+        this.registry = registry;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxConflictAttempts = maxConflictAttempts;
+        this.conflictBackoff = conflictBackoff;
+    }
+
+    /**
+     * Indica si las unidades se ejecutan en transacciones. Si no, quien escribe varios
+     * documentos debe deshacer lo escrito cuando falla.
+     */
+    public boolean isEnabled() {
+        return template != null;
+    }
+
+    /**
+     * Ejecuta la unidad en una transacción, repitiéndola si aborta por un error transitorio
+     * o por un conflicto de versión.
+     *
+     * @param operation nombre de la operación (etiqueta {@code operation})
+     * @param unit unidad de trabajo; puede ejecutarse más de una vez
+     * @return el resultado del intento que confirmó
+     * @throws SirhaException la excepción de la unidad; {@code INTERNAL_ERROR} si se agotaron
+     *         los intentos por errores transitorios o {@code CONCURRENT_MODIFICATION} si se
+     *         agotaron por conflictos de versión
+     */
+    public <T> T execute(String operation, SirhaCall<T> unit) throws SirhaException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return unit.call();
+        }
+        for (int conflicts = 1; ; conflicts++) {
+            try {
+                return template == null ? unit.call() : inTransaction(operation, unit);
+            } catch (SirhaException | RuntimeException e) {
+                if (!isVersionConflict(e)) {
+                    throw e;
+                }
+                if (conflicts >= maxConflictAttempts) {
+                    countConflict(operation, "exhausted");
+                    throw SirhaException.of(ErrorCodeSirha.CONCURRENT_MODIFICATION,
+                            "La operación " + operation + " chocó " + conflicts + " veces con otras escrituras", e);
+                }
+                countConflict(operation, "retry");
+                log.debug("Operación {} con una versión desactualizada, reintentando ({} de {})",
+                        operation, conflicts, maxConflictAttempts);
+                pause(conflictBackoff, conflicts);
+            }
+        }
+    }
+
+    /** Una transacción con sus reintentos por errores transitorios. */
+    private <T> T inTransaction(String operation, SirhaCall<T> unit) throws SirhaException {
+        for (int attempt = 1; ; attempt++) {
+            RuntimeException failure;
+            try {
+                T result = template.execute(status -> {
+                    try {
+                        return unit.call();
+                    } catch (SirhaException e) {
+                        throw new Rollback(e);
+                    }
+                });
+                count(operation, "commit");
+                return result;
+            } catch (Rollback e) {
+                if (!isTransient(e.getCause()) || attempt >= maxAttempts) {
+                    count(operation, "rollback");
+                    throw (SirhaException) e.getCause();
+                }
+                failure = e;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt >= maxAttempts) {
+                    count(operation, "rollback");
+                    if (isTransient(e)) {
+                        throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,
+                                "La transacción " + operation + " abortó " + attempt + " veces por conflictos: " + e.getMessage(), e);
+                    }
+                    throw e;
+                }
+                failure = e;
+            }
+            count(operation, "retry");
+            log.debug("Transacción {} abortada por un error transitorio, reintentando ({} de {}): {}",
+                    operation, attempt, maxAttempts, failure.getMessage());
+            pause(backoff, attempt);
+        }
+    }
+
+    /**
+     * Igual que {@link #execute(String, SirhaCall)} para unidades sin resultado.
+     */
+    public void execute(String operation, SirhaRunnable unit) throws SirhaException {
+        execute(operation, () -> {
+            unit.run();
+            return null;
+        });
+    }
+
+    /**
+     * Busca en la cadena de causas un error del driver marcado como transitorio: Spring lo
+     * traduce y los servicios lo envuelven en {@code INTERNAL_ERROR}.
+     */
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca en la cadena de causas el conflicto de versión de Spring Data, también cuando el
+     * servicio lo envolvió en una {@link SirhaException}.
+     */
+    static boolean isVersionConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /** Espera creciente con variación aleatoria, para que los intentos en conflicto no choquen otra vez. */
+    private static void pause(Duration backoff, int attempt) {
+        long base = backoff.toMillis() * attempt;
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando para reintentar la transacción", e);
+        }
+    }
+
+    private void count(String operation, String outcome) {
+        Counter.builder(TRANSACTIONS)
+                .description("Transacciones de Mongo por resultado")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private void countConflict(String operation, String outcome) {
+        Counter.builder(VERSION_CONFLICTS)
+                .description("Conflictos de versión por resultado")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /** Lleva una {@link SirhaException} fuera del callback para que la transacción se deshaga. */
+    private static final class Rollback extends RuntimeException {
+        Rollback(SirhaException cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
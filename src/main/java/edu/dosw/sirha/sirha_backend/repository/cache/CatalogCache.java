@@ -0,0 +1,190 @@
+package edu.dosw.sirha.sirha_backend.repository.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.repository.mongo.AcademicPeriodMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudyPlanMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.SubjectMongoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria para las consultas de catálogo (materias, grupos, planes de estudio y
+ * períodos académicos), que cambian poco pero se leen en cada inscripción y solicitud.
+ *
+ * Se guarda el documento de Mongo y no la entidad: cada acierto materializa una instancia
+ * nueva, así dos peticiones nunca comparten (ni modifican) el mismo objeto de dominio.
+ * Los servicios que escriben en estas colecciones deben invalidar la entrada afectada.
+ * Esa invalidación es local a la réplica: una escritura hecha en otra instancia solo se
+ * ve aquí cuando la entrada expira, así que el tiempo de expiración es la cota de
+ * desactualización. Los grupos cambian con cada inscripción y tienen su propia
+ * expiración, corta ({@code sirha.cache.catalog.groups.expire-after-write}, 5 segundos
+ * por defecto); el resto del catálogo cambia poco y usa la general. Ninguna decisión de
+ * cupos se toma con la copia cacheada: la reserva se evalúa en Mongo.
+ *
+ * Aciertos, fallos y desalojos se publican en Actuator como métricas {@code cache.*}
+ * con la etiqueta {@code cache=catalog.<colección>}.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final SubjectMongoRepository subjectRepository;
+    private final GroupMongoRepository groupRepository;
+    private final StudyPlanMongoRepository studyPlanRepository;
+    private final AcademicPeriodMongoRepository academicPeriodRepository;
+    private final MongoConverter converter;
+
+    private final Region subjects;
+    private final Region groups;
+    private final Region studyPlans;
+    private final Region academicPeriods;
+
+    /** Caché con la misma expiración para todas las colecciones, grupos incluidos. */
+    public CatalogCache(SubjectMongoRepository subjectRepository,
+                        GroupMongoRepository groupRepository,
+                        StudyPlanMongoRepository studyPlanRepository,
+                        AcademicPeriodMongoRepository academicPeriodRepository,
+                        MongoConverter converter,
+                        MeterRegistry meterRegistry,
+                        long maximumSize,
+                        Duration expireAfterWrite) {
+        this(subjectRepository, groupRepository, studyPlanRepository, academicPeriodRepository, converter,
+                meterRegistry, maximumSize, expireAfterWrite, expireAfterWrite);
+    }
+
+    @Autowired
+    public CatalogCache(SubjectMongoRepository subjectRepository,
+                        GroupMongoRepository groupRepository,
+                        StudyPlanMongoRepository studyPlanRepository,
+                        AcademicPeriodMongoRepository academicPeriodRepository,
+                        MongoConverter converter,
+                        MeterRegistry meterRegistry,
+                        @Value("${sirha.cache.catalog.maximum-size:2000}") long maximumSize,
+                        @Value("${sirha.cache.catalog.expire-after-write:10m}") Duration expireAfterWrite,
+                        @Value("${sirha.cache.catalog.groups.expire-after-write:5s}") Duration groupsExpireAfterWrite) {
+        this.subjectRepository = subjectRepository;
+        this.groupRepository = groupRepository;
+        this.studyPlanRepository = studyPlanRepository;
+        this.academicPeriodRepository = academicPeriodRepository;
+        this.converter = converter;
+        this.subjects = new Region("catalog.subjects", maximumSize, expireAfterWrite, meterRegistry);
+        this.groups = new Region("catalog.groups", maximumSize, groupsExpireAfterWrite, meterRegistry);
+        this.studyPlans = new Region("catalog.study-plans", maximumSize, expireAfterWrite, meterRegistry);
+        this.academicPeriods = new Region("catalog.academic-periods", maximumSize, expireAfterWrite, meterRegistry);
+        log.info("CatalogCache inicializada (máximo {} entradas por colección, expiración {}, grupos {})",
+                maximumSize, expireAfterWrite, groupsExpireAfterWrite);
+    }
+
+    public Optional<Subject> findSubjectByName(String name) {
+        return lookup(subjects, name, Subject.class, () -> subjectRepository.findByName(name));
+    }
+
+    public Optional<Group> findGroupByCode(String code) {
+        return lookup(groups, code, Group.class, () -> groupRepository.findByCode(code));
+    }
+
+    public Optional<StudyPlan> findStudyPlanByName(String name) {
+        return lookup(studyPlans, name, StudyPlan.class,
+                () -> Optional.ofNullable(studyPlanRepository.findStudyPlanByName(name)));
+    }
+
+    public Optional<AcademicPeriod> findAcademicPeriod(String period) {
+        return lookup(academicPeriods, period, AcademicPeriod.class, () -> academicPeriodRepository.findByPeriod(period));
+    }
+
+    public void evictSubject(String name) {
+        subjects.invalidate(name);
+    }
+
+    public void evictGroup(String code) {
+        groups.invalidate(code);
+    }
+
+    public void evictStudyPlan(String name) {
+        studyPlans.invalidate(name);
+    }
+
+    public void evictAcademicPeriod(String period) {
+        academicPeriods.invalidate(period);
+    }
+
+    /**
+     * Vacía todas las colecciones; útil tras cargas masivas o migraciones.
+     */
+    public void clear() {
+        subjects.invalidateAll();
+        groups.invalidateAll();
+        studyPlans.invalidateAll();
+        academicPeriods.invalidateAll();
+    }
+
+    private <T> Optional<T> lookup(Region region, String key, Class<T> type, Supplier<Optional<T>> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+        Document cached = region.cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(converter.read(type, cached));
+        }
+        long generation = region.generation.get();
+        Optional<T> loaded = loader.get();
+        loaded.ifPresent(entity -> {
+            Document document = new Document();
+            converter.write(entity, document);
+            region.cache.put(key, document);
+            // Si hubo una invalidación mientras se consultaba, lo leído puede estar desactualizado
+            if (region.generation.get() != generation) {
+                region.cache.invalidate(key);
+            }
+        });
+        return loaded;
+    }
+
+    /** Una colección cacheada con su contador de invalidaciones. */
+    private static final class Region {
+        private final Cache<String, Document> cache;
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(String name, long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(expireAfterWrite)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        }
+
+        void invalidate(String key) {
+            if (key != null) {
+                generation.incrementAndGet();
+                cache.invalidate(key);
+            }
+        }
+
+        void invalidateAll() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package edu.dosw.sirha.sirha_backend.repository.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.model.Projections;
+
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Índice en memoria de los horarios de los grupos de cada período académico, para
+ * responder qué grupos abiertos caben en el horario de un estudiante sin leer Mongo.
+ *
+ * Cada período se carga completo la primera vez que se consulta. Las máscaras de franjas
+ * de {@link WeeklyTimetable} se guardan por día en arreglos contiguos: revisar miles de
+ * grupos son unas pocas operaciones AND por grupo, y solo los grupos con horas no
+ * alineadas a franjas se confirman con la comparación exacta.
+ *
+ * Los servicios que agregan horarios, abren, cierran, crean o borran grupos (y la reserva
+ * de cupos, que cierra el grupo al llenarse) actualizan el índice con el grupo guardado.
+ * Las actualizaciones reemplazan el índice del período por una copia, así las consultas
+ * nunca bloquean. Como en {@link CatalogCache}, el tiempo de expiración acota lo
+ * desactualizado que puede estar el índice frente a escrituras de otra instancia.
+ */
+@Component
+public class GroupCompatibilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCompatibilityIndex.class);
+
+    private static final DiasSemana[] DAYS = DiasSemana.values();
+
+    private final GroupMongoRepository groupRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, PeriodIndex> periods;
+
+    public GroupCompatibilityIndex(GroupMongoRepository groupRepository,
+                                   MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${sirha.groups.compatibility-index.maximum-periods:8}") long maximumPeriods,
+                                   @Value("${sirha.groups.compatibility-index.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.groupRepository = groupRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.periods = Caffeine.newBuilder()
+                .maximumSize(maximumPeriods)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, periods, "groups.compatibility");
+    }
+
+    /** Grupo indexado: materia, horario y si acepta inscripciones. */
+    public record Entry(String code, String subject, String period, WeeklyTimetable timetable, boolean open) {
+
+        static Entry of(String subject, Group group) {
+            return new Entry(group.getCode(), subject, periodOf(group), group.getTimetable(), group.isOpen());
+        }
+
+        /** Igualdad por contenido: la reserva de cupos reescribe el grupo sin cambiar su horario. */
+        boolean sameAs(Entry other) {
+            return other != null && open == other.open && Objects.equals(subject, other.subject)
+                    && timetable.getSchedules().equals(other.timetable.getSchedules());
+        }
+    }
+
+    /**
+     * Grupos abiertos del período que no se cruzan con la ocupación dada.
+     *
+     * @param period    período académico (por ejemplo {@code 2025-1})
+     * @param occupancy ocupación actual del estudiante
+     * @return grupos compatibles, ordenados por materia y código
+     */
+    public List<Entry> findCompatible(String period, WeeklyTimetable occupancy) {
+        return periods.get(period, this::load).compatibleWith(occupancy);
+    }
+
+    /**
+     * Refleja un grupo recién guardado, conservando la materia que ya tenía en el índice.
+     */
+    public void update(Group group) {
+        update(null, group);
+    }
+
+    /**
+     * Refleja un grupo recién guardado. Si el período no está cargado no hace nada: se
+     * leerá completo en la próxima consulta.
+     *
+     * @param subject nombre de la materia, o null para conservar el que ya tenía
+     */
+    public void update(String subject, Group group) {
+        String period = periodOf(group);
+        if (period == null || group.getCode() == null) {
+            return;
+        }
+        periods.asMap().computeIfPresent(period, (key, index) -> index.with(subject, group));
+        // Un grupo que cambió de período sale de los demás índices cargados
+        for (String other : periods.asMap().keySet()) {
+            if (!other.equals(period)) {
+                periods.asMap().computeIfPresent(other, (key, index) -> index.without(group.getCode()));
+            }
+        }
+    }
+
+    public void remove(Group group) {
+        String period = periodOf(group);
+        if (period != null) {
+            periods.asMap().computeIfPresent(period, (key, index) -> index.without(group.getCode()));
+        }
+    }
+
+    /**
+     * Descarta todos los períodos; útil tras cargas masivas o migraciones.
+     */
+    public void clear() {
+        periods.invalidateAll();
+    }
+
+    private PeriodIndex load(String period) {
+        long start = System.nanoTime();
+        Map<String, String> subjects = subjectsByGroupCode();
+        List<Entry> entries = new ArrayList<>();
+        for (Group group : groupRepository.findByCurrentPeriodPeriod(period)) {
+            entries.add(Entry.of(subjects.get(group.getCode()), group));
+        }
+        PeriodIndex index = PeriodIndex.of(entries);
+        log.info("Índice de compatibilidad del período {} cargado: {} grupos en {} ms",
+                period, entries.size(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /**
+     * Nombre de la materia de cada código de grupo. El grupo no guarda su materia: se toma
+     * de la lista embebida en cada materia, leyendo solo el nombre y los códigos.
+     */
+    protected Map<String, String> subjectsByGroupCode() {
+        Map<String, String> subjects = new HashMap<>();
+        mongoTemplate.getCollection("subjects").find()
+                .projection(Projections.include("name", "groups.code"))
+                .forEach(subject -> {
+                    List<Document> groups = subject.getList("groups", Document.class, List.of());
+                    for (Document group : groups) {
+                        subjects.put(group.getString("code"), subject.getString("name"));
+                    }
+                });
+        return subjects;
+    }
+
+    private static String periodOf(Group group) {
+        return group.getCurrentPeriod() == null ? null : group.getCurrentPeriod().getPeriod();
+    }
+
+    /**
+     * Grupos de un período en arreglos paralelos. Inmutable: los cambios producen una copia.
+     */
+    static final class PeriodIndex {
+
+        private final Entry[] entries;
+        private final long[][] masks;
+        private final boolean[] aligned;
+        private final Map<String, Integer> positions;
+
+        private PeriodIndex(Entry[] entries) {
+            this.entries = entries;
+            this.masks = new long[DAYS.length][entries.length];
+            this.aligned = new boolean[entries.length];
+            this.positions = new HashMap<>(entries.length * 2);
+            for (int i = 0; i < entries.length; i++) {
+                WeeklyTimetable timetable = entries[i].timetable();
+                for (DiasSemana day : DAYS) {
+                    masks[day.ordinal()][i] = timetable.getDayMask(day);
+                }
+                aligned[i] = timetable.isAligned();
+                positions.put(entries[i].code(), i);
+            }
+        }
+
+        static PeriodIndex of(List<Entry> entries) {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator
+                    .comparing(Entry::subject, Comparator.nullsLast(String::compareTo))
+                    .thenComparing(Entry::code));
+            return new PeriodIndex(sorted.toArray(new Entry[0]));
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        List<Entry> compatibleWith(WeeklyTimetable occupancy) {
+            long[] occupied = new long[DAYS.length];
+            for (DiasSemana day : DAYS) {
+                occupied[day.ordinal()] = occupancy.getDayMask(day);
+            }
+            boolean occupancyAligned = occupancy.isAligned();
+            List<Entry> compatible = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                if (!entries[i].open()) {
+                    continue;
+                }
+                boolean overlaps = false;
+                for (int d = 0; d < occupied.length && !overlaps; d++) {
+                    overlaps = (masks[d][i] & occupied[d]) != 0;
+                }
+                // Con horas no alineadas la máscara es aproximada: se confirma con los horarios
+                if (!overlaps || (!(aligned[i] && occupancyAligned) && !entries[i].timetable().conflictsWith(occupancy))) {
+                    compatible.add(entries[i]);
+                }
+            }
+            return compatible;
+        }
+
+        PeriodIndex with(String subject, Group group) {
+            Integer position = positions.get(group.getCode());
+            Entry previous = position == null ? null : entries[position];
+            Entry updated = Entry.of(subject != null ? subject : previous == null ? null : previous.subject(), group);
+            if (updated.sameAs(previous)) {
+                return this;
+            }
+            List<Entry> copy = new ArrayList<>(List.of(entries));
+            if (position == null) {
+                copy.add(updated);
+            } else {
+                copy.set(position, updated);
+            }
+            return of(copy);
+        }
+
+        PeriodIndex without(String code) {
+            Integer position = positions.get(code);
+            if (position == null) {
+                return this;
+            }
+            List<Entry> copy = new ArrayList<>(List.of(entries));
+            copy.remove((int) position);
+            return of(copy);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package edu.dosw.sirha.sirha_backend.repository.export;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+
+/**
+ * Lectura por lotes para las exportaciones masivas.
+ *
+ * Recorre una colección con un cursor de Mongo y entrega los documentos en lotes de
+ * {@code sirha.export.batch-size}; solo el lote actual está en memoria, así que el
+ * consumo no depende del tamaño de la colección. Se leen documentos crudos con una
+ * proyección de los campos exportados, sin materializar las entidades ni resolver
+ * sus referencias.
+ */
+@Component
+public class MongoExportReader {
+
+    /** Id del plan en el estudiante: referencia {@code {_id}} o plan embebido (formato anterior). */
+    public static final String STUDENT_PLAN = "academicProgress.studyPlan._id";
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public MongoExportReader(MongoTemplate mongoTemplate,
+                             @Value("${sirha.export.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Recorre los documentos que cumplen el filtro, en orden de {@code _id}.
+     *
+     * @param collection colección a leer
+     * @param filter filtro de Mongo
+     * @param projection campos a leer
+     * @param handler recibe cada lote; la lista se reutiliza entre lotes
+     */
+    public void forEachBatch(String collection, Bson filter, Bson projection, BatchHandler handler) throws IOException {
+        List<Document> batch = new ArrayList<>(batchSize);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection).find(filter)
+                .projection(projection).sort(Sorts.ascending("_id")).batchSize(batchSize).iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize || !cursor.hasNext()) {
+                    handler.handle(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return carrera (nombre del enum) de cada plan de estudios, por id del plan
+     */
+    public Map<Object, String> studyPlanCareers() {
+        Map<Object, String> careers = new HashMap<>();
+        mongoTemplate.getCollection("study_plans").find()
+                .projection(Projections.include("career"))
+                .forEach(plan -> careers.put(plan.get("_id"), plan.getString("career")));
+        return careers;
+    }
+
+    /**
+     * @param studentIds ids de estudiantes (un lote)
+     * @return id del plan de estudios de cada estudiante, por id del estudiante
+     */
+    public Map<Object, Object> studyPlansOf(Collection<Object> studentIds) {
+        Map<Object, Object> plans = new HashMap<>();
+        mongoTemplate.getCollection("students").find(Filters.in("_id", studentIds))
+                .projection(Projections.include(STUDENT_PLAN))
+                .forEach(student -> plans.put(student.get("_id"), planOf(student)));
+        return plans;
+    }
+
+    /**
+     * @return id del plan de estudios del documento de un estudiante, o null
+     */
+    public static Object planOf(Document student) {
+        return student.getEmbedded(List.of("academicProgress", "studyPlan", "_id"), Object.class);
+    }
+
+    @FunctionalInterface
+    public interface BatchHandler {
+        void handle(List<Document> batch) throws IOException;
+    }
+}
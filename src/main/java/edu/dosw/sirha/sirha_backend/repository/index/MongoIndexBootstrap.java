@@ -0,0 +1,61 @@
+package edu.dosw.sirha.sirha_backend.repository.index;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea al arrancar los índices de {@link MongoIndexCatalog}.
+ *
+ * Crear un índice que ya existe con la misma definición no hace nada, así que se puede
+ * ejecutar en cada arranque. Si un índice no se puede crear (por ejemplo, un índice único
+ * sobre datos duplicados) se registra el error y se continúa con los demás.
+ *
+ * Se activa con {@code sirha.mongo.indexes.enabled=true}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sirha.mongo.indexes.enabled", havingValue = "true")
+public class MongoIndexBootstrap implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexBootstrap.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexBootstrap(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        int created = 0;
+        int failed = 0;
+        for (Map.Entry<Class<?>, List<IndexDefinition>> entry : MongoIndexCatalog.indexes().entrySet()) {
+            String collection = mongoTemplate.getCollectionName(entry.getKey());
+            for (IndexDefinition index : entry.getValue()) {
+                try {
+                    String name = mongoTemplate.indexOps(entry.getKey()).ensureIndex(index);
+                    log.debug("Índice {} listo en {}", name, collection);
+                    created++;
+                } catch (DataAccessException e) {
+                    log.error("No se pudo crear el índice {} en {}: {}", index.getIndexKeys(), collection, e.getMessage());
+                    failed++;
+                }
+            }
+        }
+        log.info("Índices de Mongo verificados en {} ms: {} listos, {} con error",
+                System.currentTimeMillis() - start, created, failed);
+    }
+}
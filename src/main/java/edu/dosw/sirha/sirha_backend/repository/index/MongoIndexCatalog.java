@@ -0,0 +1,87 @@
+package edu.dosw.sirha.sirha_backend.repository.index;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Account;
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+
+/**
+ * Índices que necesitan las consultas de los repositorios Mongo.
+ *
+ * Cada consulta de {@code repository.mongo} debe empezar por el primer campo de alguno
+ * de estos índices; al agregar un método de búsqueda, agregue aquí el índice que lo cubre.
+ * Los listados paginados por cursor recorren el índice de {@code _id}, que Mongo crea siempre.
+ */
+public final class MongoIndexCatalog {
+
+    private static final Map<Class<?>, List<IndexDefinition>> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put(Student.class, List.of(
+                unique("username"),
+                unique("email"),
+                unique("codigo")));
+        INDEXES.put(Account.class, List.of(
+                unique("username"),
+                unique("email")));
+        INDEXES.put(Group.class, List.of(
+                unique("code"),
+                new Index().on("currentPeriod.period", Direction.ASC),
+                // Barrido de cupos retenidos para la lista de espera: solo indexa los pocos grupos que los tienen
+                new Index().on("cuposRetenidos", Direction.ASC)
+                        .partial(PartialIndexFilter.of(Criteria.where("cuposRetenidos").gt(0)))));
+        INDEXES.put(Subject.class, List.of(
+                unique("name")));
+        INDEXES.put(AcademicPeriod.class, List.of(
+                unique("period"),
+                // Búsqueda del período vigente: startDate <= hoy y endDate >= hoy
+                new CompoundIndexDefinition(new Document("startDate", 1).append("endDate", 1))
+                        .named("startDate_1_endDate_1")));
+        INDEXES.put(BaseRequest.class, List.of(
+                // Listado por estado paginado por cursor: actualState = x y _id > cursor, en orden de _id
+                new CompoundIndexDefinition(new Document("actualState", 1).append("id", 1))
+                        .named("actualState_1__id_1")));
+        INDEXES.put(Decanate.class, List.of(
+                unique("name")));
+        INDEXES.put(StudyPlan.class, List.of(
+                unique("name"),
+                new Index().on("career", Direction.ASC)));
+    }
+
+    private MongoIndexCatalog() {
+    }
+
+    /**
+     * @return índices por clase de documento, en orden de declaración
+     */
+    public static Map<Class<?>, List<IndexDefinition>> indexes() {
+        return INDEXES;
+    }
+
+    /**
+     * @return índices declarados para la clase de documento, o una lista vacía
+     */
+    public static List<IndexDefinition> indexesFor(Class<?> documentType) {
+        return INDEXES.getOrDefault(documentType, List.of());
+    }
+
+    private static Index unique(String field) {
+        return new Index().on(field, Direction.ASC).unique();
+    }
+}
@@ -0,0 +1,66 @@
+package edu.dosw.sirha.sirha_backend.repository.migration;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pone {@code version: 0} a los estudiantes, grupos y decanaturas guardados antes de que
+ * esos documentos tuvieran bloqueo optimista.
+ *
+ * Spring Data toma un documento sin versión por uno nuevo: {@code save()} lo insertaría
+ * otra vez y fallaría por el {@code _id} repetido. Leer la versión ausente como 0 no
+ * alcanza: el {@code save()} se volvería una actualización filtrada por
+ * {@code version: 0}, que no coincide con un documento sin el campo, y cada intento
+ * fallaría como conflicto de versión. El campo tiene que existir en la base.
+ *
+ * Solo toca documentos que aún no tienen el campo, así que se puede ejecutar varias veces.
+ * Corre al terminar de crear los beans, antes de que el servidor web acepte peticiones,
+ * como {@link GroupRosterMigration}; si falla, la aplicación no arranca. Está activa por
+ * defecto; se desactiva con {@code sirha.migrations.document-version.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "sirha.migrations.document-version.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentVersionMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentVersionMigration.class);
+
+    static final List<String> COLLECTIONS = List.of("students", "groups", "decanaturas");
+    static final String VERSION = "version";
+
+    private final MongoTemplate mongoTemplate;
+
+    public DocumentVersionMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("Iniciando migración de versiones de documentos");
+        long updated = backfill(mongoTemplate);
+        log.info("Migración de versiones terminada: {} documentos actualizados", updated);
+    }
+
+    /**
+     * Completa la versión en las colecciones versionadas. También la usa la carga de datos
+     * sintéticos, porque las inserciones bulk no inicializan la versión.
+     *
+     * @return documentos actualizados
+     */
+    public static long backfill(MongoTemplate mongoTemplate) {
+        Query legacy = Query.query(Criteria.where(VERSION).exists(false));
+        long updated = 0;
+        for (String collection : COLLECTIONS) {
+            updated += mongoTemplate.updateMulti(legacy, new Update().set(VERSION, 0L), collection).getModifiedCount();
+        }
+        return updated;
+    }
+}
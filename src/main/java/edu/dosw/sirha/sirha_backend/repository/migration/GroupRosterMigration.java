@@ -0,0 +1,102 @@
+package edu.dosw.sirha.sirha_backend.repository.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Migra los grupos del formato con estudiantes embebidos ({@code estudiantes: [Student...]})
+ * al roster de códigos ({@code codigosInscritos}) con su contador {@code cuposDisponibles}.
+ *
+ * Se aplica a la colección {@code groups} y a las copias de grupos embebidas en
+ * {@code subjects.groups}. Cada actualización se ejecuta en el servidor con un pipeline,
+ * sin traer los documentos a la aplicación, y solo toca documentos que aún tienen el
+ * formato anterior, así que se puede ejecutar varias veces.
+ *
+ * Corre al terminar de crear los beans, antes de que el servidor web empiece a aceptar
+ * peticiones: ninguna inscripción llega a ver un grupo sin migrar. Si falla, la aplicación
+ * no arranca. Está activa por defecto; se desactiva con
+ * {@code sirha.migrations.group-roster.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "sirha.migrations.group-roster.enabled", havingValue = "true", matchIfMissing = true)
+public class GroupRosterMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupRosterMigration.class);
+
+    private static final String LEGACY_ROSTER = "estudiantes";
+
+    private final MongoTemplate mongoTemplate;
+
+    public GroupRosterMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("Iniciando migración de roster de grupos");
+        long groups = migrateGroups();
+        long subjects = migrateSubjects();
+        log.info("Migración de roster terminada: {} grupos y {} materias actualizados", groups, subjects);
+    }
+
+    /**
+     * Convierte los grupos con roster embebido o sin contador de cupos.
+     */
+    long migrateGroups() {
+        Query legacy = Query.query(new Criteria().orOperator(
+                Criteria.where(LEGACY_ROSTER).exists(true),
+                Criteria.where("cuposDisponibles").exists(false)));
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+                stage(new Document("$set", rosterFields("$$ROOT"))),
+                stage(new Document("$unset", LEGACY_ROSTER))));
+        UpdateResult result = mongoTemplate.updateMulti(legacy, update, "groups");
+        return result.getModifiedCount();
+    }
+
+    /**
+     * Convierte las copias de grupos embebidas en las materias.
+     */
+    long migrateSubjects() {
+        Query legacy = Query.query(Criteria.where("groups." + LEGACY_ROSTER).exists(true));
+        Document perGroup = new Document("$map", new Document("input", "$groups")
+                .append("as", "g")
+                .append("in", new Document("$mergeObjects", List.of("$$g", rosterFields("$$g")))));
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+                stage(new Document("$set", new Document("groups", perGroup))),
+                stage(new Document("$unset", "groups." + LEGACY_ROSTER))));
+        UpdateResult result = mongoTemplate.updateMulti(legacy, update, "subjects");
+        return result.getModifiedCount();
+    }
+
+    /**
+     * Campos del nuevo formato calculados a partir del grupo indicado por la variable.
+     * Los códigos ya presentes en el roster se conservan.
+     */
+    private static Document rosterFields(String group) {
+        Object codes = new Document("$setUnion", List.of(
+                new Document("$ifNull", List.of(group + ".codigosInscritos", List.of())),
+                new Document("$ifNull", List.of(group + "." + LEGACY_ROSTER + ".codigo", List.of()))));
+        Object seats = new Document("$max", List.of(0,
+                new Document("$subtract", List.of(
+                        new Document("$ifNull", List.of(group + ".capacidad", 0)),
+                        new Document("$size", codes)))));
+        return new Document("codigosInscritos", codes).append("cuposDisponibles", seats);
+    }
+
+    private static AggregationOperation stage(Document document) {
+        return context -> document;
+    }
+}
@@ -0,0 +1,163 @@
+package edu.dosw.sirha.sirha_backend.repository.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+/**
+ * Convierte documentos del formato embebido al formato con referencias por id.
+ *
+ * En el formato anterior el estudiante embebía el plan de estudios completo, cada
+ * materia con sus grupos, el grupo de cada materia y de su historial, y sus solicitudes
+ * (que a su vez embebían al estudiante). En el nuevo formato esos valores son el
+ * documento {@code {_id: ...}} del referenciado (ver {@code References.BY_ID}) y las
+ * solicitudes viven solo en {@code requests}.
+ *
+ * Las funciones no modifican el documento recibido y devuelven una copia normalizada.
+ * Una referencia que ya tiene ese formato se deja igual, así que aplicarlas dos veces
+ * no cambia nada.
+ */
+public final class ReferenceNormalizer {
+
+    /** Campos de las solicitudes que referencian materias, grupos o al estudiante. */
+    static final List<String> REQUEST_REFERENCES = List.of("student", "subject", "newGroup", "oldSubject", "newSubject");
+
+    private ReferenceNormalizer() {
+    }
+
+    /**
+     * Normaliza un estudiante.
+     *
+     * @param student documento de {@code students}
+     * @param extractedRequests recibe las solicitudes que estaban embebidas, ya normalizadas
+     *                          y con el estudiante como referencia, para guardarlas en {@code requests}
+     * @return copia del estudiante con referencias por id
+     */
+    public static Document normalizeStudent(Document student, List<Document> extractedRequests) {
+        Document normalized = copy(student);
+        if (normalized.get("academicProgress") instanceof Document progress) {
+            progress.put("studyPlan", reference(progress.get("studyPlan")));
+            if (progress.get("subjects") instanceof Document subjects) {
+                for (Object value : subjects.values()) {
+                    if (value instanceof Document decorator) {
+                        normalizeSubjectProgress(decorator);
+                    }
+                }
+            }
+        }
+        if (normalized.get("solicitudes") instanceof List<?> requests) {
+            List<Object> ids = new ArrayList<>(requests.size());
+            for (Object request : requests) {
+                if (request instanceof Document embedded && isEmbedded(embedded)) {
+                    if (embedded.get("_id") == null) {
+                        embedded.put("_id", new ObjectId());
+                    }
+                    embedded.put("student", new Document("_id", normalized.get("_id")));
+                    extractedRequests.add(normalizeRequest(embedded));
+                    ids.add(new Document("_id", embedded.get("_id")));
+                } else {
+                    ids.add(request);
+                }
+            }
+            normalized.put("solicitudes", ids);
+        }
+        return normalized;
+    }
+
+    /**
+     * Normaliza una solicitud (estudiante, materias y grupo nuevo).
+     *
+     * @return copia de la solicitud con referencias por id
+     */
+    public static Document normalizeRequest(Document request) {
+        Document normalized = copy(request);
+        for (String field : REQUEST_REFERENCES) {
+            if (normalized.containsKey(field)) {
+                normalized.put(field, reference(normalized.get(field)));
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Normaliza las solicitudes recibidas por una decanatura.
+     *
+     * @return copia de la decanatura con referencias por id en sus solicitudes
+     */
+    public static Document normalizeDecanate(Document decanate) {
+        Document normalized = copy(decanate);
+        if (normalized.get("receivedRequests") instanceof List<?> requests) {
+            List<Object> result = new ArrayList<>(requests.size());
+            for (Object request : requests) {
+                result.add(request instanceof Document embedded ? normalizeRequest(embedded) : request);
+            }
+            normalized.put("receivedRequests", result);
+        }
+        return normalized;
+    }
+
+    /**
+     * Progreso en una materia: la materia y los grupos pasan a ser referencias y se
+     * copian el nombre y los créditos que el semáforo consulta en cada lectura.
+     */
+    private static void normalizeSubjectProgress(Document decorator) {
+        if (decorator.get("subject") instanceof Document subject && isEmbedded(subject)) {
+            decorator.putIfAbsent("name", subject.get("name"));
+            decorator.putIfAbsent("credits", subject.get("credits"));
+            decorator.put("subject", reference(subject));
+        }
+        if (decorator.containsKey("group")) {
+            decorator.put("group", reference(decorator.get("group")));
+        }
+        if (decorator.get("history") instanceof List<?> history) {
+            for (Object entry : history) {
+                if (entry instanceof Document progress && progress.containsKey("group")) {
+                    progress.put("group", reference(progress.get("group")));
+                }
+            }
+        }
+    }
+
+    /**
+     * Referencia para un documento embebido: {@code {_id: ...}}. Si no es un documento
+     * o no tiene id, se deja igual.
+     */
+    private static Object reference(Object value) {
+        if (value instanceof Document embedded && embedded.get("_id") != null) {
+            return new Document("_id", embedded.get("_id"));
+        }
+        return value;
+    }
+
+    /**
+     * @return true si es el documento completo y no solo {@code {_id: ...}}
+     */
+    static boolean isEmbedded(Document document) {
+        return document.size() > 1 || !document.containsKey("_id");
+    }
+
+    private static Document copy(Document document) {
+        Document copy = new Document();
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Document document) {
+            return copy(document);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.dosw.sirha.sirha_backend.repository.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Completa el campo {@code actualState} de las solicitudes guardadas antes de que se
+ * persistiera, copiando el estado del último proceso ({@code processes[-1].estado}).
+ *
+ * Sin este campo {@code findByActualState} no encuentra esas solicitudes ni puede usar
+ * el índice sobre el estado. Solo toca documentos que aún no tienen el campo, así que
+ * se puede ejecutar varias veces.
+ *
+ * Se activa con {@code sirha.migrations.request-state.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "sirha.migrations.request-state.enabled", havingValue = "true")
+public class RequestStateMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStateMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public RequestStateMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Iniciando migración del estado de solicitudes");
+        Query legacy = Query.query(Criteria.where("actualState").exists(false)
+                .and("processes.0").exists(true));
+        AggregationOperation setState = context -> new Document("$set", new Document("actualState",
+                new Document("$arrayElemAt", List.of("$processes.estado", -1))));
+        UpdateResult result = mongoTemplate.updateMulti(legacy, AggregationUpdate.from(List.of(setState)), "requests");
+        log.info("Migración del estado de solicitudes terminada: {} solicitudes actualizadas", result.getModifiedCount());
+    }
+}
@@ -0,0 +1,148 @@
+package edu.dosw.sirha.sirha_backend.repository.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Migra estudiantes, solicitudes y decanaturas del formato embebido al formato con
+ * referencias por id (ver {@link ReferenceNormalizer}).
+ *
+ * Es una migración en línea: recorre con un cursor solo los documentos que aún tienen
+ * el formato anterior y los reescribe por lotes con operaciones bulk. Cada documento se
+ * reemplaza solo si no cambió desde que se leyó (el filtro es el documento original);
+ * si la aplicación lo guardó mientras tanto, ya está en el formato nuevo y se omite.
+ * Mientras tanto la aplicación sigue leyendo ambos formatos.
+ *
+ * Las solicitudes embebidas en un estudiante se insertan en {@code requests} si no
+ * existían ahí; si existían, se conserva la copia de la colección.
+ *
+ * Se activa con {@code sirha.migrations.student-normalization.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "sirha.migrations.student-normalization.enabled", havingValue = "true")
+public class StudentNormalizationMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentNormalizationMigration.class);
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public StudentNormalizationMigration(MongoTemplate mongoTemplate,
+                                         @Value("${sirha.migrations.student-normalization.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Iniciando normalización de estudiantes (lotes de {})", batchSize);
+        long students = migrateStudents();
+        long requests = migrate("requests", legacyRequest(""), ReferenceNormalizer::normalizeRequest);
+        long decanates = migrate("decanaturas", legacyRequest("receivedRequests."), ReferenceNormalizer::normalizeDecanate);
+        log.info("Normalización terminada: {} estudiantes, {} solicitudes y {} decanaturas actualizados",
+                students, requests, decanates);
+    }
+
+    /**
+     * Normaliza los estudiantes y mueve sus solicitudes embebidas a {@code requests}.
+     */
+    long migrateStudents() {
+        MongoCollection<Document> requests = mongoTemplate.getCollection("requests");
+        Bson legacy = Filters.or(
+                Filters.exists("academicProgress.studyPlan.career"),
+                Filters.exists("solicitudes.processes"));
+        return inBatches("students", legacy, batch -> {
+            List<WriteModel<Document>> extracted = new ArrayList<>();
+            List<WriteModel<Document>> replacements = new ArrayList<>();
+            for (Document original : batch) {
+                List<Document> embedded = new ArrayList<>();
+                replacements.add(new ReplaceOneModel<>(original, ReferenceNormalizer.normalizeStudent(original, embedded)));
+                for (Document request : embedded) {
+                    Object id = request.remove("_id");
+                    extracted.add(new UpdateOneModel<>(Filters.eq("_id", id),
+                            new Document("$setOnInsert", request), new UpdateOptions().upsert(true)));
+                }
+            }
+            // Primero las solicitudes: el estudiante normalizado ya las referencia
+            if (!extracted.isEmpty()) {
+                requests.bulkWrite(extracted, UNORDERED);
+            }
+            return replacements;
+        });
+    }
+
+    long migrate(String collection, Bson legacy, UnaryOperator<Document> normalizer) {
+        return inBatches(collection, legacy, batch -> {
+            List<WriteModel<Document>> replacements = new ArrayList<>(batch.size());
+            for (Document original : batch) {
+                replacements.add(new ReplaceOneModel<>(original, normalizer.apply(original)));
+            }
+            return replacements;
+        });
+    }
+
+    /**
+     * Recorre los documentos con formato anterior y escribe cada lote con una operación bulk.
+     *
+     * @return documentos reemplazados
+     */
+    private long inBatches(String collectionName, Bson legacy, BatchNormalizer normalizer) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        long modified = 0;
+        List<Document> batch = new ArrayList<>(batchSize);
+        try (MongoCursor<Document> cursor = collection.find(legacy)
+                .sort(Sorts.ascending("_id")).batchSize(batchSize).iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize || !cursor.hasNext()) {
+                    modified += collection.bulkWrite(normalizer.normalize(batch), UNORDERED).getModifiedCount();
+                    log.debug("Normalizados {} documentos de {}", modified, collectionName);
+                    batch.clear();
+                }
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Alguna referencia de la solicitud sigue siendo el documento embebido completo
+     * (y no solo {@code {_id: ...}}).
+     */
+    private static Bson legacyRequest(String prefix) {
+        return Filters.or(
+                Filters.exists(prefix + "student.username"),
+                Filters.exists(prefix + "subject.name"),
+                Filters.exists(prefix + "oldSubject.name"),
+                Filters.exists(prefix + "newSubject.name"),
+                Filters.exists(prefix + "newGroup.code"));
+    }
+
+    @FunctionalInterface
+    private interface BatchNormalizer {
+        List<WriteModel<Document>> normalize(List<Document> batch);
+    }
+}
@@ -2,12 +2,38 @@ package edu.dosw.sirha.sirha_backend.repository.mongo;
 
 import java.util.List;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 
 public interface BaseRequestMongoRepository extends MongoRepository<BaseRequest, String> {
 
-    List<BaseRequest> findByActualState(RequestStateEnum status);
+    /** Primera página del listado por cursor, en orden de id. */
+    List<BaseRequest> findAllByOrderByIdAsc(Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, si {@code id} es un ObjectId; ver {@link #findPageAfter}. */
+    List<BaseRequest> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, sea ObjectId o texto; ver {@link StudentMongoRepository#findPageAfter}. */
+    default List<BaseRequest> findPageAfter(String id, Limit limit) {
+        return ObjectId.isValid(id) ? findByIdGreaterThanOrderByIdAsc(id, limit) : findAfterTextIdOrderByIdAsc(id, limit);
+    }
+    /** Página siguiente a un id de texto: los textos mayores y después todos los ObjectId. */
+    @Query(value = "{ '$or': [ { '_id': { '$gt': ?0 } }, { '_id': { '$type': 'objectId' } } ] }", sort = "{ '_id': 1 }")
+    List<BaseRequest> findAfterTextIdOrderByIdAsc(String id, Limit limit);
+
+    /** Primera página de las solicitudes en un estado, en orden de id. */
+    List<BaseRequest> findByActualStateOrderByIdAsc(RequestStateEnum status, Limit limit);
+    /** Página siguiente de las solicitudes en un estado, si {@code id} es un ObjectId. */
+    List<BaseRequest> findByActualStateAndIdGreaterThanOrderByIdAsc(RequestStateEnum status, String id, Limit limit);
+    /** Página siguiente de las solicitudes en un estado, con la misma regla de tipos que {@link #findPageAfter}. */
+    default List<BaseRequest> findPageByActualStateAfter(RequestStateEnum status, String id, Limit limit) {
+        return ObjectId.isValid(id)
+                ? findByActualStateAndIdGreaterThanOrderByIdAsc(status, id, limit)
+                : findByActualStateAfterTextIdOrderByIdAsc(status, id, limit);
+    }
+    @Query(value = "{ 'actualState': ?0, '$or': [ { '_id': { '$gt': ?1 } }, { '_id': { '$type': 'objectId' } } ] }", sort = "{ '_id': 1 }")
+    List<BaseRequest> findByActualStateAfterTextIdOrderByIdAsc(RequestStateEnum status, String id, Limit limit);
 }
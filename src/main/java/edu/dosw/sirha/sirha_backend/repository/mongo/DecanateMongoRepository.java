@@ -1,9 +1,20 @@
 package edu.dosw.sirha.sirha_backend.repository.mongo;
 
+import java.util.List;
 import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
 
 public interface DecanateMongoRepository extends MongoRepository<Decanate, String> {
     Optional<Decanate> findByName(String name);
+
+    /** Siguiente decanatura en orden de nombre; con {@code ""} devuelve la primera. */
+    Optional<Decanate> findFirstByNameGreaterThanOrderByNameAsc(String name);
+
+    /** Primera página del listado por cursor, en orden de nombre. */
+    List<Decanate> findAllByOrderByNameAsc(Limit limit);
+    /** Página siguiente a la que terminó en la decanatura {@code name}. */
+    List<Decanate> findByNameGreaterThanOrderByNameAsc(String name, Limit limit);
 }
@@ -1,9 +1,29 @@
 package edu.dosw.sirha.sirha_backend.repository.mongo;
 
+import java.util.List;
 import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
-public interface GroupMongoRepository extends MongoRepository<Group, String> {
+public interface GroupMongoRepository extends MongoRepository<Group, String>, GroupSeatRepository, GroupWaitlistRepository {
     Optional<Group> findByCode(String code);
+
+    /** Grupos de un período académico, para el índice de compatibilidad de horarios. */
+    List<Group> findByCurrentPeriodPeriod(String period);
+
+    /** Primera página del listado por cursor, en orden de id. */
+    List<Group> findAllByOrderByIdAsc(Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, si {@code id} es un ObjectId; ver {@link #findPageAfter}. */
+    List<Group> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, sea ObjectId o texto; ver {@link StudentMongoRepository#findPageAfter}. */
+    default List<Group> findPageAfter(String id, Limit limit) {
+        return ObjectId.isValid(id) ? findByIdGreaterThanOrderByIdAsc(id, limit) : findAfterTextIdOrderByIdAsc(id, limit);
+    }
+    /** Página siguiente a un id de texto: los textos mayores y después todos los ObjectId. */
+    @Query(value = "{ '$or': [ { '_id': { '$gt': ?0 } }, { '_id': { '$type': 'objectId' } } ] }", sort = "{ '_id': 1 }")
+    List<Group> findAfterTextIdOrderByIdAsc(String id, Limit limit);
 }
@@ -0,0 +1,86 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+
+/**
+ * Operaciones atómicas sobre los cupos de un grupo.
+ *
+ * Cada operación es una única actualización condicional sobre el documento del grupo
+ * en la colección {@code groups}: la condición y el cambio se evalúan juntos en la base
+ * de datos, de modo que dos réplicas nunca pueden tomar el mismo cupo ni sobrescribir
+ * el roster de la otra.
+ */
+public interface GroupSeatRepository {
+
+    /**
+     * Toma un cupo para el estudiante si el grupo está abierto, tiene cupos y el estudiante
+     * no está ya en el roster. Si el cupo tomado era el último, el grupo queda cerrado en
+     * la misma operación.
+     *
+     * @return el grupo después de la reserva, o vacío si la condición no se cumplió
+     */
+    Optional<Group> reserveSeat(String groupCode, String studentCode);
+
+    /**
+     * Libera el cupo del estudiante si está en el roster. Si el grupo estaba cerrado y
+     * queda con cupos, vuelve a abrirse en la misma operación. Si hay estudiantes en la
+     * lista de espera, el cupo queda retenido para ellos ({@code cuposRetenidos}) y el
+     * grupo sigue cerrado (ver {@link GroupWaitlistRepository}).
+     *
+     * @return el grupo después de la liberación, o vacío si el estudiante no estaba inscrito
+     */
+    Optional<Group> releaseSeat(String groupCode, String studentCode);
+
+    /**
+     * Deshace {@link #releaseSeat(String, String)}: devuelve al estudiante al roster con el
+     * cupo retenido que dejó su salida o, si no hay retenidos, con uno libre aunque el grupo
+     * esté cerrado. Si era el último cupo libre, el grupo queda cerrado en la misma operación.
+     *
+     * @return el grupo después de la operación, o vacío si el estudiante ya estaba inscrito
+     *         o no quedaba cupo que devolverle
+     */
+    Optional<Group> restoreSeat(String groupCode, String studentCode);
+
+    /**
+     * Toma un cupo en cada grupo con las mismas condiciones de
+     * {@link #reserveSeat(String, String)}, en una sola ida a la base de datos; cada grupo
+     * se decide por separado.
+     *
+     * @return los grupos, después de la operación, que tienen al estudiante en el roster
+     */
+    List<Group> reserveSeats(Collection<String> groupCodes, String studentCode);
+
+    /**
+     * Libera el cupo del estudiante en cada grupo, como {@link #releaseSeat(String, String)}.
+     *
+     * @return los grupos, después de la operación, de los que se liberó el cupo; no incluye
+     *         aquellos en los que el estudiante no estaba inscrito
+     */
+    List<Group> releaseSeats(Collection<String> groupCodes, String studentCode);
+
+    /**
+     * Toma en un mismo grupo un cupo para cada estudiante, en el orden dado y con las
+     * condiciones de {@link #reserveSeat(String, String)}, en una sola ida a la base de
+     * datos. Cuando se acaban los cupos los estudiantes restantes quedan sin reserva.
+     *
+     * @return el grupo después de la operación; los reservados son los que están en el roster
+     */
+    Optional<Group> reserveSeatsInGroup(String groupCode, List<String> studentCodes);
+
+    /**
+     * Libera en un mismo grupo el cupo de cada estudiante, como
+     * {@link #releaseSeat(String, String)}.
+     *
+     * @return el grupo después de la operación
+     */
+    Optional<Group> releaseSeatsInGroup(String groupCode, Collection<String> studentCodes);
+
+    /**
+     * Lee el estado actual de los cupos del grupo, sin pasar por cachés.
+     */
+    Optional<Group> findSeatSnapshot(String groupCode);
+}
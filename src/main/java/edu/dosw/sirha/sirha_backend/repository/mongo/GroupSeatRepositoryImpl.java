@@ -0,0 +1,238 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.StatusClosed;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.StatusOpen;
+
+/**
+ * Implementación de {@link GroupSeatRepository} con {@code findAndModify} y actualizaciones
+ * tipo pipeline, de forma que el cambio de cupos, el roster y la transición de estado
+ * del grupo ocurren en una sola escritura atómica.
+ *
+ * Cada actualización sube también {@code version}, que el bulk write no incrementa solo:
+ * así un {@code save()} del grupo hecho con una lectura anterior falla en lugar de deshacer
+ * la reserva.
+ *
+ * Los grupos guardados antes de que existiera {@code cuposDisponibles} no tienen el campo:
+ * filtros y pipelines usan {@link #seats()}, que en ese caso lo calcula a partir de la
+ * capacidad y el roster, y la primera escritura deja el contador persistido.
+ */
+public class GroupSeatRepositoryImpl implements GroupSeatRepository {
+
+    static final String CODE = "code";
+    static final String STATE_TYPE = "estadoGrupo._class";
+    static final String STATE = "estadoGrupo";
+    static final String SEATS = "cuposDisponibles";
+    static final String CAPACITY = "capacidad";
+    static final String ROSTER = "codigosInscritos";
+    static final String WAITLIST = "waitlist";
+    static final String HELD = "cuposRetenidos";
+    static final String VERSION = "version";
+
+    static final Document OPEN_STATE = new Document("_class", StatusOpen.class.getName());
+    private static final Document CLOSED_STATE = new Document("_class", StatusClosed.class.getName());
+
+    private final MongoTemplate mongoTemplate;
+
+    public GroupSeatRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Group> reserveSeat(String groupCode, String studentCode) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(reserveQuery(groupCode, studentCode),
+                reserveUpdate(studentCode), FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public Optional<Group> releaseSeat(String groupCode, String studentCode) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(releaseQuery(groupCode, studentCode),
+                releaseUpdate(studentCode), FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    /**
+     * Primero el cupo retenido: es el que deja {@link #releaseSeat(String, String)} cuando hay
+     * estudiantes en espera. Las dos etapas de {@code $set} leen el documento original.
+     */
+    @Override
+    public Optional<Group> restoreSeat(String groupCode, String studentCode) {
+        Document held = new Document("$ifNull", List.of("$" + HELD, 0));
+        Document hasHeld = new Document("$gt", List.of(held, 0));
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(ROSTER).ne(studentCode)
+                .andOperator(Criteria.expr(() -> new Document("$or", List.of(hasHeld, new Document("$gt", List.of(seats(), 0)))))));
+
+        AggregationUpdate update = versioned(
+                stage(new Document(HELD, new Document("$cond", List.of(hasHeld, new Document("$subtract", List.of(held, 1)), held)))
+                        .append(SEATS, new Document("$cond", List.of(hasHeld, seats(), new Document("$subtract", List.of(seats(), 1)))))
+                        .append(ROSTER, new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$" + ROSTER, List.of())),
+                                new Document("$literal", List.of(studentCode)))))),
+                stage(new Document(STATE, new Document("$cond", List.of(
+                        new Document("$lte", List.of("$" + SEATS, 0)), CLOSED_STATE, "$" + STATE)))));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    /**
+     * Las mismas actualizaciones condicionales de {@link #reserveSeat(String, String)} en un
+     * único bulk write sin orden; cada grupo se evalúa por separado. Como el bulk write solo
+     * devuelve conteos, los grupos reservados se leen después en una sola consulta.
+     */
+    @Override
+    public List<Group> reserveSeats(Collection<String> groupCodes, String studentCode) {
+        if (groupCodes.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Group.class);
+        for (String groupCode : groupCodes) {
+            bulk.updateOne(reserveQuery(groupCode, studentCode), reserveUpdate(studentCode));
+        }
+        bulk.execute();
+        return mongoTemplate.find(Query.query(Criteria.where(CODE).in(groupCodes).and(ROSTER).is(studentCode)), Group.class);
+    }
+
+    /**
+     * Solo se liberan, y se devuelven, los grupos que tenían al estudiante antes del bulk
+     * write: leer después los que no lo tienen incluiría grupos en los que nunca estuvo.
+     * Si otra liberación del mismo estudiante corre a la vez, ambas pueden reportar el grupo.
+     */
+    @Override
+    public List<Group> releaseSeats(Collection<String> groupCodes, String studentCode) {
+        if (groupCodes.isEmpty()) {
+            return List.of();
+        }
+        Query enrolled = Query.query(Criteria.where(CODE).in(groupCodes).and(ROSTER).is(studentCode));
+        enrolled.fields().include(CODE);
+        List<String> candidates = mongoTemplate.find(enrolled, Group.class).stream().map(Group::getCode).toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Group.class);
+        for (String groupCode : candidates) {
+            bulk.updateOne(releaseQuery(groupCode, studentCode), releaseUpdate(studentCode));
+        }
+        bulk.execute();
+        return mongoTemplate.find(Query.query(Criteria.where(CODE).in(candidates).and(ROSTER).ne(studentCode)), Group.class);
+    }
+
+    /**
+     * Bulk write ordenado: las actualizaciones sobre el mismo documento se aplican en el
+     * orden de la lista, así que los primeros estudiantes son los que alcanzan cupo.
+     */
+    @Override
+    public Optional<Group> reserveSeatsInGroup(String groupCode, List<String> studentCodes) {
+        if (!studentCodes.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.ORDERED, Group.class);
+            for (String studentCode : studentCodes) {
+                bulk.updateOne(reserveQuery(groupCode, studentCode), reserveUpdate(studentCode));
+            }
+            bulk.execute();
+        }
+        return findSeatSnapshot(groupCode);
+    }
+
+    @Override
+    public Optional<Group> releaseSeatsInGroup(String groupCode, Collection<String> studentCodes) {
+        if (!studentCodes.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.ORDERED, Group.class);
+            for (String studentCode : studentCodes) {
+                bulk.updateOne(releaseQuery(groupCode, studentCode), releaseUpdate(studentCode));
+            }
+            bulk.execute();
+        }
+        return findSeatSnapshot(groupCode);
+    }
+
+    private static Query reserveQuery(String groupCode, String studentCode) {
+        return Query.query(Criteria.where(CODE).is(groupCode)
+                .and(STATE_TYPE).is(StatusOpen.class.getName())
+                .and(ROSTER).ne(studentCode)
+                .andOperator(Criteria.expr(hasFreeSeats())));
+    }
+
+    private static MongoExpression hasFreeSeats() {
+        return () -> new Document("$gt", List.of(seats(), 0));
+    }
+
+    private static AggregationUpdate reserveUpdate(String studentCode) {
+        return versioned(
+                stage(new Document(SEATS, new Document("$subtract", List.of(seats(), 1)))
+                        .append(ROSTER, new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$" + ROSTER, List.of())),
+                                new Document("$literal", List.of(studentCode)))))),
+                // Etapa separada: aquí ya se ve el contador decrementado
+                stage(new Document(STATE, new Document("$cond", List.of(
+                        new Document("$lte", List.of("$" + SEATS, 0)), CLOSED_STATE, "$" + STATE)))));
+    }
+
+    private static Query releaseQuery(String groupCode, String studentCode) {
+        return Query.query(Criteria.where(CODE).is(groupCode)
+                .and(ROSTER).is(studentCode));
+    }
+
+    private static AggregationUpdate releaseUpdate(String studentCode) {
+        // Con estudiantes en espera el cupo queda retenido para ellos en lugar de volver al grupo
+        Document waiting = new Document("$gt", List.of(
+                new Document("$size", new Document("$ifNull", List.of("$" + WAITLIST, List.of()))), 0));
+        Document held = new Document("$ifNull", List.of("$" + HELD, 0));
+        return versioned(
+                stage(new Document(SEATS, new Document("$cond", List.of(
+                                waiting, seats(), new Document("$add", List.of(seats(), 1)))))
+                        .append(HELD, new Document("$cond", List.of(
+                                waiting, new Document("$add", List.of(held, 1)), held)))
+                        .append(ROSTER, new Document("$filter", new Document("input", "$" + ROSTER)
+                                .append("as", "codigo")
+                                .append("cond", new Document("$ne", List.of("$$codigo", new Document("$literal", studentCode))))))),
+                stage(new Document(STATE, new Document("$cond", List.of(
+                        new Document("$gt", List.of("$" + SEATS, 0)), OPEN_STATE, "$" + STATE)))));
+    }
+
+    @Override
+    public Optional<Group> findSeatSnapshot(String groupCode) {
+        return Optional.ofNullable(mongoTemplate.findOne(Query.query(Criteria.where(CODE).is(groupCode)), Group.class));
+    }
+
+    /**
+     * Cupos libres del grupo: el contador persistido o, si el documento no lo tiene,
+     * capacidad menos inscritos menos retenidos, igual que {@link Group#getCuposDisponibles()}.
+     */
+    static Document seats() {
+        Document enrolled = new Document("$size", new Document("$ifNull", List.of("$" + ROSTER, List.of())));
+        Document held = new Document("$ifNull", List.of("$" + HELD, 0));
+        return new Document("$ifNull", List.of("$" + SEATS,
+                new Document("$subtract", List.of(new Document("$ifNull", List.of("$" + CAPACITY, 0)), new Document("$add", List.of(enrolled, held))))));
+    }
+
+    static AggregationOperation stage(Document set) {
+        return context -> new Document("$set", set);
+    }
+
+    /**
+     * Pipeline con las etapas dadas y una última que suma uno a {@code version}. Va como
+     * {@link SetOperation} para que {@code findAndModify} no agregue su propio incremento.
+     */
+    static AggregationUpdate versioned(AggregationOperation... stages) {
+        return AggregationUpdate.from(List.of(stages)).set(SetOperation.set(VERSION).toValue(
+                ArithmeticOperators.valueOf(ConditionalOperators.ifNull(VERSION).then(0)).add(1)));
+    }
+}
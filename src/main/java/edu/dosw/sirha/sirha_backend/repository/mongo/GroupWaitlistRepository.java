@@ -0,0 +1,63 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import java.util.List;
+import java.util.Optional;
+
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+
+/**
+ * Operaciones atómicas sobre la lista de espera de un grupo.
+ *
+ * Igual que {@link GroupSeatRepository}, cada operación es una única actualización
+ * condicional sobre el documento del grupo. El cupo que libera un inscrito queda retenido
+ * en {@code cuposRetenidos} por {@link GroupSeatRepository#releaseSeat(String, String)}
+ * cuando hay estudiantes en espera; estas operaciones lo asignan o lo devuelven al grupo.
+ */
+public interface GroupWaitlistRepository {
+
+    /**
+     * Agrega al estudiante a la lista si el grupo está cerrado, la lista tiene espacio y
+     * el estudiante no está inscrito ni en espera.
+     *
+     * @return el grupo después de agregarlo, o vacío si la condición no se cumplió
+     */
+    Optional<Group> joinWaitlist(String groupCode, WaitlistEntry entry, int maxSize);
+
+    /**
+     * Saca al estudiante de la lista.
+     *
+     * @return el grupo después de sacarlo, o vacío si no estaba en la lista
+     */
+    Optional<Group> leaveWaitlist(String groupCode, String studentCode);
+
+    /**
+     * Asigna un cupo retenido al estudiante: lo saca de la lista y lo agrega al roster en
+     * la misma escritura. Solo aplica si hay cupos retenidos y el estudiante sigue en espera.
+     *
+     * @return el grupo con el estudiante inscrito, o vacío si la condición no se cumplió
+     */
+    Optional<Group> claimHeldSeat(String groupCode, String studentCode);
+
+    /**
+     * Deshace {@link #claimHeldSeat(String, String)} en una sola escritura: saca al
+     * estudiante del roster, lo devuelve a la lista con la misma entrada y vuelve a retener
+     * el cupo. No exige que el grupo esté cerrado ni que la lista tenga espacio, porque el
+     * estudiante ya tenía su lugar.
+     *
+     * @return el grupo después de devolver el cupo, o vacío si el estudiante no estaba inscrito
+     */
+    Optional<Group> returnHeldSeat(String groupCode, WaitlistEntry entry);
+
+    /**
+     * Devuelve los cupos retenidos al grupo si ya no queda nadie en espera, y lo reabre.
+     *
+     * @return el grupo después de liberarlos, o vacío si no aplicaba
+     */
+    Optional<Group> releaseHeldSeats(String groupCode);
+
+    /**
+     * Códigos de los grupos con cupos retenidos pendientes de asignar.
+     */
+    List<String> findCodesWithHeldSeats();
+}
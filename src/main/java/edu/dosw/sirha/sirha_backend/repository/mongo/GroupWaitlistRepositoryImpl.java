@@ -0,0 +1,130 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.CODE;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.HELD;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.OPEN_STATE;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.ROSTER;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.SEATS;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.STATE;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.STATE_TYPE;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.WAITLIST;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.seats;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.stage;
+import static edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl.versioned;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.StatusClosed;
+
+/**
+ * Implementación de {@link GroupWaitlistRepository} con {@code findAndModify}, sobre los
+ * mismos campos que {@link GroupSeatRepositoryImpl}. A las actualizaciones con {@link Update}
+ * {@code findAndModify} les suma la versión; las de pipeline la suben con {@code versioned}.
+ */
+public class GroupWaitlistRepositoryImpl implements GroupWaitlistRepository {
+
+    private static final String WAITLIST_CODE = WAITLIST + ".codigo";
+
+    private final MongoTemplate mongoTemplate;
+
+    public GroupWaitlistRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Group> joinWaitlist(String groupCode, WaitlistEntry entry, int maxSize) {
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(STATE_TYPE).is(StatusClosed.class.getName())
+                .and(ROSTER).ne(entry.getCodigo())
+                .and(WAITLIST_CODE).ne(entry.getCodigo())
+                // La lista tiene menos de maxSize entradas si no existe la posición maxSize - 1
+                .and(WAITLIST + "." + (maxSize - 1)).exists(false));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, new Update().push(WAITLIST, entry),
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public Optional<Group> leaveWaitlist(String groupCode, String studentCode) {
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(WAITLIST_CODE).is(studentCode));
+
+        Update update = new Update().pull(WAITLIST, Query.query(Criteria.where("codigo").is(studentCode)));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public Optional<Group> claimHeldSeat(String groupCode, String studentCode) {
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(HELD).gt(0)
+                .and(WAITLIST_CODE).is(studentCode)
+                .and(ROSTER).ne(studentCode));
+
+        AggregationUpdate update = versioned(
+                stage(new Document(HELD, new Document("$subtract", List.of("$" + HELD, 1)))
+                        .append(ROSTER, new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$" + ROSTER, List.of())),
+                                new Document("$literal", List.of(studentCode)))))
+                        .append(WAITLIST, new Document("$filter", new Document("input", "$" + WAITLIST)
+                                .append("as", "entrada")
+                                .append("cond", new Document("$ne", List.of("$$entrada.codigo", new Document("$literal", studentCode))))))));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public Optional<Group> returnHeldSeat(String groupCode, WaitlistEntry entry) {
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(ROSTER).is(entry.getCodigo())
+                .and(WAITLIST_CODE).ne(entry.getCodigo()));
+
+        Object waiting = mongoTemplate.getConverter().convertToMongoType(entry);
+        AggregationUpdate update = versioned(
+                stage(new Document(HELD, new Document("$add", List.of(new Document("$ifNull", List.of("$" + HELD, 0)), 1)))
+                        .append(ROSTER, new Document("$filter", new Document("input", "$" + ROSTER)
+                                .append("as", "codigo")
+                                .append("cond", new Document("$ne", List.of("$$codigo", new Document("$literal", entry.getCodigo()))))))
+                        .append(WAITLIST, new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$" + WAITLIST, List.of())),
+                                new Document("$literal", List.of(waiting)))))));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public Optional<Group> releaseHeldSeats(String groupCode) {
+        Query query = Query.query(Criteria.where(CODE).is(groupCode)
+                .and(HELD).gt(0)
+                .and(WAITLIST + ".0").exists(false));
+
+        AggregationUpdate update = versioned(
+                stage(new Document(SEATS, new Document("$add", List.of(seats(), "$" + HELD)))
+                        .append(HELD, 0)),
+                stage(new Document(STATE, new Document("$cond", List.of(
+                        new Document("$gt", List.of("$" + SEATS, 0)), OPEN_STATE, "$" + STATE)))));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Group.class));
+    }
+
+    @Override
+    public List<String> findCodesWithHeldSeats() {
+        Query query = Query.query(Criteria.where(HELD).gt(0));
+        query.fields().include(CODE);
+        return mongoTemplate.find(query, Group.class).stream().map(Group::getCode).toList();
+    }
+}
@@ -1,37 +1,45 @@
 package edu.dosw.sirha.sirha_backend.repository.mongo;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
 
-public interface StudentMongoRepository extends MongoRepository<Student, String> {
+public interface StudentMongoRepository extends MongoRepository<Student, String>, StudentProgressRepository {
     Optional<Student> findByUsername(String username);
     Optional<Student> findByEmail(String email);
     Optional<Student> findById(String id);
     Optional<Student> findStudentByCodigo(String codigo);
+    /** Estudiantes de un lote de la inscripción masiva, en una sola consulta. */
+    List<Student> findByCodigoIn(Collection<String> codigos);
 
     boolean existsByCodigo(String codigo);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
-    
-    @Query("{ 'materias': { $elemMatch: { 'subject.id': ?0, 'state': 'EN_CURSO' } } }")
-    List<Student> findStudentsTakingSubject(String subjectId);
-
-    
-
-    @Query("{ 'materias': { $elemMatch: { " +
-           "'group.schedules': { $elemMatch: { 'day': ?0 } } " +
-           "} } }")
-    List<Student> findStudentsWithClassesOnDay(String day);
-    
-    @Query("{ 'materias': { $elemMatch: { " +
-           "'group.profesor.id': ?0 " +
-           "} } }")
-    List<Student> findStudentsByProfessor(String professorId);
-    
-}
\ No newline at end of file
+    /** Primera página del listado por cursor, en orden de id. */
+    List<Student> findAllByOrderByIdAsc(Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, si {@code id} es un ObjectId; ver {@link #findPageAfter}. */
+    List<Student> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    /**
+     * Página siguiente a la que terminó en {@code id}.
+     *
+     * Un id {@code String} se guarda como ObjectId si tiene ese formato y como texto si no
+     * (ids asignados a mano, documentos importados), así que una colección puede mezclar
+     * ambos tipos. {@code $gt} solo compara dentro del mismo tipo y en el orden de BSON todos
+     * los textos van antes que los ObjectId: tras un ObjectId basta {@code $gt}, y tras un
+     * texto la página sigue con los textos mayores y luego con los ObjectId.
+     */
+    default List<Student> findPageAfter(String id, Limit limit) {
+        return ObjectId.isValid(id) ? findByIdGreaterThanOrderByIdAsc(id, limit) : findAfterTextIdOrderByIdAsc(id, limit);
+    }
+    /** Página siguiente a un id de texto: los textos mayores y después todos los ObjectId. */
+    @Query(value = "{ '$or': [ { '_id': { '$gt': ?0 } }, { '_id': { '$type': 'objectId' } } ] }", sort = "{ '_id': 1 }")
+    List<Student> findAfterTextIdOrderByIdAsc(String id, Limit limit);
+}
@@ -0,0 +1,44 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+
+/**
+ * Escrituras parciales sobre el progreso académico de los estudiantes.
+ *
+ * A diferencia de {@code save}, que reemplaza el documento completo, cada actualización
+ * fija solo la materia indicada dentro de {@code academicProgress.subjects}. Dos procesos
+ * que inscriben materias distintas del mismo estudiante no se sobrescriben entre sí.
+ */
+public interface StudentProgressRepository {
+
+    /**
+     * Guarda en un solo bulk write la materia indicada de cada estudiante, tal como está
+     * en su progreso académico en memoria.
+     *
+     * @return cantidad de estudiantes actualizados
+     */
+    int saveSubjectProgress(List<SubjectProgress> updates);
+
+    /**
+     * Materia del progreso académico de un estudiante que se debe guardar.
+     *
+     * El nombre de la materia termina en la ruta del campo actualizado, así que no se
+     * aceptan nombres que Mongo leería como otra ruta ({@code .}) o como operador ({@code $}).
+     */
+    record SubjectProgress(Student student, String subjectName) {
+
+        public SubjectProgress {
+            if (!isStorableName(subjectName)) {
+                throw new IllegalArgumentException("La materia " + subjectName + " no puede usarse como campo del progreso");
+            }
+        }
+
+        /** Indica si el nombre puede ser la última parte de {@code academicProgress.subjects.<materia>}. */
+        public static boolean isStorableName(String subjectName) {
+            return subjectName != null && !subjectName.isEmpty()
+                    && subjectName.indexOf('.') < 0 && !subjectName.startsWith("$");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.dosw.sirha.sirha_backend.repository.mongo;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+
+/**
+ * Implementación de {@link StudentProgressRepository} con un bulk write sin orden de
+ * {@code $set} sobre {@code academicProgress.subjects.<materia>}. El bulk write no toca la
+ * versión del estudiante, así que cada actualización la incrementa: un {@code save()} con
+ * una lectura anterior falla en lugar de borrar la materia escrita aquí.
+ */
+public class StudentProgressRepositoryImpl implements StudentProgressRepository {
+
+    static final String SUBJECTS = "academicProgress.subjects";
+    static final String VERSION = "version";
+
+    private final MongoTemplate mongoTemplate;
+
+    public StudentProgressRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public int saveSubjectProgress(List<SubjectProgress> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Student.class);
+        for (SubjectProgress update : updates) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(update.student().getId())),
+                    new Update().set(SUBJECTS + "." + update.subjectName(), subjectOf(update)).inc(VERSION, 1));
+        }
+        return bulk.execute().getMatchedCount();
+    }
+
+    private static SubjectDecorator subjectOf(SubjectProgress update) {
+        return update.student().getAcademicProgress().getSubjects().stream()
+                .filter(subject -> update.subjectName().equals(subject.getName()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "La materia " + update.subjectName() + " no está en el progreso del estudiante " + update.student().getCodigo()));
+    }
+}
@@ -1,10 +1,14 @@
 package edu.dosw.sirha.sirha_backend.repository.mongo;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,5 +20,16 @@ public interface SubjectMongoRepository extends MongoRepository<Subject, String>
 
     Optional<Subject> findByName(String name);
     boolean existsByName(String name);
-    
+
+    /** Primera página del listado por cursor, en orden de id. */
+    List<Subject> findAllByOrderByIdAsc(Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, si {@code id} es un ObjectId; ver {@link #findPageAfter}. */
+    List<Subject> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    /** Página siguiente a la que terminó en {@code id}, sea ObjectId o texto; ver {@link StudentMongoRepository#findPageAfter}. */
+    default List<Subject> findPageAfter(String id, Limit limit) {
+        return ObjectId.isValid(id) ? findByIdGreaterThanOrderByIdAsc(id, limit) : findAfterTextIdOrderByIdAsc(id, limit);
+    }
+    /** Página siguiente a un id de texto: los textos mayores y después todos los ObjectId. */
+    @Query(value = "{ '$or': [ { '_id': { '$gt': ?0 } }, { '_id': { '$type': 'objectId' } } ] }", sort = "{ '_id': 1 }")
+    List<Subject> findAfterTextIdOrderByIdAsc(String id, Limit limit);
 }
\ No newline at end of file
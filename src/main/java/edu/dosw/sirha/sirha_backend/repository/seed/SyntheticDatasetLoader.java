@@ -0,0 +1,139 @@
+package edu.dosw.sirha.sirha_backend.repository.seed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.migration.DocumentVersionMigration;
+import edu.dosw.sirha.sirha_backend.util.SyntheticDatasetGenerator;
+
+/**
+ * Carga en Mongo un conjunto de datos sintético generado con
+ * {@link SyntheticDatasetGenerator}, para pruebas de carga y de capacidad.
+ *
+ * Los estudiantes (y sus solicitudes) se generan y se insertan por lotes con operaciones
+ * bulk desordenadas, de modo que nunca está en memoria más de un lote. El catálogo
+ * (materias, grupos, planes y decanaturas) se inserta al final, cuando los grupos ya
+ * tienen los cupos ocupados por las inscripciones generadas. Como el bulk insert no
+ * inicializa {@code version}, al terminar se completa con {@link DocumentVersionMigration}.
+ *
+ * Se activa con {@code sirha.dataset.enabled=true}; los demás parámetros están en
+ * {@code application.properties} bajo {@code sirha.dataset.*}.
+ */
+@Component
+@ConditionalOnProperty(name = "sirha.dataset.enabled", havingValue = "true")
+public class SyntheticDatasetLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDatasetLoader.class);
+
+    static final List<String> COLLECTIONS = List.of(
+            "students", "requests", "academic_periods", "groups", "subjects", "study_plans", "decanaturas");
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogCache catalogCache;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final long seed;
+    private final int students;
+    private final int careers;
+    private final int subjectsPerPlan;
+    private final int groupsPerSubject;
+    private final int requestsPerStudent;
+    private final int decanateQueueSize;
+    private final int batchSize;
+    private final String password;
+    private final boolean dropExisting;
+
+    public SyntheticDatasetLoader(MongoTemplate mongoTemplate,
+                                  CatalogCache catalogCache,
+                                  GroupCompatibilityIndex compatibilityIndex,
+                                  @Value("${sirha.dataset.seed:2025}") long seed,
+                                  @Value("${sirha.dataset.students:20000}") int students,
+                                  @Value("${sirha.dataset.careers:5}") int careers,
+                                  @Value("${sirha.dataset.subjects-per-plan:60}") int subjectsPerPlan,
+                                  @Value("${sirha.dataset.groups-per-subject:4}") int groupsPerSubject,
+                                  @Value("${sirha.dataset.requests-per-student:3}") int requestsPerStudent,
+                                  @Value("${sirha.dataset.decanate-queue-size:2000}") int decanateQueueSize,
+                                  @Value("${sirha.dataset.batch-size:500}") int batchSize,
+                                  @Value("${sirha.dataset.password:Sirha2025*}") String password,
+                                  @Value("${sirha.dataset.drop-existing:false}") boolean dropExisting) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogCache = catalogCache;
+        this.compatibilityIndex = compatibilityIndex;
+        this.seed = seed;
+        this.students = students;
+        this.careers = careers;
+        this.subjectsPerPlan = subjectsPerPlan;
+        this.groupsPerSubject = groupsPerSubject;
+        this.requestsPerStudent = requestsPerStudent;
+        this.decanateQueueSize = decanateQueueSize;
+        this.batchSize = batchSize;
+        this.password = password;
+        this.dropExisting = dropExisting;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SirhaException {
+        long start = System.currentTimeMillis();
+        log.info("Generando datos sintéticos: semilla {}, {} estudiantes, {} carreras, {} materias por plan",
+                seed, students, careers, subjectsPerPlan);
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(seed, careers, subjectsPerPlan,
+                groupsPerSubject, requestsPerStudent, decanateQueueSize, password);
+
+        if (dropExisting) {
+            COLLECTIONS.forEach(mongoTemplate::dropCollection);
+            log.info("Colecciones {} eliminadas antes de la carga", COLLECTIONS);
+        }
+        insert(AcademicPeriod.class, "academic_periods", generator.getAcademicPeriods());
+
+        long requests = 0;
+        while (generator.getGeneratedStudents() < students) {
+            List<Student> batch = generator.nextStudents(Math.min(batchSize, students - generator.getGeneratedStudents()));
+            List<BaseRequest> batchRequests = new ArrayList<>();
+            batch.forEach(student -> batchRequests.addAll(student.getSolicitudes()));
+            insert(Student.class, "students", batch);
+            insert(BaseRequest.class, "requests", batchRequests);
+            requests += batchRequests.size();
+            log.debug("Cargados {} de {} estudiantes", generator.getGeneratedStudents(), students);
+        }
+
+        insert(Group.class, "groups", generator.getGroups());
+        insert(Subject.class, "subjects", generator.getSubjects());
+        insert(StudyPlan.class, "study_plans", generator.getStudyPlans());
+        insert(Decanate.class, "decanaturas", generator.getDecanates());
+        DocumentVersionMigration.backfill(mongoTemplate);
+        catalogCache.clear();
+        compatibilityIndex.clear();
+
+        log.info("Datos sintéticos cargados en {} ms: {} estudiantes, {} solicitudes, {} materias, {} grupos",
+                System.currentTimeMillis() - start, students, requests,
+                generator.getSubjects().size(), generator.getGroups().size());
+    }
+
+    private void insert(Class<?> type, String collection, List<?> items) {
+        for (int from = 0; from < items.size(); from += batchSize) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, type, collection);
+            bulk.insert(items.subList(from, Math.min(from + batchSize, items.size())));
+            bulk.execute();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package edu.dosw.sirha.sirha_backend.service;
+
+import java.io.InputStream;
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobErrorDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Inscripción masiva de cohortes a partir de un CSV con filas {@code codigo,materia,grupo}.
+ * Los campos pueden ir entre comillas según RFC 4180, por ejemplo una materia cuyo nombre
+ * tiene comas; una fila con las comillas mal cerradas se rechaza.
+ *
+ * {@link #submit(InputStream)} devuelve de inmediato; el trabajo corre en segundo plano y
+ * su avance y los errores por fila se consultan mientras tanto.
+ */
+public interface CohortEnrollmentService {
+    EnrollmentJobDTO submit(InputStream csv) throws SirhaException;
+    EnrollmentJobDTO getJob(String jobId) throws SirhaException;
+    List<EnrollmentJobErrorDTO> getErrors(String jobId, int offset, int limit) throws SirhaException;
+}
@@ -5,6 +5,7 @@ import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
 import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.RegisterRequest;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
@@ -14,14 +15,16 @@ public interface DecanateService {
 
     Decanate saveDecanate(Careers decanate) throws SirhaException;
     Decanate getDecanateByName(String name) throws SirhaException;
-    List<Decanate> getAllDecanates() throws SirhaException;
-    List<BaseRequest> getAllRequests() throws SirhaException;
-    List<BaseRequest> getAllRequestsForDecanate(String decanateName) throws SirhaException; //deberia buscar las solicitudes que la decanatura puede solucionar
+    CursorPageDTO<Decanate> getAllDecanates(String cursor, int limit) throws SirhaException;
+    CursorPageDTO<BaseRequest> getAllRequests(String cursor, int limit) throws SirhaException;
+    CursorPageDTO<BaseRequest> getAllRequestsForDecanate(String decanateName, String cursor, int limit) throws SirhaException; //deberia buscar las solicitudes que la decanatura puede solucionar
+    int countPendingRequests(String decanateName) throws SirhaException;
     BaseRequest getRequestById(String requestId) throws SirhaException;
     //alertas 90 grupos llenos falta
     BaseRequest receiveRequest(String decanateName, String requestId) throws SirhaException;
     BaseRequest approveRequest(String decanateName, String requestId) throws SirhaException;
     BaseRequest rejectRequest(String decanateName, String requestId) throws SirhaException;
+    BaseRequest reprioritizeRequest(String decanateName, String requestId, int urgency) throws SirhaException;
     StudentDTO getStudentBasicInfo(String username) throws SirhaException;
     List<StudyPlan> getStudyPlansByDecanateName(String decanateName) throws SirhaException;
     List<StudyPlan> addPlanToDecanate(String decanateName, String studyPlan) throws SirhaException;
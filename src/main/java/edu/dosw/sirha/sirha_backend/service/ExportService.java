@@ -0,0 +1,18 @@
+package edu.dosw.sirha.sirha_backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.ExportFormat;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
+
+/**
+ * Exportaciones masivas para el cierre de período. Escriben directamente en la salida a
+ * medida que leen; los filtros en null no se aplican.
+ */
+public interface ExportService {
+    void exportStudents(Careers career, ExportFormat format, OutputStream out) throws IOException;
+    void exportGroups(String period, ExportFormat format, OutputStream out) throws IOException;
+    void exportRequests(RequestStateEnum state, Careers career, String period, ExportFormat format, OutputStream out) throws IOException;
+}
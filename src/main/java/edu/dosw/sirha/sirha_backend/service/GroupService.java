@@ -6,10 +6,11 @@ import edu.dosw.sirha.sirha_backend.domain.model.Professor;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
 public interface GroupService {
-    List<Group> findAllGroups() throws SirhaException;
+    CursorPageDTO<Group> findAllGroups(String cursor, int limit) throws SirhaException;
     Group saveGroup(Subject subject, Group group) throws SirhaException;
     Group deleteGroupById(String id) throws SirhaException;
 
@@ -0,0 +1,38 @@
+package edu.dosw.sirha.sirha_backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+public interface SeatReservationService {
+    Group reserveSeat(Group group, Student student) throws SirhaException;
+    Group releaseSeat(Group group, Student student) throws SirhaException;
+
+    /**
+     * Devuelve al estudiante el cupo que acaba de liberar en el grupo. Compensa una
+     * desinscripción que no se pudo guardar.
+     */
+    Group restoreSeat(Group group, Student student) throws SirhaException;
+
+    /**
+     * Reserva un cupo en cada grupo con una sola escritura. Un grupo sin cupo no impide
+     * reservar los demás: queda en {@code rejected} con el motivo.
+     */
+    BatchReservation reserveSeats(List<Group> groups, Student student) throws SirhaException;
+
+    /**
+     * Libera con una sola escritura los cupos del estudiante en los grupos dados.
+     * @return los grupos después de liberar el cupo
+     */
+    List<Group> releaseSeats(List<Group> groups, Student student) throws SirhaException;
+
+    /**
+     * Resultado de una reserva en lote: grupos reservados, ya actualizados, y motivo del
+     * rechazo por código de cada grupo que no se pudo reservar.
+     */
+    record BatchReservation(List<Group> reserved, Map<String, SirhaException> rejected) {
+    }
+}
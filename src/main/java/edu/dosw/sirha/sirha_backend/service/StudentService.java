@@ -2,18 +2,24 @@ package edu.dosw.sirha.sirha_backend.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
 import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
 import edu.dosw.sirha.sirha_backend.domain.model.CambioMateria;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DashboardSection;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentRequest;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.RegisterRequest;
 import edu.dosw.sirha.sirha_backend.dto.RequestApprovalRateDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
+import edu.dosw.sirha.sirha_backend.dto.StudentDashboardDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentReportDTO;
 import edu.dosw.sirha.sirha_backend.dto.SubjectDecoratorDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
@@ -23,7 +29,7 @@ import java.util.Map;
 public interface StudentService {
     Student registerStudent(RegisterRequest request) throws SirhaException;
 
-    List<Student> findAll() throws SirhaException;
+    CursorPageDTO<Student> findAll(String cursor, int limit) throws SirhaException;
     Optional<Student> findById(String id) throws SirhaException;
     Optional<Student> findByUsername(String username) throws SirhaException;
     Optional<Student> findByEmail(String email) throws SirhaException;
@@ -48,10 +54,22 @@ public interface StudentService {
     CambioMateria createRequestCambioMateria(String studentName, String subjectName, String newSubjectName, String codeNewGroup) throws SirhaException;
 
     Map<SemaforoColores, Double> getPercentageByColor(String username) throws SirhaException;
+
+    /**
+     * Obtiene las materias que el estudiante puede inscribir según su progreso y los prerrequisitos del plan.
+     */
+    List<SubjectDecoratorDTO> getEligibleSubjects(String username) throws SirhaException;
     StudentDTO getStudentBasicInfo(String username) throws SirhaException;
     StudentReportDTO generateCompleteReport(String username) throws SirhaException;
     String getAcademicSummary(String username) throws SirhaException;
     RequestApprovalRateDTO getRequestApprovalRate(String username) throws SirhaException;
+
+    /**
+     * Arma el tablero del estudiante con una sola lectura del documento.
+     *
+     * @param sections secciones a incluir; si es null o vacío se incluyen todas
+     */
+    StudentDashboardDTO getDashboard(String username, Set<DashboardSection> sections) throws SirhaException;
     int getSubjectsByColorCount(String username, SemaforoColores color) throws SirhaException;
 
     double getApprovalRequestPercentage(String username) throws SirhaException;
@@ -61,6 +79,7 @@ public interface StudentService {
 
     void enrollSubject( String username, String subjectName, String groupCode ) throws SirhaException;
     void unenrollSubject( String username, String subjectName, String groupCode ) throws SirhaException;
+    BatchEnrollmentResultDTO enrollSubjects(String username, BatchEnrollmentRequest request) throws SirhaException;
 
     AcademicPeriod setAcademicPeriodForStudent( String username, String period ) throws SirhaException;
     AcademicProgress setAcademicProgressForStudent( String username, AcademicProgress academicProgress ) throws SirhaException;
@@ -7,10 +7,11 @@ import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.port.PrerequisiteRule;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
 public interface SubjectService {
-    List<Subject> findAll();
+    CursorPageDTO<Subject> findAll(String cursor, int limit) throws SirhaException;
     Subject findByName(String name) throws SirhaException;
     Subject save(Subject subject) throws SirhaException;
     Subject deleteByName(String name) throws SirhaException;
@@ -26,7 +27,7 @@ public interface SubjectService {
     Subject addPrerequisite(String subjectName, PrerequisiteRule prerequisite) throws SirhaException;
 
     //de GroupService
-    List<Group> findAllGroups() throws SirhaException;
+    CursorPageDTO<Group> findAllGroups(String cursor, int limit) throws SirhaException;
     Group saveGroup(Subject subject, Group group) throws SirhaException;
     Group deleteGroupById(String id) throws SirhaException;
 
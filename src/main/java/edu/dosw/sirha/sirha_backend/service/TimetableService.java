@@ -0,0 +1,16 @@
+package edu.dosw.sirha.sirha_backend.service;
+
+import java.util.List;
+
+import edu.dosw.sirha.sirha_backend.dto.CompatibleGroupDTO;
+import edu.dosw.sirha.sirha_backend.dto.TimetablePlanDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Genera horarios sin cruces para las materias que un estudiante quiere inscribir y
+ * lista los grupos que caben en su horario actual.
+ */
+public interface TimetableService {
+    TimetablePlanDTO generate(String username, List<String> subjects, Integer limit) throws SirhaException;
+    List<CompatibleGroupDTO> findCompatibleGroups(String username) throws SirhaException;
+}
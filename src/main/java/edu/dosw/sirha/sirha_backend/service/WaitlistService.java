@@ -0,0 +1,15 @@
+package edu.dosw.sirha.sirha_backend.service;
+
+import edu.dosw.sirha.sirha_backend.dto.WaitlistPositionDTO;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Listas de espera de los grupos llenos. Los cupos que se liberan en un grupo con
+ * estudiantes en espera se asignan con {@link #promote(String)}, sin que el estudiante
+ * tenga que volver a intentar la inscripción.
+ */
+public interface WaitlistService {
+    WaitlistPositionDTO joinWaitlist(String username, String subjectName, String groupCode) throws SirhaException;
+    void leaveWaitlist(String username, String groupCode) throws SirhaException;
+    int promote(String groupCode) throws SirhaException;
+}
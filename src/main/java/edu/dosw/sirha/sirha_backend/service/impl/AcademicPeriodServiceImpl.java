@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
 import edu.dosw.sirha.sirha_backend.repository.mongo.AcademicPeriodMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.AcademicPeriodService;
 
@@ -18,13 +19,14 @@ public class AcademicPeriodServiceImpl implements AcademicPeriodService {
     private static final Logger log = LoggerFactory.getLogger(AcademicPeriodServiceImpl.class);
 
     private final AcademicPeriodMongoRepository academicPeriodRepository;
+    private final CatalogCache catalogCache;
 
-    public AcademicPeriodServiceImpl(AcademicPeriodMongoRepository academicPeriodRepository) {
+    public AcademicPeriodServiceImpl(AcademicPeriodMongoRepository academicPeriodRepository, CatalogCache catalogCache) {
         this.academicPeriodRepository = academicPeriodRepository;
+        this.catalogCache = catalogCache;
         }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<AcademicPeriod> getCurrentAcademicPeriod() {
         log.debug("Fetching current academic period");
         return academicPeriodRepository.findCurrentAcademicPeriodOptional();
@@ -34,11 +36,12 @@ public class AcademicPeriodServiceImpl implements AcademicPeriodService {
     @Transactional
     public AcademicPeriod saveAcademicPeriod(AcademicPeriod ap) {
         log.info("Saving academic period: {}", ap.getPeriod());
-        return academicPeriodRepository.save(ap);
+        AcademicPeriod saved = academicPeriodRepository.save(ap);
+        catalogCache.evictAcademicPeriod(saved.getPeriod());
+        return saved;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean existsAcademicPeriod(String period) {
         return academicPeriodRepository.existsByPeriod(period);
     }
@@ -47,12 +50,12 @@ public class AcademicPeriodServiceImpl implements AcademicPeriodService {
     @Transactional
     public void deleteAcademicPeriod(String period) {
         academicPeriodRepository.deleteByPeriod(period);
+        catalogCache.evictAcademicPeriod(period);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<AcademicPeriod> findByPeriod(String period) {
-        return academicPeriodRepository.findByPeriod(period);
+        return catalogCache.findAcademicPeriod(period);
     }
 
     @Override
@@ -0,0 +1,108 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO.Status;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobErrorDTO;
+
+/**
+ * Estado de un trabajo de inscripción masiva. Lo actualizan el lector y los trabajadores
+ * a la vez y lo leen las consultas de avance, así que los contadores son atómicos y la
+ * lista de errores se protege con el monitor del objeto.
+ *
+ * Se guardan como máximo {@code maxErrors} errores; los demás solo se cuentan en
+ * {@code failed}.
+ */
+final class CohortEnrollmentJob {
+
+    private final String id;
+    private final int maxErrors;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong enrolled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<EnrollmentJobErrorDTO> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    CohortEnrollmentJob(String id, int maxErrors) {
+        this.id = id;
+        this.maxErrors = maxErrors;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void enrolled(int rows) {
+        enrolled.addAndGet(rows);
+    }
+
+    void failed(EnrollmentJobErrorDTO error) {
+        failed.incrementAndGet();
+        synchronized (this) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void abort(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    private void finish(Status finalStatus, String reason) {
+        message = reason;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    boolean isFinished() {
+        Status current = status;
+        return current == Status.COMPLETED || current == Status.FAILED;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized List<EnrollmentJobErrorDTO> errors(int offset, int limit) {
+        if (offset >= errors.size()) {
+            return List.of();
+        }
+        return List.copyOf(errors.subList(offset, Math.min(errors.size(), offset + limit)));
+    }
+
+    EnrollmentJobDTO toDTO() {
+        long done = enrolled.get() + failed.get();
+        double rowsPerSecond = 0;
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            rowsPerSecond = done * 1000.0 / millis;
+        }
+        return new EnrollmentJobDTO(id, status, rowsRead.get(), enrolled.get(), failed.get(), rowsPerSecond,
+                submittedAt, startedAt, finishedAt, message);
+    }
+}
@@ -0,0 +1,576 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoBulkWriteException;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobErrorDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentProgressRepository.SubjectProgress;
+import edu.dosw.sirha.sirha_backend.service.CohortEnrollmentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Implementación de {@link CohortEnrollmentService}.
+ *
+ * El CSV se copia a un archivo temporal y se lee línea por línea, así que la memoria no
+ * depende del tamaño de la cohorte. Cada fila va al trabajador que le corresponde por el
+ * código del grupo: un grupo siempre lo atiende el mismo hilo, y dos hilos nunca compiten
+ * por el documento de un mismo grupo. Las colas entre el lector y los trabajadores son
+ * acotadas, de modo que la lectura se detiene si los trabajadores se atrasan.
+ *
+ * Cada trabajador procesa las filas por lotes:
+ * <ul>
+ *   <li>lee los estudiantes del lote con una sola consulta;</li>
+ *   <li>por cada grupo valida las filas con las reglas de
+ *       {@link Student#canEnrollInGroup(Subject, Group)} y reserva los cupos con un bulk
+ *       write ordenado (ver {@link GroupSeatRepository#reserveSeatsInGroup});</li>
+ *   <li>guarda la materia inscrita de cada estudiante con un bulk write de {@code $set}
+ *       parciales, de modo que dos trabajadores que inscriben materias distintas del mismo
+ *       estudiante no se sobrescriben.</li>
+ * </ul>
+ * Si el guardado de los estudiantes falla, los cupos del lote se liberan; si Mongo rechaza
+ * solo algunas escrituras del bulk, se liberan únicamente los cupos de esas filas.
+ *
+ * Los choques de horario se validan contra el estudiante leído al inicio del lote más las
+ * filas que el mismo trabajador ya inscribió; dos filas del mismo estudiante en grupos que
+ * atienden trabajadores distintos no se comparan entre sí. El archivo de cohorte asigna
+ * los bloques del plan, que no se cruzan.
+ *
+ * Los trabajos corren de a uno; los que llegan mientras tanto quedan en cola. Se
+ * conservan los últimos {@code sirha.enrollment.job.retained-jobs} trabajos terminados.
+ */
+@Service
+public class CohortEnrollmentServiceImpl implements CohortEnrollmentService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CohortEnrollmentServiceImpl.class);
+
+    /** Lotes en cola por trabajador antes de detener la lectura. */
+    private static final int QUEUED_CHUNKS = 2;
+    private static final List<Row> END = List.of();
+
+    private final StudentMongoRepository studentRepository;
+    private final GroupSeatRepository seatRepository;
+    private final CatalogCache catalogCache;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final int workers;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int retainedJobs;
+    private final ThreadPoolExecutor reader;
+    private final ThreadPoolExecutor workerPool;
+    private final Counter rowsEnrolled;
+    private final Counter rowsFailed;
+    private final Map<String, CohortEnrollmentJob> jobs = new ConcurrentHashMap<>();
+
+    public CohortEnrollmentServiceImpl(StudentMongoRepository studentRepository,
+                                       @Qualifier("groupMongoRepository") GroupSeatRepository seatRepository,
+                                       CatalogCache catalogCache,
+                                       GroupCompatibilityIndex compatibilityIndex,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${sirha.enrollment.job.workers:4}") int workers,
+                                       @Value("${sirha.enrollment.job.chunk-size:500}") int chunkSize,
+                                       @Value("${sirha.enrollment.job.max-errors:1000}") int maxErrors,
+                                       @Value("${sirha.enrollment.job.retained-jobs:20}") int retainedJobs) {
+        if (workers < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("sirha.enrollment.job.workers y chunk-size deben ser positivos");
+        }
+        this.studentRepository = studentRepository;
+        this.seatRepository = seatRepository;
+        this.catalogCache = catalogCache;
+        this.compatibilityIndex = compatibilityIndex;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+        this.reader = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                daemon("cohort-enrollment-reader"));
+        this.workerPool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                daemon("cohort-enrollment-worker"));
+        this.rowsEnrolled = rows(meterRegistry, "enrolled");
+        this.rowsFailed = rows(meterRegistry, "failed");
+        ExecutorServiceMetrics.monitor(meterRegistry, workerPool, "enrollment.cohort");
+        log.info("Inscripción masiva: {} trabajadores, lotes de {} filas", workers, chunkSize);
+    }
+
+    private static Counter rows(MeterRegistry registry, String outcome) {
+        return Counter.builder("sirha.enrollment.cohort.rows")
+                .description("Filas resueltas por la inscripción masiva")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public EnrollmentJobDTO submit(InputStream csv) throws SirhaException {
+        if (csv == null) {
+            throw SirhaException.of(ErrorCodeSirha.MISSING_REQUIRED_FIELD, "El archivo CSV es obligatorio");
+        }
+        Path file;
+        try {
+            file = Files.createTempFile("sirha-cohort-", ".csv");
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al recibir el archivo CSV: " + e.getMessage(), e);
+        }
+        CohortEnrollmentJob job = new CohortEnrollmentJob(UUID.randomUUID().toString(), maxErrors);
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            reader.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(file);
+            throw SirhaException.of(ErrorCodeSirha.SERVICE_UNAVAILABLE, "No se pudo programar la inscripción masiva");
+        }
+        log.info("Inscripción masiva {} en cola", job.getId());
+        return job.toDTO();
+    }
+
+    @Override
+    public EnrollmentJobDTO getJob(String jobId) throws SirhaException {
+        return findJob(jobId).toDTO();
+    }
+
+    @Override
+    public List<EnrollmentJobErrorDTO> getErrors(String jobId, int offset, int limit) throws SirhaException {
+        if (offset < 0) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El desplazamiento no puede ser negativo");
+        }
+        return findJob(jobId).errors(offset, limit);
+    }
+
+    private CohortEnrollmentJob findJob(String jobId) throws SirhaException {
+        CohortEnrollmentJob job = jobId == null ? null : jobs.get(jobId);
+        if (job == null) {
+            throw SirhaException.of(ErrorCodeSirha.ENROLLMENT_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        List<CohortEnrollmentJob> finished = jobs.values().stream()
+                .filter(CohortEnrollmentJob::isFinished)
+                .sorted(Comparator.comparing(CohortEnrollmentJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    /**
+     * Lee el archivo y reparte las filas entre los trabajadores. Al terminar (o fallar la
+     * lectura) envía a cada trabajador la marca de fin y espera a que vacíe su cola.
+     */
+    private void run(CohortEnrollmentJob job, Path file) {
+        job.start();
+        log.info("Inscripción masiva {} iniciada", job.getId());
+        List<BlockingQueue<List<Row>>> queues = new ArrayList<>();
+        List<Future<?>> drains = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+            queues.add(queue);
+            drains.add(workerPool.submit(() -> drain(job, queue)));
+        }
+        String failure = null;
+        try {
+            read(job, file, queues);
+        } catch (IOException e) {
+            failure = "Error al leer el archivo: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Inscripción masiva interrumpida";
+        } finally {
+            for (BlockingQueue<List<Row>> queue : queues) {
+                putQuietly(queue, END);
+            }
+        }
+        for (Future<?> drain : drains) {
+            try {
+                drain.get();
+            } catch (ExecutionException e) {
+                failure = "Error en un trabajador: " + e.getCause().getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = "Inscripción masiva interrumpida";
+            }
+        }
+        deleteQuietly(file);
+        if (failure != null) {
+            log.warn("Inscripción masiva {} terminó con error: {}", job.getId(), failure);
+            job.abort(failure);
+        } else {
+            job.complete();
+        }
+        EnrollmentJobDTO result = job.toDTO();
+        log.info("Inscripción masiva {} terminada: {} filas, {} inscritas, {} con error, {} filas/s",
+                job.getId(), result.getRowsRead(), result.getEnrolled(), result.getFailed(),
+                String.format("%.1f", result.getRowsPerSecond()));
+    }
+
+    private void read(CohortEnrollmentJob job, Path file, List<BlockingQueue<List<Row>>> queues)
+            throws IOException, InterruptedException {
+        List<List<Row>> chunks = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        try (BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            boolean first = true;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = columns(line);
+                if (first) {
+                    first = false;
+                    if (columns != null && "codigo".equalsIgnoreCase(columns[0])) {
+                        continue;
+                    }
+                }
+                job.rowRead();
+                if (columns == null) {
+                    fail(job, new Row(lineNumber, null, null, null), ErrorCodeSirha.INVALID_ARGUMENT,
+                            "La fila tiene comillas mal cerradas");
+                    continue;
+                }
+                if (columns.length != 3 || columns[0].isEmpty() || columns[1].isEmpty() || columns[2].isEmpty()) {
+                    fail(job, new Row(lineNumber, columns[0], columns.length > 1 ? columns[1] : null,
+                            columns.length > 2 ? columns[2] : null), ErrorCodeSirha.INVALID_ARGUMENT,
+                            "La fila debe tener codigo, materia y grupo");
+                    continue;
+                }
+                Row row = new Row(lineNumber, columns[0], columns[1], columns[2]);
+                int worker = Math.floorMod(row.groupCode().hashCode(), workers);
+                List<Row> chunk = chunks.get(worker);
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    queues.get(worker).put(chunk);
+                    chunks.set(worker, new ArrayList<>());
+                }
+            }
+        }
+        for (int i = 0; i < workers; i++) {
+            if (!chunks.get(i).isEmpty()) {
+                queues.get(i).put(chunks.get(i));
+            }
+        }
+    }
+
+    /**
+     * Separa una línea según RFC 4180: un campo entre comillas puede contener comas y
+     * {@code ""} representa una comilla. Fuera de las comillas se ignoran los espacios de los
+     * bordes. No se admiten saltos de línea dentro de un campo, porque el archivo se lee por
+     * líneas. Devuelve {@code null} si las comillas están mal formadas.
+     */
+    private static String[] columns(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == ',') {
+                columns.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (wasQuoted) {
+                // Tras cerrar las comillas solo puede venir la coma
+                if (!Character.isWhitespace(c)) {
+                    return null;
+                }
+            } else if (c == '"') {
+                // Las comillas abren el campo; en medio de un valor no son válidas
+                if (!field.toString().isBlank()) {
+                    return null;
+                }
+                field.setLength(0);
+                inQuotes = true;
+                wasQuoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            return null;
+        }
+        columns.add(wasQuoted ? field.toString() : field.toString().trim());
+        return columns.toArray(String[]::new);
+    }
+
+    private void drain(CohortEnrollmentJob job, BlockingQueue<List<Row>> queue) {
+        try {
+            List<Row> chunk;
+            while (!(chunk = queue.take()).isEmpty()) {
+                processChunk(job, chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("trabajador interrumpido", e);
+        }
+    }
+
+    /**
+     * Inscribe un lote. Las filas se resuelven (inscritas o con error) exactamente una vez;
+     * las que siguen en {@code pending} al fallar el lote se marcan con error interno.
+     */
+    private void processChunk(CohortEnrollmentJob job, List<Row> chunk) {
+        Set<Row> pending = new LinkedHashSet<>(chunk);
+        Map<String, List<String>> reserved = new LinkedHashMap<>();
+        try {
+            Set<String> codes = new HashSet<>();
+            chunk.forEach(row -> codes.add(row.codigo()));
+            Map<String, Student> students = new HashMap<>();
+            studentRepository.findByCodigoIn(codes).forEach(student -> students.put(student.getCodigo(), student));
+
+            Map<String, List<Row>> byGroup = new LinkedHashMap<>();
+            chunk.forEach(row -> byGroup.computeIfAbsent(row.groupCode(), code -> new ArrayList<>()).add(row));
+            List<SubjectProgress> updates = new ArrayList<>();
+            List<Row> enrolled = new ArrayList<>();
+            for (Map.Entry<String, List<Row>> group : byGroup.entrySet()) {
+                enrollGroup(job, group.getKey(), group.getValue(), students, pending, reserved, updates, enrolled);
+            }
+
+            Map<Integer, String> unsaved = saveProgress(updates);
+            List<Row> saved = new ArrayList<>();
+            Map<String, List<String>> orphaned = new LinkedHashMap<>();
+            for (int i = 0; i < enrolled.size(); i++) {
+                if (!unsaved.containsKey(i)) {
+                    saved.add(enrolled.get(i));
+                    continue;
+                }
+                Row row = enrolled.get(i);
+                orphaned.computeIfAbsent(row.groupCode(), code -> new ArrayList<>()).add(row.codigo());
+                pending.remove(row);
+                fail(job, row, ErrorCodeSirha.INTERNAL_ERROR, "No se pudo guardar el progreso: " + unsaved.get(i));
+            }
+            // Solo se liberan los cupos de las filas cuyo progreso no quedó escrito
+            releaseReserved(orphaned);
+            pending.removeAll(saved);
+            job.enrolled(saved.size());
+            rowsEnrolled.increment(saved.size());
+        } catch (RuntimeException e) {
+            log.warn("Falló un lote de la inscripción masiva {} ({} filas): {}", job.getId(), chunk.size(), e.getMessage());
+            releaseReserved(reserved);
+            for (Row row : pending) {
+                fail(job, row, ErrorCodeSirha.INTERNAL_ERROR, "Error interno al inscribir el lote: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Guarda el progreso y devuelve, por índice de {@code updates}, las escrituras que Mongo rechazó.
+     * El bulk es desordenado: si solo fallan algunas operaciones, las demás ya quedaron aplicadas.
+     * Cualquier otro error se propaga y el lote completo se trata como fallido.
+     */
+    private Map<Integer, String> saveProgress(List<SubjectProgress> updates) {
+        try {
+            studentRepository.saveSubjectProgress(updates);
+            return Map.of();
+        } catch (RuntimeException e) {
+            MongoBulkWriteException bulk = bulkWriteFailure(e);
+            if (bulk == null || bulk.getWriteErrors().isEmpty() || bulk.getWriteConcernError() != null) {
+                throw e;
+            }
+            Map<Integer, String> rejected = new HashMap<>();
+            bulk.getWriteErrors().forEach(error -> rejected.put(error.getIndex(), error.getMessage()));
+            return rejected;
+        }
+    }
+
+    /** Spring envuelve el error del driver (BulkOperationException u otra DataAccessException). */
+    private static MongoBulkWriteException bulkWriteFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulk) {
+                return bulk;
+            }
+        }
+        return null;
+    }
+
+    private void enrollGroup(CohortEnrollmentJob job, String groupCode, List<Row> rows, Map<String, Student> students,
+                             Set<Row> pending, Map<String, List<String>> reserved,
+                             List<SubjectProgress> updates, List<Row> enrolled) {
+        Optional<Group> snapshot = seatRepository.findSeatSnapshot(groupCode);
+        if (snapshot.isEmpty()) {
+            rows.forEach(row -> reject(job, pending, row, SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND)));
+            return;
+        }
+        Group group = snapshot.get();
+        Map<String, Optional<Subject>> subjects = new HashMap<>();
+        List<Row> accepted = new ArrayList<>();
+        List<String> acceptedCodes = new ArrayList<>();
+        for (Row row : rows) {
+            Student student = students.get(row.codigo());
+            Optional<Subject> subject = subjects.computeIfAbsent(row.subject(), catalogCache::findSubjectByName);
+            try {
+                if (student == null) {
+                    throw SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                }
+                if (subject.isEmpty()) {
+                    throw SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
+                }
+                // Se rechaza antes de reservar: el progreso se guarda bajo el nombre de la materia
+                if (!SubjectProgress.isStorableName(subject.get().getName())) {
+                    throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El nombre de la materia no puede usarse como campo del progreso");
+                }
+                if (acceptedCodes.contains(row.codigo())) {
+                    throw SirhaException.of(ErrorCodeSirha.DUPLICATE_REQUEST, "Fila repetida para el estudiante y el grupo");
+                }
+                if (group.contieneCodigo(row.codigo())) {
+                    throw SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
+                }
+                student.canEnrollInGroup(subject.get(), group);
+            } catch (SirhaException e) {
+                reject(job, pending, row, e);
+                continue;
+            }
+            accepted.add(row);
+            acceptedCodes.add(row.codigo());
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Group after = seatRepository.reserveSeatsInGroup(groupCode, acceptedCodes)
+                .orElseThrow(() -> new IllegalStateException("El grupo " + groupCode + " ya no existe"));
+        catalogCache.evictGroup(groupCode);
+        compatibilityIndex.update(after);
+        List<String> taken = new ArrayList<>();
+        reserved.put(groupCode, taken);
+        List<String> orphaned = new ArrayList<>();
+        for (Row row : accepted) {
+            if (!after.contieneCodigo(row.codigo())) {
+                reject(job, pending, row, SirhaException.of(ErrorCodeSirha.GROUP_FULL));
+                continue;
+            }
+            Student student = students.get(row.codigo());
+            Subject subject = subjects.get(row.subject()).orElseThrow();
+            try {
+                student.confirmEnrollment(subject, after);
+            } catch (SirhaException e) {
+                orphaned.add(row.codigo());
+                reject(job, pending, row, e);
+                continue;
+            }
+            taken.add(row.codigo());
+            updates.add(new SubjectProgress(student, subject.getName()));
+            enrolled.add(row);
+        }
+        if (!orphaned.isEmpty()) {
+            seatRepository.releaseSeatsInGroup(groupCode, orphaned).ifPresent(compatibilityIndex::update);
+        }
+    }
+
+    private void releaseReserved(Map<String, List<String>> reserved) {
+        reserved.forEach((groupCode, codes) -> {
+            try {
+                seatRepository.releaseSeatsInGroup(groupCode, codes).ifPresent(compatibilityIndex::update);
+                catalogCache.evictGroup(groupCode);
+            } catch (RuntimeException e) {
+                log.error("No se pudieron liberar {} cupos del grupo {}: {}", codes.size(), groupCode, e.getMessage());
+            }
+        });
+    }
+
+    private void reject(CohortEnrollmentJob job, Set<Row> pending, Row row, SirhaException e) {
+        pending.remove(row);
+        fail(job, row, e.getErrorCode(), e.getMessage());
+    }
+
+    private void fail(CohortEnrollmentJob job, Row row, ErrorCodeSirha code, String message) {
+        job.failed(new EnrollmentJobErrorDTO(row.line(), row.codigo(), row.subject(), row.groupCode(), code.name(), message));
+        rowsFailed.increment();
+    }
+
+    private static void putQuietly(BlockingQueue<List<Row>> queue, List<Row> chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reader.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /** Fila del CSV con su número de línea. */
+    private record Row(long line, String codigo, String subject, String groupCode) {
+    }
+}
@@ -1,13 +1,11 @@
 package edu.dosw.sirha.sirha_backend.service.impl;
 
-import java.util.List;
-
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import edu.dosw.sirha.sirha_backend.infrastructure.security.AccountUserDetails;
 import edu.dosw.sirha.sirha_backend.repository.mongo.AccountMongoRepository;
 
 @Service
@@ -21,12 +19,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var acc = accounts.findByUsername(username)
+        return accounts.findByUsername(username)
+            .map(AccountUserDetails::new)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return User.withUsername(acc.getUsername())
-            .password(acc.getPasswordHash())
-            .authorities(List.of(() -> "ROLE_" + acc.getRole().name()))
-            .build();
     }
 }
@@ -1,8 +1,12 @@
 package edu.dosw.sirha.sirha_backend.service.impl;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -11,32 +15,50 @@ import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
 import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.RegisterRequest;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
 import edu.dosw.sirha.sirha_backend.service.DecanateService;
 import edu.dosw.sirha.sirha_backend.service.RequestService;
 import edu.dosw.sirha.sirha_backend.service.StudentService;
 import edu.dosw.sirha.sirha_backend.service.StudyPlanService;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
 import edu.dosw.sirha.sirha_backend.util.ValidationUtil;
 import edu.dosw.sirha.sirha_backend.repository.mongo.DecanateMongoRepository;
 
+/**
+ * Implementación de {@link DecanateService}.
+ *
+ * Las operaciones que leen la decanatura, cambian su cola y la guardan completa corren con
+ * {@link TransactionRunner}: si otra operación guardó la misma decanatura entre la lectura
+ * y el guardado, la versión ya no coincide y se repiten desde una lectura nueva.
+ */
 @Service
 public class DecanateServiceImpl implements DecanateService {
 
     private static final Logger log = LoggerFactory.getLogger(DecanateServiceImpl.class);
+    private static final String PENDING_REQUESTS_CURSOR = "decanate-requests";
+    private static final String DECANATE_QUEUE_CURSOR = "decanate-queue";
+    private static final String DECANATES_CURSOR = "decanates";
 
     private final DecanateMongoRepository decanateRepository;
     private final StudentService studentService;
     private final RequestService requestService;
     private final StudyPlanService studyPlanService;
+    private final SirhaMetrics metrics;
+    private final TransactionRunner transactions;
 
-    public DecanateServiceImpl(DecanateMongoRepository decanateRepository, StudentService studentService, RequestService requestService, StudyPlanService studyPlanService) {
+    public DecanateServiceImpl(DecanateMongoRepository decanateRepository, StudentService studentService, RequestService requestService, StudyPlanService studyPlanService, SirhaMetrics metrics, TransactionRunner transactions) {
         this.decanateRepository = decanateRepository;
         this.studentService = studentService;
         this.requestService = requestService;
         this.studyPlanService = studyPlanService;
+        this.metrics = metrics;
+        this.transactions = transactions;
     }
 
     @Transactional
@@ -91,20 +113,23 @@ public class DecanateServiceImpl implements DecanateService {
         }
     }
 
-    @Transactional
     @Override
-    public List<Decanate> getAllDecanates() throws SirhaException {
-        log.info("Obteniendo todas las decanaturas");
+    public CursorPageDTO<Decanate> getAllDecanates(String cursor, int limit) throws SirhaException {
+        log.info("Obteniendo decanaturas (cursor: {}, límite: {})", cursor, limit);
         try {
-            List<Decanate> list = decanateRepository.findAll();
-            log.info("Decanaturas obtenidas: {}", list.size());
-            return list;
+            List<Decanate> decanates = cursor == null
+                    ? decanateRepository.findAllByOrderByNameAsc(Limit.of(limit + 1))
+                    : decanateRepository.findByNameGreaterThanOrderByNameAsc(CursorCodec.decode(DECANATES_CURSOR, cursor, 1)[0], Limit.of(limit + 1));
+            CursorPageDTO<Decanate> page = CursorPageDTO.of(decanates, limit, d -> CursorCodec.encode(DECANATES_CURSOR, d.getName()));
+            log.info("Decanaturas obtenidas: {}", page.getItems().size());
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw new SirhaException(ErrorCodeSirha.DATABASE_ERROR, "Error al obtener todas las decanaturas", e);
         }
     }
     
-    @Transactional
     @Override
     public Decanate getDecanateByName(String name) throws SirhaException {
         if (name == null || name.trim().isEmpty()) {
@@ -116,42 +141,123 @@ public class DecanateServiceImpl implements DecanateService {
                 .orElseThrow(() -> new SirhaException(ErrorCodeSirha.DECANATE_NOT_FOUND));
     }
 
-    @Transactional
+    /**
+     * Solicitudes pendientes de todas las decanaturas, paginadas por cursor.
+     *
+     * Se recorren las decanaturas en orden de nombre y, dentro de cada una, las solicitudes
+     * en orden de llegada; el cursor es la pareja (decanatura, secuencia de llegada) de la
+     * última solicitud entregada. Solo se leen las decanaturas que aporta la página.
+     */
     @Override
-    public List<BaseRequest> getAllRequests() throws SirhaException {
-        log.info("Obteniendo todas las solicitudes pendientes de todas las decanaturas");
+    public CursorPageDTO<BaseRequest> getAllRequests(String cursor, int limit) throws SirhaException {
+        log.info("Obteniendo solicitudes pendientes de las decanaturas (cursor: {}, límite: {})", cursor, limit);
         try {
-            List<Decanate> decanates = decanateRepository.findAll();
-            List<BaseRequest> allRequests = new ArrayList<>();
-            for (Decanate decanate : decanates) {
-                allRequests.addAll(decanate.getPendingRequests());
+            String afterDecanate = "";
+            long afterSequence = 0;
+            Optional<Decanate> current;
+            if (cursor == null) {
+                current = decanateRepository.findFirstByNameGreaterThanOrderByNameAsc(afterDecanate);
+            } else {
+                String[] key = CursorCodec.decode(PENDING_REQUESTS_CURSOR, cursor, 2);
+                afterDecanate = key[0];
+                afterSequence = parseSequence(key[1]);
+                String name = afterDecanate;
+                current = decanateRepository.findByName(name)
+                        .or(() -> decanateRepository.findFirstByNameGreaterThanOrderByNameAsc(name));
+            }
+
+            List<BaseRequest> requests = new ArrayList<>(limit + 1);
+            Map<BaseRequest, String> decanateOf = new IdentityHashMap<>();
+            while (current.isPresent()) {
+                Decanate decanate = current.get();
+                boolean resumes = decanate.getName().equals(afterDecanate);
+                for (BaseRequest request : decanate.getPendingRequestsByArrival()) {
+                    if (resumes && request.getQueueSequence() <= afterSequence) {
+                        continue;
+                    }
+                    requests.add(request);
+                    decanateOf.put(request, decanate.getName());
+                    if (requests.size() > limit) {
+                        break;
+                    }
+                }
+                if (requests.size() > limit) {
+                    break;
+                }
+                current = decanateRepository.findFirstByNameGreaterThanOrderByNameAsc(decanate.getName());
             }
-            log.info("Solicitudes encontradas: {}", allRequests.size());
-            return allRequests;
+            CursorPageDTO<BaseRequest> page = CursorPageDTO.of(requests, limit, request -> CursorCodec.encode(
+                    PENDING_REQUESTS_CURSOR, decanateOf.get(request), Long.toString(request.getQueueSequence())));
+            log.info("Solicitudes encontradas: {}", page.getItems().size());
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw new SirhaException(ErrorCodeSirha.DATABASE_ERROR, "Error al obtener todas las solicitudes", e);
         }
     }
 
-    @Transactional
+    private static long parseSequence(String sequence) throws SirhaException {
+        try {
+            return Long.parseLong(sequence);
+        } catch (NumberFormatException e) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Cursor inválido");
+        }
+    }
+
+    /**
+     * Solicitudes pendientes de una decanatura en el orden de su cola, por páginas.
+     *
+     * El cursor es la pareja (clave de prioridad, secuencia de llegada) de la última
+     * solicitud entregada. Esa clave no depende del momento de la consulta, así que resolver
+     * solicitudes de páginas anteriores no corre las siguientes; una solicitud
+     * repriorizada entre páginas aparece donde le corresponde ahora.
+     */
+    @Override
+    public CursorPageDTO<BaseRequest> getAllRequestsForDecanate(String decanateName, String cursor, int limit) throws SirhaException {
+        log.info("Obteniendo solicitudes para decanatura: {} (cursor: {}, límite: {})", decanateName, cursor, limit);
+        Decanate decanate = findDecanate(decanateName);
+        long afterKey = Long.MIN_VALUE;
+        long afterSequence = Long.MIN_VALUE;
+        if (cursor != null) {
+            String[] key = CursorCodec.decode(DECANATE_QUEUE_CURSOR, cursor, 2);
+            afterKey = parseSequence(key[0]);
+            afterSequence = parseSequence(key[1]);
+        }
+        List<BaseRequest> requests = new ArrayList<>(limit + 1);
+        for (BaseRequest request : decanate.getPendingRequests()) {
+            long requestKey = decanate.priorityKey(request);
+            if (requestKey < afterKey || (requestKey == afterKey && request.getQueueSequence() <= afterSequence)) {
+                continue;
+            }
+            requests.add(request);
+            if (requests.size() > limit) {
+                break;
+            }
+        }
+        CursorPageDTO<BaseRequest> page = CursorPageDTO.of(requests, limit, request -> CursorCodec.encode(DECANATE_QUEUE_CURSOR,
+                Long.toString(decanate.priorityKey(request)), Long.toString(request.getQueueSequence())));
+        log.info("Solicitudes en {}: {}", decanateName, page.getItems().size());
+        return page;
+    }
+
     @Override
-    public List<BaseRequest> getAllRequestsForDecanate(String decanateName) throws SirhaException {
+    public int countPendingRequests(String decanateName) throws SirhaException {
+        return findDecanate(decanateName).getPendingRequests().size();
+    }
+
+    private Decanate findDecanate(String decanateName) throws SirhaException {
         if (decanateName == null || decanateName.trim().isEmpty()) {
-            log.warn("getAllRequestsForDecanate: decanateName vacío");
+            log.warn("findDecanate: decanateName vacío");
             throw new SirhaException(ErrorCodeSirha.INVALID_ARGUMENT, "El nombre de la decanatura no puede estar vacío");
         }
-        log.info("Obteniendo solicitudes para decanatura: {}", decanateName);
-        Decanate decanate = decanateRepository.findByName(decanateName)
+        return decanateRepository.findByName(decanateName)
                 .orElseThrow(() -> {
                     log.warn("Decanatura no encontrada: {}", decanateName);
                     return new SirhaException(ErrorCodeSirha.DECANATE_NOT_FOUND);
                 });
-        List<BaseRequest> list = decanate.getPendingRequests();
-        log.info("Solicitudes en {}: {}", decanateName, list.size());
-        return list;
     }
 
-    @Transactional
     @Override
     public BaseRequest getRequestById(String requestId) throws SirhaException {
         if (requestId == null || requestId.trim().isEmpty()) {
@@ -166,9 +272,12 @@ public class DecanateServiceImpl implements DecanateService {
                 });
     }
 
-    @Transactional
     @Override
     public BaseRequest receiveRequest(String decanateName, String requestId) throws SirhaException {
+        return metrics.record(SirhaMetrics.RECEIVE_REQUEST, () -> transactions.execute(SirhaMetrics.RECEIVE_REQUEST, () -> receive(decanateName, requestId)));
+    }
+
+    private BaseRequest receive(String decanateName, String requestId) throws SirhaException {
         if (decanateName == null || decanateName.trim().isEmpty()) {
             log.warn("receiveRequest: decanateName vacío");
             throw new SirhaException(ErrorCodeSirha.INVALID_ARGUMENT, "El nombre de la decanatura no puede estar vacío");
@@ -200,9 +309,12 @@ public class DecanateServiceImpl implements DecanateService {
         }
     }
 
-    @Transactional
     @Override
     public BaseRequest approveRequest(String decanateName, String requestId) throws SirhaException {
+        return metrics.record(SirhaMetrics.APPROVE_REQUEST, () -> transactions.execute(SirhaMetrics.APPROVE_REQUEST, () -> approve(decanateName, requestId)));
+    }
+
+    private BaseRequest approve(String decanateName, String requestId) throws SirhaException {
         log.info("Aprobando solicitud {} por decanatura {}", requestId, decanateName);
          // Validar parámetros
          if (decanateName == null || decanateName.trim().isEmpty()) {
@@ -233,9 +345,12 @@ public class DecanateServiceImpl implements DecanateService {
         }
     }
 
-    @Transactional
     @Override
     public BaseRequest rejectRequest(String decanateName, String requestId) throws SirhaException {
+        return metrics.record(SirhaMetrics.REJECT_REQUEST, () -> transactions.execute(SirhaMetrics.REJECT_REQUEST, () -> reject(decanateName, requestId)));
+    }
+
+    private BaseRequest reject(String decanateName, String requestId) throws SirhaException {
         log.info("Rechazando solicitud {} por decanatura {}", requestId, decanateName);
          // Validar parámetros
          if (decanateName == null || decanateName.trim().isEmpty()) {
@@ -261,17 +376,46 @@ public class DecanateServiceImpl implements DecanateService {
         } catch (IllegalStateException e) {
             throw new SirhaException(ErrorCodeSirha.INVALID_STATE_TRANSITION, "No se puede rechazar la solicitud: %s", e.getMessage());
         } catch (Exception e) {
-            throw new SirhaException(ErrorCodeSirha.DATABASE_ERROR, "Error al rechazar la solicitud: %s", e.getMessage());
+            throw SirhaException.of(ErrorCodeSirha.DATABASE_ERROR, "Error al rechazar la solicitud: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BaseRequest reprioritizeRequest(String decanateName, String requestId, int urgency) throws SirhaException {
+        return transactions.execute(SirhaMetrics.REPRIORITIZE_REQUEST, () -> reprioritize(decanateName, requestId, urgency));
+    }
+
+    private BaseRequest reprioritize(String decanateName, String requestId, int urgency) throws SirhaException {
+        log.info("Cambiando urgencia de la solicitud {} a {} en decanatura {}", requestId, urgency, decanateName);
+        if (decanateName == null || decanateName.trim().isEmpty()) {
+            throw new SirhaException(ErrorCodeSirha.INVALID_ARGUMENT, "El nombre de la decanatura no puede estar vacío");
+        }
+        if (requestId == null || requestId.trim().isEmpty()) {
+            throw new SirhaException(ErrorCodeSirha.INVALID_ARGUMENT, "El ID de la solicitud no puede estar vacío");
+        }
+
+        Decanate decanate = decanateRepository.findByName(decanateName)
+                .orElseThrow(() -> new SirhaException(ErrorCodeSirha.DECANATE_NOT_FOUND));
+
+        BaseRequest request = requestService.findById(requestId)
+                .orElseThrow(() -> new SirhaException(ErrorCodeSirha.REQUEST_NOT_FOUND, "Solicitud no encontrada: %s", requestId));
+
+        decanate.reprioritizeRequest(request, urgency);
+        try {
+            // Solo cambia la solicitud reubicada; las demás conservan sus datos
+            decanateRepository.save(decanate);
+            log.info("Solicitud {} con urgencia {} en {}", requestId, urgency, decanateName);
+            return request;
+        } catch (Exception e) {
+            throw new SirhaException(ErrorCodeSirha.DATABASE_ERROR, "Error al cambiar la urgencia de la solicitud", e);
         }
     }
 
-    @Transactional
     @Override
     public StudentDTO getStudentBasicInfo(String username) throws SirhaException {
         return studentService.getStudentBasicInfo(username);
     }
 
-    @Transactional
     @Override
     public List<StudyPlan> getStudyPlansByDecanateName(String decanateName) throws SirhaException {
         if (decanateName == null || decanateName.trim().isEmpty()) {
@@ -284,9 +428,12 @@ public class DecanateServiceImpl implements DecanateService {
         return decanate.getStudyPlans();
     }
 
-    @Transactional
     @Override
     public List<StudyPlan> addPlanToDecanate(String decanateName, String studyPlanName) throws SirhaException {
+        return transactions.execute(SirhaMetrics.ADD_STUDY_PLAN, () -> addPlan(decanateName, studyPlanName));
+    }
+
+    private List<StudyPlan> addPlan(String decanateName, String studyPlanName) throws SirhaException {
         if (decanateName == null || decanateName.trim().isEmpty()) {
             log.warn("addPlanToDecanate: decanateName vacío");
             throw new SirhaException(ErrorCodeSirha.INVALID_ARGUMENT, "El nombre de la decanatura no puede estar vacío");
@@ -314,7 +461,7 @@ public class DecanateServiceImpl implements DecanateService {
             log.info("Plan '{}' agregado a decanatura '{}'", studyPlan.getName(), decanateName);
             return decanate.getStudyPlans();
         } catch (Exception e) {
-            throw new SirhaException(ErrorCodeSirha.DATABASE_ERROR, "Error al agregar el plan de estudio: %s", e.getMessage());
+            throw SirhaException.of(ErrorCodeSirha.DATABASE_ERROR, "Error al agregar el plan de estudio: " + e.getMessage(), e);
         }
     }
 
@@ -331,7 +478,6 @@ public class DecanateServiceImpl implements DecanateService {
         return studyPlanService.saveStudyPlan(studyPlan);
     }
 
-    @Transactional
     @Override
     public List<StudyPlan> getStudyPlansByCareer(Careers career) throws SirhaException {
         return studyPlanService.getStudyPlansByCareer(career);
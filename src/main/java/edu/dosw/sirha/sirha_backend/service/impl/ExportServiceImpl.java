@@ -0,0 +1,178 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.ExportFormat;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
+import edu.dosw.sirha.sirha_backend.repository.export.MongoExportReader;
+import edu.dosw.sirha.sirha_backend.service.ExportService;
+import edu.dosw.sirha.sirha_backend.util.ExportWriter;
+
+/**
+ * Implementación de {@link ExportService} sobre {@link MongoExportReader}.
+ *
+ * Cada lote leído se escribe y se envía al cliente antes de leer el siguiente. Los
+ * filtros por estado y período se resuelven en Mongo; la carrera se guarda en el plan de
+ * estudios, así que para estudiantes se filtra por los ids de los planes de esa carrera y
+ * para solicitudes se resuelve la carrera de los estudiantes de cada lote.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    static final List<String> STUDENT_COLUMNS = List.of("id", "username", "email", "codigo", "career");
+    static final List<String> GROUP_COLUMNS = List.of("id", "code", "period", "capacidad", "cuposDisponibles",
+            "inscritos", "estado", "aula", "professor");
+    static final List<String> REQUEST_COLUMNS = List.of("id", "type", "studentId", "career", "actualState", "period",
+            "creadoEn", "receivedAt", "urgency");
+
+    private static final String PERIOD = "currentPeriod.period";
+
+    private final MongoExportReader reader;
+
+    public ExportServiceImpl(MongoExportReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public void exportStudents(Careers career, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exportando estudiantes (carrera: {}, formato: {})", career, format);
+        Map<Object, String> careers = reader.studyPlanCareers();
+        Bson filter = new Document();
+        if (career != null) {
+            List<Object> plans = careers.entrySet().stream()
+                    .filter(plan -> career.name().equals(plan.getValue()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            filter = Filters.in(MongoExportReader.STUDENT_PLAN, plans);
+        }
+        ExportWriter writer = ExportWriter.of(format, STUDENT_COLUMNS, out);
+        long[] rows = {0};
+        reader.forEachBatch("students", filter,
+                Projections.include("username", "email", "codigo", MongoExportReader.STUDENT_PLAN), batch -> {
+                    for (Document student : batch) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("id", student.get("_id"));
+                        row.put("username", student.get("username"));
+                        row.put("email", student.get("email"));
+                        row.put("codigo", student.get("codigo"));
+                        row.put("career", careers.get(MongoExportReader.planOf(student)));
+                        writer.write(row);
+                    }
+                    rows[0] += batch.size();
+                    writer.flush();
+                });
+        writer.flush();
+        log.info("Exportación de estudiantes terminada: {} filas", rows[0]);
+    }
+
+    @Override
+    public void exportGroups(String period, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exportando grupos (período: {}, formato: {})", period, format);
+        Bson filter = period == null ? new Document() : Filters.eq(PERIOD, period);
+        Bson projection = Projections.fields(
+                Projections.include("code", PERIOD, "capacidad", "cuposDisponibles", "estadoGrupo._class", "aula",
+                        "professor.username"),
+                // Solo el tamaño del roster, no los códigos
+                Projections.computed("inscritos",
+                        new Document("$size", new Document("$ifNull", List.of("$codigosInscritos", List.of())))));
+        ExportWriter writer = ExportWriter.of(format, GROUP_COLUMNS, out);
+        long[] rows = {0};
+        reader.forEachBatch("groups", filter, projection, batch -> {
+            for (Document group : batch) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", group.get("_id"));
+                row.put("code", group.get("code"));
+                row.put("period", embedded(group, "currentPeriod", "period"));
+                row.put("capacidad", group.get("capacidad"));
+                row.put("cuposDisponibles", group.get("cuposDisponibles"));
+                row.put("inscritos", group.get("inscritos"));
+                row.put("estado", simpleName(embedded(group, "estadoGrupo", "_class")));
+                row.put("aula", group.get("aula"));
+                row.put("professor", embedded(group, "professor", "username"));
+                writer.write(row);
+            }
+            rows[0] += batch.size();
+            writer.flush();
+        });
+        writer.flush();
+        log.info("Exportación de grupos terminada: {} filas", rows[0]);
+    }
+
+    @Override
+    public void exportRequests(RequestStateEnum state, Careers career, String period, ExportFormat format,
+                               OutputStream out) throws IOException {
+        log.info("Exportando solicitudes (estado: {}, carrera: {}, período: {}, formato: {})", state, career, period, format);
+        List<Bson> conditions = new ArrayList<>();
+        if (state != null) {
+            conditions.add(Filters.eq("actualState", state.name()));
+        }
+        if (period != null) {
+            conditions.add(Filters.eq(PERIOD, period));
+        }
+        Bson filter = conditions.isEmpty() ? new Document() : Filters.and(conditions);
+        Map<Object, String> careers = reader.studyPlanCareers();
+        ExportWriter writer = ExportWriter.of(format, REQUEST_COLUMNS, out);
+        long[] rows = {0};
+        reader.forEachBatch("requests", filter,
+                Projections.include("_class", "student._id", "actualState", PERIOD, "creadoEn", "receivedAt", "urgency"),
+                batch -> {
+                    Set<Object> studentIds = new HashSet<>();
+                    batch.forEach(request -> studentIds.add(embedded(request, "student", "_id")));
+                    studentIds.remove(null);
+                    Map<Object, Object> plans = reader.studyPlansOf(new ArrayList<>(studentIds));
+                    for (Document request : batch) {
+                        Object studentId = embedded(request, "student", "_id");
+                        String studentCareer = careers.get(plans.get(studentId));
+                        if (career != null && !career.name().equals(studentCareer)) {
+                            continue;
+                        }
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("id", request.get("_id"));
+                        row.put("type", simpleName(request.getString("_class")));
+                        row.put("studentId", studentId);
+                        row.put("career", studentCareer);
+                        row.put("actualState", request.get("actualState"));
+                        row.put("period", embedded(request, "currentPeriod", "period"));
+                        row.put("creadoEn", request.get("creadoEn"));
+                        row.put("receivedAt", request.get("receivedAt"));
+                        row.put("urgency", request.get("urgency"));
+                        writer.write(row);
+                        rows[0]++;
+                    }
+                    writer.flush();
+                });
+        writer.flush();
+        log.info("Exportación de solicitudes terminada: {} filas", rows[0]);
+    }
+
+    private static Object embedded(Document document, String field, String subfield) {
+        return document.get(field) instanceof Document inner ? inner.get(subfield) : null;
+    }
+
+    private static String simpleName(Object className) {
+        if (className == null) {
+            return null;
+        }
+        String name = className.toString();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -2,30 +2,49 @@ package edu.dosw.sirha.sirha_backend.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import edu.dosw.sirha.sirha_backend.domain.model.*;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
 import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.GroupService;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 
 import java.util.List;
 
 /**
  * Implementación de {@link GroupService} enfocada en la gestión de materias y grupos.
+ *
+ * Los cambios que guardan el grupo completo (profesor, horarios, apertura y cierre) corren
+ * con {@link TransactionRunner}: si una reserva de cupo o la lista de espera cambió el grupo
+ * después de leerlo, la versión no coincide y el cambio se repite sobre una lectura nueva.
  */
 @Service
 public class GroupServiceImpl implements GroupService {
 
     private static final Logger log = LoggerFactory.getLogger(GroupServiceImpl.class);
+    private static final String GROUPS_CURSOR = "groups";
 
     private final GroupMongoRepository groupRepository;
+    private final CatalogCache catalogCache;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final TransactionRunner transactions;
 
-    public GroupServiceImpl(GroupMongoRepository groupRepository) {
+    public GroupServiceImpl(GroupMongoRepository groupRepository, CatalogCache catalogCache,
+                            GroupCompatibilityIndex compatibilityIndex, TransactionRunner transactions) {
         this.groupRepository = groupRepository;
+        this.catalogCache = catalogCache;
+        this.compatibilityIndex = compatibilityIndex;
+        this.transactions = transactions;
         log.info("GroupServiceImpl inicializado correctamente");
     }
 
@@ -49,6 +68,8 @@ public class GroupServiceImpl implements GroupService {
 
             log.info("Guardando grupo {} para la materia: {}", group.getId(), subject.getName());
             Group savedGroup = groupRepository.save(group);
+            catalogCache.evictGroup(savedGroup.getCode());
+            compatibilityIndex.update(subject.getName(), savedGroup);
             subject.addGroup(savedGroup);
             
             log.info("Grupo guardado exitosamente con ID: {}", savedGroup.getId());
@@ -86,6 +107,8 @@ public class GroupServiceImpl implements GroupService {
                     group.getInscritos());
 
             groupRepository.deleteById(id);
+            catalogCache.evictGroup(group.getCode());
+            compatibilityIndex.remove(group);
             log.info("Grupo con ID {} eliminado exitosamente", id);
             return group;
         } catch (SirhaException e) {
@@ -96,9 +119,12 @@ public class GroupServiceImpl implements GroupService {
         
     }
 
-    @Transactional
     @Override
     public Group assignProfessor(String groupId, Professor professor) throws SirhaException {
+        return transactions.execute(SirhaMetrics.GROUP_UPDATE, () -> assign(groupId, professor));
+    }
+
+    private Group assign(String groupId, Professor professor) throws SirhaException {
         try {
             if (professor == null) {
                 log.error("Error: El profesor no puede ser null");
@@ -113,6 +139,7 @@ public class GroupServiceImpl implements GroupService {
             });
             group.setProfessor(professor);
             Group updatedGroup = groupRepository.save(group);
+            catalogCache.evictGroup(updatedGroup.getCode());
             log.info("Profesor {} asignado exitosamente al grupo con ID: {}", professor.getUsername(), groupId);
 
             return updatedGroup;
@@ -123,9 +150,12 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public Group addSchedule(String groupId, Schedule schedule) throws SirhaException {
+        return transactions.execute(SirhaMetrics.GROUP_UPDATE, () -> schedule(groupId, schedule));
+    }
+
+    private Group schedule(String groupId, Schedule schedule) throws SirhaException {
         log.info("Agregando horario al grupo con ID: {}", groupId);
 
         try {
@@ -141,6 +171,8 @@ public class GroupServiceImpl implements GroupService {
             group.addSchedule(schedule);
             log.info("Horario agregado exitosamente al grupo con ID: {}", groupId);
             Group updatedGroup = groupRepository.save(group);
+            catalogCache.evictGroup(updatedGroup.getCode());
+            compatibilityIndex.update(updatedGroup);
             log.info("Grupo con ID {} actualizado con nuevo horario", groupId);
             return updatedGroup;
         } catch (SirhaException e) {
@@ -150,9 +182,12 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public Group closeGroup(String groupId) throws SirhaException {
+        return transactions.execute(SirhaMetrics.GROUP_UPDATE, () -> close(groupId));
+    }
+
+    private Group close(String groupId) throws SirhaException {
         log.info("Cerrando grupo con ID: {}", groupId);
         try{
         Group group = groupRepository.findById(groupId)
@@ -164,6 +199,8 @@ public class GroupServiceImpl implements GroupService {
             group.closeGroup();
             log.info("Estado actual del grupo (después de cerrar): {}", group.getGroupState().getClass().getSimpleName());
             Group updatedGroup = groupRepository.save(group);
+            catalogCache.evictGroup(updatedGroup.getCode());
+            compatibilityIndex.update(updatedGroup);
             log.info("Grupo con ID {} cerrado exitosamente", groupId);
             return updatedGroup;
         } catch (SirhaException e) {
@@ -173,9 +210,12 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public Group openGroup(String groupId) throws SirhaException {
+        return transactions.execute(SirhaMetrics.GROUP_UPDATE, () -> open(groupId));
+    }
+
+    private Group open(String groupId) throws SirhaException {
         log.info("Abriendo grupo con ID: {}", groupId);
         try{
         Group group = groupRepository.findById(groupId)
@@ -187,6 +227,8 @@ public class GroupServiceImpl implements GroupService {
             group.openGroup();
             log.info("Estado actual del grupo (después de abrir): {}", group.getGroupState().getClass().getSimpleName());
             Group updatedGroup = groupRepository.save(group);
+            catalogCache.evictGroup(updatedGroup.getCode());
+            compatibilityIndex.update(updatedGroup);
             log.info("Grupo con ID {} abierto exitosamente", groupId);
             return updatedGroup;
         } catch (SirhaException e) {
@@ -196,7 +238,6 @@ public class GroupServiceImpl implements GroupService {
         }
     }
     
-    @Transactional
     @Override
     public List<Schedule> getSchedules(String groupId) throws SirhaException {
         log.info("Obteniendo horarios del grupo con ID: {}", groupId);
@@ -216,7 +257,6 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public boolean isFull(String groupId) throws SirhaException     {
         log.info("Verificando si el grupo con ID {} está lleno", groupId);
@@ -236,7 +276,6 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public int getAvailableSeats(String groupId) throws SirhaException {
         log.info("Obteniendo asientos disponibles del grupo con ID: {}", groupId);
@@ -256,7 +295,6 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public Group findById(String id) throws SirhaException {
         try {
@@ -279,7 +317,6 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
-    @Transactional
     @Override
     public Professor getProfessor(String groupId) throws SirhaException {
         log.info("Obteniendo profesor del grupo con ID: {}", groupId);
@@ -304,14 +341,18 @@ public class GroupServiceImpl implements GroupService {
     }
 
     
-    @Transactional
     @Override
-    public List<Group> findAllGroups() throws SirhaException {
-        log.info("Obteniendo todos los grupos");
+    public CursorPageDTO<Group> findAllGroups(String cursor, int limit) throws SirhaException {
+        log.info("Obteniendo grupos (cursor: {}, límite: {})", cursor, limit);
         try {
-            List<Group> groups = groupRepository.findAll();
-            log.info("Total de grupos encontrados: {}", groups.size());
-            return groups;
+            List<Group> groups = cursor == null
+                    ? groupRepository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                    : groupRepository.findPageAfter(CursorCodec.decode(GROUPS_CURSOR, cursor, 1)[0], Limit.of(limit + 1));
+            CursorPageDTO<Group> page = CursorPageDTO.of(groups, limit, g -> CursorCodec.encode(GROUPS_CURSOR, g.getId()));
+            log.info("Grupos encontrados en la página: {}", page.getItems().size());
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw SirhaException.of( ErrorCodeSirha.INTERNAL_ERROR, "Error interno al obtener grupos", e);
         }
@@ -1,5 +1,6 @@
 package edu.dosw.sirha.sirha_backend.service.impl;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -7,10 +8,12 @@ import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.domain.port.RequestProcess;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import edu.dosw.sirha.sirha_backend.repository.mongo.BaseRequestMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.RequestService;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +25,7 @@ import java.util.Optional;
 public class RequestServiceImpl implements RequestService {
     
     private static final Logger log = LoggerFactory.getLogger(RequestServiceImpl.class);
+    private static final String REQUESTS_CURSOR = "requests";
     
     private final BaseRequestMongoRepository repository;
     private final StudentServiceImpl studentService;
@@ -32,27 +36,30 @@ public class RequestServiceImpl implements RequestService {
         log.info("RequestServiceImpl inicializado correctamente");
     }
 
-    @Transactional
     @Override
-    public List<BaseRequest> findAll() throws SirhaException {
-        log.info("Consultando todas las solicitudes");
+    public CursorPageDTO<BaseRequest> findAll(String cursor, int limit) throws SirhaException {
+        log.info("Consultando solicitudes (cursor: {}, límite: {})", cursor, limit);
         try {
-            List<BaseRequest> requests = repository.findAll();
-            log.info("Se encontraron {} solicitudes", requests.size());
+            List<BaseRequest> requests = cursor == null
+                    ? repository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                    : repository.findPageAfter(CursorCodec.decode(REQUESTS_CURSOR, cursor, 1)[0], Limit.of(limit + 1));
+            CursorPageDTO<BaseRequest> page = CursorPageDTO.of(requests, limit, r -> CursorCodec.encode(REQUESTS_CURSOR, r.getId()));
+            log.info("Se encontraron {} solicitudes", page.getItems().size());
 
-            requests.forEach(request ->
+            page.getItems().forEach(request ->
                 log.debug("Solicitud encontrada - ID: {}, Tipo: {}, Estado: {}",
                              request.getId(), 
                              request.getClass().getSimpleName(), 
                              request.getState()));
             
-            return requests;
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar todas las solicitudes: " + e.getMessage(), e);
         }
     }
 
-    @Transactional
     @Override
     public Optional<BaseRequest> findById(String id) throws SirhaException {
         log.debug("Buscando solicitud por ID: {}", id);
@@ -97,7 +104,6 @@ public class RequestServiceImpl implements RequestService {
     }
 
 
-    @Transactional
     @Override
     public List<BaseRequest> getAllRequests(String studentUsername) throws SirhaException {
         log.info("Consultando solicitudes para el estudiante: {}", studentUsername);
@@ -112,7 +118,6 @@ public class RequestServiceImpl implements RequestService {
         }
     }
 
-    @Transactional
     @Override
     public BaseRequest getRequestById(String studentUsername, String requestId) throws SirhaException {
         log.info("Consultando solicitud ID: {} para el estudiante: {}", requestId, studentUsername);
@@ -129,7 +134,6 @@ public class RequestServiceImpl implements RequestService {
             throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar solicitud: " + e.getMessage(), e);
         }
     }
-    @Transactional
     @Override
     public List<BaseRequest> getRequestsHistory(String studentUsername) throws SirhaException {
         log.info("Consultando historial de solicitudes para el estudiante: {}", studentUsername);
@@ -143,19 +147,24 @@ public class RequestServiceImpl implements RequestService {
             throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar historial de solicitudes: " + e.getMessage(), e);
         }
     }
-    @Transactional
     @Override
-    public List<BaseRequest> getByStatus(RequestStateEnum status) throws SirhaException {
-        log.info("Consultando solicitudes con estado: {}", status);
+    public CursorPageDTO<BaseRequest> getByStatus(RequestStateEnum status, String cursor, int limit) throws SirhaException {
+        log.info("Consultando solicitudes con estado: {} (cursor: {}, límite: {})", status, cursor, limit);
+        // El cursor incluye el estado: no sirve para continuar el listado de otro estado
+        String listing = REQUESTS_CURSOR + ":" + status;
         try {
-            List<BaseRequest> requests = repository.findByActualState(status);
-            log.info("Se encontraron {} solicitudes con estado {}", requests.size(), status);
-            return requests;
+            List<BaseRequest> requests = cursor == null
+                    ? repository.findByActualStateOrderByIdAsc(status, Limit.of(limit + 1))
+                    : repository.findPageByActualStateAfter(status, CursorCodec.decode(listing, cursor, 1)[0], Limit.of(limit + 1));
+            CursorPageDTO<BaseRequest> page = CursorPageDTO.of(requests, limit, r -> CursorCodec.encode(listing, r.getId()));
+            log.info("Se encontraron {} solicitudes con estado {}", page.getItems().size(), status);
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar solicitudes por estado: " + e.getMessage(), e);
         }
     }
-    @Transactional
     @Override
     public List<RequestProcess> getRequestProcesses(String requestId) throws SirhaException {
         log.info("Consultando procesos de la solicitud ID: {}", requestId);
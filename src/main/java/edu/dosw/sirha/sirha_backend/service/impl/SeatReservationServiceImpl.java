@@ -0,0 +1,176 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.service.SeatReservationService;
+
+/**
+ * Implementación de {@link SeatReservationService}.
+ *
+ * La base de datos decide si el cupo se toma o se libera: el grupo que se recibe
+ * solo aporta el código. Cuando la actualización condicional no aplica, se relee el
+ * grupo para informar el motivo con el código de error correspondiente.
+ */
+@Service
+public class SeatReservationServiceImpl implements SeatReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatReservationServiceImpl.class);
+
+    private final GroupSeatRepository seatRepository;
+
+    public SeatReservationServiceImpl(@Qualifier("groupMongoRepository") GroupSeatRepository seatRepository) {
+        this.seatRepository = seatRepository;
+        log.info("SeatReservationServiceImpl inicializado correctamente");
+    }
+
+    @Override
+    public Group reserveSeat(Group group, Student student) throws SirhaException {
+        String groupCode = requireGroupCode(group);
+        String studentCode = requireStudentCode(student);
+        try {
+            Optional<Group> reserved = seatRepository.reserveSeat(groupCode, studentCode);
+            if (reserved.isPresent()) {
+                log.debug("Cupo reservado en grupo {} para estudiante {}, cupos restantes: {}",
+                        groupCode, studentCode, reserved.get().getCuposDisponibles());
+                return reserved.get();
+            }
+            throw rejectionFor(groupCode, studentCode);
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al reservar cupo: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Group releaseSeat(Group group, Student student) throws SirhaException {
+        String groupCode = requireGroupCode(group);
+        String studentCode = requireStudentCode(student);
+        try {
+            Optional<Group> released = seatRepository.releaseSeat(groupCode, studentCode);
+            if (released.isPresent()) {
+                log.debug("Cupo liberado en grupo {} por estudiante {}, cupos disponibles: {}",
+                        groupCode, studentCode, released.get().getCuposDisponibles());
+                return released.get();
+            }
+            if (seatRepository.findSeatSnapshot(groupCode).isEmpty()) {
+                throw SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
+            }
+            throw SirhaException.of(ErrorCodeSirha.STUDENT_NOT_IN_GROUP);
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al liberar cupo: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Group restoreSeat(Group group, Student student) throws SirhaException {
+        String groupCode = requireGroupCode(group);
+        String studentCode = requireStudentCode(student);
+        try {
+            Optional<Group> restored = seatRepository.restoreSeat(groupCode, studentCode);
+            if (restored.isPresent()) {
+                log.debug("Cupo devuelto en grupo {} a estudiante {}, cupos disponibles: {}",
+                        groupCode, studentCode, restored.get().getCuposDisponibles());
+                return restored.get();
+            }
+            throw rejectionFor(groupCode, studentCode);
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al devolver cupo: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BatchReservation reserveSeats(List<Group> groups, Student student) throws SirhaException {
+        String studentCode = requireStudentCode(student);
+        List<String> groupCodes = new ArrayList<>();
+        for (Group group : groups) {
+            groupCodes.add(requireGroupCode(group));
+        }
+        try {
+            List<Group> reserved = seatRepository.reserveSeats(groupCodes, studentCode);
+            Set<String> reservedCodes = new HashSet<>();
+            reserved.forEach(group -> reservedCodes.add(group.getCode()));
+            Map<String, SirhaException> rejected = new LinkedHashMap<>();
+            for (String groupCode : groupCodes) {
+                if (!reservedCodes.contains(groupCode)) {
+                    rejected.put(groupCode, rejectionFor(groupCode, studentCode));
+                }
+            }
+            log.debug("Reserva en lote para estudiante {}: {} cupos reservados, {} rechazados",
+                    studentCode, reserved.size(), rejected.size());
+            return new BatchReservation(reserved, rejected);
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al reservar cupos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Group> releaseSeats(List<Group> groups, Student student) throws SirhaException {
+        String studentCode = requireStudentCode(student);
+        List<String> groupCodes = new ArrayList<>();
+        for (Group group : groups) {
+            groupCodes.add(requireGroupCode(group));
+        }
+        try {
+            List<Group> released = seatRepository.releaseSeats(groupCodes, studentCode);
+            log.debug("Liberación en lote para estudiante {}: {} cupos", studentCode, released.size());
+            return released;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al liberar cupos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Determina por qué no se pudo reservar. El orden importa: un estudiante que ya está
+     * en el roster de un grupo lleno debe recibir STUDENT_ALREADY_IN_GROUP.
+     */
+    private SirhaException rejectionFor(String groupCode, String studentCode) {
+        Optional<Group> current = seatRepository.findSeatSnapshot(groupCode);
+        if (current.isEmpty()) {
+            return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
+        }
+        Group group = current.get();
+        if (group.contieneCodigo(studentCode)) {
+            return SirhaException.of(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP);
+        }
+        if (!group.isOpen()) {
+            return SirhaException.of(ErrorCodeSirha.GROUP_CLOSED);
+        }
+        log.info("Reserva rechazada por falta de cupos en grupo {}", groupCode);
+        return SirhaException.of(ErrorCodeSirha.GROUP_FULL);
+    }
+
+    private static String requireGroupCode(Group group) throws SirhaException {
+        if (group == null || group.getCode() == null) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El grupo no puede ser null");
+        }
+        return group.getCode();
+    }
+
+    private static String requireStudentCode(Student student) throws SirhaException {
+        if (student == null || student.getCodigo() == null || student.getCodigo().isBlank()) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El estudiante debe tener código estudiantil");
+        }
+        return student.getCodigo();
+    }
+}
@@ -1,6 +1,13 @@
 package edu.dosw.sirha.sirha_backend.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
@@ -9,22 +16,34 @@ import edu.dosw.sirha.sirha_backend.domain.model.CambioMateria;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DashboardSection;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
 import edu.dosw.sirha.sirha_backend.domain.port.AcademicProgress;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentRequest;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.dto.RegisterRequest;
 import edu.dosw.sirha.sirha_backend.dto.RequestApprovalRateDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentDTO;
+import edu.dosw.sirha.sirha_backend.dto.StudentDashboardDTO;
 import edu.dosw.sirha.sirha_backend.dto.StudentReportDTO;
 import edu.dosw.sirha.sirha_backend.dto.SubjectDecoratorDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
-import edu.dosw.sirha.sirha_backend.repository.mongo.AcademicPeriodMongoRepository;
-import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.BaseRequestMongoRepository;
 import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
-import edu.dosw.sirha.sirha_backend.repository.mongo.SubjectMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.SeatReservationService;
+import edu.dosw.sirha.sirha_backend.service.SeatReservationService.BatchReservation;
 import edu.dosw.sirha.sirha_backend.service.StudentService;
+import edu.dosw.sirha.sirha_backend.service.WaitlistService;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
 import edu.dosw.sirha.sirha_backend.util.ValidationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,20 +54,39 @@ import java.util.Optional;
 public class StudentServiceImpl implements StudentService {
     
     private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
+    private static final String STUDENTS_CURSOR = "students";
     
     private final StudentMongoRepository studentRepository;
-    private final AcademicPeriodMongoRepository academicPeriodRepository;
-    private final SubjectMongoRepository subjectRepository;
-    private final GroupMongoRepository groupRepository;
+    private final BaseRequestMongoRepository requestRepository;
+    private final CatalogCache catalogCache;
+    private final SeatReservationService seatReservationService;
+    private final SirhaMetrics metrics;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final WaitlistService waitlistService;
+    private final TransactionRunner transactions;
+    private final int maxBatchItems;
+    private final BatchEnrollmentMode defaultBatchMode;
 
     public StudentServiceImpl(StudentMongoRepository studentRepository, 
-                            AcademicPeriodMongoRepository academicPeriodRepository, 
-                            SubjectMongoRepository subjectRepository, 
-                            GroupMongoRepository groupRepository) {
+                            BaseRequestMongoRepository requestRepository,
+                            CatalogCache catalogCache,
+                            SeatReservationService seatReservationService,
+                            SirhaMetrics metrics,
+                            GroupCompatibilityIndex compatibilityIndex,
+                            WaitlistService waitlistService,
+                            TransactionRunner transactions,
+                            @Value("${sirha.enrollment.batch.max-items:12}") int maxBatchItems,
+                            @Value("${sirha.enrollment.batch.default-mode:ALL_OR_NOTHING}") BatchEnrollmentMode defaultBatchMode) {
         this.studentRepository = studentRepository;
-        this.academicPeriodRepository = academicPeriodRepository;
-        this.subjectRepository = subjectRepository;
-        this.groupRepository = groupRepository;
+        this.requestRepository = requestRepository;
+        this.catalogCache = catalogCache;
+        this.seatReservationService = seatReservationService;
+        this.metrics = metrics;
+        this.compatibilityIndex = compatibilityIndex;
+        this.waitlistService = waitlistService;
+        this.transactions = transactions;
+        this.maxBatchItems = maxBatchItems;
+        this.defaultBatchMode = defaultBatchMode;
         
         log.info("StudentServiceImpl inicializado correctamente");
     }
@@ -75,20 +113,24 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional    
     @Override
-    public List<Student> findAll() throws SirhaException {
-        log.info("Consultando todos los estudiantes");
+    public CursorPageDTO<Student> findAll(String cursor, int limit) throws SirhaException {
+        log.info("Consultando estudiantes (cursor: {}, límite: {})", cursor, limit);
         try {
-            List<Student> students = studentRepository.findAll();
-            log.info("Se encontraron {} estudiantes", students.size());
-            return students;
+            // Se pide un elemento de más para saber si hay página siguiente
+            List<Student> students = cursor == null
+                    ? studentRepository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                    : studentRepository.findPageAfter(CursorCodec.decode(STUDENTS_CURSOR, cursor, 1)[0], Limit.of(limit + 1));
+            CursorPageDTO<Student> page = CursorPageDTO.of(students, limit, s -> CursorCodec.encode(STUDENTS_CURSOR, s.getId()));
+            log.info("Se encontraron {} estudiantes", page.getItems().size());
+            return page;
+        } catch (SirhaException e) {
+            throw e;
         } catch (Exception e) {
             throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar todos los estudiantes: " + e.getMessage(), e);
         }
     }
 
-    @Transactional
     @Override
     public Optional<Student> findById(String id) throws SirhaException {
         log.debug("Buscando estudiante por ID: {}", id);
@@ -107,7 +149,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public Optional<Student> findByUsername(String username) throws SirhaException {
         log.debug("Buscando estudiante por username: {}", username);
@@ -126,7 +167,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public Optional<Student> findByEmail(String email) throws SirhaException {
         log.debug("Buscando estudiante por email: {}", email);
@@ -145,7 +185,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public boolean existsByCode(String code) throws SirhaException {
         log.debug("Verificando existencia de código: {}", code);
@@ -158,7 +197,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public boolean existsByEmail(String email) throws SirhaException {
         log.debug("Verificando existencia de email: {}", email);
@@ -238,7 +276,6 @@ public class StudentServiceImpl implements StudentService {
     }
 
 
-    @Transactional
     @Override
     public List<Schedule> getCurrentSchedule(String username) throws SirhaException {
         log.info("Consultando horario actual para usuario: {}", username);
@@ -261,7 +298,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public List<Schedule> getScheduleForPeriod(String username, String period) throws SirhaException {
         log.info("Consultando horario para usuario: {} en período: {}", username, period);
@@ -273,7 +309,7 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
                 
-            AcademicPeriod academicPeriod = academicPeriodRepository.findByPeriod(period)
+            AcademicPeriod academicPeriod = catalogCache.findAcademicPeriod(period)
                 .orElseThrow(() -> {
                     log.warn(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_FOUND.getDefaultMessage(),"{}", period);
                     return SirhaException.of(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_FOUND);
@@ -290,7 +326,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public Map<AcademicPeriod, List<Schedule>> getAllSchedules(String username) throws SirhaException {
         log.info("Consultando todos los horarios para usuario: {}", username);
@@ -313,7 +348,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public Map<SemaforoColores, List<SubjectDecoratorDTO>> getAcademicPensum(String username) throws SirhaException {
         log.info("Consultando pensum académico para usuario: {}", username);
@@ -341,9 +375,14 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public CambioGrupo createRequestCambioGrupo(String studentName, String subjectName, String codeNewGroup) throws SirhaException {
+        // La solicitud y el estudiante se guardan en la misma transacción
+        return metrics.record(SirhaMetrics.CREATE_CAMBIO_GRUPO, () -> transactions.execute(SirhaMetrics.CREATE_CAMBIO_GRUPO,
+                () -> createCambioGrupo(studentName, subjectName, codeNewGroup)));
+    }
+
+    private CambioGrupo createCambioGrupo(String studentName, String subjectName, String codeNewGroup) throws SirhaException {
         log.info("Creando solicitud de cambio de grupo - Usuario: {}, Materia: {}, Nuevo Grupo: {}", 
                 studentName, subjectName, codeNewGroup);
         
@@ -354,13 +393,13 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
 
-            Subject subject = subjectRepository.findByName(subjectName)
+            Subject subject = catalogCache.findSubjectByName(subjectName)
                 .orElseThrow(() -> {
                     log.warn("Materia no encontrada: {}", subjectName);
                     return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
                 });
 
-            Group group = groupRepository.findByCode(codeNewGroup)
+            Group group = catalogCache.findGroupByCode(codeNewGroup)
                 .orElseThrow(() -> {
                     log.warn("Grupo no encontrado: {}", codeNewGroup);
                     return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
@@ -370,6 +409,7 @@ public class StudentServiceImpl implements StudentService {
                      studentName, subjectName, codeNewGroup);
                      
             CambioGrupo cambio = student.createGroupChangeRequest(subject, group);
+            saveWithRequest(student, cambio);
             
             log.info("Solicitud de cambio de grupo creada exitosamente - ID: {} para usuario: {}", 
                     cambio.getId(), studentName);
@@ -383,9 +423,30 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
+    /**
+     * Guarda la solicitud y luego al estudiante, que solo conserva su id. Sin transacciones,
+     * si el estudiante no se puede guardar (por ejemplo, otra operación lo cambió) se borra
+     * la solicitud para no dejarla huérfana; el reintento crea otra.
+     */
+    private void saveWithRequest(Student student, BaseRequest request) {
+        requestRepository.save(request);
+        try {
+            studentRepository.save(student);
+        } catch (RuntimeException e) {
+            if (!transactions.isEnabled()) {
+                requestRepository.delete(request);
+            }
+            throw e;
+        }
+    }
+
     @Override
     public CambioMateria createRequestCambioMateria(String studentName, String subjectName, String newSubjectName, String codeNewGroup) throws SirhaException {
+        return metrics.record(SirhaMetrics.CREATE_CAMBIO_MATERIA, () -> transactions.execute(SirhaMetrics.CREATE_CAMBIO_MATERIA,
+                () -> createCambioMateria(studentName, subjectName, newSubjectName, codeNewGroup)));
+    }
+
+    private CambioMateria createCambioMateria(String studentName, String subjectName, String newSubjectName, String codeNewGroup) throws SirhaException {
         log.info("Creando solicitud de cambio de materia - Usuario: {}, De: {} -> A: {}, Grupo: {}", 
                 studentName, subjectName, newSubjectName, codeNewGroup);
         
@@ -396,19 +457,19 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
 
-            Subject subjectOld = subjectRepository.findByName(subjectName)
+            Subject subjectOld = catalogCache.findSubjectByName(subjectName)
                 .orElseThrow(() -> {
                     log.warn("Materia antigua no encontrada: {}", subjectName);
                     return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
                 });
 
-            Subject subjectNew = subjectRepository.findByName(newSubjectName)
+            Subject subjectNew = catalogCache.findSubjectByName(newSubjectName)
                 .orElseThrow(() -> {
                     log.warn("Materia nueva no encontrada: {}", newSubjectName);
                     return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
                 });
 
-            Group group = groupRepository.findByCode(codeNewGroup)
+            Group group = catalogCache.findGroupByCode(codeNewGroup)
                 .orElseThrow(() -> {
                     log.warn("Grupo no encontrado: {}", codeNewGroup);
                     return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
@@ -418,6 +479,7 @@ public class StudentServiceImpl implements StudentService {
                      studentName, subjectName, newSubjectName, codeNewGroup);
                      
             CambioMateria cambio = student.createSubjectChangeRequest(subjectOld, subjectNew, group);
+            saveWithRequest(student, cambio);
             
             log.info("Solicitud de cambio de materia creada exitosamente - ID: {} para usuario: {}", 
                     cambio.getId(), studentName);
@@ -451,7 +513,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public List<BaseRequest> getAllRequests(String username) throws SirhaException {
         log.info("Consultando todas las solicitudes para usuario: {}", username);
@@ -473,7 +534,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public BaseRequest getRequestById(String username, String requestId) throws SirhaException {
         log.info("Consultando solicitud por ID: {} para usuario: {}", requestId, username);
@@ -496,7 +556,6 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
-    @Transactional
     @Override
     public List<BaseRequest> getRequestsHistory(String username) throws SirhaException {
         log.info("Consultando historial de solicitudes para usuario: {}", username);
@@ -538,6 +597,26 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    @Override
+    public List<SubjectDecoratorDTO> getEligibleSubjects(String username) throws SirhaException {
+        log.info("Consultando materias elegibles para usuario: {}", username);
+        try {
+            Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(), "{}", username);
+                    return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                });
+
+            List<SubjectDecoratorDTO> eligible = student.getEligibleSubjects();
+            log.info("{} materias elegibles para {}", eligible.size(), username);
+            return eligible;
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al consultar materias elegibles: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public StudentDTO getStudentBasicInfo(String username) throws SirhaException {
         log.info("Consultando información básica del estudiante: {}", username);
@@ -618,6 +697,47 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    @Override
+    public StudentDashboardDTO getDashboard(String username, Set<DashboardSection> sections) throws SirhaException {
+        Set<DashboardSection> requested = sections == null || sections.isEmpty()
+            ? EnumSet.allOf(DashboardSection.class)
+            : EnumSet.copyOf(sections);
+        log.info("Consultando tablero para usuario: {} con secciones {}", username, requested);
+        try {
+            Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(),"{}", username);
+                    return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                });
+
+            StudentDashboardDTO dashboard = new StudentDashboardDTO();
+            if (requested.contains(DashboardSection.INFO)) {
+                dashboard.setInfo(student.getStudentBasicInfo());
+            }
+            if (requested.contains(DashboardSection.PENSUM)) {
+                dashboard.setPensum(student.getAcademicPensum());
+            }
+            if (requested.contains(DashboardSection.SCHEDULE)) {
+                dashboard.setSchedule(student.getCurrentSchedule());
+            }
+            if (requested.contains(DashboardSection.INDICATORS)) {
+                dashboard.setIndicators(student.getAcademicIndicators());
+            }
+            if (requested.contains(DashboardSection.REQUESTS)) {
+                dashboard.setRequests(student.getSolicitudes());
+            }
+            if (requested.contains(DashboardSection.REQUEST_STATS)) {
+                dashboard.setRequestStats(student.getRequestApprovalRate());
+            }
+            log.info("Tablero obtenido para {}", username);
+            return dashboard;
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al consultar el tablero: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public int getSubjectsByColorCount(String username, SemaforoColores color) throws SirhaException {
         log.info("Consultando cantidad de materias por color '{}' para usuario: {}", color, username);
@@ -720,8 +840,33 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public void enrollSubject(String username, String subjectName, String groupCode) throws SirhaException {
+        metrics.record(SirhaMetrics.ENROLL, () -> enroll(username, subjectName, groupCode));
+    }
+
+    private void enroll(String username, String subjectName, String groupCode) throws SirhaException {
         log.info("Inscribiendo materia para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
         
+        try {
+            Group reserved = transactions.execute(SirhaMetrics.ENROLL, () -> reserveAndConfirm(username, subjectName, groupCode));
+            catalogCache.evictGroup(groupCode);
+            compatibilityIndex.update(reserved);
+            
+            log.info("Materia inscrita exitosamente para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
+
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al inscribir materia: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee al estudiante, valida, reserva el cupo y guarda la inscripción. En una
+     * transacción el cupo y el estudiante se confirman o se descartan juntos, y un
+     * reintento vuelve a leer al estudiante; sin transacciones, un fallo al guardar libera
+     * el cupo reservado.
+     */
+    private Group reserveAndConfirm(String username, String subjectName, String groupCode) throws SirhaException {
         try {
             Student student = studentRepository.findByUsername(username)
                 .orElseThrow(() -> {
@@ -729,22 +874,35 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
 
-            Subject subject = subjectRepository.findByName(subjectName)
+            Subject subject = catalogCache.findSubjectByName(subjectName)
                 .orElseThrow(() -> {
                     log.warn("Materia no encontrada para inscripción: {}", subjectName);
                     return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
                 });
 
-            Group group = groupRepository.findByCode(groupCode)
+            Group group = catalogCache.findGroupByCode(groupCode)
                 .orElseThrow(() -> {
                     log.warn("Grupo no encontrado para inscripción: {}", groupCode);
                     return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
                 });
 
-            student.enrollSubject(subject, group);
-            studentRepository.save(student);
-            
-            log.info("Materia inscrita exitosamente para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
+            // Validación sobre la lectura actual; el cupo lo decide la reserva atómica
+            metrics.record(SirhaMetrics.ENROLL_CHECK, () -> student.canEnrollInGroup(subject, group));
+            Group reserved = seatReservationService.reserveSeat(group, student);
+            try {
+                student.confirmEnrollment(subject, reserved);
+                studentRepository.save(student);
+            } catch (Exception e) {
+                if (!transactions.isEnabled()) {
+                    log.warn("Liberando cupo reservado en grupo {} tras fallo al inscribir a {}", groupCode, username);
+                    Group released = seatReservationService.releaseSeat(reserved, student);
+                    catalogCache.evictGroup(groupCode);
+                    compatibilityIndex.update(released);
+                    promoteWaitlist(released);
+                }
+                throw e;
+            }
+            return reserved;
 
         } catch (SirhaException e) {
             throw e;
@@ -753,10 +911,233 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    @Override
+    public BatchEnrollmentResultDTO enrollSubjects(String username, BatchEnrollmentRequest request) throws SirhaException {
+        return metrics.record(SirhaMetrics.ENROLL_BATCH, () -> {
+            BatchOutcome outcome;
+            try {
+                outcome = transactions.execute(SirhaMetrics.ENROLL_BATCH, () -> enrollBatch(username, request));
+            } catch (BatchCancelled cancelled) {
+                return cancelled.result;
+            }
+            // Como en la inscripción individual: caché e índice solo con lo ya confirmado
+            for (Group group : outcome.reserved()) {
+                catalogCache.evictGroup(group.getCode());
+                compatibilityIndex.update(group);
+            }
+            return outcome.result();
+        });
+    }
+
+    /**
+     * Resultado de un lote y los grupos en los que quedó inscrito el estudiante, que se
+     * sacan de la caché y se actualizan en el índice después del commit.
+     */
+    private record BatchOutcome(BatchEnrollmentResultDTO result, List<Group> reserved) {
+
+        static BatchOutcome nothingReserved(BatchEnrollmentResultDTO result) {
+            return new BatchOutcome(result, List.of());
+        }
+    }
+
+    /**
+     * Cancela dentro de la transacción un lote ALL_OR_NOTHING con grupos sin cupo: la
+     * reversión deshace las reservas y el cliente recibe el resultado igual.
+     */
+    private static final class BatchCancelled extends RuntimeException {
+
+        private final transient BatchEnrollmentResultDTO result;
+
+        BatchCancelled(BatchEnrollmentResultDTO result) {
+            super("Inscripción en lote cancelada", null, false, false);
+            this.result = result;
+        }
+    }
+
+    /**
+     * Inscripción en lote: una lectura del estudiante, validación de todas las materias
+     * (también de los cruces entre los grupos pedidos), una escritura para reservar todos
+     * los cupos y una sola escritura del estudiante. En una transacción, cancelar el lote o
+     * un fallo al guardar deshacen las reservas; sin transacciones se liberan a mano.
+     */
+    private BatchOutcome enrollBatch(String username, BatchEnrollmentRequest request) throws SirhaException {
+        List<BatchEnrollmentRequest.Item> items = request == null ? null : request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "La solicitud no tiene materias para inscribir");
+        }
+        if (items.size() > maxBatchItems) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Se pueden inscribir máximo " + maxBatchItems + " materias por solicitud");
+        }
+        for (BatchEnrollmentRequest.Item item : items) {
+            if (item == null || item.getSubjectName() == null || item.getSubjectName().isBlank()
+                    || item.getGroupCode() == null || item.getGroupCode().isBlank()) {
+                throw SirhaException.of(ErrorCodeSirha.MISSING_REQUIRED_FIELD, "Cada materia de la solicitud necesita subjectName y groupCode");
+            }
+        }
+        BatchEnrollmentMode mode = request.getMode() != null ? request.getMode() : defaultBatchMode;
+        log.info("Inscripción en lote para usuario: {}, {} materias, modo {}", username, items.size(), mode);
+
+        try {
+            Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(), "{}", username);
+                    return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                });
+
+            List<BatchEnrollmentResultDTO.Entry> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+            Subject[] subjects = new Subject[items.size()];
+            Group[] groups = new Group[items.size()];
+            List<Integer> accepted = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                try {
+                    validateBatchItem(student, items.get(i), i, subjects, groups, accepted);
+                    accepted.add(i);
+                } catch (SirhaException e) {
+                    results.set(i, batchEntry(items.get(i), BatchEnrollmentResultDTO.Status.REJECTED, e));
+                }
+            }
+            if (accepted.isEmpty() || (mode == BatchEnrollmentMode.ALL_OR_NOTHING && accepted.size() < items.size())) {
+                return BatchOutcome.nothingReserved(batchResult(mode, items, results));
+            }
+
+            List<Group> requested = new ArrayList<>();
+            accepted.forEach(i -> requested.add(groups[i]));
+            BatchReservation reservation = seatReservationService.reserveSeats(requested, student);
+            Map<String, Group> reserved = new HashMap<>();
+            reservation.reserved().forEach(group -> reserved.put(group.getCode(), group));
+            for (int i : accepted) {
+                SirhaException rejection = reservation.rejected().get(groups[i].getCode());
+                if (rejection != null) {
+                    results.set(i, batchEntry(items.get(i), BatchEnrollmentResultDTO.Status.REJECTED, rejection));
+                }
+            }
+            if (reserved.isEmpty()) {
+                return BatchOutcome.nothingReserved(batchResult(mode, items, results));
+            }
+            if (mode == BatchEnrollmentMode.ALL_OR_NOTHING && !reservation.rejected().isEmpty()) {
+                log.info("Inscripción en lote de {} cancelada: {} grupos sin cupo", username, reservation.rejected().size());
+                if (transactions.isEnabled()) {
+                    throw new BatchCancelled(batchResult(mode, items, results));
+                }
+                releaseBatch(new ArrayList<>(reserved.values()), student);
+                return BatchOutcome.nothingReserved(batchResult(mode, items, results));
+            }
+
+            try {
+                for (int i : accepted) {
+                    Group group = reserved.get(groups[i].getCode());
+                    if (group != null) {
+                        student.confirmEnrollment(subjects[i], group);
+                    }
+                }
+                studentRepository.save(student);
+            } catch (Exception e) {
+                if (!transactions.isEnabled()) {
+                    log.warn("Liberando {} cupos reservados tras fallo en la inscripción en lote de {}", reserved.size(), username);
+                    releaseBatch(new ArrayList<>(reserved.values()), student);
+                }
+                throw e;
+            }
+            for (int i : accepted) {
+                if (reserved.containsKey(groups[i].getCode())) {
+                    results.set(i, batchEntry(items.get(i), BatchEnrollmentResultDTO.Status.ENROLLED, null));
+                }
+            }
+
+            BatchEnrollmentResultDTO result = batchResult(mode, items, results);
+            log.info("Inscripción en lote para usuario {}: {} de {} materias inscritas", username, result.getEnrolled(), items.size());
+            return new BatchOutcome(result, new ArrayList<>(reserved.values()));
+        } catch (SirhaException | BatchCancelled e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al inscribir materias: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Valida una materia del lote: las reglas de inscripción sobre el horario actual del
+     * estudiante y, además, que no repita materia ni se cruce con otro grupo ya aceptado.
+     */
+    private void validateBatchItem(Student student, BatchEnrollmentRequest.Item item, int index,
+                                   Subject[] subjects, Group[] groups, List<Integer> accepted) throws SirhaException {
+        Subject subject = catalogCache.findSubjectByName(item.getSubjectName())
+            .orElseThrow(() -> SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND));
+        Group group = catalogCache.findGroupByCode(item.getGroupCode())
+            .orElseThrow(() -> SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND));
+        metrics.record(SirhaMetrics.ENROLL_CHECK, () -> student.canEnrollInGroup(subject, group));
+        for (int j : accepted) {
+            if (subjects[j].getName().equals(subject.getName())) {
+                throw SirhaException.of(ErrorCodeSirha.DUPLICATE_REQUEST, "La materia ya está en la solicitud");
+            }
+            if (groups[j].conflictoConHorario(group)) {
+                throw SirhaException.of(ErrorCodeSirha.SCHEDULE_CONFLICT, "Cruce de horario con el grupo " + groups[j].getCode() + " de la solicitud");
+            }
+        }
+        subjects[index] = subject;
+        groups[index] = group;
+    }
+
+    /** Libera a mano los cupos de un lote; solo sin transacciones, que los deshacen solas. */
+    private void releaseBatch(List<Group> reserved, Student student) throws SirhaException {
+        for (Group released : seatReservationService.releaseSeats(reserved, student)) {
+            catalogCache.evictGroup(released.getCode());
+            compatibilityIndex.update(released);
+            promoteWaitlist(released);
+        }
+    }
+
+    /**
+     * Arma el resultado; las materias sin resultado eran válidas pero no se inscribieron
+     * porque el modo es ALL_OR_NOTHING y otra falló.
+     */
+    private static BatchEnrollmentResultDTO batchResult(BatchEnrollmentMode mode, List<BatchEnrollmentRequest.Item> items,
+                                                        List<BatchEnrollmentResultDTO.Entry> results) {
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, batchEntry(items.get(i), BatchEnrollmentResultDTO.Status.SKIPPED, null));
+            }
+        }
+        return new BatchEnrollmentResultDTO(mode, results);
+    }
+
+    private static BatchEnrollmentResultDTO.Entry batchEntry(BatchEnrollmentRequest.Item item,
+                                                             BatchEnrollmentResultDTO.Status status, SirhaException cause) {
+        return new BatchEnrollmentResultDTO.Entry(item.getSubjectName(), item.getGroupCode(), status,
+                cause == null ? null : cause.getErrorCode().name(), cause == null ? null : cause.getMessage());
+    }
+
     @Override
     public void unenrollSubject(String username, String subjectName, String groupCode) throws SirhaException {
+        metrics.record(SirhaMetrics.UNENROLL, () -> unenroll(username, subjectName, groupCode));
+    }
+
+    private void unenroll(String username, String subjectName, String groupCode) throws SirhaException {
         log.info("Desinscribiendo materia para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
         
+        try {
+            Group released = transactions.execute(SirhaMetrics.UNENROLL, () -> withdrawAndRelease(username, subjectName, groupCode));
+            catalogCache.evictGroup(groupCode);
+            compatibilityIndex.update(released);
+            promoteWaitlist(released);
+            
+            log.info("Materia desinscrita exitosamente para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
+
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR,"Error interno al desinscribir materia: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retira la materia del estudiante y libera su cupo. En una transacción ambas
+     * escrituras se confirman juntas; la lista de espera se promueve después del commit.
+     *
+     * El cupo se libera antes de guardar al estudiante, como la inscripción lo reserva
+     * antes: si falla la liberación nada cambió. Sin transacciones, un fallo al guardar
+     * devuelve el cupo; si no se pudiera, el estudiante quedaría inscrito sin cupo.
+     */
+    private Group withdrawAndRelease(String username, String subjectName, String groupCode) throws SirhaException {
         try {
             Student student = studentRepository.findByUsername(username)
                 .orElseThrow(() -> {
@@ -764,22 +1145,29 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
 
-            Subject subject = subjectRepository.findByName(subjectName)
+            Subject subject = catalogCache.findSubjectByName(subjectName)
                 .orElseThrow(() -> {
                     log.warn("Materia no encontrada para desinscripción: {}", subjectName);
                     return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
                 });
 
-            Group group = groupRepository.findByCode(groupCode)
+            Group group = catalogCache.findGroupByCode(groupCode)
                 .orElseThrow(() -> {
                     log.warn("Grupo no encontrado para desinscripción: {}", groupCode);
                     return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
                 });
 
-            student.unenrollSubject(subject, group);
-            studentRepository.save(student);
-            
-            log.info("Materia desinscrita exitosamente para usuario: {}, Materia: {}, Grupo: {}", username, subjectName, groupCode);
+            student.withdrawSubject(subject, group);
+            Group released = seatReservationService.releaseSeat(group, student);
+            try {
+                studentRepository.save(student);
+            } catch (Exception e) {
+                if (!transactions.isEnabled()) {
+                    restoreSeat(released, student, e);
+                }
+                throw e;
+            }
+            return released;
 
         } catch (SirhaException e) {
             throw e;
@@ -788,8 +1176,45 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    /**
+     * Compensa una desinscripción que no se pudo guardar. Si tampoco se puede devolver el
+     * cupo, se conserva el error original para que el reintento o el cliente lo vean.
+     */
+    private void restoreSeat(Group released, Student student, Exception cause) {
+        log.warn("Devolviendo cupo en grupo {} tras fallo al desinscribir a {}", released.getCode(), student.getUsername());
+        try {
+            Group restored = seatReservationService.restoreSeat(released, student);
+            catalogCache.evictGroup(restored.getCode());
+            compatibilityIndex.update(restored);
+        } catch (SirhaException e) {
+            log.error("No se pudo devolver el cupo del grupo {} al estudiante {}: {}",
+                    released.getCode(), student.getCodigo(), e.getMessage());
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Asigna a la lista de espera el cupo que la liberación dejó retenido. La
+     * desinscripción ya quedó guardada: si la promoción falla, el barrido de la lista
+     * de espera la reintenta.
+     */
+    private void promoteWaitlist(Group released) {
+        if (released.getCuposRetenidos() == 0) {
+            return;
+        }
+        try {
+            waitlistService.promote(released.getCode());
+        } catch (SirhaException e) {
+            log.warn("No se pudo promover la lista de espera del grupo {}: {}", released.getCode(), e.getMessage());
+        }
+    }
+
     @Override
     public AcademicPeriod setAcademicPeriodForStudent(String username, String period) throws SirhaException {
+        return transactions.execute(SirhaMetrics.STUDENT_UPDATE, () -> setAcademicPeriod(username, period));
+    }
+
+    private AcademicPeriod setAcademicPeriod(String username, String period) throws SirhaException {
         log.info("Estableciendo período académico '{}' para usuario: {}", period, username);
         try {
             Student student = studentRepository.findByUsername(username)
@@ -798,7 +1223,7 @@ public class StudentServiceImpl implements StudentService {
                     return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
                 });
 
-            AcademicPeriod academicPeriod = academicPeriodRepository.findByPeriod(period)
+            AcademicPeriod academicPeriod = catalogCache.findAcademicPeriod(period)
                 .orElseThrow(() -> {
                     log.warn("Período académico no encontrado: {}", period);
                     return SirhaException.of(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_FOUND);
@@ -820,6 +1245,10 @@ public class StudentServiceImpl implements StudentService {
     @Override
     public AcademicProgress setAcademicProgressForStudent(String username, AcademicProgress academicProgress)
             throws SirhaException {
+        return transactions.execute(SirhaMetrics.STUDENT_UPDATE, () -> setAcademicProgress(username, academicProgress));
+    }
+
+    private AcademicProgress setAcademicProgress(String username, AcademicProgress academicProgress) throws SirhaException {
         log.info("Estableciendo progreso académico para usuario: {}", username);
         try {
             Student student = studentRepository.findByUsername(username)
@@ -9,6 +9,7 @@ import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
 import edu.dosw.sirha.sirha_backend.repository.mongo.StudyPlanMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.StudyPlanService;
 import edu.dosw.sirha.sirha_backend.service.SubjectService;
@@ -22,13 +23,14 @@ public class StudyPlanServiceImpl implements StudyPlanService {
 
     private final SubjectService subjectService;
     private final StudyPlanMongoRepository studyPlanRepository;
+    private final CatalogCache catalogCache;
 
-    public StudyPlanServiceImpl(SubjectService subjectService, StudyPlanMongoRepository studyPlanRepository) {
+    public StudyPlanServiceImpl(SubjectService subjectService, StudyPlanMongoRepository studyPlanRepository, CatalogCache catalogCache) {
         this.subjectService = subjectService;
         this.studyPlanRepository = studyPlanRepository;
+        this.catalogCache = catalogCache;
     }
 
-    @Transactional
     @Override
     public List<StudyPlan> getStudyPlansByCareer(Careers career) throws SirhaException {
         logger.info("Iniciando obtención de planes de estudio para la carrera: {}", career);
@@ -51,7 +53,9 @@ public class StudyPlanServiceImpl implements StudyPlanService {
             throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT);
         }
         logger.debug("Guardando plan de estudio: {}", studyPlan.getName());
+        studyPlan.validatePrerequisites();
         StudyPlan saved = studyPlanRepository.save(studyPlan);
+        catalogCache.evictStudyPlan(saved.getName());
         logger.info("Plan de estudio guardado: {}", saved.getName());
         return saved;
     }
@@ -62,7 +66,7 @@ public class StudyPlanServiceImpl implements StudyPlanService {
         try {
             logger.info("Agregando materia '{}' al plan '{}'", subjectName, studyPlanName);
             logger.debug("Buscando plan de estudio: {}", studyPlanName);
-            StudyPlan studyPlan = studyPlanRepository.findStudyPlanByName(studyPlanName);
+            StudyPlan studyPlan = catalogCache.findStudyPlanByName(studyPlanName).orElse(null);
             if (studyPlan == null) {
                 logger.error("Plan de estudio '{}' no encontrado", studyPlanName);
                 throw SirhaException.of(ErrorCodeSirha.STUDY_PLAN_NOT_FOUND);
@@ -77,7 +81,9 @@ public class StudyPlanServiceImpl implements StudyPlanService {
 
             logger.debug("Materia encontrada: {}", subject.getName());
             studyPlan.addSubject(subject);
+            studyPlan.validatePrerequisites();
             StudyPlan saved = studyPlanRepository.save(studyPlan);
+            catalogCache.evictStudyPlan(saved.getName());
             logger.info("Materia '{}' agregada al plan '{}'", subjectName, saved.getName());
             return saved;
         } catch (SirhaException e) {
@@ -93,7 +99,7 @@ public class StudyPlanServiceImpl implements StudyPlanService {
         try {
             logger.info("Buscando plan de estudio por nombre: {}", name);
             logger.debug("Consultando repositorio por plan: {}", name);
-            StudyPlan studyPlan = studyPlanRepository.findStudyPlanByName(name);
+            StudyPlan studyPlan = catalogCache.findStudyPlanByName(name).orElse(null);
             if (studyPlan == null) {
                 logger.warn("Plan de estudio '{}' no encontrado", name);
                 throw SirhaException.of(ErrorCodeSirha.STUDY_PLAN_NOT_FOUND);
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,11 +13,14 @@ import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.port.PrerequisiteRule;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
 import edu.dosw.sirha.sirha_backend.repository.mongo.SubjectMongoRepository;
 import edu.dosw.sirha.sirha_backend.service.GroupService;
 import edu.dosw.sirha.sirha_backend.service.SubjectService;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.ObjectProvider;
 
@@ -24,15 +28,18 @@ import org.springframework.beans.factory.ObjectProvider;
 public class SubjectServiceImpl implements SubjectService {
 
     private static final Logger log = LoggerFactory.getLogger(SubjectServiceImpl.class);
+    private static final String SUBJECTS_CURSOR = "subjects";
 
     private final SubjectMongoRepository subjectRepository;
     private final GroupService groupService;
+    private final CatalogCache catalogCache;
     // provider for the proxy self-injection to avoid circular creation during context startup
     private ObjectProvider<SubjectService> selfProvider;
 
-    public SubjectServiceImpl(SubjectMongoRepository subjectRepository, GroupService groupService ) {
+    public SubjectServiceImpl(SubjectMongoRepository subjectRepository, GroupService groupService, CatalogCache catalogCache) {
         this.subjectRepository = subjectRepository;
         this.groupService = groupService;
+        this.catalogCache = catalogCache;
         log.info("SubjectServiceImpl inicializado correctamente");
     }
 
@@ -41,14 +48,21 @@ public class SubjectServiceImpl implements SubjectService {
         this.selfProvider = selfProvider;
     }
 
-    @Transactional
     @Override
-    public List<Subject> findAll() {
-        log.info("Consultando todas las materias");
-        return subjectRepository.findAll();
+    public CursorPageDTO<Subject> findAll(String cursor, int limit) throws SirhaException {
+        log.info("Consultando materias (cursor: {}, límite: {})", cursor, limit);
+        try {
+            List<Subject> subjects = cursor == null
+                    ? subjectRepository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                    : subjectRepository.findPageAfter(CursorCodec.decode(SUBJECTS_CURSOR, cursor, 1)[0], Limit.of(limit + 1));
+            return CursorPageDTO.of(subjects, limit, s -> CursorCodec.encode(SUBJECTS_CURSOR, s.getId()));
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al consultar materias: " + e.getMessage(), e);
+        }
     }
 
-    @Transactional
     @Override
     public Subject findByName(String name) throws SirhaException {
         try {
@@ -57,7 +71,7 @@ public class SubjectServiceImpl implements SubjectService {
             throw SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
             }
             log.info("Buscando materia por nombre: {}", name);
-            Subject subject = subjectRepository.findByName(name).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(name).orElse(null);
             
             if (subject == null) {
                 log.warn(ErrorCodeSirha.SUBJECT_NOT_FOUND.getDefaultMessage(),"{}", name);
@@ -94,6 +108,7 @@ public class SubjectServiceImpl implements SubjectService {
             }
             
             Subject savedSubject = subjectRepository.save(subject);
+            catalogCache.evictSubject(savedSubject.getName());
             
             log.info("Materia guardada exitosamente - ID: {}, Nombre: {}", 
                     savedSubject.getId(), savedSubject.getName());
@@ -118,7 +133,7 @@ public class SubjectServiceImpl implements SubjectService {
             }
             
             log.info("Eliminando materia por nombre: {}", name);
-            Subject subject = subjectRepository.findByName(name).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(name).orElse(null);
             
             if (subject == null) {
                 log.warn("Intento de eliminar materia inexistente: {}", name);
@@ -144,6 +159,7 @@ public class SubjectServiceImpl implements SubjectService {
             }
             
             subjectRepository.delete(subject);
+            catalogCache.evictSubject(name);
             
             log.info("Materia eliminada exitosamente: {}", name);
             return subject;
@@ -155,7 +171,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
     
-    @Transactional
     @Override
     public boolean existsByName(String name) throws SirhaException {
         try {
@@ -175,7 +190,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public List<Group> getGroupsOfSubject(String subjectName) throws SirhaException {
         try {
@@ -186,7 +200,7 @@ public class SubjectServiceImpl implements SubjectService {
             
             log.info("Obteniendo grupos de la materia: {}", subjectName);
 
-            Subject subject = subjectRepository.findByName(subjectName).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(subjectName).orElse(null);
 
             if (subject == null) {
                 log.error(ErrorCodeSirha.SUBJECT_NOT_FOUND.getDefaultMessage(), subjectName);
@@ -206,7 +220,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public List<Group> getOpenGroupsOfSubject(String subjectName) throws SirhaException {
 
@@ -218,7 +231,7 @@ public class SubjectServiceImpl implements SubjectService {
             
             log.info("Obteniendo grupos abiertos de la materia: {}", subjectName);
 
-            Subject subject = subjectRepository.findByName(subjectName).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(subjectName).orElse(null);
 
             if (subject == null) {
                 log.error(ErrorCodeSirha.SUBJECT_NOT_FOUND.getDefaultMessage(), subjectName);
@@ -238,7 +251,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public Group getGroupById(String id) throws SirhaException {
         try {
@@ -283,7 +295,7 @@ public class SubjectServiceImpl implements SubjectService {
             log.info("Guardando grupo para la materia: {} - Capacidad: {}", 
                     subjectName, group.getCapacity());
 
-            Subject subject = subjectRepository.findByName(subjectName).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(subjectName).orElse(null);
 
             if (subject == null) {
                 log.error("No se encontró la materia para save con nombre: {}", subjectName);
@@ -293,6 +305,7 @@ public class SubjectServiceImpl implements SubjectService {
             Group savedGroup = groupService.saveGroup(subject, group);
 
             subjectRepository.save(subject);
+            catalogCache.evictSubject(subjectName);
             
             log.info("Grupo guardado exitosamente para materia '{}' - ID: {}, Código: {}", 
                     subjectName, savedGroup.getId(), savedGroup.getCode());
@@ -331,7 +344,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
     
-    @Transactional
     @Override
     public boolean existsGroupById(String id) throws SirhaException {
 
@@ -354,15 +366,14 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
-    public List<Group> findAllGroups() throws SirhaException {
-        log.info("Consultando todos los grupos");
+    public CursorPageDTO<Group> findAllGroups(String cursor, int limit) throws SirhaException {
+        log.info("Consultando grupos (cursor: {}, límite: {})", cursor, limit);
         
         try {
-            List<Group> groups = groupService.findAllGroups();
+            CursorPageDTO<Group> groups = groupService.findAllGroups(cursor, limit);
             
-            log.info("Todos los grupos consultados exitosamente - Total: {}", groups.size());
+            log.info("Grupos consultados exitosamente - En la página: {}", groups.getItems().size());
             
             return groups;
         } catch (SirhaException e) {
@@ -426,7 +437,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public Professor getProfessor(String groupId) throws SirhaException {
         try {
@@ -453,7 +463,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public List<Schedule> getSchedules(String groupId) throws SirhaException {
         try {
@@ -476,7 +485,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public boolean isFull(String groupId) throws SirhaException {
         try {
@@ -498,7 +506,6 @@ public class SubjectServiceImpl implements SubjectService {
         }
     }
 
-    @Transactional
     @Override
     public int getAvailableSeats(String groupId) throws SirhaException {
         try {
@@ -529,7 +536,7 @@ public class SubjectServiceImpl implements SubjectService {
                 log.error("Error: El nombre de la materia no puede ser null o vacío");
                 throw SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND,"El nombre de la materia no puede ser null o vacío");
             }
-            Subject subject = subjectRepository.findByName(subjectName).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(subjectName).orElse(null);
 
             if (subject == null) {
                 log.warn("No se encontró la materia con nombre: {}", subjectName);
@@ -620,7 +627,7 @@ public class SubjectServiceImpl implements SubjectService {
                 log.error("Error: El prerrequisito no puede ser null");
                 throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT,"El prerrequisito no puede ser null");
             }
-            Subject subject = subjectRepository.findByName(subjectName).orElse(null);
+            Subject subject = catalogCache.findSubjectByName(subjectName).orElse(null);
 
             if (subject == null) {
                 log.warn("No se encontró la materia con nombre: {}", subjectName);
@@ -629,6 +636,7 @@ public class SubjectServiceImpl implements SubjectService {
 
             subject.addPrerequisite(prerequisite);
             Subject updatedSubject = subjectRepository.save(subject);
+            catalogCache.evictSubject(subjectName);
             log.info("Prerrequisito agregado exitosamente a la materia: {}", subjectName);
             return updatedSubject;
         } catch (SirhaException e) {
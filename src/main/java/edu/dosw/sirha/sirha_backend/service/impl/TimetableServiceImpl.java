@@ -0,0 +1,244 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.TimetablePlanner;
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.CompatibleGroupDTO;
+import edu.dosw.sirha.sirha_backend.dto.TimetablePlanDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.TimetableService;
+
+/**
+ * Implementación de {@link TimetableService} sobre {@link TimetablePlanner}.
+ *
+ * Antes de buscar se descartan las materias que el estudiante no puede inscribir (plan,
+ * prerrequisitos, materia ya cursada) y, de cada materia, los grupos cerrados, de otro
+ * período, sin cupos o que se cruzan con lo que el estudiante ya tiene inscrito. Los cupos
+ * y el estado se leen del grupo en {@link CatalogCache}, no de la copia embebida en la materia.
+ *
+ * Los grupos compatibles con el horario actual se responden desde {@link GroupCompatibilityIndex}.
+ */
+@Service
+public class TimetableServiceImpl implements TimetableService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimetableServiceImpl.class);
+
+    private final StudentMongoRepository studentRepository;
+    private final CatalogCache catalogCache;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final SirhaMetrics metrics;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxSubjects;
+    private final Duration timeBudget;
+    private final long parallelThreshold;
+
+    public TimetableServiceImpl(StudentMongoRepository studentRepository,
+                                CatalogCache catalogCache,
+                                GroupCompatibilityIndex compatibilityIndex,
+                                SirhaMetrics metrics,
+                                @Value("${sirha.timetable.default-limit:5}") int defaultLimit,
+                                @Value("${sirha.timetable.max-limit:20}") int maxLimit,
+                                @Value("${sirha.timetable.max-subjects:10}") int maxSubjects,
+                                @Value("${sirha.timetable.time-budget:2s}") Duration timeBudget,
+                                @Value("${sirha.timetable.parallel-threshold:50000}") long parallelThreshold) {
+        if (defaultLimit < 1 || maxLimit < defaultLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= sirha.timetable.default-limit <= sirha.timetable.max-limit");
+        }
+        this.studentRepository = studentRepository;
+        this.catalogCache = catalogCache;
+        this.compatibilityIndex = compatibilityIndex;
+        this.metrics = metrics;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxSubjects = maxSubjects;
+        this.timeBudget = timeBudget;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public TimetablePlanDTO generate(String username, List<String> subjects, Integer limit) throws SirhaException {
+        return metrics.record(SirhaMetrics.TIMETABLE, () -> doGenerate(username, subjects, limit));
+    }
+
+    private TimetablePlanDTO doGenerate(String username, List<String> subjects, Integer limit) throws SirhaException {
+        Set<String> requested = requestedSubjects(subjects);
+        int maxPlans = resolveLimit(limit);
+        log.info("Generando horarios para {} con materias {}", username, requested);
+        try {
+            Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(),"{}", username);
+                    return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                });
+            AcademicPeriod period = student.getCurrentPeriod();
+            if (period == null || !period.isActive()) {
+                throw SirhaException.of(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_VALID, "El estudiante no tiene un período académico activo");
+            }
+            WeeklyTimetable occupied = student.getOccupancy();
+
+            List<TimetablePlanner.Candidates> candidates = new ArrayList<>();
+            List<TimetablePlanDTO.Exclusion> excluded = new ArrayList<>();
+            for (String name : requested) {
+                Optional<Subject> subject = catalogCache.findSubjectByName(name);
+                if (subject.isEmpty()) {
+                    excluded.add(exclusion(name, ErrorCodeSirha.SUBJECT_NOT_FOUND, ErrorCodeSirha.SUBJECT_NOT_FOUND.getDefaultMessage()));
+                    continue;
+                }
+                try {
+                    student.canEnroll(subject.get());
+                } catch (SirhaException e) {
+                    excluded.add(exclusion(name, e.getErrorCode(), e.getMessage()));
+                    continue;
+                }
+                collectCandidates(name, subject.get(), period, occupied, candidates, excluded);
+            }
+
+            TimetablePlanner planner = new TimetablePlanner(maxPlans, timeBudget, parallelThreshold, ForkJoinPool.commonPool());
+            TimetablePlanner.Result result = planner.plan(occupied, candidates);
+            if (result.truncated()) {
+                log.warn("Búsqueda de horarios para {} cortada por tiempo tras {} nodos", username, result.explored());
+            }
+            log.info("Generados {} horarios para {} ({} nodos, {} materias excluidas)",
+                    result.plans().size(), username, result.explored(), excluded.size());
+            return new TimetablePlanDTO(toOptions(result.plans()), excluded, result.truncated(), result.explored());
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al generar horarios: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<CompatibleGroupDTO> findCompatibleGroups(String username) throws SirhaException {
+        log.info("Consultando grupos compatibles con el horario de {}", username);
+        try {
+            Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(),"{}", username);
+                    return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+                });
+            AcademicPeriod period = student.getCurrentPeriod();
+            if (period == null || !period.isActive()) {
+                throw SirhaException.of(ErrorCodeSirha.ACADEMIC_PERIOD_NOT_VALID, "El estudiante no tiene un período académico activo");
+            }
+            List<CompatibleGroupDTO> groups = new ArrayList<>();
+            for (GroupCompatibilityIndex.Entry entry : compatibilityIndex.findCompatible(period.getPeriod(), student.getOccupancy())) {
+                groups.add(new CompatibleGroupDTO(entry.subject(), entry.code(), entry.timetable().getSchedules()));
+            }
+            log.info("{} grupos compatibles para {} en el período {}", groups.size(), username, period.getPeriod());
+            return groups;
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al consultar grupos compatibles: " + e.getMessage(), e);
+        }
+    }
+
+    private Set<String> requestedSubjects(List<String> subjects) throws SirhaException {
+        Set<String> requested = new LinkedHashSet<>();
+        if (subjects != null) {
+            for (String subject : subjects) {
+                if (subject != null && !subject.isBlank()) {
+                    requested.add(subject.trim());
+                }
+            }
+        }
+        if (requested.isEmpty()) {
+            throw SirhaException.of(ErrorCodeSirha.MISSING_REQUIRED_FIELD, "Debe indicar al menos una materia");
+        }
+        if (requested.size() > maxSubjects) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Se pueden pedir como máximo " + maxSubjects + " materias");
+        }
+        return requested;
+    }
+
+    private int resolveLimit(Integer limit) throws SirhaException {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El límite debe ser mayor que 0");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Filtra los grupos de una materia. Si no queda ninguno, la materia se excluye con el
+     * motivo del filtro que descartó los últimos grupos.
+     */
+    private void collectCandidates(String name, Subject subject, AcademicPeriod period, WeeklyTimetable occupied,
+                                   List<TimetablePlanner.Candidates> candidates,
+                                   List<TimetablePlanDTO.Exclusion> excluded) {
+        List<Group> groups = new ArrayList<>();
+        ErrorCodeSirha reason = ErrorCodeSirha.GROUP_CLOSED;
+        int[] discarded = new int[4];
+        for (Group embedded : subject.getOpenGroups()) {
+            Group group = catalogCache.findGroupByCode(embedded.getCode()).orElse(null);
+            if (group == null || !group.isOpen()) {
+                discarded[0]++;
+            } else if (!group.sameAcademicPeriod(period)) {
+                discarded[1]++;
+            } else if (group.getCuposDisponibles() <= 0) {
+                discarded[2]++;
+            } else if (occupied.conflictsWith(group.getTimetable())) {
+                discarded[3]++;
+            } else {
+                groups.add(group);
+            }
+        }
+        if (!groups.isEmpty()) {
+            candidates.add(new TimetablePlanner.Candidates(name, groups));
+            return;
+        }
+        // El filtro más específico que descartó algún grupo explica por qué no hay opciones
+        ErrorCodeSirha[] reasons = {ErrorCodeSirha.GROUP_CLOSED, ErrorCodeSirha.ACADEMIC_PERIOD_NOT_VALID,
+                ErrorCodeSirha.GROUP_FULL, ErrorCodeSirha.SCHEDULE_CONFLICT};
+        for (int i = 0; i < reasons.length; i++) {
+            if (discarded[i] > 0) {
+                reason = reasons[i];
+            }
+        }
+        excluded.add(exclusion(name, reason, "Ningún grupo disponible: " + reason.getDefaultMessage()));
+    }
+
+    private static TimetablePlanDTO.Exclusion exclusion(String subject, ErrorCodeSirha code, String message) {
+        return new TimetablePlanDTO.Exclusion(subject, code.name(), message);
+    }
+
+    private static List<TimetablePlanDTO.Option> toOptions(List<TimetablePlanner.Plan> plans) {
+        List<TimetablePlanDTO.Option> options = new ArrayList<>();
+        for (TimetablePlanner.Plan plan : plans) {
+            List<TimetablePlanDTO.Entry> entries = new ArrayList<>();
+            for (TimetablePlanner.Assignment a : plan.assignments()) {
+                Group g = a.group();
+                entries.add(new TimetablePlanDTO.Entry(a.subject(), g.getCode(),
+                        g.getProfessor() == null ? null : g.getProfessor().getUsername(),
+                        g.getAula(), g.getCuposDisponibles(), g.getSchedules()));
+            }
+            options.add(new TimetablePlanDTO.Option(entries, plan.unassigned(), plan.days(), plan.gapMinutes(), plan.minSeats()));
+        }
+        return options;
+    }
+}
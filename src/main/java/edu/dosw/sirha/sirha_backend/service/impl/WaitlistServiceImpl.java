@@ -0,0 +1,251 @@
+package edu.dosw.sirha.sirha_backend.service.impl;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.WaitlistPriority;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.WaitlistPositionDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.WaitlistService;
+
+/**
+ * Implementación de {@link WaitlistService}.
+ *
+ * La liberación de un cupo en un grupo con estudiantes en espera lo deja retenido en la
+ * misma escritura atómica (ver {@link GroupSeatRepository#releaseSeat(String, String)}),
+ * así que nadie fuera de la lista puede tomarlo. La promoción valida al siguiente de la
+ * lista con las reglas de inscripción sobre su documento actual y, si cumple, le asigna el
+ * cupo retenido con una sola actualización condicional. Quien ya no cumple (choque de
+ * horario, materia ya inscrita, período vencido) sale de la lista y se evalúa el siguiente.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final StudentMongoRepository studentRepository;
+    private final CatalogCache catalogCache;
+    private final GroupSeatRepository seatRepository;
+    private final GroupWaitlistRepository waitlistRepository;
+    private final GroupCompatibilityIndex compatibilityIndex;
+    private final SirhaMetrics metrics;
+    private final TransactionRunner transactions;
+    private final int maxSize;
+    private final WaitlistPriority priority;
+
+    public WaitlistServiceImpl(StudentMongoRepository studentRepository,
+                               CatalogCache catalogCache,
+                               @Qualifier("groupMongoRepository") GroupSeatRepository seatRepository,
+                               @Qualifier("groupMongoRepository") GroupWaitlistRepository waitlistRepository,
+                               GroupCompatibilityIndex compatibilityIndex,
+                               SirhaMetrics metrics,
+                               TransactionRunner transactions,
+                               @Value("${sirha.waitlist.max-size:50}") int maxSize,
+                               @Value("${sirha.waitlist.priority:FIFO}") WaitlistPriority priority) {
+        this.studentRepository = studentRepository;
+        this.catalogCache = catalogCache;
+        this.seatRepository = seatRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.compatibilityIndex = compatibilityIndex;
+        this.metrics = metrics;
+        this.transactions = transactions;
+        this.maxSize = maxSize;
+        this.priority = priority;
+        log.info("WaitlistServiceImpl inicializado: tamaño máximo {}, prioridad {}", maxSize, priority);
+    }
+
+    @Override
+    public WaitlistPositionDTO joinWaitlist(String username, String subjectName, String groupCode) throws SirhaException {
+        return metrics.record(SirhaMetrics.WAITLIST_JOIN, () -> join(username, subjectName, groupCode));
+    }
+
+    private WaitlistPositionDTO join(String username, String subjectName, String groupCode) throws SirhaException {
+        log.info("Agregando a lista de espera: usuario {}, materia {}, grupo {}", username, subjectName, groupCode);
+        try {
+            Student student = findStudent(username);
+            Subject subject = catalogCache.findSubjectByName(subjectName)
+                .orElseThrow(() -> {
+                    log.warn("Materia no encontrada para lista de espera: {}", subjectName);
+                    return SirhaException.of(ErrorCodeSirha.SUBJECT_NOT_FOUND);
+                });
+            Group group = seatRepository.findSeatSnapshot(groupCode)
+                .orElseThrow(() -> SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND));
+
+            student.canTakeWaitlistedSeat(subject, group);
+            WaitlistEntry entry = new WaitlistEntry(student.getCodigo(), student.getUsername(), subject.getName(),
+                    priority.priorityOf(student), Instant.now());
+            // Validación sobre la lectura actual; la lista la decide la actualización condicional
+            group.checkWaitlistAdmission(entry.getCodigo(), maxSize);
+            Optional<Group> joined = waitlistRepository.joinWaitlist(groupCode, entry, maxSize);
+            if (joined.isEmpty()) {
+                throw rejectionFor(groupCode, entry);
+            }
+            catalogCache.evictGroup(groupCode);
+
+            int position = joined.get().getWaitlistPosition(entry.getCodigo());
+            log.info("Estudiante {} en lista de espera del grupo {}, posición {}", username, groupCode, position);
+            return new WaitlistPositionDTO(groupCode, subject.getName(), position, joined.get().getWaitlistSize());
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al agregar a la lista de espera: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void leaveWaitlist(String username, String groupCode) throws SirhaException {
+        metrics.record(SirhaMetrics.WAITLIST_LEAVE, () -> leave(username, groupCode));
+    }
+
+    private void leave(String username, String groupCode) throws SirhaException {
+        log.info("Retirando de lista de espera: usuario {}, grupo {}", username, groupCode);
+        try {
+            Student student = findStudent(username);
+            Optional<Group> left = waitlistRepository.leaveWaitlist(groupCode, student.getCodigo());
+            if (left.isEmpty()) {
+                if (seatRepository.findSeatSnapshot(groupCode).isEmpty()) {
+                    throw SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
+                }
+                throw SirhaException.of(ErrorCodeSirha.OPERATION_NOT_ALLOWED, "El estudiante no está en la lista de espera del grupo");
+            }
+            catalogCache.evictGroup(groupCode);
+            // Si era el último en espera, los cupos retenidos vuelven al grupo
+            if (left.get().getCuposRetenidos() > 0) {
+                promote(groupCode);
+            }
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al retirar de la lista de espera: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int promote(String groupCode) throws SirhaException {
+        return metrics.record(SirhaMetrics.WAITLIST_PROMOTE, () -> promoteAll(groupCode));
+    }
+
+    private int promoteAll(String groupCode) throws SirhaException {
+        try {
+            int promoted = 0;
+            Optional<Group> current = seatRepository.findSeatSnapshot(groupCode);
+            // Cada vuelta asigna un cupo, descarta una entrada o pierde la carrera con otro promotor
+            int rounds = current.map(g -> 2 * (g.getWaitlistSize() + g.getCuposRetenidos()) + 1).orElse(0);
+            for (int round = 0; round < rounds && current.isPresent() && current.get().getCuposRetenidos() > 0; round++) {
+                Group group = current.get();
+                Optional<WaitlistEntry> next = group.nextInWaitlist();
+                if (next.isEmpty()) {
+                    waitlistRepository.releaseHeldSeats(groupCode).ifPresent(released -> {
+                        log.info("Lista de espera del grupo {} vacía: {} cupos disponibles de nuevo",
+                                groupCode, released.getCuposDisponibles());
+                        compatibilityIndex.update(released);
+                    });
+                    catalogCache.evictGroup(groupCode);
+                    break;
+                }
+                if (promoteEntry(group, next.get())) {
+                    promoted++;
+                }
+                current = seatRepository.findSeatSnapshot(groupCode);
+            }
+            return promoted;
+        } catch (SirhaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw SirhaException.of(ErrorCodeSirha.INTERNAL_ERROR, "Error interno al promover la lista de espera: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Valida y asigna el cupo retenido a una entrada de la lista.
+     *
+     * @return true si el estudiante quedó inscrito
+     */
+    private boolean promoteEntry(Group group, WaitlistEntry entry) throws SirhaException {
+        String groupCode = group.getCode();
+        Optional<Student> student = studentRepository.findByUsername(entry.getUsername());
+        Optional<Subject> subject = catalogCache.findSubjectByName(entry.getSubjectName());
+        if (student.isEmpty() || subject.isEmpty()) {
+            discard(groupCode, entry, "estudiante o materia no encontrados");
+            return false;
+        }
+        try {
+            student.get().canTakeWaitlistedSeat(subject.get(), group);
+        } catch (SirhaException e) {
+            discard(groupCode, entry, e.getErrorCode().name());
+            return false;
+        }
+
+        Optional<Group> claimed = waitlistRepository.claimHeldSeat(groupCode, entry.getCodigo());
+        if (claimed.isEmpty()) {
+            log.debug("Otro proceso cambió la lista de espera del grupo {}, se relee", groupCode);
+            return false;
+        }
+        catalogCache.evictGroup(groupCode);
+        compatibilityIndex.update(claimed.get());
+        try {
+            transactions.execute(SirhaMetrics.WAITLIST_PROMOTE, () -> {
+                // Un reintento por conflicto de versión parte del estudiante guardado, no de esta copia
+                Student current = findStudent(entry.getUsername());
+                current.confirmEnrollment(subject.get(), claimed.get());
+                studentRepository.save(current);
+            });
+        } catch (Exception e) {
+            // El estudiante recupera su lugar y el cupo vuelve a quedar retenido para la lista
+            log.warn("Devolviendo cupo del grupo {} tras fallo al promover a {}: {}", groupCode, entry.getUsername(), e.getMessage());
+            waitlistRepository.returnHeldSeat(groupCode, entry).ifPresent(compatibilityIndex::update);
+            catalogCache.evictGroup(groupCode);
+            throw e;
+        }
+        log.info("Estudiante {} promovido de la lista de espera al grupo {}", entry.getUsername(), groupCode);
+        return true;
+    }
+
+    private void discard(String groupCode, WaitlistEntry entry, String reason) {
+        log.info("Estudiante {} sale de la lista de espera del grupo {}: {}", entry.getUsername(), groupCode, reason);
+        waitlistRepository.leaveWaitlist(groupCode, entry.getCodigo());
+    }
+
+    private Student findStudent(String username) throws SirhaException {
+        return studentRepository.findByUsername(username)
+            .orElseThrow(() -> {
+                log.warn(ErrorCodeSirha.STUDENT_NOT_FOUND.getDefaultMessage(), "{}", username);
+                return SirhaException.of(ErrorCodeSirha.STUDENT_NOT_FOUND);
+            });
+    }
+
+    /**
+     * Determina por qué no se pudo entrar a la lista, repitiendo la validación del dominio
+     * sobre una lectura nueva del grupo.
+     */
+    private SirhaException rejectionFor(String groupCode, WaitlistEntry entry) {
+        Optional<Group> current = seatRepository.findSeatSnapshot(groupCode);
+        if (current.isEmpty()) {
+            return SirhaException.of(ErrorCodeSirha.GROUP_NOT_FOUND);
+        }
+        try {
+            current.get().checkWaitlistAdmission(entry.getCodigo(), maxSize);
+        } catch (SirhaException e) {
+            return e;
+        }
+        return SirhaException.of(ErrorCodeSirha.OPERATION_NOT_ALLOWED, "La lista de espera del grupo cambió, intente de nuevo");
+    }
+}
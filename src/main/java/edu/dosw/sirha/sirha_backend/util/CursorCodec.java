@@ -0,0 +1,60 @@
+package edu.dosw.sirha.sirha_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Codifica los cursores de los listados paginados.
+ *
+ * Un cursor guarda la clave de ordenamiento del último elemento entregado (por ejemplo
+ * el id) y el nombre del listado al que pertenece, en base64 url-safe. Para el cliente es
+ * opaco; un cursor de otro listado o alterado se rechaza con {@code INVALID_ARGUMENT}.
+ */
+public final class CursorCodec {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    /**
+     * @param listing nombre del listado, por ejemplo {@code "students"}
+     * @param keys valores de la clave de ordenamiento del último elemento de la página
+     * @return cursor para pedir la página siguiente
+     */
+    public static String encode(String listing, String... keys) {
+        StringBuilder raw = new StringBuilder(listing);
+        for (String key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return ENCODER.encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param listing nombre del listado que debe tener el cursor
+     * @param cursor cursor recibido del cliente
+     * @param keyCount número de valores que tiene la clave del listado
+     * @return valores de la clave, en el orden en que se codificaron
+     * @throws SirhaException INVALID_ARGUMENT si el cursor no es de este listado o está mal formado
+     */
+    public static String[] decode(String listing, String cursor, int keyCount) throws SirhaException {
+        String raw;
+        try {
+            raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Cursor inválido");
+        }
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(listing)) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "Cursor inválido");
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return keys;
+    }
+}
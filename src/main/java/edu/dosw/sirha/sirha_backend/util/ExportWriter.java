@@ -0,0 +1,137 @@
+package edu.dosw.sirha.sirha_backend.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.ExportFormat;
+
+/**
+ * Escribe filas de una exportación, una a una, en NDJSON o CSV.
+ *
+ * Las filas tienen columnas fijas; los valores se escriben como texto, números o
+ * booleanos (los ids de Mongo como su valor hexadecimal y las fechas en ISO-8601).
+ * No guarda filas en memoria: cada una se escribe en el buffer de salida al recibirla.
+ */
+public abstract class ExportWriter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    protected final List<String> columns;
+    protected final Writer out;
+
+    private ExportWriter(List<String> columns, OutputStream out) {
+        this.columns = columns;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param format formato de salida
+     * @param columns nombres de las columnas, en orden
+     * @param out destino; no se cierra al terminar
+     */
+    public static ExportWriter of(ExportFormat format, List<String> columns, OutputStream out) throws IOException {
+        return format == ExportFormat.CSV ? new Csv(columns, out) : new Ndjson(columns, out);
+    }
+
+    /**
+     * Escribe una fila; las columnas que no estén en el mapa quedan vacías.
+     */
+    public abstract void write(Map<String, ?> row) throws IOException;
+
+    /**
+     * Envía al cliente lo escrito hasta ahora.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    static Object plain(Object value) {
+        if (value instanceof ObjectId id) {
+            return id.toHexString();
+        }
+        if (value instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        return value;
+    }
+
+    private static final class Ndjson extends ExportWriter {
+
+        private final JsonGenerator json;
+
+        private Ndjson(List<String> columns, OutputStream out) throws IOException {
+            super(columns, out);
+            this.json = JSON.createGenerator(this.out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // El generador vacía su buffer en cada fila, pero la salida solo se envía en flush()
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Cada objeto termina con '\n' en vez del separador por defecto entre valores raíz
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Map<String, ?> row) throws IOException {
+            json.writeStartObject();
+            for (String column : columns) {
+                Object value = plain(row.get(column));
+                json.writeFieldName(column);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    json.writeObject(value);
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.flush();
+            out.write('\n');
+        }
+    }
+
+    private static final class Csv extends ExportWriter {
+
+        private Csv(List<String> columns, OutputStream out) throws IOException {
+            super(columns, out);
+            writeLine(columns);
+        }
+
+        @Override
+        public void write(Map<String, ?> row) throws IOException {
+            writeLine(columns.stream().map(row::get).toList());
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = plain(values.get(i));
+                if (value != null) {
+                    out.write(escape(value.toString()));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        /** RFC 4180: entre comillas si tiene coma, comillas o salto de línea. */
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
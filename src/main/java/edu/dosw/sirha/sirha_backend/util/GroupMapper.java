@@ -1,17 +1,20 @@
 package edu.dosw.sirha.sirha_backend.util;
 import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
-import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.dto.GroupDTO;
+import edu.dosw.sirha.sirha_backend.dto.RosterPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
 public class GroupMapper {
+    public static final int DEFAULT_ROSTER_PAGE_SIZE = 50;
+
     private GroupMapper() {
     }
     
     /**
-     * Convierte de GroupDTO a Group (entidad)
+     * Convierte de GroupDTO a Group (entidad).
+     * El roster no se toma del DTO: los estudiantes se inscriben con la reserva de cupos.
      */
     public static Group toEntity(Subject subject, GroupDTO dto) throws SirhaException {
         if (dto == null) {
@@ -24,17 +27,20 @@ public class GroupMapper {
             for (Schedule schedule : dto.getSchedules()) {
                 group.addSchedule(schedule);
             }
-
-            for (Student student : dto.getEstudiantes()) {
-            group.enrollStudent(student);
-            }
             return group;
     }
     
     /**
-     * Convierte de Group (entidad) a GroupDTO
+     * Convierte de Group (entidad) a GroupDTO con la primera página del roster
+     */
+    public static GroupDTO toDTO(Group group) throws SirhaException {
+        return toDTO(group, 0, DEFAULT_ROSTER_PAGE_SIZE);
+    }
+
+    /**
+     * Convierte de Group (entidad) a GroupDTO con la página indicada del roster
      */
-    public static GroupDTO toDTO(Group group) {
+    public static GroupDTO toDTO(Group group, int page, int size) throws SirhaException {
         if (group == null) {
             return null;
         }
@@ -46,7 +52,7 @@ public class GroupMapper {
         );
         dto.setAula(group.getAula());
         dto.setSchedules(group.getSchedules());
-        dto.setEstudiantes(group.getEstudiantes());
+        dto.setRoster(new RosterPageDTO(group.getCodigosInscritos(page, size), page, size, group.getStudentCount()));
         return dto;
     }
 }
\ No newline at end of file
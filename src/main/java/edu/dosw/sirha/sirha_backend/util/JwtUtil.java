@@ -9,7 +9,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
@@ -21,6 +23,8 @@ public class JwtUtil {
   private final SecretKey key;
   private final String issuer;
   private final long ttlMinutes;
+  // Inmutable y seguro entre hilos: se construye una vez y se reutiliza en cada petición
+  private final JwtParser parser;
 
   public JwtUtil(
       @Value("${JWT_SECRET:dev-secret-please-change}") String secret,
@@ -30,6 +34,7 @@ public class JwtUtil {
     this.key = buildKey(secret);
     this.issuer = issuer;
     this.ttlMinutes = ttlMinutes;
+    this.parser = Jwts.parser().verifyWith(key).build();
   }
 
   private SecretKey buildKey(String secret) {
@@ -39,7 +44,7 @@ public class JwtUtil {
       if (decoded.length >= 32) {
         return Keys.hmacShaKeyFor(decoded);
       }
-    } catch (IllegalArgumentException ex) {
+    } catch (IllegalArgumentException | DecodingException ex) {
       // ignore - we'll derive a proper-length key from the raw secret below
     }
 
@@ -67,10 +72,6 @@ public class JwtUtil {
   }
 
   public Claims parse(String token) {
-    return Jwts.parser()
-        .verifyWith(key)
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+    return parser.parseSignedClaims(token).getPayload();
   }
 }
@@ -0,0 +1,51 @@
+package edu.dosw.sirha.sirha_backend.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Tamaño de página de los listados paginados por cursor.
+ *
+ * Se configura con {@code sirha.pagination.default-limit} (si el cliente no envía
+ * {@code limit}) y {@code sirha.pagination.max-limit} (un límite mayor se recorta).
+ */
+@Component
+public class PageLimits {
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public PageLimits(@Value("${sirha.pagination.default-limit:50}") int defaultLimit,
+                      @Value("${sirha.pagination.max-limit:200}") int maxLimit) {
+        if (defaultLimit < 1 || maxLimit < defaultLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= default-limit <= max-limit");
+        }
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @param requested límite enviado por el cliente, o null
+     * @return límite a usar, entre 1 y el máximo configurado
+     * @throws SirhaException INVALID_ARGUMENT si el límite es menor que 1
+     */
+    public int resolve(Integer requested) throws SirhaException {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw SirhaException.of(ErrorCodeSirha.INVALID_ARGUMENT, "El límite debe ser mayor que 0");
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -0,0 +1,343 @@
+package edu.dosw.sirha.sirha_backend.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
+import edu.dosw.sirha.sirha_backend.domain.model.CambioMateria;
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.MustHaveApprovedSubject;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Generador determinista de datos sintéticos de una universidad, para pruebas de carga
+ * y de capacidad.
+ *
+ * Al construirse arma el catálogo completo (dos períodos académicos, un plan de estudios
+ * y una decanatura por carrera, materias con cadenas de prerrequisitos y grupos con
+ * horarios para cada período). Los estudiantes se generan después, por lotes, con
+ * {@link #nextStudents(int)}: cada uno recibe historia académica en el período anterior,
+ * inscripciones sin choques en el período vigente y solicitudes de cambio, de las cuales
+ * algunas quedan en la cola de la decanatura de su carrera.
+ *
+ * Con la misma semilla y los mismos parámetros se obtiene exactamente el mismo grafo de
+ * objetos, incluidos los identificadores que asigna el generador (períodos, materias, grupos,
+ * estudiantes y solicitudes); solo las fechas de los períodos se calculan a partir del día
+ * de la generación. Los estudiantes de un lote no se guardan en el generador, así que
+ * el consumo de memoria depende del catálogo, del tamaño del lote y del límite de la
+ * cola de cada decanatura, no del total de estudiantes.
+ */
+public class SyntheticDatasetGenerator {
+
+    /** Semestres del plan; las materias de un nivel solo exigen materias del nivel anterior. */
+    public static final int LEVELS = 10;
+    public static final int SUBJECTS_PER_SEMESTER = 5;
+
+    private static final String[] TOPICS = {
+        "Calculo", "Fisica", "Algebra", "Programacion", "Estadistica", "Quimica", "Mecanica",
+        "Electronica", "Redes", "Economia", "Etica", "Logica", "Modelos", "Sistemas", "Gestion"
+    };
+    private static final DiasSemana[] WEEKDAYS = {
+        DiasSemana.LUNES, DiasSemana.MARTES, DiasSemana.MIERCOLES, DiasSemana.JUEVES, DiasSemana.VIERNES
+    };
+
+    private final Random random;
+    private final int subjectsPerPlan;
+    private final int groupsPerSubject;
+    private final int requestsPerStudent;
+    private final int decanateQueueSize;
+    private final String passwordHash;
+
+    private final AcademicPeriod previousPeriod;
+    private final AcademicPeriod currentPeriod;
+    private final List<Careers> careers;
+    private final Map<Careers, StudyPlan> plans = new EnumMap<>(Careers.class);
+    private final Map<Careers, Decanate> decanates = new EnumMap<>(Careers.class);
+    private final List<Subject> subjects = new ArrayList<>();
+    private final List<Group> groups = new ArrayList<>();
+    private final Map<Subject, List<Group>> previousGroups = new IdentityHashMap<>();
+    private final Map<Subject, List<Group>> currentGroups = new IdentityHashMap<>();
+    private int generatedStudents;
+
+    /**
+     * @param seed semilla de la generación
+     * @param careers número de carreras (cada una con su plan y su decanatura)
+     * @param subjectsPerPlan materias de cada plan
+     * @param groupsPerSubject grupos por materia en cada período
+     * @param requestsPerStudent máximo de solicitudes por estudiante
+     * @param decanateQueueSize máximo de solicitudes en revisión por decanatura
+     * @param password contraseña en texto plano común a todos los estudiantes
+     */
+    public SyntheticDatasetGenerator(long seed, int careers, int subjectsPerPlan, int groupsPerSubject,
+            int requestsPerStudent, int decanateQueueSize, String password) throws SirhaException {
+        if (careers <= 0 || careers >= Careers.values().length || subjectsPerPlan <= 0 || groupsPerSubject <= 0
+                || requestsPerStudent < 0 || decanateQueueSize < 0) {
+            throw new IllegalArgumentException("Parámetros inválidos para el generador de datos");
+        }
+        this.random = new Random(seed);
+        this.subjectsPerPlan = subjectsPerPlan;
+        this.groupsPerSubject = groupsPerSubject;
+        this.requestsPerStudent = requestsPerStudent;
+        this.decanateQueueSize = decanateQueueSize;
+        // Un solo hash para todos: BCrypt por estudiante dominaría el tiempo de generación
+        this.passwordHash = PasswordUtils.hashPassword(password);
+
+        LocalDate today = LocalDate.now();
+        this.previousPeriod = new AcademicPeriod("SYN-ANTERIOR", today.minusMonths(8), today.minusMonths(3));
+        this.previousPeriod.setId(nextId());
+        this.currentPeriod = new AcademicPeriod("SYN-VIGENTE", today.minusMonths(1), today.plusMonths(3));
+        this.currentPeriod.setId(nextId());
+
+        List<Careers> selected = new ArrayList<>();
+        for (Careers career : Careers.values()) {
+            if (career != Careers.DEFAULT && selected.size() < careers) {
+                selected.add(career);
+            }
+        }
+        this.careers = Collections.unmodifiableList(selected);
+        for (Careers career : this.careers) {
+            buildCareer(career);
+        }
+    }
+
+    private void buildCareer(Careers career) throws SirhaException {
+        StudyPlan plan = new StudyPlan(career);
+        plan.setId(nextId());
+        List<List<Subject>> levels = new ArrayList<>();
+        for (int level = 0; level < LEVELS; level++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int i = 0; i < subjectsPerPlan; i++) {
+            int level = i * LEVELS / subjectsPerPlan;
+            Subject subject = new Subject(nextId(), subjectName(subjects.size()), 2 + random.nextInt(3));
+            // Un solo prerrequisito por materia: los requisitos se guardan embebidos y
+            // un árbol ancho multiplicaría el tamaño de cada documento
+            List<Subject> previousLevel = level == 0 ? List.of() : levels.get(level - 1);
+            if (!previousLevel.isEmpty() && random.nextInt(10) < 7) {
+                subject.addPrerequisite(new MustHaveApprovedSubject(previousLevel.get(random.nextInt(previousLevel.size()))));
+            }
+            previousGroups.put(subject, buildGroups(subject, previousPeriod));
+            currentGroups.put(subject, buildGroups(subject, currentPeriod));
+            levels.get(level).add(subject);
+            plan.addSubject(subject);
+            subjects.add(subject);
+        }
+        plan.validatePrerequisites();
+        plans.put(career, plan);
+
+        Decanate decanate = new Decanate(career);
+        decanate.addStudyPlan(plan);
+        decanates.put(career, decanate);
+    }
+
+    /**
+     * Nombre único de la materia. Empieza con tres caracteres distintos por materia porque
+     * el código de los grupos se arma con los tres primeros caracteres del nombre.
+     */
+    private static String subjectName(int index) {
+        String prefix = Integer.toString(index, Character.MAX_RADIX).toUpperCase();
+        prefix = "000".substring(prefix.length()) + prefix;
+        return prefix + " " + TOPICS[index % TOPICS.length] + " " + (index / TOPICS.length + 1);
+    }
+
+    private List<Group> buildGroups(Subject subject, AcademicPeriod period) throws SirhaException {
+        List<Group> built = new ArrayList<>(groupsPerSubject);
+        for (int g = 0; g < groupsPerSubject; g++) {
+            Group group = new Group(subject, 25 + random.nextInt(16), period);
+            group.setId(nextId());
+            group.setAula("B" + (100 + random.nextInt(400)));
+            int first = random.nextInt(WEEKDAYS.length);
+            int second = (first + 1 + random.nextInt(WEEKDAYS.length - 1)) % WEEKDAYS.length;
+            group.addSchedule(randomSlot(WEEKDAYS[first]));
+            group.addSchedule(randomSlot(WEEKDAYS[second]));
+            built.add(group);
+            groups.add(group);
+        }
+        return built;
+    }
+
+    private Schedule randomSlot(DiasSemana day) throws SirhaException {
+        int start = 7 + random.nextInt(11);
+        return new Schedule(day, LocalTime.of(start, 0), LocalTime.of(start + 2, 0));
+    }
+
+    /**
+     * Id de 24 dígitos hexadecimales: Mongo lo guarda como {@code ObjectId}, igual que los
+     * ids que genera la aplicación, y los listados paginados por {@code _id} los ordenan juntos.
+     */
+    private String nextId() {
+        return String.format("%08x%016x", random.nextInt(), random.nextLong());
+    }
+
+    /**
+     * Genera el siguiente lote de estudiantes. Las inscripciones del período vigente
+     * ocupan cupos en los grupos del catálogo y las solicitudes quedan en
+     * {@link Student#getSolicitudes()}.
+     *
+     * @param count número de estudiantes del lote
+     * @return estudiantes generados, en orden
+     */
+    public List<Student> nextStudents(int count) throws SirhaException {
+        List<Student> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(nextStudent());
+        }
+        return batch;
+    }
+
+    private Student nextStudent() throws SirhaException {
+        int sequence = ++generatedStudents;
+        Careers career = careers.get(random.nextInt(careers.size()));
+        StudyPlan plan = plans.get(career);
+        String codigo = String.format("%04d%06d", 2000 + sequence % 25, sequence);
+        Student student = new Student(nextId(), "syn" + sequence, "syn" + sequence + "@sirha.edu.co", passwordHash, codigo);
+        Semaforo semaforo = new Semaforo(plan);
+        student.setAcademicProgress(semaforo);
+
+        int semester = 1 + random.nextInt(LEVELS);
+        for (int past = 1; past < semester; past++) {
+            takeSemester(semaforo, past);
+        }
+        student.setCurrentPeriod(currentPeriod);
+        List<Subject> enrolled = enrollCurrentSemester(student, semaforo, semester);
+        createRequests(student, semaforo, enrolled);
+        return student;
+    }
+
+    /**
+     * Cursa en el período anterior hasta {@link #SUBJECTS_PER_SEMESTER} materias disponibles;
+     * aproximadamente una de cada ocho se reprueba.
+     */
+    private void takeSemester(Semaforo semaforo, int semester) throws SirhaException {
+        List<SubjectDecorator> eligible = semaforo.getEligibleSubjects();
+        int take = Math.min(SUBJECTS_PER_SEMESTER, eligible.size());
+        for (int i = 0; i < take; i++) {
+            SubjectDecorator decorator = eligible.get(i);
+            List<Group> options = previousGroups.get(decorator.getSubject());
+            decorator.inscribir(options.get(random.nextInt(options.size())), semester);
+            if (random.nextInt(8) == 0) {
+                decorator.reprobar();
+            } else {
+                decorator.aprobar();
+            }
+        }
+    }
+
+    private List<Subject> enrollCurrentSemester(Student student, Semaforo semaforo, int semester) throws SirhaException {
+        List<Subject> enrolled = new ArrayList<>();
+        for (SubjectDecorator decorator : semaforo.getEligibleSubjects()) {
+            if (enrolled.size() == SUBJECTS_PER_SEMESTER) {
+                break;
+            }
+            Subject subject = decorator.getSubject();
+            List<Group> options = currentGroups.get(subject);
+            int offset = random.nextInt(options.size());
+            for (int g = 0; g < options.size(); g++) {
+                Group group = options.get((offset + g) % options.size());
+                if (canEnroll(student, subject, group)) {
+                    student.enrollSubject(subject, group, semester);
+                    enrolled.add(subject);
+                    break;
+                }
+            }
+        }
+        return enrolled;
+    }
+
+    private static boolean canEnroll(Student student, Subject subject, Group group) {
+        try {
+            return student.canEnrollInGroup(subject, group);
+        } catch (SirhaException e) {
+            // Grupo lleno o con choque de horario: se intenta con otro
+            return false;
+        }
+    }
+
+    /**
+     * Crea hasta {@code requestsPerStudent} solicitudes sobre las materias en curso.
+     * Mientras la decanatura tenga espacio en su cola, la solicitud se recibe; una parte
+     * de las recibidas se resuelve de inmediato para que haya de todos los estados.
+     */
+    private void createRequests(Student student, Semaforo semaforo, List<Subject> enrolled) throws SirhaException {
+        if (enrolled.isEmpty()) {
+            return;
+        }
+        List<SubjectDecorator> notTaken = semaforo.getEligibleSubjects();
+        Decanate decanate = decanates.get(student.getCareer());
+        int count = random.nextInt(requestsPerStudent + 1);
+        for (int i = 0; i < count; i++) {
+            Subject current = enrolled.get(random.nextInt(enrolled.size()));
+            BaseRequest request;
+            if (!notTaken.isEmpty() && random.nextInt(10) < 3) {
+                Subject target = notTaken.get(random.nextInt(notTaken.size())).getSubject();
+                List<Group> options = currentGroups.get(target);
+                request = new CambioMateria(student, current, target, options.get(random.nextInt(options.size())), currentPeriod);
+            } else {
+                List<Group> options = currentGroups.get(current);
+                request = new CambioGrupo(student, current, options.get(random.nextInt(options.size())), currentPeriod);
+            }
+            request.setId(nextId());
+            student.addRequest(request);
+
+            if (decanate.getPendingRequests().size() < decanateQueueSize && random.nextBoolean()) {
+                decanate.receiveRequest(request);
+                int outcome = random.nextInt(10);
+                if (outcome < 2) {
+                    decanate.approveRequest(request);
+                } else if (outcome < 3) {
+                    decanate.rejectRequest(request);
+                }
+            }
+        }
+    }
+
+    public int getGeneratedStudents() {
+        return generatedStudents;
+    }
+
+    public List<AcademicPeriod> getAcademicPeriods() {
+        return List.of(previousPeriod, currentPeriod);
+    }
+
+    public AcademicPeriod getCurrentPeriod() {
+        return currentPeriod;
+    }
+
+    public List<Careers> getCareers() {
+        return careers;
+    }
+
+    public List<StudyPlan> getStudyPlans() {
+        return new ArrayList<>(plans.values());
+    }
+
+    public List<Subject> getSubjects() {
+        return Collections.unmodifiableList(subjects);
+    }
+
+    public List<Group> getGroups() {
+        return Collections.unmodifiableList(groups);
+    }
+
+    public List<Decanate> getDecanates() {
+        return new ArrayList<>(decanates.values());
+    }
+}
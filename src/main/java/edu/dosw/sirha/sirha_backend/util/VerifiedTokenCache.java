@@ -0,0 +1,111 @@
+package edu.dosw.sirha.sirha_backend.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de los tokens JWT ya verificados, para que autenticar una petición con un token
+ * conocido sea una búsqueda en un mapa en vez de decodificar el token y verificar su firma.
+ *
+ * La clave es el SHA-256 del token (no se guardan tokens en memoria) y cada entrada expira
+ * en el {@code exp} del token, así que un token vencido nunca se acepta desde la caché.
+ * Los tokens inválidos no se guardan. Aciertos y fallos se publican como métricas
+ * {@code cache.*} con la etiqueta {@code cache=auth.tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${sirha.auth.token-cache.maximum-size:10000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.tokens");
+    }
+
+    /**
+     * @param token token JWT sin el prefijo {@code Bearer}
+     * @return usuario y autoridades del token
+     * @throws JwtException si el token es inválido o está vencido
+     */
+    public VerifiedToken verify(String token) {
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtUtil.parse(token);
+        VerifiedToken verified = VerifiedToken.of(claims);
+        if (verified.expiresAt() != null) {
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /** Datos de autenticación de un token verificado. */
+    public record VerifiedToken(String username, List<GrantedAuthority> authorities, Instant expiresAt) {
+
+        static VerifiedToken of(Claims claims) {
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(),
+                    List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("role", String.class))),
+                    expiration == null ? null : expiration.toInstant());
+        }
+    }
+
+    /** Las entradas viven hasta el {@code exp} del token; leerlas o reemplazarlas no lo cambia. */
+    private static final class UntilTokenExpires implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            long millis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, millis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentRequest;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO.Status;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchEnrollmentTest {
+
+    private final AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    private final Map<String, Subject> subjects = new HashMap<>();
+    private final InMemoryGroupSeats seats = new InMemoryGroupSeats();
+    private final InMemoryStudents students = new InMemoryStudents();
+
+    private Student student;
+    private StudentServiceImpl service;
+
+    private Group calculoLunes;
+    private Group fisicaLunes;
+    private Group fisicaMartes;
+    private Group quimicaMiercoles;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        Subject calculo = subject("cal", "Calculo");
+        Subject fisica = subject("fis", "Fisica");
+        Subject quimica = subject("qui", "Quimica");
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.addSubject(calculo);
+        plan.addSubject(fisica);
+        plan.addSubject(quimica);
+
+        calculoLunes = group(calculo, DiasSemana.LUNES, 8, 10);
+        fisicaLunes = group(fisica, DiasSemana.LUNES, 9, 11);
+        fisicaMartes = group(fisica, DiasSemana.MARTES, 8, 10);
+        quimicaMiercoles = group(quimica, DiasSemana.MIERCOLES, 8, 10);
+
+        student = students.add(new Student("ana.gomez", "ana@universidad.edu", InMemoryStudents.HASH, "2024010"));
+        student.setAcademicProgress(new Semaforo(plan));
+        student.setCurrentPeriod(period);
+
+        CatalogCache catalog = new CatalogCache(null, null, null, null, null, new SimpleMeterRegistry(), 10, Duration.ofMinutes(5)) {
+            @Override
+            public Optional<Subject> findSubjectByName(String name) {
+                return Optional.ofNullable(subjects.get(name));
+            }
+
+            @Override
+            public Optional<Group> findGroupByCode(String code) {
+                return Optional.ofNullable(seats.get(code));
+            }
+        };
+        service = StudentServices.enrolling(students.repository(), catalog, seats, StudentServices.withoutTransactions());
+    }
+
+    private Subject subject(String code, String name) throws SirhaException {
+        Subject subject = new Subject(code, name, 4);
+        subjects.put(name, subject);
+        return subject;
+    }
+
+    private Group group(Subject subject, DiasSemana day, int from, int to) throws SirhaException {
+        Group group = new Group(subject, 30, period);
+        group.addSchedule(new Schedule(day, LocalTime.of(from, 0), LocalTime.of(to, 0)));
+        return seats.register(group);
+    }
+
+    private static BatchEnrollmentRequest request(BatchEnrollmentMode mode, Group... requested) {
+        List<BatchEnrollmentRequest.Item> items = new ArrayList<>();
+        for (Group group : requested) {
+            String subject = group.getCode().startsWith("CAL") ? "Calculo" : group.getCode().startsWith("FIS") ? "Fisica" : "Quimica";
+            items.add(new BatchEnrollmentRequest.Item(subject, group.getCode()));
+        }
+        return new BatchEnrollmentRequest(mode, items);
+    }
+
+    private static List<Status> statuses(BatchEnrollmentResultDTO result) {
+        return result.getResults().stream().map(BatchEnrollmentResultDTO.Entry::getStatus).toList();
+    }
+
+    @Test
+    void todasLasMateriasConUnaLecturaUnaReservaYUnGuardado() throws SirhaException {
+        BatchEnrollmentResultDTO result = service.enrollSubjects("ana.gomez",
+                request(null, calculoLunes, fisicaMartes, quimicaMiercoles));
+
+        assertEquals(List.of(Status.ENROLLED, Status.ENROLLED, Status.ENROLLED), statuses(result));
+        assertEquals(3, result.getEnrolled());
+        assertEquals(BatchEnrollmentMode.ALL_OR_NOTHING, result.getMode());
+        assertEquals(1, students.reads());
+        assertEquals(1, students.saved().size());
+        assertEquals(1, seats.bulkReservations.get());
+        assertTrue(calculoLunes.contieneCodigo("2024010"));
+        assertTrue(quimicaMiercoles.contieneCodigo("2024010"));
+        assertTrue(student.isSubjectCursando("Fisica"));
+    }
+
+    @Test
+    void cruceEntreGruposPedidosCancelaTodoSinReservar() throws SirhaException {
+        BatchEnrollmentResultDTO result = service.enrollSubjects("ana.gomez",
+                request(BatchEnrollmentMode.ALL_OR_NOTHING, calculoLunes, fisicaLunes));
+
+        assertEquals(List.of(Status.SKIPPED, Status.REJECTED), statuses(result));
+        assertEquals("SCHEDULE_CONFLICT", result.getResults().get(1).getCode());
+        assertEquals(0, seats.bulkReservations.get());
+        assertEquals(0, students.saved().size());
+        assertEquals(0, calculoLunes.getStudentCount());
+    }
+
+    @Test
+    void mejorEsfuerzoInscribeLasValidas() throws SirhaException {
+        BatchEnrollmentResultDTO result = service.enrollSubjects("ana.gomez",
+                request(BatchEnrollmentMode.BEST_EFFORT, calculoLunes, fisicaLunes, fisicaMartes));
+
+        // fisicaLunes se cruza con calculoLunes; fisicaMartes repite la materia ya aceptada
+        assertEquals(List.of(Status.ENROLLED, Status.REJECTED, Status.ENROLLED), statuses(result));
+        assertEquals(1, students.saved().size());
+        assertTrue(fisicaMartes.contieneCodigo("2024010"));
+        assertFalse(fisicaLunes.contieneCodigo("2024010"));
+    }
+
+    @Test
+    void grupoSinCupoAlReservarLiberaLosDemasEnTodoONada() throws SirhaException {
+        // Otra réplica tomó el último cupo después de la lectura de la caché
+        seats.taken.add(quimicaMiercoles.getCode());
+
+        BatchEnrollmentResultDTO result = service.enrollSubjects("ana.gomez",
+                request(BatchEnrollmentMode.ALL_OR_NOTHING, calculoLunes, quimicaMiercoles));
+
+        assertEquals(List.of(Status.SKIPPED, Status.REJECTED), statuses(result));
+        assertEquals("GROUP_FULL", result.getResults().get(1).getCode());
+        assertEquals(1, seats.bulkReleases.get());
+        assertEquals(0, calculoLunes.getStudentCount());
+        assertEquals(0, students.saved().size());
+        assertEquals(0, student.getSubjectsInProgressCount());
+    }
+
+    @Test
+    void solicitudVaciaODemasiadoGrande() {
+        SirhaException vacia = assertThrows(SirhaException.class,
+                () -> service.enrollSubjects("ana.gomez", new BatchEnrollmentRequest(null, List.of())));
+        assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, vacia.getErrorCode());
+
+        SirhaException grande = assertThrows(SirhaException.class, () -> service.enrollSubjects("ana.gomez",
+                request(null, calculoLunes, fisicaLunes, fisicaMartes, quimicaMiercoles, calculoLunes)));
+        assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, grande.getErrorCode());
+        assertEquals(0, students.reads());
+    }
+}
@@ -0,0 +1,155 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.MustHaveApprovedSubject;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.mongo.AcademicPeriodMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudyPlanMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.SubjectMongoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CatalogCacheTest {
+
+    private final Map<String, Subject> stored = new HashMap<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger groupQueries = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private MappingMongoConverter converter;
+    private CatalogCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Subject calculo = new Subject("1", "Calculo", 4);
+        Subject fisica = new Subject("2", "Fisica", 3);
+        fisica.addPrerequisite(new MustHaveApprovedSubject(calculo));
+        stored.put(calculo.getName(), calculo);
+        stored.put(fisica.getName(), fisica);
+
+        // Misma configuración de tipos simples (java.time, etc.) que arma Spring Boot
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        registry = new SimpleMeterRegistry();
+        cache = new CatalogCache(subjectRepository(), unused(GroupMongoRepository.class),
+                unused(StudyPlanMongoRepository.class), unused(AcademicPeriodMongoRepository.class),
+                converter, registry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void segundaConsultaNoVaAMongoYEntregaUnaInstanciaNueva() {
+        Subject first = cache.findSubjectByName("Fisica").orElseThrow();
+        Subject second = cache.findSubjectByName("Fisica").orElseThrow();
+
+        assertEquals(1, queries.get());
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(1, second.getPrerequisites().size());
+        assertInstanceOf(MustHaveApprovedSubject.class, second.getPrerequisites().get(0));
+
+        // Modificar la copia recibida no altera lo que está en caché
+        first.getPrerequisites().clear();
+        assertEquals(1, cache.findSubjectByName("Fisica").orElseThrow().getPrerequisites().size());
+    }
+
+    @Test
+    void invalidarObligaARecargar() throws Exception {
+        cache.findSubjectByName("Calculo");
+        stored.get("Calculo").setCredits(5);
+        assertEquals(4, cache.findSubjectByName("Calculo").orElseThrow().getCredits());
+
+        cache.evictSubject("Calculo");
+        assertEquals(5, cache.findSubjectByName("Calculo").orElseThrow().getCredits());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void noGuardaResultadosVacios() {
+        assertTrue(cache.findSubjectByName("Inexistente").isEmpty());
+        assertTrue(cache.findSubjectByName("Inexistente").isEmpty());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void publicaAciertosYFallosComoMetricas() {
+        cache.findSubjectByName("Calculo");
+        cache.findSubjectByName("Calculo");
+        cache.findSubjectByName("Calculo");
+
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "catalog.subjects").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "catalog.subjects").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void losGruposExpiranAntesQueElRestoDelCatalogo() throws Exception {
+        Group group = new Group(stored.get("Calculo"), 30, new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4)));
+        CatalogCache shortGroups = new CatalogCache(subjectRepository(), groupRepository(group),
+                unused(StudyPlanMongoRepository.class), unused(AcademicPeriodMongoRepository.class),
+                converter, registry, 100, Duration.ofMinutes(5), Duration.ofMillis(50));
+
+        shortGroups.findGroupByCode(group.getCode());
+        shortGroups.findSubjectByName("Calculo");
+        shortGroups.findGroupByCode(group.getCode());
+        assertEquals(1, groupQueries.get());
+
+        Thread.sleep(120);
+        shortGroups.findGroupByCode(group.getCode());
+        shortGroups.findSubjectByName("Calculo");
+        assertEquals(2, groupQueries.get());
+        assertEquals(1, queries.get());
+    }
+
+    private GroupMongoRepository groupRepository(Group group) {
+        return (GroupMongoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {GroupMongoRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByCode")) {
+                        groupQueries.incrementAndGet();
+                        return Optional.of(group).filter(g -> g.getCode().equals(args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private SubjectMongoRepository subjectRepository() {
+        return (SubjectMongoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {SubjectMongoRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByName")) {
+                        queries.incrementAndGet();
+                        return Optional.ofNullable(stored.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unused(Class<T> type) {
+        return (T) Proxy.newProxyInstance(CatalogCacheTest.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
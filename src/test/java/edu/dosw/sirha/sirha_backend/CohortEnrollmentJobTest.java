@@ -0,0 +1,252 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobDTO;
+import edu.dosw.sirha.sirha_backend.dto.EnrollmentJobErrorDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentProgressRepository.SubjectProgress;
+import edu.dosw.sirha.sirha_backend.service.impl.CohortEnrollmentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CohortEnrollmentJobTest {
+
+    private final AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    private final Map<String, Subject> subjects = new HashMap<>();
+    private final InMemoryStudents students = new InMemoryStudents();
+    private final Map<String, Set<String>> threadsByGroup = new ConcurrentHashMap<>();
+    // Registra qué hilos tocaron cada grupo
+    private final InMemoryGroupSeats seats = new InMemoryGroupSeats() {
+        @Override
+        protected void touched(String groupCode) {
+            threadsByGroup.computeIfAbsent(groupCode, code -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+        }
+    };
+
+    private StudyPlan plan;
+    private Group calculo;
+    private Group fisica;
+    private CohortEnrollmentServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        Subject calculoSubject = subject("cal", "Calculo");
+        Subject fisicaSubject = subject("fis", "Fisica");
+        plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.addSubject(calculoSubject);
+        plan.addSubject(fisicaSubject);
+
+        calculo = group(calculoSubject, 2, DiasSemana.LUNES);
+        fisica = group(fisicaSubject, 30, DiasSemana.MARTES);
+        for (int i = 1; i <= 4; i++) {
+            student("2025000" + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    private Subject subject(String code, String name) throws SirhaException {
+        Subject subject = new Subject(code, name, 4);
+        subjects.put(name, subject);
+        return subject;
+    }
+
+    private Group group(Subject subject, int capacity, DiasSemana day) throws SirhaException {
+        Group group = new Group(subject, capacity, period);
+        group.addSchedule(new Schedule(day, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        return seats.register(group);
+    }
+
+    private void student(String codigo) throws SirhaException {
+        Student student = new Student("est" + codigo, codigo + "@universidad.edu", InMemoryStudents.HASH, codigo);
+        student.setAcademicProgress(new Semaforo(plan));
+        student.setCurrentPeriod(period);
+        students.add(student);
+    }
+
+    private CohortEnrollmentServiceImpl service(int workers, int chunkSize) {
+        CatalogCache catalog = new CatalogCache(null, null, null, null, null, new SimpleMeterRegistry(), 10, Duration.ofMinutes(5)) {
+            @Override
+            public Optional<Subject> findSubjectByName(String name) {
+                return Optional.ofNullable(subjects.get(name));
+            }
+        };
+        service = new CohortEnrollmentServiceImpl(students.repository(), seats, catalog,
+                new GroupCompatibilityIndex(null, null, new SimpleMeterRegistry(), 8, Duration.ofMinutes(10)),
+                new SimpleMeterRegistry(), workers, chunkSize, 100, 5);
+        return service;
+    }
+
+    private EnrollmentJobDTO await(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        EnrollmentJobDTO job = service.getJob(jobId);
+        while (job.getStatus() == EnrollmentJobDTO.Status.QUEUED || job.getStatus() == EnrollmentJobDTO.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "el trabajo no terminó a tiempo");
+            Thread.sleep(20);
+            job = service.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void inscribeLaCohorteYGuardaLosErroresPorFila() throws Exception {
+        // Lotes de 3: las tres filas de Cálculo llegan juntas y la tercera se queda sin cupo al reservar
+        EnrollmentJobDTO submitted = service(2, 3).submit(csv(
+                "codigo,materia,grupo",
+                "20250001,Calculo," + calculo.getCode(),
+                "20250002,Calculo," + calculo.getCode(),
+                "20250003,Calculo," + calculo.getCode(),
+                "20250004,Fisica," + fisica.getCode(),
+                "29999999,Fisica," + fisica.getCode(),
+                "20250004,Fisica",
+                ""));
+
+        EnrollmentJobDTO job = await(submitted.getId());
+
+        assertEquals(EnrollmentJobDTO.Status.COMPLETED, job.getStatus());
+        assertEquals(6, job.getRowsRead());
+        assertEquals(3, job.getEnrolled());
+        assertEquals(3, job.getFailed());
+        Map<Long, String> errors = service.getErrors(job.getId(), 0, 10).stream()
+                .collect(Collectors.toMap(EnrollmentJobErrorDTO::getLine, EnrollmentJobErrorDTO::getCode));
+        assertEquals(Map.of(4L, "GROUP_FULL", 6L, "STUDENT_NOT_FOUND", 7L, "INVALID_ARGUMENT"), errors);
+
+        assertTrue(calculo.contieneCodigo("20250001"));
+        assertTrue(calculo.contieneCodigo("20250002"));
+        assertFalse(calculo.contieneCodigo("20250003"));
+        assertTrue(fisica.contieneCodigo("20250004"));
+        assertEquals(3, students.savedProgress().size());
+        assertTrue(students.byCodigo("20250004").isSubjectCursando("Fisica"));
+        // Cada grupo lo atiende un solo trabajador
+        threadsByGroup.values().forEach(threads -> assertEquals(1, threads.size()));
+    }
+
+    @Test
+    void fallaAlGuardarLosEstudiantesLiberaLosCupos() throws Exception {
+        students.failProgressWrites(true);
+        EnrollmentJobDTO submitted = service(1, 10).submit(csv(
+                "20250001,Calculo," + calculo.getCode(),
+                "20250002,Fisica," + fisica.getCode()));
+
+        EnrollmentJobDTO job = await(submitted.getId());
+
+        assertEquals(EnrollmentJobDTO.Status.COMPLETED, job.getStatus());
+        assertEquals(0, job.getEnrolled());
+        assertEquals(2, job.getFailed());
+        service.getErrors(job.getId(), 0, 10).forEach(error -> assertEquals("INTERNAL_ERROR", error.getCode()));
+        assertEquals(0, calculo.getStudentCount());
+        assertEquals(0, fisica.getStudentCount());
+    }
+
+    @Test
+    void fallaParcialDelBulkSoloLiberaLasFilasRechazadas() throws Exception {
+        students.rejectProgressOf("20250002");
+        EnrollmentJobDTO submitted = service(1, 10).submit(csv(
+                "20250001,Fisica," + fisica.getCode(),
+                "20250002,Fisica," + fisica.getCode(),
+                "20250003,Fisica," + fisica.getCode()));
+
+        EnrollmentJobDTO job = await(submitted.getId());
+
+        // El bulk es desordenado: las escrituras que no fallaron ya quedaron aplicadas
+        assertEquals(2, job.getEnrolled());
+        assertEquals(1, job.getFailed());
+        EnrollmentJobErrorDTO error = service.getErrors(job.getId(), 0, 10).get(0);
+        assertEquals("20250002", error.getCodigo());
+        assertEquals("INTERNAL_ERROR", error.getCode());
+        assertEquals(2, fisica.getStudentCount());
+        assertFalse(fisica.contieneCodigo("20250002"));
+        assertEquals(Set.of("20250001", "20250003"),
+                students.savedProgress().stream().map(update -> update.student().getCodigo()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void camposEntreComillasPuedenTenerComas() throws Exception {
+        Subject lineal = subject("alin", "Algebra, \"lineal\"");
+        plan.addSubject(lineal);
+        student("20250005");
+        Group algebra = group(lineal, 30, DiasSemana.MIERCOLES);
+
+        EnrollmentJobDTO job = await(service(1, 10).submit(csv(
+                "codigo,materia,grupo",
+                "20250005, \"Algebra, \"\"lineal\"\"\" ,\"" + algebra.getCode() + "\"",
+                "20250002,\"Algebra, lineal," + algebra.getCode())).getId());
+
+        assertEquals(2, job.getRowsRead());
+        assertEquals(1, job.getEnrolled());
+        assertTrue(algebra.contieneCodigo("20250005"));
+        EnrollmentJobErrorDTO error = service.getErrors(job.getId(), 0, 10).get(0);
+        assertEquals(3, error.getLine());
+        assertEquals("INVALID_ARGUMENT", error.getCode());
+    }
+
+    @Test
+    void materiaConNombreQueNoPuedeSerCampoSeRechazaSinReservar() throws Exception {
+        Subject versionada = subject("alg", "Algebra 2.0");
+        plan.addSubject(versionada);
+        student("20250005");
+        Group algebra = group(versionada, 30, DiasSemana.MIERCOLES);
+
+        EnrollmentJobDTO job = await(service(1, 10).submit(csv(
+                "20250005,Algebra 2.0," + algebra.getCode(),
+                "20250005,Fisica," + fisica.getCode())).getId());
+
+        assertEquals(1, job.getEnrolled());
+        assertEquals(List.of("INVALID_ARGUMENT"), service.getErrors(job.getId(), 0, 10).stream().map(EnrollmentJobErrorDTO::getCode).toList());
+        assertEquals(0, algebra.getStudentCount());
+        assertEquals(List.of("Fisica"), students.savedProgress().stream().map(SubjectProgress::subjectName).toList());
+        assertThrows(IllegalArgumentException.class, () -> new SubjectProgress(students.byCodigo("20250005"), "$where"));
+    }
+
+    @Test
+    void erroresPaginadosYTrabajoInexistente() throws Exception {
+        EnrollmentJobDTO job = await(service(1, 10).submit(csv(
+                "29999991,Calculo," + calculo.getCode(),
+                "29999992,Calculo," + calculo.getCode(),
+                "29999993,Calculo," + calculo.getCode())).getId());
+
+        assertEquals(List.of(2L, 3L), service.getErrors(job.getId(), 1, 5).stream().map(EnrollmentJobErrorDTO::getLine).toList());
+        assertEquals(List.of(), service.getErrors(job.getId(), 10, 5));
+
+        SirhaException e = assertThrows(SirhaException.class, () -> service.getJob("no-existe"));
+        assertEquals(ErrorCodeSirha.ENROLLMENT_JOB_NOT_FOUND, e.getErrorCode());
+    }
+}
@@ -0,0 +1,203 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.CursorPageDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.DecanateMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.impl.DecanateServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+import edu.dosw.sirha.sirha_backend.util.CursorCodec;
+import edu.dosw.sirha.sirha_backend.util.PageLimits;
+import edu.dosw.sirha.sirha_backend.util.SyntheticDatasetGenerator;
+
+class CursorPaginationTest {
+
+    private final InMemoryStudents students = new InMemoryStudents();
+    private final NavigableMap<String, Decanate> decanates = new TreeMap<>();
+    private final AtomicInteger decanateReads = new AtomicInteger();
+
+    private StudentServiceImpl studentService;
+    private DecanateServiceImpl decanateService;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(5, 3, 30, 3, 3, 12, "Sirha2025*");
+        for (Student student : generator.nextStudents(80)) {
+            students.add(student);
+        }
+        for (Decanate decanate : generator.getDecanates()) {
+            decanates.put(decanate.getName(), decanate);
+        }
+
+        // Repositorio en memoria que responde las consultas por rango como lo haría Mongo
+        DecanateMongoRepository decanateRepository = (DecanateMongoRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {DecanateMongoRepository.class},
+            (proxy, method, args) -> {
+                decanateReads.incrementAndGet();
+                return switch (method.getName()) {
+                    case "findByName" -> Optional.ofNullable(decanates.get((String) args[0]));
+                    case "findFirstByNameGreaterThanOrderByNameAsc" ->
+                        Optional.ofNullable(decanates.higherEntry((String) args[0])).map(Map.Entry::getValue);
+                    case "findAllByOrderByNameAsc" -> first(decanates, (Limit) args[0]);
+                    case "findByNameGreaterThanOrderByNameAsc" -> first(decanates.tailMap((String) args[0], false), (Limit) args[1]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                };
+            });
+        studentService = StudentServices.reading(students.repository());
+        decanateService = new DecanateServiceImpl(decanateRepository, null, null, null, null, null);
+    }
+
+    private static <T> List<T> first(NavigableMap<String, T> values, Limit limit) {
+        return values.values().stream().limit(limit.max()).toList();
+    }
+
+    @Test
+    void recorrePaginasSinRepetirNiOmitir() throws SirhaException {
+        List<String> seen = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<Student> page = studentService.findAll(cursor, 20);
+            page.getItems().forEach(student -> seen.add(student.getId()));
+            sizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.isHasNext());
+        } while (cursor != null);
+
+        assertEquals(List.of(20, 20, 20, 20), sizes);
+        assertEquals(students.ids(), seen);
+    }
+
+    @Test
+    void elCursorNoSeCorreSiCambianLasPaginasAnteriores() throws SirhaException {
+        CursorPageDTO<Student> first = studentService.findAll(null, 5);
+        String expectedNext = students.ids().get(5);
+
+        // Con offset, borrar un elemento ya entregado haría saltar uno de la página siguiente
+        students.remove(first.getItems().get(0));
+
+        CursorPageDTO<Student> second = studentService.findAll(first.getNextCursor(), 5);
+        assertEquals(expectedNext, second.getItems().get(0).getId());
+    }
+
+    @Test
+    void rechazaCursoresInvalidosODeOtroListado() {
+        SirhaException garbage = assertThrows(SirhaException.class, () -> studentService.findAll("%%no-es-base64%%", 5));
+        assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, garbage.getErrorCode());
+
+        String otherListing = CursorCodec.encode("requests", students.ids().get(0));
+        SirhaException foreign = assertThrows(SirhaException.class, () -> studentService.findAll(otherListing, 5));
+        assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, foreign.getErrorCode());
+
+        String badSequence = CursorCodec.encode("decanate-requests", decanates.firstKey(), "x");
+        assertThrows(SirhaException.class, () -> decanateService.getAllRequests(badSequence, 5));
+    }
+
+    @Test
+    void solicitudesPendientesPorDecanaturaYOrdenDeLlegada() throws SirhaException {
+        List<BaseRequest> expected = new ArrayList<>();
+        for (Decanate decanate : decanates.values()) {
+            expected.addAll(decanate.getPendingRequestsByArrival());
+        }
+        assertTrue(expected.size() > 10);
+
+        List<BaseRequest> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<BaseRequest> page = decanateService.getAllRequests(cursor, 4);
+            assertTrue(page.getItems().size() <= 4);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(expected, seen);
+
+        // Una página pequeña solo lee las decanaturas que necesita
+        decanateReads.set(0);
+        decanateService.getAllRequests(null, 1);
+        assertEquals(1, decanateReads.get());
+    }
+
+    @Test
+    void recorreIdsDeTextoYObjectIdSinOmitirNinguno() throws SirhaException {
+        for (String id : List.of("legacy-1", "legacy-2", "legacy-3")) {
+            Student legacy = new Student(id, id + "@test.com", InMemoryStudents.HASH, id);
+            legacy.setId(id);
+            students.add(legacy);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<Student> page = studentService.findAll(cursor, 2);
+            page.getItems().forEach(student -> seen.add(student.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(83, seen.size());
+        assertEquals(students.ids(), seen);
+    }
+
+    @Test
+    void decanaturasPorPaginas() throws SirhaException {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<Decanate> page = decanateService.getAllDecanates(cursor, 2);
+            page.getItems().forEach(decanate -> seen.add(decanate.getName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(new ArrayList<>(decanates.keySet()), seen);
+    }
+
+    @Test
+    void colaDeUnaDecanaturaPorPaginasEnOrdenDePrioridad() throws SirhaException {
+        Decanate decanate = decanates.values().stream()
+                .filter(d -> d.getPendingRequests().size() > 6).findFirst().orElseThrow();
+        List<BaseRequest> expected = decanate.getPendingRequests();
+
+        CursorPageDTO<BaseRequest> first = decanateService.getAllRequestsForDecanate(decanate.getName(), null, 3);
+        assertEquals(expected.subList(0, 3), first.getItems());
+
+        // Resolver una solicitud ya entregada no corre la página siguiente
+        decanate.rejectRequest(first.getItems().get(0));
+        List<BaseRequest> seen = new ArrayList<>(first.getItems());
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            CursorPageDTO<BaseRequest> page = decanateService.getAllRequestsForDecanate(decanate.getName(), cursor, 3);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        }
+        assertEquals(expected, seen);
+        assertEquals(expected.size() - 1, decanateService.countPendingRequests(decanate.getName()));
+    }
+
+    @Test
+    void limitesDePagina() throws SirhaException {
+        PageLimits limits = new PageLimits(50, 200);
+        assertEquals(50, limits.resolve(null));
+        assertEquals(10, limits.resolve(10));
+        assertEquals(200, limits.resolve(5000));
+        SirhaException error = assertThrows(SirhaException.class, () -> limits.resolve(0));
+        assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, error.getErrorCode());
+        assertThrows(IllegalArgumentException.class, () -> new PageLimits(300, 200));
+    }
+}
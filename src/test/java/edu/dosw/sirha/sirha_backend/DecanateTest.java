@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
 import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
 import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.RequestPriorityQueue;
 import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
 import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
@@ -15,10 +16,16 @@ import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
 import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.dto.ResponseRequest;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -145,8 +152,8 @@ class DecanateTest {
         assertEquals(0, grupoMatematicasA.getInscritos());
         assertEquals(30, grupoMatematicasA.getCapacity());
         assertNotNull(grupoMatematicasA.getGroupState());
-        assertNotNull(grupoMatematicasA.getEstudiantes());
-        assertTrue(grupoMatematicasA.getEstudiantes().isEmpty());
+        assertNotNull(grupoMatematicasA.getCodigosInscritos());
+        assertTrue(grupoMatematicasA.getCodigosInscritos().isEmpty());
         assertNotNull(grupoMatematicasA.getSchedules());
         assertEquals(currentPeriod, grupoMatematicasA.getCurrentPeriod());
     }
@@ -380,4 +387,114 @@ class DecanateTest {
         assertEquals(1, decanateSistemas.getPendingRequests().size());
         assertEquals(1, decanateIndustrial.getPendingRequests().size());
     }
+    @Test
+    void testUrgencyAdvancesRequestUntilOlderOneAges() throws SirhaException {
+        Instant base = Instant.parse("2024-02-01T08:00:00Z");
+        CambioGrupo requestSistemas3 = new CambioGrupo(studentSistemas, programacion, grupoProgramacion2, currentPeriod);
+
+        decanateSistemas.receiveRequest(requestSistemas1, base);
+        decanateSistemas.receiveRequest(requestSistemas2, base.plus(Duration.ofHours(12)));
+        decanateSistemas.receiveRequest(requestSistemas3, base.plus(Duration.ofDays(3)));
+
+        // Urgencia 1 adelanta un día: supera a la de hace 12 horas, pero no a la de hace más de un día
+        decanateSistemas.reprioritizeRequest(requestSistemas2, 1);
+        assertEquals(List.of(requestSistemas2, requestSistemas1, requestSistemas3), decanateSistemas.getPendingRequests());
+
+        decanateSistemas.reprioritizeRequest(requestSistemas3, 2);
+        assertEquals(List.of(requestSistemas2, requestSistemas1, requestSistemas3), decanateSistemas.getPendingRequests());
+
+        decanateSistemas.reprioritizeRequest(requestSistemas3, 4);
+        assertEquals(1, requestSistemas3.getPriority());
+        assertEquals(2, requestSistemas2.getPriority());
+        assertEquals(3, requestSistemas1.getPriority());
+        assertSame(requestSistemas3, decanateSistemas.peekNextRequest());
+    }
+
+    @Test
+    void testReprioritizeMatchesStoredCopyById() throws SirhaException {
+        requestSistemas1.setId("req-1");
+        requestSistemas2.setId("req-2");
+        decanateSistemas.receiveRequest(requestSistemas1);
+        decanateSistemas.receiveRequest(requestSistemas2);
+
+        // Copia cargada por separado, como la que obtiene el servicio del repositorio de solicitudes
+        CambioGrupo copia = new CambioGrupo(studentSistemas, fisica, grupoFisicaD, currentPeriod);
+        copia.setId("req-2");
+        copia.reviewRequest(new ResponseRequest("Solicitud recibida", RequestStateEnum.EN_REVISION));
+        decanateSistemas.reprioritizeRequest(copia, 3);
+
+        assertEquals(3, copia.getUrgency());
+        assertEquals(3, requestSistemas2.getUrgency());
+        assertEquals(1, requestSistemas2.getPriority());
+
+        decanateSistemas.approveRequest(copia);
+        assertEquals(List.of(requestSistemas1), decanateSistemas.getPendingRequests());
+        assertEquals(0, requestSistemas2.getPriority());
+    }
+
+    @Test
+    void testReprioritizeInvalidRequests() throws SirhaException {
+        decanateSistemas.receiveRequest(requestSistemas1);
+
+        assertThrows(SirhaException.class, () -> decanateSistemas.reprioritizeRequest(null, 1));
+        assertThrows(SirhaException.class, () -> decanateSistemas.reprioritizeRequest(requestSistemas1, -1));
+        assertThrows(SirhaException.class, () -> decanateSistemas.reprioritizeRequest(requestSistemas2, 1));
+    }
+
+    @Test
+    void testPriorityQueueMatchesSortedOrder() {
+        Random random = new Random(42);
+        Duration step = Duration.ofHours(6);
+        List<BaseRequest> stored = new ArrayList<>();
+        RequestPriorityQueue queue = new RequestPriorityQueue(stored, step);
+        List<BaseRequest> expected = new ArrayList<>();
+        Comparator<BaseRequest> order = Comparator
+            .comparingLong((BaseRequest r) -> r.getReceivedAt().toEpochMilli() - r.getUrgency() * step.toMillis())
+            .thenComparingLong(BaseRequest::getQueueSequence);
+
+        for (int i = 0; i < 2000; i++) {
+            int operation = expected.isEmpty() ? 0 : random.nextInt(3);
+            if (operation == 0) {
+                BaseRequest request = new CambioGrupo(studentSistemas, matematicas, grupoMatematicasA, currentPeriod);
+                request.markReceived(Instant.ofEpochSecond(random.nextInt(10_000_000)), i);
+                request.setUrgency(random.nextInt(5));
+                queue.add(request);
+                expected.add(request);
+            } else if (operation == 1) {
+                BaseRequest request = expected.remove(random.nextInt(expected.size()));
+                assertSame(request, queue.remove(request));
+            } else {
+                expected.get(random.nextInt(expected.size())).setUrgency(random.nextInt(5));
+            }
+            expected.sort(order);
+            assertEquals(expected.size(), queue.size());
+            assertSame(expected.isEmpty() ? null : expected.get(0), queue.peek());
+        }
+        assertEquals(expected, queue.ordered());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, expected.get(i).getPriority());
+        }
+    }
+
+    @Test
+    void testPriorityQueueReusesOrderUntilNextChange() {
+        RequestPriorityQueue queue = new RequestPriorityQueue(new ArrayList<>(), Duration.ofDays(1));
+        BaseRequest first = new CambioGrupo(studentSistemas, matematicas, grupoMatematicasA, currentPeriod);
+        BaseRequest second = new CambioGrupo(studentSistemas, matematicas, grupoMatematicasA, currentPeriod);
+        first.markReceived(Instant.ofEpochSecond(100), 1);
+        second.markReceived(Instant.ofEpochSecond(200), 2);
+        queue.add(first);
+        queue.add(second);
+
+        List<BaseRequest> ordered = queue.ordered();
+        assertEquals(List.of(first, second), ordered);
+        assertSame(ordered, queue.ordered());
+        assertEquals(2, second.getPriority());
+        assertThrows(UnsupportedOperationException.class, () -> ordered.remove(0));
+
+        second.setUrgency(1);
+        assertNotSame(ordered, queue.ordered());
+        assertEquals(List.of(second, first), queue.ordered());
+        assertEquals(1, second.getPriority());
+    }
 }
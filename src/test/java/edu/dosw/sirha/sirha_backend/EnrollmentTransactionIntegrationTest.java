@@ -0,0 +1,156 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.StudentService;
+
+/**
+ * Inscripción y desinscripción en transacciones contra un replica set real, sobre un
+ * conjunto de datos sintético pequeño. El costo frente al camino sin transacciones lo mide
+ * {@code TransactionOverheadBenchmark} (ver BENCHMARKS.md).
+ *
+ * Usa el perfil {@code transactions} sobre el replica set de {@link MongoTestContainer}, así
+ * que corre en CI y en cualquier máquina con Docker; la base {@code sirha_transactions} se
+ * recrea en cada arranque.
+ */
+@SpringBootTest
+@ActiveProfiles("transactions")
+@Testcontainers(disabledWithoutDocker = true)
+class EnrollmentTransactionIntegrationTest {
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> MongoTestContainer.uri("sirha_transactions"));
+    }
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TransactionRunner transactions;
+
+    @Autowired
+    private StudentMongoRepository studentRepository;
+
+    @Autowired
+    private GroupMongoRepository groupRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private record Enrollment(String username, String codigo, String subject, String groupCode) {}
+
+    @Test
+    void inscripcionYDesinscripcionDejanEstudianteYGrupoDeAcuerdo() throws SirhaException {
+        assertTrue(transactions.isEnabled());
+        Enrollment enrollment = findEnrollable(studentService, null);
+
+        assertTrue(isEnrolled(enrollment));
+        assertTrue(inRoster(enrollment));
+
+        studentService.unenrollSubject(enrollment.username(), enrollment.subject(), enrollment.groupCode());
+
+        assertFalse(isEnrolled(enrollment));
+        assertFalse(inRoster(enrollment));
+    }
+
+    @Test
+    void inscripcionesSimultaneasDelMismoEstudianteNoSePierden() throws Exception {
+        Enrollment first = findEnrollable(studentService, null);
+        studentService.unenrollSubject(first.username(), first.subject(), first.groupCode());
+        Enrollment second = findEnrollable(studentService, first);
+        studentService.unenrollSubject(second.username(), second.subject(), second.groupCode());
+
+        // Sin transacciones, el último en guardar el documento completo borraría la otra materia
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Enrollment enrollment : List.of(first, second)) {
+                Callable<Void> enroll = () -> {
+                    studentService.enrollSubject(enrollment.username(), enrollment.subject(), enrollment.groupCode());
+                    return null;
+                };
+                results.add(executor.submit(enroll));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(isEnrolled(first));
+        assertTrue(isEnrolled(second));
+        assertTrue(inRoster(first));
+        assertTrue(inRoster(second));
+    }
+
+    /**
+     * Inscribe al primer estudiante que las reglas dejen inscribir en algún grupo. Con
+     * {@code sameStudentAs} busca otra materia del mismo estudiante, sin cruce de horario
+     * con la primera.
+     */
+    private Enrollment findEnrollable(StudentService service, Enrollment sameStudentAs) throws SirhaException {
+        List<Student> students = sameStudentAs == null
+                ? studentRepository.findAllByOrderByIdAsc(Limit.of(50))
+                : List.of(studentRepository.findByUsername(sameStudentAs.username()).orElseThrow());
+        List<Subject> subjects = mongoTemplate.findAll(Subject.class);
+        for (Student student : students) {
+            for (Subject subject : subjects) {
+                if (sameStudentAs != null && subject.getName().equals(sameStudentAs.subject())) {
+                    continue;
+                }
+                for (Group group : subject.getGroups()) {
+                    if (sameStudentAs != null && conflicts(sameStudentAs, group)) {
+                        continue;
+                    }
+                    try {
+                        service.enrollSubject(student.getUsername(), subject.getName(), group.getCode());
+                        return new Enrollment(student.getUsername(), student.getCodigo(), subject.getName(), group.getCode());
+                    } catch (SirhaException e) {
+                        // Prerrequisitos, cruces o cupo: se prueba el siguiente grupo
+                    }
+                }
+            }
+        }
+        assumeTrue(false, "El conjunto de datos no tiene una inscripción válida");
+        return null;
+    }
+
+    private boolean conflicts(Enrollment other, Group group) {
+        return groupRepository.findByCode(other.groupCode()).map(g -> g.conflictoConHorario(group)).orElse(false);
+    }
+
+    private boolean isEnrolled(Enrollment enrollment) {
+        return studentRepository.findByUsername(enrollment.username()).orElseThrow().isSubjectCursando(enrollment.subject());
+    }
+
+    private boolean inRoster(Enrollment enrollment) {
+        return groupRepository.findByCode(enrollment.groupCode()).orElseThrow().contieneCodigo(enrollment.codigo());
+    }
+}
@@ -0,0 +1,401 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mongodb.MongoException;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentRequest;
+import edu.dosw.sirha.sirha_backend.dto.BatchEnrollmentResultDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.service.impl.AcademicPeriodServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.DecanateServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.GroupServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.RequestServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.StudyPlanServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.SubjectServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Inscripción dentro de transacciones, con un gestor de transacciones en memoria y cupos
+ * que se deshacen cuando la transacción aborta, como lo haría Mongo. También los
+ * reintentos cuando el estudiante se guarda con una versión desactualizada.
+ */
+class EnrollmentTransactionTest {
+
+    private final AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    private final Map<String, Subject> subjects = new HashMap<>();
+    private final InMemoryGroupSeats seats = new InMemoryGroupSeats();
+    private final InMemoryStudents students = new InMemoryStudents();
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Por cada grupo sacado de la caché, si había una transacción abierta
+    private final List<Boolean> evictedInTransaction = new ArrayList<>();
+
+    private StudyPlan plan;
+    private Group calculo;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        Subject subject = new Subject("cal", "Calculo", 4);
+        subjects.put(subject.getName(), subject);
+        plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.addSubject(subject);
+        calculo = new Group(subject, 30, period);
+        calculo.addSchedule(new Schedule(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        seats.register(calculo);
+        // Cada lectura arma un estudiante nuevo, como si viniera de la base
+        students.loadWith(username -> {
+            Student student = new Student("ana.gomez", "ana@universidad.edu", InMemoryStudents.HASH, "2024010");
+            student.setAcademicProgress(new Semaforo(plan));
+            student.setCurrentPeriod(period);
+            // Inscrita si el grupo ya tiene su cupo
+            if (calculo.contieneCodigo(student.getCodigo())) {
+                student.confirmEnrollment(subject, calculo);
+            }
+            return student;
+        });
+    }
+
+    private StudentServiceImpl service(TransactionRunner transactions) {
+        CatalogCache catalog = new CatalogCache(null, null, null, null, null, new SimpleMeterRegistry(), 10, Duration.ofMinutes(5)) {
+            @Override
+            public Optional<Subject> findSubjectByName(String name) {
+                return Optional.ofNullable(subjects.get(name));
+            }
+
+            @Override
+            public Optional<Group> findGroupByCode(String code) {
+                return Optional.ofNullable(seats.get(code));
+            }
+
+            @Override
+            public void evictGroup(String code) {
+                evictedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+                super.evictGroup(code);
+            }
+        };
+        return StudentServices.enrolling(students.repository(), catalog, seats, transactions);
+    }
+
+    private TransactionRunner transactional() {
+        return new TransactionRunner(Optional.of(transactionManager), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+    }
+
+    private static RuntimeException writeConflict() {
+        MongoException conflict = new MongoException(112, "WriteConflict");
+        conflict.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        return new UncategorizedMongoDbException("WriteConflict", conflict);
+    }
+
+    private double transactions(String outcome) {
+        return registry.counter(TransactionRunner.TRANSACTIONS, "operation", SirhaMetrics.ENROLL, "outcome", outcome).count();
+    }
+
+    private double versionConflicts(String outcome) {
+        return registry.counter(TransactionRunner.VERSION_CONFLICTS, "operation", SirhaMetrics.ENROLL, "outcome", outcome).count();
+    }
+
+    private static RuntimeException staleVersion() {
+        return new OptimisticLockingFailureException("Cannot save entity with version 3 to collection students");
+    }
+
+    @Test
+    void conflictoTransitorioRepiteLaInscripcionDesdeUnaLecturaNueva() throws SirhaException {
+        students.failNextSave(EnrollmentTransactionTest::writeConflict);
+
+        service(transactional()).enrollSubject("ana.gomez", "Calculo", calculo.getCode());
+
+        assertEquals(2, transactionManager.begins.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(1, transactionManager.commits.get());
+        assertEquals(2, students.reads());
+        // El cupo del intento abortado se deshizo: el estudiante ocupa uno solo
+        assertEquals(1, calculo.getStudentCount());
+        assertEquals(0, seats.releases.get());
+        assertEquals(1, students.saved().size());
+        assertTrue(students.saved().get(0).isSubjectCursando("Calculo"));
+        assertEquals(1, transactions("retry"));
+        assertEquals(1, transactions("commit"));
+    }
+
+    @Test
+    void conflictosSeguidosAgotanLosIntentos() {
+        for (int i = 0; i < 3; i++) {
+            students.failNextSave(EnrollmentTransactionTest::writeConflict);
+        }
+
+        SirhaException error = assertThrows(SirhaException.class,
+                () -> service(transactional()).enrollSubject("ana.gomez", "Calculo", calculo.getCode()));
+
+        assertEquals(ErrorCodeSirha.INTERNAL_ERROR, error.getErrorCode());
+        assertEquals(3, transactionManager.begins.get());
+        assertEquals(3, transactionManager.rollbacks.get());
+        assertEquals(0, transactionManager.commits.get());
+        assertEquals(0, calculo.getStudentCount());
+        assertEquals(2, transactions("retry"));
+        assertEquals(1, transactions("rollback"));
+    }
+
+    @Test
+    void errorNoTransitorioDeshaceSinReintentarNiCompensar() {
+        students.failNextSave(() -> new IllegalStateException("disco lleno"));
+
+        SirhaException error = assertThrows(SirhaException.class,
+                () -> service(transactional()).enrollSubject("ana.gomez", "Calculo", calculo.getCode()));
+
+        assertEquals(ErrorCodeSirha.INTERNAL_ERROR, error.getErrorCode());
+        assertEquals(1, transactionManager.begins.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(0, calculo.getStudentCount());
+        assertEquals(0, seats.releases.get());
+    }
+
+    @Test
+    void errorDeValidacionSePropagaYDeshaceLaTransaccion() {
+        SirhaException error = assertThrows(SirhaException.class,
+                () -> service(transactional()).enrollSubject("ana.gomez", "Fisica", calculo.getCode()));
+
+        assertEquals(ErrorCodeSirha.SUBJECT_NOT_FOUND, error.getErrorCode());
+        assertEquals(1, transactionManager.begins.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(0, transactionManager.commits.get());
+    }
+
+    @Test
+    void sinTransaccionesCompensaLiberandoElCupo() {
+        students.failNextSave(() -> new IllegalStateException("disco lleno"));
+        TransactionRunner direct = new TransactionRunner(Optional.empty(), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+
+        assertThrows(SirhaException.class,
+                () -> service(direct).enrollSubject("ana.gomez", "Calculo", calculo.getCode()));
+
+        assertFalse(direct.isEnabled());
+        assertEquals(0, transactionManager.begins.get());
+        assertEquals(1, seats.releases.get());
+        assertEquals(0, calculo.getStudentCount());
+    }
+
+    @Test
+    void conflictoDeVersionEnTransaccionRepiteLaInscripcion() throws SirhaException {
+        students.failNextSave(EnrollmentTransactionTest::staleVersion);
+
+        service(transactional()).enrollSubject("ana.gomez", "Calculo", calculo.getCode());
+
+        assertEquals(2, transactionManager.begins.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(1, transactionManager.commits.get());
+        assertEquals(2, students.reads());
+        assertEquals(1, calculo.getStudentCount());
+        assertEquals(0, seats.releases.get());
+        assertTrue(students.saved().get(0).isSubjectCursando("Calculo"));
+        assertEquals(1, versionConflicts("retry"));
+        assertEquals(0, transactions("retry"));
+    }
+
+    @Test
+    void conflictoDeVersionSinTransaccionesLiberaElCupoYRepite() throws SirhaException {
+        students.failNextSave(EnrollmentTransactionTest::staleVersion);
+        TransactionRunner direct = new TransactionRunner(Optional.empty(), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+
+        service(direct).enrollSubject("ana.gomez", "Calculo", calculo.getCode());
+
+        assertEquals(0, transactionManager.begins.get());
+        assertEquals(2, students.reads());
+        // El primer intento devolvió su cupo; el segundo lo volvió a tomar
+        assertEquals(1, seats.releases.get());
+        assertEquals(1, calculo.getStudentCount());
+        assertEquals(1, students.saved().size());
+        assertEquals(1, versionConflicts("retry"));
+    }
+
+    @Test
+    void conflictosDeVersionSeguidosRespondenModificacionConcurrente() {
+        for (int i = 0; i < 3; i++) {
+            students.failNextSave(EnrollmentTransactionTest::staleVersion);
+        }
+        TransactionRunner direct = new TransactionRunner(Optional.empty(), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+
+        SirhaException error = assertThrows(SirhaException.class,
+                () -> service(direct).enrollSubject("ana.gomez", "Calculo", calculo.getCode()));
+
+        assertEquals(ErrorCodeSirha.CONCURRENT_MODIFICATION, error.getErrorCode());
+        assertEquals(3, students.reads());
+        assertEquals(3, seats.releases.get());
+        assertEquals(0, calculo.getStudentCount());
+        assertEquals(2, versionConflicts("retry"));
+        assertEquals(1, versionConflicts("exhausted"));
+    }
+
+    @Test
+    void sinTransaccionesLaDesinscripcionQueNoSeGuardaDevuelveElCupo() throws SirhaException {
+        TransactionRunner direct = new TransactionRunner(Optional.empty(), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+        service(direct).enrollSubject("ana.gomez", "Calculo", calculo.getCode());
+        students.failNextSave(() -> new IllegalStateException("disco lleno"));
+
+        assertThrows(SirhaException.class,
+                () -> service(direct).unenrollSubject("ana.gomez", "Calculo", calculo.getCode()));
+
+        assertEquals(1, seats.releases.get());
+        assertTrue(calculo.contieneCodigo("2024010"));
+        assertEquals(29, calculo.getCuposDisponibles());
+        assertTrue(students.saved().get(students.saved().size() - 1).isSubjectCursando("Calculo"));
+    }
+
+    @Test
+    void conflictoDeVersionAlDesinscribirDevuelveElCupoYRepite() throws SirhaException {
+        TransactionRunner direct = new TransactionRunner(Optional.empty(), registry, 3, Duration.ZERO, 3, Duration.ZERO);
+        service(direct).enrollSubject("ana.gomez", "Calculo", calculo.getCode());
+        students.failNextSave(EnrollmentTransactionTest::staleVersion);
+
+        service(direct).unenrollSubject("ana.gomez", "Calculo", calculo.getCode());
+
+        // El primer intento devolvió el cupo; el segundo lo liberó de nuevo
+        assertEquals(2, seats.releases.get());
+        assertFalse(calculo.contieneCodigo("2024010"));
+        assertEquals(30, calculo.getCuposDisponibles());
+        assertFalse(students.saved().get(students.saved().size() - 1).isSubjectCursando("Calculo"));
+    }
+
+    /** Grupo que pasa la validación pero cuyo último cupo toma otra réplica antes de reservar. */
+    private Group fullGroup(String subjectName) throws SirhaException {
+        Subject subject = new Subject(subjectName.substring(0, 3).toLowerCase(), subjectName, 4);
+        subjects.put(subjectName, subject);
+        plan.addSubject(subject);
+        Group group = seats.register(new Group(subject, 1, period));
+        group.addSchedule(new Schedule(DiasSemana.MARTES, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        seats.taken.add(group.getCode());
+        return group;
+    }
+
+    private static BatchEnrollmentRequest.Item item(String subject, Group group) {
+        return new BatchEnrollmentRequest.Item(subject, group.getCode());
+    }
+
+    @Test
+    void loteEnTransaccionActualizaLaCacheDespuesDelCommit() throws SirhaException {
+        students.failNextSave(EnrollmentTransactionTest::writeConflict);
+
+        BatchEnrollmentResultDTO result = service(transactional()).enrollSubjects("ana.gomez",
+                new BatchEnrollmentRequest(BatchEnrollmentMode.BEST_EFFORT, List.of(item("Calculo", calculo))));
+
+        assertEquals(1, result.getEnrolled());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(1, transactionManager.commits.get());
+        assertEquals(1, calculo.getStudentCount());
+        // Una sola vez y fuera de la transacción, no en el intento que abortó
+        assertEquals(List.of(false), evictedInTransaction);
+    }
+
+    @Test
+    void loteTodoONadaEnTransaccionSeRevierteSinLiberarAMano() throws SirhaException {
+        Group fisica = fullGroup("Fisica");
+
+        BatchEnrollmentResultDTO result = service(transactional()).enrollSubjects("ana.gomez",
+                new BatchEnrollmentRequest(BatchEnrollmentMode.ALL_OR_NOTHING,
+                        List.of(item("Calculo", calculo), item("Fisica", fisica))));
+
+        assertEquals(0, result.getEnrolled());
+        assertEquals(BatchEnrollmentResultDTO.Status.SKIPPED, result.getResults().get(0).getStatus());
+        assertEquals("GROUP_FULL", result.getResults().get(1).getCode());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(0, transactionManager.commits.get());
+        assertEquals(0, seats.releases.get());
+        assertEquals(0, calculo.getStudentCount());
+        assertTrue(students.saved().isEmpty());
+        assertTrue(evictedInTransaction.isEmpty());
+    }
+
+    @Test
+    void loteTodoONadaSinTransaccionesLiberaLosCupos() throws SirhaException {
+        Group fisica = fullGroup("Fisica");
+
+        BatchEnrollmentResultDTO result = service(StudentServices.withoutTransactions()).enrollSubjects("ana.gomez",
+                new BatchEnrollmentRequest(BatchEnrollmentMode.ALL_OR_NOTHING,
+                        List.of(item("Calculo", calculo), item("Fisica", fisica))));
+
+        assertEquals(0, result.getEnrolled());
+        assertEquals(1, seats.releases.get());
+        assertEquals(0, calculo.getStudentCount());
+        assertEquals(List.of(false), evictedInTransaction);
+    }
+
+    @Test
+    void lasConsultasDeLosServiciosNoAbrenTransaccion() {
+        // Con MongoTransactionManager hasta readOnly = true abre una sesión y una transacción
+        List<Class<?>> services = List.of(AcademicPeriodServiceImpl.class, DecanateServiceImpl.class, GroupServiceImpl.class,
+                RequestServiceImpl.class, StudentServiceImpl.class, StudyPlanServiceImpl.class, SubjectServiceImpl.class);
+        for (Class<?> service : services) {
+            assertFalse(service.isAnnotationPresent(Transactional.class), service.getSimpleName());
+            for (Method method : service.getDeclaredMethods()) {
+                if (Modifier.isPublic(method.getModifiers()) && method.getName().matches("(get|find|exists|is|count)[A-Z].*")) {
+                    assertFalse(method.isAnnotationPresent(Transactional.class), service.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+    }
+
+    /** Gestor de transacciones que solo cuenta inicios, confirmaciones y reversiones. */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        final AtomicInteger begins = new AtomicInteger();
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begins.incrementAndGet();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.Filters;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.ExportFormat;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
+import edu.dosw.sirha.sirha_backend.repository.export.MongoExportReader;
+import edu.dosw.sirha.sirha_backend.service.impl.ExportServiceImpl;
+
+class ExportServiceTest {
+
+    private static final ObjectId SISTEMAS_PLAN = new ObjectId();
+    private static final ObjectId CIVIL_PLAN = new ObjectId();
+
+    private final Map<String, List<Document>> collections = new HashMap<>();
+    private final List<Bson> filters = new ArrayList<>();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    /** Bytes que ya habían llegado a la salida cuando se leyó cada lote. */
+    private final List<Integer> sentBeforeBatch = new ArrayList<>();
+
+    private ExportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ObjectId ana = new ObjectId();
+        ObjectId luis = new ObjectId();
+        collections.put("students", List.of(
+                student(ana, "ana", "ana@sirha.edu.co", new Document("_id", SISTEMAS_PLAN)),
+                student(luis, "luis, el del 5", "luis@sirha.edu.co", new Document("_id", CIVIL_PLAN)),
+                // Formato anterior: plan embebido completo
+                student(new ObjectId(), "eva", "eva@sirha.edu.co",
+                        new Document("_id", SISTEMAS_PLAN).append("career", "INGENIERIA_DE_SISTEMAS").append("name", "Plan"))));
+        collections.put("requests", List.of(
+                request(ana, "EN_REVISION"), request(luis, "EN_REVISION"), request(ana, "PENDIENTE"),
+                request(ana, "EN_REVISION"), request(luis, "APROBADA")));
+        collections.put("groups", List.of(new Document("_id", new ObjectId()).append("code", "MAT101-1")
+                .append("currentPeriod", new Document("period", "2025-1"))
+                .append("capacidad", 30).append("cuposDisponibles", 28).append("inscritos", 2)
+                .append("estadoGrupo", new Document("_class", "edu.dosw.sirha.sirha_backend.domain.model.stategroup.StatusOpen"))
+                .append("professor", new Document("username", "prof.rojas"))));
+
+        MongoExportReader reader = new MongoExportReader(null, 2) {
+            @Override
+            public void forEachBatch(String collection, Bson filter, Bson projection, BatchHandler handler) throws IOException {
+                filters.add(filter);
+                List<Document> documents = collections.get(collection);
+                for (int from = 0; from < documents.size(); from += 2) {
+                    sentBeforeBatch.add(out.size());
+                    handler.handle(new ArrayList<>(documents.subList(from, Math.min(from + 2, documents.size()))));
+                }
+            }
+
+            @Override
+            public Map<Object, String> studyPlanCareers() {
+                return Map.of(SISTEMAS_PLAN, "INGENIERIA_DE_SISTEMAS", CIVIL_PLAN, "INGENIERIA_CIVIL");
+            }
+
+            @Override
+            public Map<Object, Object> studyPlansOf(Collection<Object> studentIds) {
+                Map<Object, Object> plans = new HashMap<>();
+                for (Document student : collections.get("students")) {
+                    if (studentIds.contains(student.get("_id"))) {
+                        plans.put(student.get("_id"), planOf(student));
+                    }
+                }
+                return plans;
+            }
+        };
+        service = new ExportServiceImpl(reader);
+    }
+
+    private static Document student(ObjectId id, String username, String email, Document plan) {
+        return new Document("_id", id).append("username", username).append("email", email).append("codigo", "EST-" + username.length())
+                .append("academicProgress", new Document("studyPlan", plan));
+    }
+
+    private static Document request(ObjectId student, String state) {
+        return new Document("_id", new ObjectId()).append("_class", "edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo")
+                .append("student", new Document("_id", student)).append("actualState", state)
+                .append("currentPeriod", new Document("period", "2025-1")).append("urgency", 1);
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void estudiantesEnNdjsonFiltradosPorLosPlanesDeLaCarrera() throws IOException {
+        service.exportStudents(Careers.INGENIERIA_DE_SISTEMAS, ExportFormat.NDJSON, out);
+
+        assertEquals(Filters.in(MongoExportReader.STUDENT_PLAN, List.of(SISTEMAS_PLAN)).toBsonDocument(),
+                filters.get(0).toBsonDocument());
+
+        String[] lines = output().split("\n");
+        assertEquals(3, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals("ana", first.get("username").asText());
+        assertEquals("INGENIERIA_DE_SISTEMAS", first.get("career").asText());
+        assertEquals(24, first.get("id").asText().length());
+        assertEquals("INGENIERIA_DE_SISTEMAS", mapper.readTree(lines[2]).get("career").asText());
+        assertFalse(output().contains("password"));
+
+        // El primer lote ya se había enviado cuando se leyó el segundo
+        assertEquals(0, sentBeforeBatch.get(0));
+        assertTrue(sentBeforeBatch.get(1) > 0);
+    }
+
+    @Test
+    void solicitudesEnCsvFiltradasPorEstadoYCarreraDelEstudiante() throws IOException {
+        service.exportRequests(RequestStateEnum.EN_REVISION, Careers.INGENIERIA_DE_SISTEMAS, "2025-1", ExportFormat.CSV, out);
+
+        Bson expected = Filters.and(Filters.eq("actualState", "EN_REVISION"), Filters.eq("currentPeriod.period", "2025-1"));
+        assertEquals(expected.toBsonDocument(), filters.get(0).toBsonDocument());
+
+        // El fake no aplica el filtro de Mongo: de las 5 solicitudes solo se descartan las de otra carrera
+        String[] lines = output().split("\r\n");
+        assertEquals("id,type,studentId,career,actualState,period,creadoEn,receivedAt,urgency", lines[0]);
+        assertEquals(4, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            assertTrue(lines[i].contains(",CambioGrupo,"), lines[i]);
+            assertTrue(lines[i].contains(",INGENIERIA_DE_SISTEMAS,"), lines[i]);
+        }
+    }
+
+    @Test
+    void csvEscapaValoresYGruposExportanOcupacion() throws IOException {
+        service.exportStudents(null, ExportFormat.CSV, out);
+        assertEquals(new Document(), filters.get(0));
+        assertTrue(output().contains(",\"luis, el del 5\",luis@sirha.edu.co,"), output());
+
+        out.reset();
+        service.exportGroups("2025-1", ExportFormat.CSV, out);
+        assertEquals(Filters.eq("currentPeriod.period", "2025-1").toBsonDocument(), filters.get(1).toBsonDocument());
+        String[] lines = output().split("\r\n");
+        assertEquals("id,code,period,capacidad,cuposDisponibles,inscritos,estado,aula,professor", lines[0]);
+        assertTrue(lines[1].endsWith(",MAT101-1,2025-1,30,28,2,StatusOpen,,prof.rojas"), lines[1]);
+    }
+}
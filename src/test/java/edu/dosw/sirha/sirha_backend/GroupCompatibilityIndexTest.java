@@ -0,0 +1,169 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GroupCompatibilityIndexTest {
+
+    private static final String PERIOD = "2025-1";
+
+    private final AcademicPeriod period = new AcademicPeriod(PERIOD, LocalDate.now(), LocalDate.now().plusMonths(4));
+    private final List<Group> stored = new ArrayList<>();
+    private final Map<String, String> subjects = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private GroupCompatibilityIndex index;
+
+    private Subject calculo;
+    private Subject fisica;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        calculo = new Subject("cal", "Calculo", 4);
+        fisica = new Subject("fis", "Fisica", 4);
+        index = new GroupCompatibilityIndex(groupRepository(), null, new SimpleMeterRegistry(), 8, Duration.ofMinutes(10)) {
+            @Override
+            protected Map<String, String> subjectsByGroupCode() {
+                return subjects;
+            }
+        };
+    }
+
+    private Group group(Subject subject, DiasSemana day, LocalTime from, LocalTime to) throws SirhaException {
+        Group g = new Group(subject, 30, period);
+        g.addSchedule(new Schedule(day, from, to));
+        stored.add(g);
+        subjects.put(g.getCode(), subject.getName());
+        return g;
+    }
+
+    private static WeeklyTimetable occupancy(DiasSemana day, LocalTime from, LocalTime to) throws SirhaException {
+        return WeeklyTimetable.of(List.of(new Schedule(day, from, to)));
+    }
+
+    private List<String> compatible(WeeklyTimetable occupancy) {
+        return index.findCompatible(PERIOD, occupancy).stream().map(GroupCompatibilityIndex.Entry::code).toList();
+    }
+
+    @Test
+    void devuelveLosGruposAbiertosSinCrucesDeTodasLasMaterias() throws SirhaException {
+        Group c1 = group(calculo, DiasSemana.LUNES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        Group c2 = group(calculo, DiasSemana.MARTES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        Group f1 = group(fisica, DiasSemana.LUNES, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        Group f2 = group(fisica, DiasSemana.JUEVES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        f2.closeGroup();
+
+        List<GroupCompatibilityIndex.Entry> entries =
+                index.findCompatible(PERIOD, occupancy(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(9, 0)));
+
+        assertEquals(List.of(c2.getCode(), f1.getCode()), entries.stream().map(GroupCompatibilityIndex.Entry::code).toList());
+        assertEquals("Calculo", entries.get(0).subject());
+        assertFalse(compatible(WeeklyTimetable.empty()).contains(f2.getCode()));
+        assertTrue(compatible(WeeklyTimetable.empty()).contains(c1.getCode()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void horasNoAlineadasSeConfirmanConLosHorarios() throws SirhaException {
+        Group c1 = group(calculo, DiasSemana.LUNES, LocalTime.of(9, 10), LocalTime.of(10, 0));
+
+        // Comparten la franja de 9:00 a 9:30 pero no se solapan
+        assertEquals(List.of(c1.getCode()), compatible(occupancy(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(9, 5))));
+        assertEquals(List.of(), compatible(occupancy(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(9, 15))));
+    }
+
+    @Test
+    void cambiosEnLosGruposSeReflejanSinRecargar() throws SirhaException {
+        Group c1 = group(calculo, DiasSemana.LUNES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        Group f1 = group(fisica, DiasSemana.MARTES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        WeeklyTimetable lunesTarde = occupancy(DiasSemana.LUNES, LocalTime.of(14, 0), LocalTime.of(16, 0));
+        assertEquals(List.of(c1.getCode(), f1.getCode()), compatible(lunesTarde));
+
+        c1.closeGroup();
+        index.update(c1);
+        assertEquals(List.of(f1.getCode()), compatible(lunesTarde));
+
+        c1.openGroup();
+        index.update(c1);
+        f1.addSchedule(new Schedule(DiasSemana.LUNES, LocalTime.of(15, 0), LocalTime.of(17, 0)));
+        index.update(f1);
+        assertEquals(List.of(c1.getCode()), compatible(lunesTarde));
+
+        Group f2 = new Group(fisica, 30, period);
+        f2.addSchedule(new Schedule(DiasSemana.VIERNES, LocalTime.of(7, 0), LocalTime.of(9, 0)));
+        index.update("Fisica", f2);
+        List<GroupCompatibilityIndex.Entry> entries = index.findCompatible(PERIOD, lunesTarde);
+        assertEquals(List.of(c1.getCode(), f2.getCode()), entries.stream().map(GroupCompatibilityIndex.Entry::code).toList());
+        assertEquals("Fisica", entries.get(1).subject());
+
+        index.remove(c1);
+        assertEquals(List.of(f2.getCode()), compatible(lunesTarde));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void actualizarUnPeriodoNoCargadoNoConsultaMongo() throws SirhaException {
+        Group c1 = group(calculo, DiasSemana.LUNES, LocalTime.of(7, 0), LocalTime.of(9, 0));
+        c1.closeGroup();
+        index.update(c1);
+        assertEquals(0, loads.get());
+
+        assertEquals(List.of(), compatible(WeeklyTimetable.empty()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void milesDeGruposEnUnaSolaConsulta() throws SirhaException {
+        DiasSemana[] days = DiasSemana.values();
+        for (int i = 0; i < 5000; i++) {
+            Subject subject = new Subject("m" + i, "Materia" + i, 3);
+            int hour = 7 + (i % 12);
+            group(subject, days[i % 6], LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0));
+        }
+        WeeklyTimetable lunesManana = occupancy(DiasSemana.LUNES, LocalTime.of(7, 0), LocalTime.of(13, 0));
+
+        List<String> codes = compatible(lunesManana);
+
+        long expected = 0;
+        for (Group g : stored) {
+            if (!lunesManana.conflictsWith(g.getTimetable())) {
+                expected++;
+            }
+        }
+        assertEquals(expected, codes.size());
+        assertTrue(expected < stored.size());
+    }
+
+    private GroupMongoRepository groupRepository() {
+        return (GroupMongoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {GroupMongoRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByCurrentPeriodPeriod")) {
+                        loads.incrementAndGet();
+                        return List.copyOf(stored);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -6,6 +6,7 @@ import edu.dosw.sirha.sirha_backend.domain.model.Student;
 import edu.dosw.sirha.sirha_backend.domain.model.Subject;
 import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
 import edu.dosw.sirha.sirha_backend.dto.GroupDTO;
+import edu.dosw.sirha.sirha_backend.dto.RosterPageDTO;
 import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import edu.dosw.sirha.sirha_backend.util.GroupMapper;
 
@@ -13,7 +14,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,7 +41,6 @@ class GroupMapperTest {
         GroupDTO dto = new GroupDTO(25, 0, professor, period);
         dto.setAula("A101");
         dto.setSchedules(new ArrayList<>());     // listas vacías
-        dto.setEstudiantes(new ArrayList<>());
 
         Group group = GroupMapper.toEntity(subject, dto);
 
@@ -50,8 +50,8 @@ class GroupMapperTest {
         assertEquals("A101", group.getAula());
         assertEquals(period, group.getCurrentPeriod());
         assertEquals(0, group.getInscritos());
-        assertNotNull(group.getEstudiantes());
-        assertTrue(group.getEstudiantes().isEmpty());
+        assertNotNull(group.getCodigosInscritos());
+        assertTrue(group.getCodigosInscritos().isEmpty());
         assertNotNull(group.getSchedules());
         assertTrue(group.getSchedules().isEmpty());
 
@@ -63,29 +63,42 @@ class GroupMapperTest {
         assertEquals("A101", groupDTO.getAula());
         assertEquals(period, groupDTO.getCurrentPeriod());
         assertEquals(0, groupDTO.getInscritos());
-        assertNotNull(groupDTO.getEstudiantes());
-        assertTrue(groupDTO.getEstudiantes().isEmpty());
+        assertNotNull(groupDTO.getRoster());
+        assertTrue(groupDTO.getRoster().getCodigos().isEmpty());
+        assertEquals(0, groupDTO.getRoster().getTotal());
         assertNotNull(groupDTO.getSchedules());
         assertTrue(groupDTO.getSchedules().isEmpty());
     }
 
     @Test
-    void testToEntity_EnrollsStudents() throws SirhaException {
+    void testToEntity_IgnoresRosterAndToDTOPagesIt() throws SirhaException {
         AcademicPeriod period = new AcademicPeriod("2024-1", LocalDate.now(), LocalDate.now().plusMonths(5));
         Subject subject = new Subject("Programación I", "PROG101", 3);
 
         Student student = new Student("juan.perez", "juan@universidad.edu", "password123", "2024001");
+        Student other = new Student("ana.gomez", "ana@universidad.edu", "password123", "2024002");
 
         GroupDTO dto = new GroupDTO(30, 0, professor, period);
         dto.setAula("B202");
         dto.setSchedules(new ArrayList<>());
-        dto.setEstudiantes(Arrays.asList(student));
+        dto.setRoster(new RosterPageDTO(List.of("2024001"), 0, 50, 1));
 
         Group group = GroupMapper.toEntity(subject, dto);
 
         assertNotNull(group);
-        assertEquals(1, group.getInscritos());
-        assertTrue(group.getEstudiantes().contains(student));
+        assertEquals(0, group.getInscritos());
         assertEquals("B202", group.getAula());
+
+        group.enrollStudent(student);
+        group.enrollStudent(other);
+        GroupDTO firstPage = GroupMapper.toDTO(group, 0, 1);
+        assertEquals(List.of("2024001"), firstPage.getRoster().getCodigos());
+        assertEquals(2, firstPage.getRoster().getTotal());
+        assertEquals(2, firstPage.getRoster().getTotalPages());
+        assertTrue(firstPage.getRoster().isHasNext());
+
+        GroupDTO secondPage = GroupMapper.toDTO(group, 1, 1);
+        assertEquals(List.of("2024002"), secondPage.getRoster().getCodigos());
+        assertFalse(secondPage.getRoster().isHasNext());
     }
-}
\ No newline at end of file
+}
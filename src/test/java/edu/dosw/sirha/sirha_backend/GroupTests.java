@@ -17,6 +17,7 @@ import edu.dosw.sirha.sirha_backend.exception.SirhaException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -67,8 +68,8 @@ class GroupTests {
         assertEquals(5, group.getCapacity());
         assertTrue(group.getGroupState() instanceof StatusOpen);
         assertEquals(0, group.getInscritos());
-        assertNotNull(group.getEstudiantes());
-        assertTrue(group.getEstudiantes().isEmpty());
+        assertNotNull(group.getCodigosInscritos());
+        assertTrue(group.getCodigosInscritos().isEmpty());
     }
 
     @Test
@@ -189,9 +190,8 @@ class GroupTests {
     void inscribirEstudianteTest() {
         try {
             group.enrollStudent(student1);
-            List<Student> estudiantes = group.getEstudiantes();
-
-            assertTrue(estudiantes.contains(student1));
+            assertTrue(group.contieneEstudiante(student1));
+            assertTrue(group.getCodigosInscritos().contains(student1.getCodigo()));
             assertEquals(1, group.getInscritos());
         } catch (Exception e) {
             fail("No se esperaba una excepción al inscribir estudiante: " + e.getMessage());
@@ -415,12 +415,12 @@ class GroupTests {
     }
 
     @Test
-    void getEstudiantesInmutableTest() {
+    void getCodigosInscritosInmutableTest() {
         try {
             group.enrollStudent(student1);
-            List<Student> estudiantes = group.getEstudiantes();
+            Set<String> codigos = group.getCodigosInscritos();
 
-            assertThrows(UnsupportedOperationException.class, () -> estudiantes.add(student2));
+            assertThrows(UnsupportedOperationException.class, () -> codigos.add(student2.getCodigo()));
         } catch (Exception e) {
             fail("No se esperaba una excepción al obtener la lista de estudiantes: " + e.getMessage());
         }
@@ -465,10 +465,29 @@ class GroupTests {
         assertEquals(3, group.getCuposDisponibles());
     }
 
+    @Test
+    void rosterPaginadoTest() {
+        try {
+            group.enrollStudent(student1);
+            group.enrollStudent(student2);
+            group.enrollStudent(student3);
+
+            assertEquals(List.of(student1.getCodigo(), student2.getCodigo()), group.getCodigosInscritos(0, 2));
+            assertEquals(List.of(student3.getCodigo()), group.getCodigosInscritos(1, 2));
+            assertTrue(group.getCodigosInscritos(2, 2).isEmpty());
+
+            SirhaException ex = assertThrows(SirhaException.class, () -> group.getCodigosInscritos(-1, 2));
+            assertEquals(ErrorCodeSirha.INVALID_ARGUMENT, ex.getErrorCode());
+            assertThrows(SirhaException.class, () -> group.getCodigosInscritos(0, 0));
+        } catch (Exception e) {
+            fail("No se esperaba una excepción al paginar el roster: " + e.getMessage());
+        }
+    }
+
     @Test
     void listaEstudiantesInicializadaTest() {
-        assertNotNull(group.getEstudiantes());
-        assertTrue(group.getEstudiantes().isEmpty());
+        assertNotNull(group.getCodigosInscritos());
+        assertTrue(group.getCodigosInscritos().isEmpty());
         assertEquals(0, group.getInscritos());
     }
 
@@ -0,0 +1,118 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.impl.GroupServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cambios de un grupo que chocan con otra escritura (por ejemplo, una reserva de cupo que
+ * subió la versión entre la lectura y el guardado): se repiten sobre una lectura nueva.
+ */
+class GroupVersionConflictTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final List<Group> saved = new ArrayList<>();
+
+    private Subject subject;
+    private AcademicPeriod period;
+    private GroupServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        subject = new Subject("cal", "Calculo", 4);
+        period = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+        CatalogCache catalog = new CatalogCache(null, null, null, null, null, new SimpleMeterRegistry(), 10, Duration.ofMinutes(5));
+        GroupCompatibilityIndex index = new GroupCompatibilityIndex(null, null, new SimpleMeterRegistry(), 8, Duration.ofMinutes(10));
+        service = new GroupServiceImpl(groupRepository(), catalog, index,
+                new TransactionRunner(Optional.empty(), registry, 1, Duration.ZERO, 3, Duration.ZERO));
+    }
+
+    private double versionConflicts(String outcome) {
+        return registry.counter(TransactionRunner.VERSION_CONFLICTS, "operation", SirhaMetrics.GROUP_UPDATE, "outcome", outcome).count();
+    }
+
+    @Test
+    void cierreConVersionDesactualizadaSeRepiteDesdeUnaLecturaNueva() throws SirhaException {
+        conflicts.set(1);
+
+        Group closed = service.closeGroup("g1");
+
+        assertFalse(closed.isOpen());
+        assertEquals(2, reads.get());
+        assertEquals(1, saved.size());
+        assertEquals(1, versionConflicts("retry"));
+        assertEquals(0, versionConflicts("exhausted"));
+    }
+
+    @Test
+    void conflictosSeguidosAgotanLosIntentos() {
+        conflicts.set(Integer.MAX_VALUE);
+
+        SirhaException error = assertThrows(SirhaException.class, () -> service.closeGroup("g1"));
+
+        assertEquals(ErrorCodeSirha.CONCURRENT_MODIFICATION, error.getErrorCode());
+        assertEquals(3, reads.get());
+        assertTrue(saved.isEmpty());
+        assertEquals(2, versionConflicts("retry"));
+        assertEquals(1, versionConflicts("exhausted"));
+    }
+
+    @Test
+    void errorDeDominioNoSeRepite() {
+        SirhaException error = assertThrows(SirhaException.class, () -> service.closeGroup("no-existe"));
+
+        assertEquals(ErrorCodeSirha.GROUP_NOT_FOUND, error.getErrorCode());
+        assertEquals(1, reads.get());
+        assertEquals(0, versionConflicts("retry"));
+    }
+
+    /** Cada lectura arma un grupo abierto nuevo; {@code save} falla mientras queden conflictos. */
+    private GroupMongoRepository groupRepository() {
+        return (GroupMongoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {GroupMongoRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findById":
+                            reads.incrementAndGet();
+                            if (!"g1".equals(args[0])) {
+                                return Optional.empty();
+                            }
+                            Group group = new Group(subject, 30, period);
+                            group.setId("g1");
+                            return Optional.of(group);
+                        case "save":
+                            if (conflicts.getAndDecrement() > 0) {
+                                throw new OptimisticLockingFailureException("Cannot save entity g1 with version 4 to collection groups");
+                            }
+                            saved.add((Group) args[0]);
+                            return args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,225 @@
+package edu.dosw.sirha.sirha_backend;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepository;
+
+/**
+ * Colección de grupos en memoria que aplica las mismas transiciones del dominio que las
+ * actualizaciones condicionales de {@code GroupSeatRepositoryImpl} y
+ * {@code GroupWaitlistRepositoryImpl}. Cada operación bloquea su grupo, así que también
+ * sirve para las pruebas de concurrencia.
+ *
+ * Dentro de una transacción de Spring una reserva se deshace si la transacción se revierte,
+ * como en Mongo. Los códigos en {@link #taken} simulan grupos cuyo último cupo tomó otra
+ * réplica; {@link #touched(String)} permite observar qué hilos tocan cada grupo.
+ */
+class InMemoryGroupSeats implements GroupSeatRepository, GroupWaitlistRepository {
+
+    final Set<String> taken = ConcurrentHashMap.newKeySet();
+    final AtomicInteger releases = new AtomicInteger();
+    final AtomicInteger bulkReservations = new AtomicInteger();
+    final AtomicInteger bulkReleases = new AtomicInteger();
+
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    Group register(Group group) {
+        groups.put(group.getCode(), group);
+        return group;
+    }
+
+    Group get(String groupCode) {
+        return groups.get(groupCode);
+    }
+
+    int rosterSize(Group group) {
+        synchronized (group) {
+            return group.getStudentCount();
+        }
+    }
+
+    /** Se llama en cada operación sobre un grupo completo; por defecto no hace nada. */
+    protected void touched(String groupCode) {
+    }
+
+    @Override
+    public Optional<Group> reserveSeat(String groupCode, String studentCode) {
+        Group group = groups.get(groupCode);
+        if (group == null || taken.contains(groupCode)) {
+            return Optional.empty();
+        }
+        synchronized (group) {
+            if (!group.isOpen() || group.getCuposDisponibles() <= 0 || group.contieneCodigo(studentCode)) {
+                return Optional.empty();
+            }
+            enroll(group, studentCode);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        synchronized (group) {
+                            unenroll(group, studentCode);
+                        }
+                    }
+                }
+            });
+        }
+        return Optional.of(group);
+    }
+
+    @Override
+    public Optional<Group> releaseSeat(String groupCode, String studentCode) {
+        releases.incrementAndGet();
+        Group group = groups.get(groupCode);
+        if (group == null) {
+            return Optional.empty();
+        }
+        synchronized (group) {
+            if (!group.contieneCodigo(studentCode)) {
+                return Optional.empty();
+            }
+            unenroll(group, studentCode);
+            return Optional.of(group);
+        }
+    }
+
+    @Override
+    public Optional<Group> restoreSeat(String groupCode, String studentCode) {
+        return apply(groupCode, group -> group.restoreSeat(studentCode));
+    }
+
+    @Override
+    public List<Group> reserveSeats(Collection<String> groupCodes, String studentCode) {
+        bulkReservations.incrementAndGet();
+        List<Group> reserved = new ArrayList<>();
+        for (String groupCode : groupCodes) {
+            reserveSeat(groupCode, studentCode).ifPresent(reserved::add);
+        }
+        return reserved;
+    }
+
+    @Override
+    public List<Group> releaseSeats(Collection<String> groupCodes, String studentCode) {
+        bulkReleases.incrementAndGet();
+        List<Group> released = new ArrayList<>();
+        for (String groupCode : groupCodes) {
+            releaseSeat(groupCode, studentCode).ifPresent(released::add);
+        }
+        return released;
+    }
+
+    @Override
+    public Optional<Group> reserveSeatsInGroup(String groupCode, List<String> studentCodes) {
+        touched(groupCode);
+        studentCodes.forEach(studentCode -> reserveSeat(groupCode, studentCode));
+        return findSeatSnapshot(groupCode);
+    }
+
+    @Override
+    public Optional<Group> releaseSeatsInGroup(String groupCode, Collection<String> studentCodes) {
+        touched(groupCode);
+        studentCodes.forEach(studentCode -> releaseSeat(groupCode, studentCode));
+        return findSeatSnapshot(groupCode);
+    }
+
+    @Override
+    public Optional<Group> findSeatSnapshot(String groupCode) {
+        touched(groupCode);
+        return Optional.ofNullable(groups.get(groupCode));
+    }
+
+    @Override
+    public Optional<Group> joinWaitlist(String groupCode, WaitlistEntry entry, int maxSize) {
+        return apply(groupCode, group -> group.addToWaitlist(entry, maxSize));
+    }
+
+    @Override
+    public Optional<Group> leaveWaitlist(String groupCode, String studentCode) {
+        return apply(groupCode, group -> {
+            if (!group.removeFromWaitlist(studentCode)) {
+                throw new IllegalArgumentException(studentCode);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Group> claimHeldSeat(String groupCode, String studentCode) {
+        return apply(groupCode, group -> group.assignHeldSeat(studentCode));
+    }
+
+    @Override
+    public Optional<Group> returnHeldSeat(String groupCode, WaitlistEntry entry) {
+        return apply(groupCode, group -> group.returnHeldSeat(entry));
+    }
+
+    @Override
+    public Optional<Group> releaseHeldSeats(String groupCode) {
+        return apply(groupCode, group -> {
+            if (!group.releaseHeldSeats()) {
+                throw new IllegalArgumentException(groupCode);
+            }
+        });
+    }
+
+    @Override
+    public List<String> findCodesWithHeldSeats() {
+        return groups.values().stream().filter(g -> g.getCuposRetenidos() > 0).map(Group::getCode).toList();
+    }
+
+    private interface GroupChange {
+        void apply(Group group) throws SirhaException;
+    }
+
+    /** Aplica el cambio si el dominio lo acepta; si no, como un filtro que no coincidió. */
+    private Optional<Group> apply(String groupCode, GroupChange change) {
+        Group group = groups.get(groupCode);
+        if (group == null) {
+            return Optional.empty();
+        }
+        synchronized (group) {
+            try {
+                change.apply(group);
+                return Optional.of(group);
+            } catch (SirhaException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static void enroll(Group group, String studentCode) {
+        try {
+            group.enrollStudent(rosterEntry(studentCode));
+        } catch (SirhaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void unenroll(Group group, String studentCode) {
+        try {
+            group.unenrollStudent(rosterEntry(studentCode));
+        } catch (SirhaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Student rosterEntry(String studentCode) throws SirhaException {
+        return new Student(studentCode, studentCode + "@test.com", InMemoryStudents.HASH, studentCode);
+    }
+}
@@ -0,0 +1,204 @@
+package edu.dosw.sirha.sirha_backend;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentProgressRepository.SubjectProgress;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+
+/**
+ * {@link StudentMongoRepository} en memoria para las pruebas de servicios.
+ *
+ * Responde las consultas que usan los servicios: por usuario y por código, el guardado del
+ * documento y del progreso, y las páginas por {@code _id} en el orden de BSON (los ids de
+ * texto antes que los ObjectId, y {@code $gt} solo compara ids del mismo tipo). Cualquier
+ * otro método falla. Cuenta las lecturas por usuario y conserva lo escrito.
+ */
+final class InMemoryStudents {
+
+    // Hash ya calculado: evita pagar BCrypt por cada estudiante de prueba
+    static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa5Q8yQ2mB1S1E5oT0r8j1m3GQb9iW2";
+
+    private static final Comparator<String> BSON_ID_ORDER =
+            Comparator.comparing(ObjectId::isValid).thenComparing(Comparator.naturalOrder());
+
+    private final Map<String, Student> byUsername = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final List<Student> saved = new CopyOnWriteArrayList<>();
+    private final List<SubjectProgress> savedProgress = new CopyOnWriteArrayList<>();
+    private final Queue<Supplier<? extends RuntimeException>> saveFailures = new ConcurrentLinkedQueue<>();
+    private volatile boolean failProgressWrites;
+    private final Set<String> rejectedProgress = ConcurrentHashMap.newKeySet();
+    private volatile Loader loader = byUsername::get;
+
+    private final StudentMongoRepository repository = (StudentMongoRepository) Proxy.newProxyInstance(
+            InMemoryStudents.class.getClassLoader(), new Class<?>[] {StudentMongoRepository.class}, this::invoke);
+
+    StudentMongoRepository repository() {
+        return repository;
+    }
+
+    Student add(Student student) {
+        byUsername.put(student.getUsername(), student);
+        return student;
+    }
+
+    void remove(Student student) {
+        byUsername.remove(student.getUsername());
+    }
+
+    Student get(String username) {
+        return byUsername.get(username);
+    }
+
+    Student byCodigo(String codigo) {
+        return byUsername.values().stream().filter(s -> codigo.equals(s.getCodigo())).findFirst().orElse(null);
+    }
+
+    interface Loader {
+        Student load(String username) throws SirhaException;
+    }
+
+    /** Arma cada lectura por usuario con la función dada, como si viniera de la base. */
+    void loadWith(Loader loader) {
+        this.loader = loader;
+    }
+
+    /** El siguiente {@code save} lanza la excepción dada en lugar de guardar. */
+    void failNextSave(Supplier<? extends RuntimeException> failure) {
+        saveFailures.add(failure);
+    }
+
+    void failProgressWrites(boolean fail) {
+        this.failProgressWrites = fail;
+    }
+
+    /**
+     * Rechaza solo las escrituras de progreso de ese estudiante, como un bulk desordenado de Mongo:
+     * las demás se aplican y el error lleva los índices de las que fallaron.
+     */
+    void rejectProgressOf(String codigo) {
+        rejectedProgress.add(codigo);
+    }
+
+    /** Ids guardados en el orden en que Mongo los recorre. */
+    List<String> ids() {
+        return new ArrayList<>(byId().keySet());
+    }
+
+    int reads() {
+        return reads.get();
+    }
+
+    List<Student> saved() {
+        return saved;
+    }
+
+    List<SubjectProgress> savedProgress() {
+        return savedProgress;
+    }
+
+    private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "findByUsername":
+                reads.incrementAndGet();
+                return Optional.ofNullable(loader.load((String) args[0]));
+            case "findByCodigoIn": {
+                List<Student> found = new ArrayList<>();
+                for (Object codigo : (Collection<?>) args[0]) {
+                    Optional.ofNullable(byCodigo((String) codigo)).ifPresent(found::add);
+                }
+                return found;
+            }
+            case "save": {
+                Supplier<? extends RuntimeException> failure = saveFailures.poll();
+                if (failure != null) {
+                    throw failure.get();
+                }
+                saved.add((Student) args[0]);
+                return args[0];
+            }
+            case "saveSubjectProgress": {
+                if (failProgressWrites) {
+                    throw new IllegalStateException("escritura rechazada");
+                }
+                @SuppressWarnings("unchecked")
+                List<SubjectProgress> updates = (List<SubjectProgress>) args[0];
+                List<BulkWriteError> errors = new ArrayList<>();
+                for (int i = 0; i < updates.size(); i++) {
+                    if (rejectedProgress.contains(updates.get(i).student().getCodigo())) {
+                        errors.add(new BulkWriteError(121, "Document failed validation", new BsonDocument(), i));
+                    } else {
+                        savedProgress.add(updates.get(i));
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    int applied = updates.size() - errors.size();
+                    BulkWriteResult result = BulkWriteResult.acknowledged(0, applied, 0, applied, List.of(), List.of());
+                    MongoBulkWriteException cause = new MongoBulkWriteException(result, errors, null, new ServerAddress(), Set.of());
+                    throw new BulkOperationException(cause.getMessage(), cause);
+                }
+                return updates.size();
+            }
+            case "findPageAfter":
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            case "findAllByOrderByIdAsc":
+                return first(byId(), (Limit) args[0]);
+            case "findByIdGreaterThanOrderByIdAsc":
+                return first(sameType(byId().tailMap((String) args[0], false), (String) args[0]), (Limit) args[1]);
+            case "findAfterTextIdOrderByIdAsc":
+                return first(byId().tailMap((String) args[0], false), (Limit) args[1]);
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private NavigableMap<String, Student> byId() {
+        NavigableMap<String, Student> ordered = new TreeMap<>(BSON_ID_ORDER);
+        byUsername.values().stream().filter(s -> Objects.nonNull(s.getId())).forEach(s -> ordered.put(s.getId(), s));
+        return ordered;
+    }
+
+    private static List<Student> first(NavigableMap<String, Student> students, Limit limit) {
+        return students.values().stream().limit(limit.max()).toList();
+    }
+
+    private static NavigableMap<String, Student> sameType(NavigableMap<String, Student> students, String id) {
+        NavigableMap<String, Student> filtered = new TreeMap<>(students.comparator());
+        students.forEach((key, student) -> {
+            if (ObjectId.isValid(key) == ObjectId.isValid(id)) {
+                filtered.put(key, student);
+            }
+        });
+        return filtered;
+    }
+}
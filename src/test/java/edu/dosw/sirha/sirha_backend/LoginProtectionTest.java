@@ -0,0 +1,201 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Account;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Role;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.AccountCacheEviction;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.AccountUserDetails;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.CaffeineUserCache;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.LoginThrottle;
+import edu.dosw.sirha.sirha_backend.infrastructure.security.PasswordVerificationExecutor;
+import edu.dosw.sirha.sirha_backend.repository.mongo.AccountMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.impl.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginProtectionTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private double rejections(String reason) {
+        return registry.get(LoginThrottle.REJECTIONS).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void ipAgotaSuBucketConCadaIntento() throws SirhaException {
+        LoginThrottle throttle = new LoginThrottle(registry, 5, 1, 3, 1, 100);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+        }
+        SirhaException e = assertThrows(SirhaException.class, () -> throttle.acquire("otro", "10.0.0.1"));
+        assertEquals(ErrorCodeSirha.TOO_MANY_REQUESTS, e.getErrorCode());
+        throttle.acquire("otro", "10.0.0.2");
+        assertEquals(1, rejections("ip_throttled"));
+    }
+
+    @Test
+    void usuarioSoloPierdeIntentosConLoginsFallidos() throws SirhaException {
+        LoginThrottle throttle = new LoginThrottle(registry, 2, 1, 100, 1, 100);
+
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("ana", "10.0.0.1");
+        }
+        throttle.recordFailure("ana");
+        throttle.acquire("ana", "10.0.0.1");
+        throttle.recordFailure("ana");
+
+        assertThrows(SirhaException.class, () -> throttle.acquire("ana", "10.0.0.9"));
+        throttle.acquire("luis", "10.0.0.1");
+        assertEquals(1, rejections("user_throttled"));
+    }
+
+    @Test
+    void colaLlenaRechazaSinEsperar() throws Exception {
+        PasswordVerificationExecutor executor = new PasswordVerificationExecutor(registry, 1, 1, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        try {
+            Thread busy = new Thread(() -> {
+                try {
+                    executor.verify(() -> {
+                        running.countDown();
+                        awaitQuietly(release);
+                        return true;
+                    });
+                } catch (SirhaException ignored) {
+                    // no ocurre: el pool estaba libre
+                }
+            });
+            busy.start();
+            running.await();
+            Thread queued = new Thread(() -> {
+                try {
+                    executor.verify(() -> true);
+                } catch (SirhaException ignored) {
+                    // puede ocurrir si la cola ya estaba ocupada
+                }
+            });
+            queued.start();
+            while (registry.get("executor.queued").tag("name", "auth.verification").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            SirhaException e = assertThrows(SirhaException.class, () -> executor.verify(() -> true));
+            assertEquals(ErrorCodeSirha.SERVICE_UNAVAILABLE, e.getErrorCode());
+            assertEquals(1, rejections("queue_full"));
+
+            release.countDown();
+            busy.join();
+            queued.join();
+            assertEquals(2, registry.get("sirha.auth.verification").tag("outcome", "success").timer().count());
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void excepcionesDeLaVerificacionSePropaganYSeMidenComoFallo() throws Exception {
+        PasswordVerificationExecutor executor = new PasswordVerificationExecutor(registry, 1, 4, Duration.ofSeconds(5));
+        try {
+            assertThrows(BadCredentialsException.class,
+                    () -> executor.verify(() -> { throw new BadCredentialsException("mal"); }));
+            assertEquals(1, registry.get("sirha.auth.verification").tag("outcome", "failure").timer().count());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void cuentaCacheadaEvitaConsultarYSeReleeSiLaContrasenaCambia() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        String[] hash = {encoder.encode("secreta")};
+        AtomicInteger lookups = new AtomicInteger();
+        UserDetailsService users = username -> {
+            lookups.incrementAndGet();
+            return User.withUsername(username).password(hash[0])
+                    .authorities(List.of(new SimpleGrantedAuthority("ROLE_STUDENT"))).build();
+        };
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserCache(new CaffeineUserCache(registry, 100, Duration.ofMinutes(5)));
+        provider.setForcePrincipalAsString(true);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("ana", "secreta"));
+        provider.authenticate(new UsernamePasswordAuthenticationToken("ana", "secreta"));
+        assertEquals(1, lookups.get());
+
+        hash[0] = encoder.encode("nueva");
+        provider.authenticate(new UsernamePasswordAuthenticationToken("ana", "nueva"));
+        assertEquals(2, lookups.get());
+        assertEquals(2, registry.get("cache.gets").tags("cache", "auth.users", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void guardarLaCuentaSacaDeLaCacheLaContrasenaVieja() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        Account[] stored = {new Account("ana", "ana@escuela.edu.co", encoder.encode("secreta"), Role.STUDENT)};
+        AtomicInteger lookups = new AtomicInteger();
+        AccountMongoRepository accounts = (AccountMongoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AccountMongoRepository.class}, (proxy, method, args) -> {
+                    if (!"findByUsername".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    lookups.incrementAndGet();
+                    return Optional.of(stored[0]);
+                });
+        CaffeineUserCache cache = new CaffeineUserCache(registry, 100, Duration.ofMinutes(5));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new CustomUserDetailsService(accounts));
+        provider.setPasswordEncoder(encoder);
+        provider.setUserCache(cache);
+        ProviderManager manager = new ProviderManager(provider);
+
+        Authentication auth = manager.authenticate(new UsernamePasswordAuthenticationToken("ana", "secreta"));
+        AccountUserDetails principal = (AccountUserDetails) auth.getPrincipal();
+        assertEquals("ana@escuela.edu.co", principal.getEmail());
+        assertEquals(Role.STUDENT, principal.getRole());
+        // Borrar las credenciales del resultado no vacía la entrada cacheada
+        manager.authenticate(new UsernamePasswordAuthenticationToken("ana", "secreta"));
+        assertEquals(1, lookups.get());
+
+        stored[0] = new Account("ana", "ana@escuela.edu.co", encoder.encode("nueva"), Role.STUDENT);
+        new AccountCacheEviction(cache).onAfterSave(new AfterSaveEvent<>(stored[0], new Document(), "accounts"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> manager.authenticate(new UsernamePasswordAuthenticationToken("ana", "secreta")));
+        manager.authenticate(new UsernamePasswordAuthenticationToken("ana", "nueva"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.connection.ConnectionPoolSettings;
+
+import edu.dosw.sirha.sirha_backend.config.MongoPoolConfig;
+
+class MongoPoolConfigTest {
+
+    @Test
+    void aplicaTamanoYEsperaDelPool() {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new MongoPoolConfig()
+                .connectionPoolCustomizer(300, Duration.ofSeconds(5),
+                        new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"))
+                .customize(builder);
+
+        ConnectionPoolSettings pool = builder.build().getConnectionPoolSettings();
+        assertEquals(300, pool.getMaxSize());
+        assertEquals(5000, pool.getMaxWaitTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rechazaPoolSinConexiones() {
+        MongoPoolConfig config = new MongoPoolConfig();
+        MockEnvironment environment = new MockEnvironment();
+        assertThrows(IllegalArgumentException.class,
+                () -> config.connectionPoolCustomizer(0, Duration.ofMinutes(2), environment));
+    }
+}
@@ -0,0 +1,45 @@
+package edu.dosw.sirha.sirha_backend;
+
+import java.util.UUID;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * mongod real para las pruebas que dependen del servidor: pipelines de actualización,
+ * filtros con {@code $expr} y transacciones. Un solo contenedor por ejecución, arrancado
+ * al primer uso; es un replica set de un nodo, así que también admite transacciones.
+ *
+ * Las clases que lo usan van con {@code @Testcontainers(disabledWithoutDocker = true)} y
+ * se omiten donde no hay Docker.
+ */
+final class MongoTestContainer {
+
+    private static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+
+    private static MongoClient client;
+
+    private MongoTestContainer() {
+    }
+
+    /** URI del replica set apuntando a la base dada. */
+    static synchronized String uri(String database) {
+        if (!MONGO.isRunning()) {
+            MONGO.start();
+        }
+        return MONGO.getReplicaSetUrl(database);
+    }
+
+    /** Plantilla sobre una base nueva; la prueba la borra al terminar. */
+    static synchronized MongoTemplate freshTemplate() {
+        String database = "sirha_" + UUID.randomUUID().toString().replace("-", "");
+        if (client == null) {
+            client = MongoClients.create(uri("admin"));
+        }
+        return new MongoTemplate(client, database);
+    }
+}
@@ -0,0 +1,174 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.MustHaveApprovedSubject;
+import edu.dosw.sirha.sirha_backend.domain.model.PrerequisiteGraph;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+class PrerequisiteGraphTest {
+
+    private static Subject subject(StudyPlan plan, String name) throws SirhaException {
+        Subject s = new Subject(name.toLowerCase(), name, 3);
+        plan.addSubject(s);
+        return s;
+    }
+
+    @Test
+    void ordenTopologicoPoneLosPrerrequisitosPrimero() throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        Subject calculo3 = subject(plan, "Calculo3");
+        Subject calculo1 = subject(plan, "Calculo1");
+        Subject calculo2 = subject(plan, "Calculo2");
+        calculo2.addPrerequisite(new MustHaveApprovedSubject(calculo1));
+        calculo3.addPrerequisite(new MustHaveApprovedSubject(calculo2));
+
+        PrerequisiteGraph graph = plan.getPrerequisiteGraph();
+        assertEquals(List.of("Calculo1", "Calculo2", "Calculo3"), graph.getTopologicalOrder());
+        assertFalse(graph.hasCycle());
+        assertDoesNotThrow(plan::validatePrerequisites);
+        assertSame(graph, plan.getPrerequisiteGraph());
+    }
+
+    @Test
+    void soloLosCambiosDeSusMateriasRecompilanElGrafo() throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        Subject calculo1 = subject(plan, "Calculo1");
+        Subject calculo2 = subject(plan, "Calculo2");
+        PrerequisiteGraph graph = plan.getPrerequisiteGraph();
+
+        Subject externa = new Subject("externa", "Externa", 3);
+        externa.addPrerequisite(new MustHaveApprovedSubject(calculo1));
+        assertSame(graph, plan.getPrerequisiteGraph());
+
+        calculo2.addPrerequisite(new MustHaveApprovedSubject(calculo1));
+        PrerequisiteGraph recompiled = plan.getPrerequisiteGraph();
+        assertNotSame(graph, recompiled);
+        assertEquals(List.of("Calculo1", "Calculo2"), recompiled.getTopologicalOrder());
+        assertEquals(1, calculo2.getPrerequisitesVersion());
+    }
+
+    @Test
+    void detectaCiclosAlValidarElPlan() throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        Subject a = subject(plan, "A");
+        Subject b = subject(plan, "B");
+        Subject c = subject(plan, "C");
+        Subject libre = subject(plan, "Libre");
+        a.addPrerequisite(new MustHaveApprovedSubject(b));
+        b.addPrerequisite(new MustHaveApprovedSubject(a));
+        c.addPrerequisite(new MustHaveApprovedSubject(b));
+
+        PrerequisiteGraph graph = plan.getPrerequisiteGraph();
+        assertTrue(graph.hasCycle());
+        assertEquals(List.of("A", "B", "C"), graph.getCycle());
+        assertEquals("Libre", graph.getTopologicalOrder().get(0));
+        assertTrue(graph.ordinal(libre.getName()) >= 0);
+
+        SirhaException e = assertThrows(SirhaException.class, plan::validatePrerequisites);
+        assertEquals(ErrorCodeSirha.PREREQUISITE_CYCLE, e.getErrorCode());
+    }
+
+    @Test
+    void reglasNoCompilablesSeEvaluanConLaReglaOriginal() throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        Subject base = subject(plan, "Base");
+        Subject avanzada = subject(plan, "Avanzada");
+        Subject externa = new Subject("ext", "Externa", 2);
+        avanzada.addPrerequisite(new MustHaveApprovedSubject(base));
+        avanzada.addPrerequisite((materia, progreso) -> progreso.getPassedSubjectsCount() >= 2);
+        Subject fueraDelPlan = subject(plan, "FueraDelPlan");
+        fueraDelPlan.addPrerequisite(new MustHaveApprovedSubject(externa));
+
+        PrerequisiteGraph graph = plan.getPrerequisiteGraph();
+        assertTrue(graph.isOpaque(graph.ordinal("Avanzada")));
+        assertTrue(graph.isOpaque(graph.ordinal("FueraDelPlan")));
+
+        Semaforo sem = new Semaforo(plan);
+        approve(sem, "Base");
+        assertFalse(avanzada.canEnroll(sem));
+        assertFalse(fueraDelPlan.canEnroll(sem));
+        assertEquals(List.of("Base"), sem.getPassedSubjects().stream().map(SubjectDecorator::getName).toList());
+    }
+
+    @Test
+    void copiaConReglasDistintasNoUsaElGrafoDesactualizado() throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        Subject base = subject(plan, "Base");
+        subject(plan, "Siguiente");
+        Semaforo sem = new Semaforo(plan);
+
+        // Copia de la materia (como la que se carga del repositorio) con un requisito nuevo
+        Subject copia = new Subject("siguiente", "Siguiente", 3);
+        copia.getPrerequisites().add(new MustHaveApprovedSubject(base));
+        assertFalse(copia.canEnroll(sem));
+        approve(sem, "Base");
+        assertTrue(copia.canEnroll(sem));
+    }
+
+    @Test
+    void coincideConLaEvaluacionDeReglasEnPlanesAleatorios() throws SirhaException {
+        Random random = new Random(4);
+        for (int round = 0; round < 20; round++) {
+            StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+            List<Subject> subjects = new ArrayList<>();
+            // Más de 64 materias para cubrir máscaras de varias palabras
+            for (int i = 0; i < 70 + random.nextInt(60); i++) {
+                subjects.add(subject(plan, "M" + i));
+            }
+            for (int i = 1; i < subjects.size(); i++) {
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    subjects.get(i).addPrerequisite(new MustHaveApprovedSubject(subjects.get(random.nextInt(i))));
+                }
+            }
+            assertFalse(plan.getPrerequisiteGraph().hasCycle());
+
+            Semaforo sem = new Semaforo(plan);
+            for (int step = 0; step < 200; step++) {
+                Subject s = subjects.get(random.nextInt(subjects.size()));
+                if (sem.isSubjectNoCursada(s.getName()) && random.nextInt(3) > 0) {
+                    approve(sem, s.getName());
+                }
+                assertConsistent(sem, subjects);
+            }
+        }
+    }
+
+    private static void assertConsistent(Semaforo sem, List<Subject> subjects) {
+        List<String> expected = new ArrayList<>();
+        for (Subject s : subjects) {
+            assertEquals(s.evaluateRules(sem), s.canEnroll(sem), s.getName());
+            if (sem.isSubjectNoCursada(s.getName()) && s.evaluateRules(sem)) {
+                expected.add(s.getName());
+            }
+        }
+        List<String> eligible = sem.getEligibleSubjects().stream().map(SubjectDecorator::getName).sorted().toList();
+        assertEquals(expected.stream().sorted().toList(), eligible);
+    }
+
+    private static void approve(Semaforo sem, String name) throws SirhaException {
+        AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now().minusDays(10), LocalDate.now().plusDays(10));
+        SubjectDecorator d = sem.getSubjects().stream()
+            .filter(sd -> sd.getName().equals(name))
+            .findFirst().orElseThrow();
+        d.inscribir(new Group(d.getSubject(), 10, period));
+        d.aprobar();
+        assertEquals(SemaforoColores.VERDE, d.getEstadoColor());
+    }
+}
@@ -0,0 +1,145 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import edu.dosw.sirha.sirha_backend.repository.index.MongoIndexCatalog;
+
+/**
+ * Verifica sin Mongo que cada consulta derivada de los repositorios empiece por un campo
+ * persistido con índice en {@link MongoIndexCatalog}. La verificación con {@code explain()}
+ * contra una base real está en {@link RepositoryQueryPlanTest}.
+ */
+class RepositoryIndexCoverageTest {
+
+    private static final String REPOSITORIES = "edu.dosw.sirha.sirha_backend.repository.mongo";
+
+    private MongoMappingContext mappingContext;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+    }
+
+    @Test
+    void todasLasConsultasDerivadasUsanUnIndice() throws ClassNotFoundException {
+        List<String> uncovered = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> repository : repositories()) {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            Set<String> leadingKeys = leadingKeys(domainType);
+            for (Method method : repository.getMethods()) {
+                if (!isQueryMethod(method)) {
+                    continue;
+                }
+                if (method.getAnnotation(Query.class) != null) {
+                    // Su filtro no sale del nombre: el plan se verifica en RepositoryQueryPlanTest
+                    continue;
+                }
+                for (PartTree.OrPart or : new PartTree(method.getName(), domainType)) {
+                    Part first = or.iterator().next();
+                    String field = first.getProperty().toDotPath();
+                    if (!field.equals("id") && !leadingKeys.contains(field)) {
+                        uncovered.add(repository.getSimpleName() + "." + method.getName() + " -> " + field);
+                    }
+                    assertPersisted(domainType, field, method);
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked > 10, "Se esperaban las consultas de todos los repositorios, se revisaron " + checked);
+        assertTrue(uncovered.isEmpty(), "Consultas sin índice en MongoIndexCatalog: " + uncovered);
+    }
+
+    @Test
+    void losIndicesUsanCamposPersistidos() {
+        MongoIndexCatalog.indexes().forEach((type, indexes) -> {
+            for (IndexDefinition index : indexes) {
+                for (String key : index.getIndexKeys().keySet()) {
+                    assertNotNull(persistentProperty(type, key), type.getSimpleName() + " no persiste el campo indexado " + key);
+                }
+            }
+        });
+    }
+
+    private void assertPersisted(Class<?> domainType, String field, Method method) {
+        // Una consulta sobre un getter sin campo persistido nunca encuentra documentos
+        assertNotNull(persistentProperty(domainType, field), method + " consulta un campo que no se guarda: " + field);
+    }
+
+    /**
+     * Resuelve un campo, también anidado ({@code currentPeriod.period}): cada tramo debe ser
+     * una propiedad persistida del documento embebido anterior.
+     */
+    private MongoPersistentProperty persistentProperty(Class<?> type, String path) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+        MongoPersistentProperty property = null;
+        for (String segment : path.split("\\.")) {
+            if (entity == null) {
+                return null;
+            }
+            property = entity.getPersistentProperty(segment);
+            if (property == null) {
+                return null;
+            }
+            entity = property.isEntity() ? mappingContext.getPersistentEntity(property.getActualType()) : null;
+        }
+        return property;
+    }
+
+    private static boolean isQueryMethod(Method method) {
+        return !method.isDefault()
+                && !Modifier.isStatic(method.getModifiers())
+                && method.getDeclaringClass().getPackageName().equals(REPOSITORIES)
+                && Repository.class.isAssignableFrom(method.getDeclaringClass());
+    }
+
+    private static Set<String> leadingKeys(Class<?> domainType) {
+        Set<String> keys = new TreeSet<>();
+        for (IndexDefinition index : MongoIndexCatalog.indexesFor(domainType)) {
+            keys.add(index.getIndexKeys().keySet().iterator().next());
+        }
+        return keys;
+    }
+
+    private static List<Class<?>> repositories() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<Class<?>> result = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(REPOSITORIES)) {
+            result.add(Class.forName(candidate.getBeanClassName()));
+        }
+        return result;
+    }
+}
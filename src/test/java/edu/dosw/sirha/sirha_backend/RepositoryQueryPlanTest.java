@@ -0,0 +1,174 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Ejecuta cada método de búsqueda de los repositorios contra un Mongo real con los
+ * índices de la aplicación, y falla si el plan de alguna consulta recorre la colección
+ * completa ({@code COLLSCAN}).
+ *
+ * Usa el perfil {@code query-plan} y solo corre si {@code SIRHA_QUERY_PLAN_MONGODB_URI}
+ * apunta a una instancia de Mongo; la base {@code sirha_query_plan} se puede borrar.
+ */
+@SpringBootTest
+@ActiveProfiles("query-plan")
+@EnabledIfEnvironmentVariable(named = "SIRHA_QUERY_PLAN_MONGODB_URI", matches = ".+")
+class RepositoryQueryPlanTest {
+
+    private static final String REPOSITORIES = "edu.dosw.sirha.sirha_backend.repository.mongo";
+    private static final Set<String> READ_COMMANDS = Set.of("find", "count", "aggregate", "distinct");
+    private static final Set<String> FINDER_PREFIXES = Set.of("find", "exists", "count", "get", "query", "read", "search");
+
+    private static final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class CommandCapture {
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureReadCommands() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (READ_COMMANDS.contains(event.getCommandName())) {
+                        commands.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void ningunaConsultaDeRepositorioRecorreLaColeccion() throws Exception {
+        List<String> scans = new ArrayList<>();
+        int checked = 0;
+        for (Object repository : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(repository)) {
+                if (!type.getPackageName().equals(REPOSITORIES)) {
+                    continue;
+                }
+                for (Method method : type.getMethods()) {
+                    if (!isFinder(method)) {
+                        continue;
+                    }
+                    commands.clear();
+                    invoke(repository, method);
+                    assertFalse(commands.isEmpty(), method + " no envió ninguna consulta a Mongo");
+                    for (BsonDocument command : commands) {
+                        if (usesCollectionScan(command)) {
+                            scans.add(type.getSimpleName() + "." + method.getName() + " -> " + command.toJson());
+                        }
+                    }
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 10, "Se esperaban las consultas de todos los repositorios, se revisaron " + checked);
+        assertTrue(scans.isEmpty(), "Consultas con COLLSCAN:\n" + String.join("\n", scans));
+    }
+
+    private static boolean isFinder(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || !method.getDeclaringClass().getPackageName().equals(REPOSITORIES)) {
+            return false;
+        }
+        return FINDER_PREFIXES.stream().anyMatch(method.getName()::startsWith);
+    }
+
+    private static void invoke(Object repository, Method method) throws IllegalAccessException {
+        Object[] args = new Object[method.getParameterCount()];
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < args.length; i++) {
+            args[i] = sample(types[i]);
+        }
+        try {
+            method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            // Sin datos algunos métodos fallan (por ejemplo, un resultado único obligatorio); el plan ya se capturó
+        }
+    }
+
+    private static Object sample(Class<?> type) {
+        if (type == String.class) {
+            return "query-plan";
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == int.class || type == Integer.class) {
+            return 0;
+        }
+        if (type == long.class || type == Long.class) {
+            return 0L;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of("query-plan");
+        }
+        return null;
+    }
+
+    private boolean usesCollectionScan(BsonDocument command) {
+        Document query = new Document();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                query.put(key, value);
+            }
+        });
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", query).append("verbosity", "queryPlanner"));
+        return containsStage(explain, "COLLSCAN");
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,366 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepositoryImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.SeatReservationServiceImpl;
+
+/**
+ * Pruebas de concurrencia del motor de reserva de cupos.
+ *
+ * El repositorio en memoria reproduce el contrato de la actualización condicional de
+ * Mongo (condición y cambio en un solo paso por grupo) aplicando las transiciones del
+ * propio dominio, de modo que se verifica que el servicio nunca sobre-inscribe.
+ * {@link AgainstMongo} corre las mismas carreras contra un mongod real a través de
+ * {@link GroupSeatRepositoryImpl}, para comprobar el filtro y el pipeline de verdad.
+ */
+class SeatReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private InMemoryGroupSeats seats;
+    private SeatReservationServiceImpl service;
+    private ExecutorService pool;
+    private Subject subject;
+    private AcademicPeriod period;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        seats = new InMemoryGroupSeats();
+        service = new SeatReservationServiceImpl(seats);
+        pool = Executors.newFixedThreadPool(THREADS);
+        subject = new Subject("101", "Cálculo I", 4);
+        period = new AcademicPeriod("2024-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentEnrollmentNeverOversubscribes() throws Exception {
+        Group group = seats.register(new Group(subject, 40, period));
+        List<Student> students = students("A", 2000);
+
+        Map<ErrorCodeSirha, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(students.size(), i -> {
+            try {
+                service.reserveSeat(group, students.get(i));
+                accepted.incrementAndGet();
+            } catch (SirhaException e) {
+                rejections.computeIfAbsent(e.getErrorCode(), k -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+
+        assertEquals(40, accepted.get());
+        assertEquals(40, group.getStudentCount());
+        assertEquals(0, group.getCuposDisponibles());
+        assertFalse(group.isOpen());
+        assertTrue(rejections.keySet().stream()
+                .allMatch(code -> code == ErrorCodeSirha.GROUP_FULL || code == ErrorCodeSirha.GROUP_CLOSED));
+        assertEquals(1960, rejections.values().stream().mapToInt(AtomicInteger::get).sum());
+    }
+
+    @Test
+    void sameStudentRacingTakesASingleSeat() throws Exception {
+        Group group = seats.register(new Group(subject, 10, period));
+        Student student = students("B", 1).get(0);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        runConcurrently(500, i -> {
+            try {
+                service.reserveSeat(group, student);
+                accepted.incrementAndGet();
+            } catch (SirhaException e) {
+                if (e.getErrorCode() == ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(1, accepted.get());
+        assertEquals(499, duplicates.get());
+        assertEquals(9, group.getCuposDisponibles());
+    }
+
+    @Test
+    void releasedSeatReopensGroupAndGoesToExactlyOneContender() throws Exception {
+        Group group = seats.register(new Group(subject, 5, period));
+        List<Student> enrolled = students("C", 5);
+        for (Student s : enrolled) {
+            service.reserveSeat(group, s);
+        }
+        assertFalse(group.isOpen());
+
+        service.releaseSeat(group, enrolled.get(0));
+        assertTrue(group.isOpen());
+        assertEquals(1, group.getCuposDisponibles());
+
+        List<Student> contenders = students("D", 300);
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(contenders.size(), i -> {
+            try {
+                service.reserveSeat(group, contenders.get(i));
+                accepted.incrementAndGet();
+            } catch (SirhaException e) {
+                // cupo tomado por otro
+            }
+        });
+
+        assertEquals(1, accepted.get());
+        assertEquals(5, group.getStudentCount());
+        assertFalse(group.isOpen());
+    }
+
+    @Test
+    void mixedReserveAndReleaseKeepsSeatsConsistent() throws Exception {
+        Group group = seats.register(new Group(subject, 25, period));
+        List<Student> students = students("E", 200);
+
+        runConcurrently(20_000, i -> {
+            Student s = students.get(ThreadLocalRandom.current().nextInt(students.size()));
+            try {
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    service.reserveSeat(group, s);
+                } else {
+                    service.releaseSeat(group, s);
+                }
+            } catch (SirhaException e) {
+                // rechazos esperados: grupo lleno, estudiante ya inscrito o no inscrito
+            }
+            assertTrue(seats.rosterSize(group) <= 25, "Grupo sobre-inscrito");
+        });
+
+        assertEquals(25, group.getStudentCount() + group.getCuposDisponibles());
+        assertEquals(group.getCuposDisponibles() > 0, group.isOpen());
+    }
+
+    @Test
+    void releasingStudentNotInRosterIsRejected() throws SirhaException {
+        Group group = seats.register(new Group(subject, 5, period));
+        Student student = students("F", 1).get(0);
+
+        SirhaException e = assertThrows(SirhaException.class, () -> service.releaseSeat(group, student));
+        assertEquals(ErrorCodeSirha.STUDENT_NOT_IN_GROUP, e.getErrorCode());
+    }
+
+    /** Las carreras contra un mongod real; se omiten sin Docker. */
+    @Nested
+    @Testcontainers(disabledWithoutDocker = true)
+    class AgainstMongo {
+
+        private MongoTemplate mongo;
+        private SeatReservationServiceImpl mongoService;
+
+        @BeforeEach
+        void setUpMongo() {
+            mongo = MongoTestContainer.freshTemplate();
+            mongoService = new SeatReservationServiceImpl(new GroupSeatRepositoryImpl(mongo));
+        }
+
+        @AfterEach
+        void dropDatabase() {
+            mongo.getDb().drop();
+        }
+
+        @Test
+        void concurrentEnrollmentNeverOversubscribes() throws Exception {
+            Group group = mongo.insert(new Group(subject, 40, period));
+            List<Student> students = students("A", 2000);
+
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            runConcurrently(students.size(), i -> {
+                try {
+                    mongoService.reserveSeat(group, students.get(i));
+                    accepted.incrementAndGet();
+                } catch (SirhaException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+
+            Document stored = stored(group);
+            assertEquals(40, accepted.get());
+            assertEquals(1960, rejected.get());
+            assertEquals(40, stored.getList("codigosInscritos", String.class).size());
+            assertEquals(0, stored.getInteger("cuposDisponibles"));
+            assertFalse(mongo.findById(group.getId(), Group.class).isOpen());
+        }
+
+        @Test
+        void sameStudentRacingTakesASingleSeat() throws Exception {
+            Group group = mongo.insert(new Group(subject, 10, period));
+            Student student = students("B", 1).get(0);
+
+            AtomicInteger accepted = new AtomicInteger();
+            runConcurrently(500, i -> {
+                try {
+                    mongoService.reserveSeat(group, student);
+                    accepted.incrementAndGet();
+                } catch (SirhaException e) {
+                    // ya inscrito
+                }
+            });
+
+            assertEquals(1, accepted.get());
+            assertEquals(9, stored(group).getInteger("cuposDisponibles"));
+        }
+
+        @Test
+        void mixedReserveAndReleaseKeepsSeatsConsistent() throws Exception {
+            Group group = mongo.insert(new Group(subject, 25, period));
+            List<Student> students = students("E", 200);
+
+            runConcurrently(5_000, i -> {
+                Student s = students.get(ThreadLocalRandom.current().nextInt(students.size()));
+                try {
+                    if (ThreadLocalRandom.current().nextBoolean()) {
+                        mongoService.reserveSeat(group, s);
+                    } else {
+                        mongoService.releaseSeat(group, s);
+                    }
+                } catch (SirhaException e) {
+                    // rechazos esperados: grupo lleno, estudiante ya inscrito o no inscrito
+                }
+            });
+
+            Document stored = stored(group);
+            int enrolled = stored.getList("codigosInscritos", String.class).size();
+            int free = stored.getInteger("cuposDisponibles");
+            assertTrue(enrolled <= 25, "Grupo sobre-inscrito");
+            assertEquals(25, enrolled + free);
+            assertEquals(free > 0, mongo.findById(group.getId(), Group.class).isOpen());
+        }
+
+        @Test
+        void groupWithoutPersistedCounterStillFillsExactly() throws Exception {
+            Group group = mongo.insert(new Group(subject, 10, period));
+            // Documento anterior al contador de cupos
+            mongo.updateFirst(Query.query(Criteria.where("_id").is(group.getId())),
+                    new Update().unset("cuposDisponibles"), Group.class);
+            List<Student> students = students("G", 300);
+
+            AtomicInteger accepted = new AtomicInteger();
+            runConcurrently(students.size(), i -> {
+                try {
+                    mongoService.reserveSeat(group, students.get(i));
+                    accepted.incrementAndGet();
+                } catch (SirhaException e) {
+                    // sin cupo
+                }
+            });
+
+            assertEquals(10, accepted.get());
+            assertEquals(0, stored(group).getInteger("cuposDisponibles"));
+        }
+
+        @Test
+        void batchReleaseReportsOnlyGroupsItReleased() throws Exception {
+            Group enrolled = mongo.insert(new Group(subject, 5, period));
+            Group other = mongo.insert(new Group(subject, 5, period));
+            Student student = students("H", 1).get(0);
+            mongoService.reserveSeat(enrolled, student);
+
+            List<Group> released = mongoService.releaseSeats(List.of(enrolled, other), student);
+
+            assertEquals(List.of(enrolled.getCode()), released.stream().map(Group::getCode).toList());
+            assertEquals(5, stored(enrolled).getInteger("cuposDisponibles"));
+            assertEquals(5, stored(other).getInteger("cuposDisponibles"));
+            assertTrue(mongoService.releaseSeats(List.of(enrolled, other), student).isEmpty());
+        }
+
+        @Test
+        void restoreSeatTakesBackTheHeldSeatFirst() throws Exception {
+            GroupWaitlistRepositoryImpl waitlists = new GroupWaitlistRepositoryImpl(mongo);
+            Group full = mongo.insert(new Group(subject, 1, period));
+            Group open = mongo.insert(new Group(subject, 2, period));
+            List<Student> students = students("R", 2);
+            mongoService.reserveSeat(full, students.get(0));
+            mongoService.reserveSeat(open, students.get(0));
+            assertTrue(waitlists.joinWaitlist(full.getCode(), new WaitlistEntry("R1", "r1", subject.getName(), 0, Instant.now()), 10).isPresent());
+            mongoService.releaseSeat(full, students.get(0));
+            mongoService.releaseSeat(open, students.get(0));
+
+            Group restored = mongoService.restoreSeat(full, students.get(0));
+            assertTrue(restored.contieneCodigo(students.get(0).getCodigo()));
+            assertEquals(0, stored(full).getInteger("cuposRetenidos"));
+            assertEquals(0, stored(full).getInteger("cuposDisponibles"));
+            assertFalse(restored.isOpen());
+            assertEquals(1, restored.getWaitlistSize());
+
+            mongoService.restoreSeat(open, students.get(0));
+            assertEquals(1, stored(open).getInteger("cuposDisponibles"));
+            SirhaException again = assertThrows(SirhaException.class, () -> mongoService.restoreSeat(open, students.get(0)));
+            assertEquals(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP, again.getErrorCode());
+        }
+
+        private Document stored(Group group) {
+            return mongo.findOne(Query.query(Criteria.where("_id").is(group.getId())), Document.class, "groups");
+        }
+    }
+
+    private interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+
+    private void runConcurrently(int calls, IndexedTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            final int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static List<Student> students(String prefix, int count) throws SirhaException {
+        List<Student> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new Student(prefix.toLowerCase() + i, prefix.toLowerCase() + i + "@test.com", InMemoryStudents.HASH, prefix + i));
+        }
+        return result;
+    }
+}
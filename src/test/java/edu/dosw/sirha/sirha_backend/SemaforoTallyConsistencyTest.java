@@ -0,0 +1,120 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+/**
+ * Verifica que los acumulados incrementales del semáforo coinciden siempre con un
+ * recálculo completo sobre las materias.
+ */
+class SemaforoTallyConsistencyTest {
+
+    private static StudyPlan plan(int subjects) throws SirhaException {
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        for (int i = 0; i < subjects; i++) {
+            Subject s = new Subject("id" + i, "Materia" + i, 1 + (i % 5));
+            plan.getSubjects().put(s.getName(), s);
+        }
+        return plan;
+    }
+
+    private static void assertMatchesRecount(Semaforo sem) {
+        Map<SemaforoColores, Integer> counts = new EnumMap<>(SemaforoColores.class);
+        Map<SemaforoColores, Integer> credits = new EnumMap<>(SemaforoColores.class);
+        for (SemaforoColores c : SemaforoColores.values()) {
+            counts.put(c, 0);
+            credits.put(c, 0);
+        }
+        for (SubjectDecorator d : sem.getSubjects()) {
+            counts.merge(d.getEstadoColor(), 1, Integer::sum);
+            credits.merge(d.getEstadoColor(), d.getCredits(), Integer::sum);
+        }
+
+        for (SemaforoColores c : SemaforoColores.values()) {
+            assertEquals(counts.get(c), sem.getSubjectsByColorCount(c), "conteo " + c);
+            assertEquals(credits.get(c), sem.getCreditsByColor(c), "créditos " + c);
+            assertEquals(counts.get(c) * 100.0 / sem.getTotalSubjectsCount(), sem.getPercentageByColor().get(c), 1e-9);
+        }
+        assertEquals(counts.get(SemaforoColores.VERDE), sem.getPassedSubjectsCount());
+        assertEquals(counts.get(SemaforoColores.AMARILLO), sem.getSubjectsInProgressCount());
+        assertEquals(counts.get(SemaforoColores.ROJO), sem.getFailedSubjectsCount());
+        assertEquals(counts.get(SemaforoColores.GRIS), sem.getSubjectsNotTakenCount());
+        assertEquals(sem.getPassedSubjects().size(), sem.getPassedSubjectsCount());
+        assertEquals(sem.getSubjectsInProgress().size(), sem.getSubjectsInProgressCount());
+    }
+
+    @Test
+    void acumuladosCoincidenConRecalculoTrasTransicionesAleatorias() throws SirhaException {
+        Semaforo sem = new Semaforo(plan(40));
+        AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now().minusDays(10), LocalDate.now().plusDays(10));
+        List<SubjectDecorator> decorators = new ArrayList<>(sem.getSubjects());
+        Random random = new Random(7);
+
+        assertMatchesRecount(sem);
+        for (int step = 0; step < 2_000; step++) {
+            SubjectDecorator d = decorators.get(random.nextInt(decorators.size()));
+            try {
+                switch (random.nextInt(4)) {
+                    case 0 -> d.inscribir(new Group(d.getSubject(), 30, period));
+                    case 1 -> d.aprobar();
+                    case 2 -> d.reprobar();
+                    default -> d.retirar();
+                }
+            } catch (SirhaException e) {
+                // transición no permitida en el estado actual, el color no cambia
+            }
+            assertMatchesRecount(sem);
+        }
+    }
+
+    @Test
+    void acumuladosSeReconstruyenAlReemplazarElMapaDeMaterias() throws Exception {
+        Semaforo sem = new Semaforo(plan(6));
+        AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now().minusDays(10), LocalDate.now().plusDays(10));
+        assertEquals(6, sem.getSubjectsNotTakenCount());
+
+        // Simula la materialización desde Mongo: el mapa se asigna después del constructor
+        Map<String, SubjectDecorator> loaded = new HashMap<>();
+        for (Subject s : plan(6).getSubjects().values()) {
+            SubjectDecorator d = new SubjectDecorator(s);
+            if (loaded.size() < 2) {
+                d.inscribir(new Group(s, 10, period));
+                d.aprobar();
+            }
+            loaded.put(s.getName(), d);
+        }
+        Field field = Semaforo.class.getDeclaredField("subjects");
+        field.setAccessible(true);
+        field.set(sem, loaded);
+
+        assertEquals(2, sem.getPassedSubjectsCount());
+        assertMatchesRecount(sem);
+
+        SubjectDecorator pendiente = loaded.values().stream()
+            .filter(d -> d.getEstadoColor() == SemaforoColores.GRIS)
+            .findFirst().orElseThrow();
+        pendiente.inscribir(new Group(pendiente.getSubject(), 10, period));
+        assertEquals(1, sem.getSubjectsInProgressCount());
+        assertMatchesRecount(sem);
+    }
+}
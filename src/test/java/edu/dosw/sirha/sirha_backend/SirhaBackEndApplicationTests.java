@@ -418,8 +418,8 @@ class SirhaBackEndApplicationTests {
         assertEquals(0, grupo1.getInscritos());
         assertNotNull(grupo1.getGroupState());
         assertEquals("A101", grupo1.getAula());
-        assertNotNull(grupo1.getEstudiantes());
-        assertTrue(grupo1.getEstudiantes().isEmpty());
+        assertNotNull(grupo1.getCodigosInscritos());
+        assertTrue(grupo1.getCodigosInscritos().isEmpty());
     }
     
     @Test
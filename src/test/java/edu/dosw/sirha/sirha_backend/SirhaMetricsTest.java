@@ -0,0 +1,75 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.service.impl.DecanateServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SirhaMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SirhaMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SirhaMetrics(registry);
+    }
+
+    private Timer timer(String operation, String outcome, String code) {
+        return registry.find(SirhaMetrics.OPERATIONS)
+                .tags("operation", operation, "outcome", outcome, "code", code)
+                .timer();
+    }
+
+    private double errors(String operation, String code) {
+        var counter = registry.find(SirhaMetrics.ERRORS).tags("operation", operation, "code", code).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void operacionExitosaSeMideSinCodigoDeError() throws SirhaException {
+        assertEquals("ok", metrics.record(SirhaMetrics.ENROLL, () -> "ok"));
+        metrics.record(SirhaMetrics.ENROLL, () -> { });
+
+        assertEquals(2, timer(SirhaMetrics.ENROLL, "success", "NONE").count());
+        assertNull(registry.find(SirhaMetrics.ERRORS).counter());
+    }
+
+    @Test
+    void fallosSeEtiquetanConSuCodigoYSePropaganSinCambios() {
+        SirhaException conflict = SirhaException.of(ErrorCodeSirha.SCHEDULE_CONFLICT);
+        SirhaException thrown = assertThrows(SirhaException.class,
+                () -> metrics.record(SirhaMetrics.ENROLL_CHECK, () -> { throw conflict; }));
+        assertSame(conflict, thrown);
+        assertThrows(IllegalStateException.class,
+                () -> metrics.record(SirhaMetrics.ENROLL_CHECK, () -> { throw new IllegalStateException(); }));
+
+        assertEquals(1, timer(SirhaMetrics.ENROLL_CHECK, "error", "SCHEDULE_CONFLICT").count());
+        assertEquals(1, errors(SirhaMetrics.ENROLL_CHECK, "SCHEDULE_CONFLICT"));
+        assertEquals(1, errors(SirhaMetrics.ENROLL_CHECK, "UNEXPECTED"));
+    }
+
+    @Test
+    void validacionesDelFlujoDeSolicitudesQuedanRegistradas() {
+        DecanateServiceImpl service = new DecanateServiceImpl(null, null, null, null, metrics,
+                new TransactionRunner(Optional.empty(), registry, 1, Duration.ZERO, 1, Duration.ZERO));
+
+        assertThrows(SirhaException.class, () -> service.receiveRequest(" ", "r1"));
+        assertThrows(SirhaException.class, () -> service.approveRequest("Sistemas", null));
+
+        assertEquals(1, errors(SirhaMetrics.RECEIVE_REQUEST, "INVALID_ARGUMENT"));
+        assertEquals(1, timer(SirhaMetrics.APPROVE_REQUEST, "error", "INVALID_ARGUMENT").count());
+    }
+}
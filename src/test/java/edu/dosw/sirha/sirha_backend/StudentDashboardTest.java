@@ -0,0 +1,112 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DashboardSection;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.RequestStateEnum;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.ResponseRequest;
+import edu.dosw.sirha.sirha_backend.dto.StudentDashboardDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+
+class StudentDashboardTest {
+
+    private final InMemoryStudents students = new InMemoryStudents();
+    private Student student;
+    private StudentServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        AcademicPeriod period = new AcademicPeriod("2024-1", LocalDate.now(), LocalDate.now().plusMonths(5));
+        Subject matematicas = new Subject("MAT101", "Matemáticas I", 4);
+        Subject fisica = new Subject("FIS101", "Física I", 4);
+        Subject quimica = new Subject("QUI101", "Química I", 3);
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.addSubject(matematicas);
+        plan.addSubject(fisica);
+        plan.addSubject(quimica);
+
+        student = new Student("ana.gomez", "ana@universidad.edu", InMemoryStudents.HASH, "2024010");
+        student.setAcademicProgress(new Semaforo(plan));
+        student.setCurrentPeriod(period);
+        student.enrollSubject(matematicas, new Group(matematicas, 30, period), 1);
+        student.enrollSubject(fisica, new Group(fisica, 30, period), 1);
+        student.approveSubject(matematicas);
+
+        CambioGrupo enRevision = student.createGroupChangeRequest(fisica, new Group(fisica, 30, period));
+        enRevision.reviewRequest(new ResponseRequest("En revisión", RequestStateEnum.EN_REVISION));
+        student.createGroupChangeRequest(fisica, new Group(fisica, 30, period));
+
+        students.add(student);
+        service = StudentServices.reading(students.repository());
+    }
+
+    @Test
+    void tableroCompletoConUnaSolaLectura() throws SirhaException {
+        StudentDashboardDTO dashboard = service.getDashboard("ana.gomez", null);
+
+        assertEquals(1, students.reads());
+        assertEquals("2024010", dashboard.getInfo().getCode());
+        assertEquals(student.getAcademicPensum().keySet(), dashboard.getPensum().keySet());
+        assertEquals(1, dashboard.getPensum().get(SemaforoColores.VERDE).size());
+        assertEquals(student.getCurrentSchedule().size(), dashboard.getSchedule().size());
+        assertEquals(student.getAcademicIndicators().getOverallProgressPercentage(),
+            dashboard.getIndicators().getOverallProgressPercentage());
+        assertEquals(2, dashboard.getRequests().size());
+        assertEquals(2, dashboard.getRequestStats().getTotalRequests());
+        assertEquals(1, dashboard.getRequestStats().getInReviewRequests());
+        assertEquals(1, dashboard.getRequestStats().getPendingRequests());
+        assertEquals(50.0, dashboard.getRequestStats().getInReviewRatePercentage());
+    }
+
+    @Test
+    void soloSeArmanLasSeccionesPedidas() throws Exception {
+        StudentDashboardDTO dashboard = service.getDashboard("ana.gomez",
+            EnumSet.of(DashboardSection.SCHEDULE, DashboardSection.REQUEST_STATS));
+
+        assertNull(dashboard.getInfo());
+        assertNull(dashboard.getPensum());
+        assertNull(dashboard.getIndicators());
+        assertNull(dashboard.getRequests());
+        assertNotNull(dashboard.getSchedule());
+        assertNotNull(dashboard.getRequestStats());
+
+        JsonNode json = new ObjectMapper().registerModule(new JavaTimeModule()).valueToTree(dashboard);
+        assertEquals(Set.of("schedule", "requestStats"), Set.copyOf(fieldNames(json)));
+    }
+
+    @Test
+    void estudianteInexistente() {
+        SirhaException e = assertThrows(SirhaException.class, () -> service.getDashboard("nadie", Set.of()));
+        assertEquals(ErrorCodeSirha.STUDENT_NOT_FOUND, e.getErrorCode());
+    }
+
+    private static List<String> fieldNames(JsonNode json) {
+        List<String> names = new ArrayList<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,323 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+
+import edu.dosw.sirha.sirha_backend.config.JacksonConfig;
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.CambioGrupo;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.SemaforoColores;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.repository.migration.ReferenceNormalizer;
+
+/**
+ * Verifica el formato normalizado del estudiante con el conversor real de Spring Data
+ * sobre una base en memoria que solo atiende las búsquedas por id de las referencias.
+ */
+class StudentReferenceMappingTest {
+
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa5Q8yQ2mB1S1E5oT0r8j1m3GQb9iW2";
+
+    private final Map<String, List<Document>> collections = new HashMap<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    private MappingMongoConverter converter;
+
+    private Student student;
+    private Subject matematicas;
+    private Group grupoMatematicas;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory()), context);
+        converter.afterPropertiesSet();
+
+        AcademicPeriod period = new AcademicPeriod("2024-1", LocalDate.now(), LocalDate.now().plusMonths(5));
+        matematicas = new Subject("sub-mat", "Matemáticas I", 4);
+        Subject fisica = new Subject("sub-fis", "Física I", 3);
+        StudyPlan plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.setId("plan-sis");
+        plan.addSubject(matematicas);
+        plan.addSubject(fisica);
+        grupoMatematicas = new Group(matematicas, 30, period);
+        grupoMatematicas.setId("grp-mat-1");
+        Group grupoFisica = new Group(fisica, 30, period);
+        grupoFisica.setId("grp-fis-1");
+        Group otroGrupoFisica = new Group(fisica, 30, period);
+        otroGrupoFisica.setId("grp-fis-2");
+
+        student = new Student("stu-1", "ana.gomez", "ana@universidad.edu", HASH, "2024010");
+        student.setAcademicProgress(new Semaforo(plan));
+        student.setCurrentPeriod(period);
+        student.enrollSubject(matematicas, grupoMatematicas, 1);
+        student.enrollSubject(fisica, grupoFisica, 1);
+        student.approveSubject(matematicas);
+        CambioGrupo cambio = student.createGroupChangeRequest(fisica, otroGrupoFisica);
+        cambio.setId("req-1");
+
+        save("subjects", matematicas);
+        save("subjects", fisica);
+        save("study_plans", plan);
+        save("groups", grupoMatematicas);
+        save("groups", grupoFisica);
+        save("groups", otroGrupoFisica);
+        save("requests", cambio);
+    }
+
+    @Test
+    void estudianteGuardaSoloReferencias() {
+        Document written = write(student);
+
+        Document progress = written.get("academicProgress", Document.class);
+        assertEquals(ref("plan-sis"), progress.get("studyPlan"));
+        Document mat = progress.get("subjects", Document.class).get("Matemáticas I", Document.class);
+        assertEquals(ref("sub-mat"), mat.get("subject"));
+        assertEquals(ref("grp-mat-1"), mat.get("group"));
+        assertEquals("Matemáticas I", mat.get("name"));
+        assertEquals(4, mat.get("credits"));
+        mat.getList("history", Document.class).forEach(entry -> assertEquals(ref("grp-mat-1"), entry.get("group")));
+        assertEquals(List.of(ref("req-1")), written.get("solicitudes"));
+
+        Document request = collections.get("requests").get(0);
+        assertEquals(ref("stu-1"), request.get("student"));
+        assertEquals(ref("sub-fis"), request.get("subject"));
+        assertEquals(ref("grp-fis-2"), request.get("newGroup"));
+    }
+
+    @Test
+    void referenciasSeResuelvenAlUsarse() throws SirhaException {
+        save("students", student);
+        Student loaded = converter.read(Student.class, write(student));
+        assertEquals(0, queries.get());
+
+        // Nombre, créditos y colores vienen del propio documento
+        assertEquals(1, loaded.getAcademicPensum().get(SemaforoColores.VERDE).size());
+        assertEquals(4, loaded.getCreditsByColor(SemaforoColores.VERDE));
+        assertEquals(0, queries.get());
+
+        assertEquals(Careers.INGENIERIA_DE_SISTEMAS, loaded.getCareer());
+        assertEquals(1, queries.get());
+
+        List<BaseRequest> requests = loaded.getSolicitudes();
+        assertEquals(2, queries.get());
+        assertEquals(1, requests.size());
+        CambioGrupo cambio = (CambioGrupo) requests.get(0);
+        assertEquals("stu-1", cambio.getStudentId());
+        assertEquals("grp-fis-2", cambio.getNewGroup().getId());
+        assertEquals(3, queries.get());
+
+        assertEquals(grupoMatematicas, ((Semaforo) loaded.getAcademicProgress()).getPassedSubjects().get(0).getGroup());
+        assertEquals("ana.gomez", cambio.getStudent().getUsername());
+    }
+
+    @Test
+    void formatoEmbebidoSeLeeYSeNormaliza() throws SirhaException {
+        Document normalized = write(student);
+        Document legacy = embed(normalized);
+        assertInstanceOf(Document.class, legacy.get("academicProgress", Document.class).get("studyPlan"));
+
+        // La aplicación lee documentos aún no migrados
+        Student loaded = converter.read(Student.class, legacy);
+        assertEquals(Careers.INGENIERIA_DE_SISTEMAS, loaded.getCareer());
+        assertEquals(matematicas, ((Semaforo) loaded.getAcademicProgress()).getPassedSubjects().get(0).getSubject());
+
+        List<Document> extracted = new ArrayList<>();
+        Document migrated = ReferenceNormalizer.normalizeStudent(legacy, extracted);
+        assertEquals(normalized, migrated);
+        assertEquals(1, extracted.size());
+        assertEquals(ref("stu-1"), extracted.get(0).get("student"));
+        assertEquals(ref("grp-fis-2"), extracted.get(0).get("newGroup"));
+        assertEquals(collections.get("requests").get(0), extracted.get(0));
+        assertInstanceOf(Document.class, legacy.get("academicProgress", Document.class).get("studyPlan"),
+                "la migración no modifica el documento leído");
+        assertEquals(migrated, ReferenceNormalizer.normalizeStudent(migrated, new ArrayList<>()));
+    }
+
+    @Test
+    void jsonNoExponeProxiesNiCiclos() throws Exception {
+        Student loaded = converter.read(Student.class, write(student));
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new JacksonConfig().lazyReferenceModule())
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+        JsonNode json = mapper.valueToTree(loaded);
+        assertEquals("INGENIERIA_DE_SISTEMAS", json.at("/academicProgress/studyPlan/career").asText());
+        JsonNode request = json.at("/solicitudes/0");
+        assertEquals("stu-1", request.get("studentId").asText());
+        assertFalse(request.has("student"));
+        assertEquals("grp-fis-2", request.at("/newGroup/id").asText());
+    }
+
+    private Document write(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    private void save(String collection, Object entity) {
+        collections.computeIfAbsent(collection, name -> new ArrayList<>()).add(write(entity));
+    }
+
+    /** Reconstruye el formato anterior reemplazando cada referencia por el documento referenciado. */
+    private Document embed(Document student) {
+        Document legacy = copy(student);
+        Document progress = legacy.get("academicProgress", Document.class);
+        progress.put("studyPlan", find("study_plans", progress.get("studyPlan")));
+        for (Object value : progress.get("subjects", Document.class).values()) {
+            Document decorator = (Document) value;
+            decorator.remove("name");
+            decorator.remove("credits");
+            decorator.put("subject", find("subjects", decorator.get("subject")));
+            if (decorator.get("group") != null) {
+                decorator.put("group", find("groups", decorator.get("group")));
+            }
+            decorator.getList("history", Document.class).forEach(entry -> entry.put("group", find("groups", entry.get("group"))));
+        }
+        List<Object> requests = new ArrayList<>();
+        for (Object id : legacy.getList("solicitudes", Object.class)) {
+            Document request = copy(find("requests", id));
+            request.put("student", copy(student));
+            request.put("subject", find("subjects", request.get("subject")));
+            request.put("newGroup", find("groups", request.get("newGroup")));
+            requests.add(request);
+        }
+        legacy.put("solicitudes", requests);
+        return legacy;
+    }
+
+    private static Document copy(Document document) {
+        Document copy = new Document();
+        document.forEach((key, value) -> copy.put(key, value instanceof Document nested ? copy(nested)
+                : value instanceof List<?> list ? list.stream().map(item -> item instanceof Document d ? copy(d) : item).toList()
+                : value));
+        return copy;
+    }
+
+    private static Document ref(String id) {
+        return new Document("_id", id);
+    }
+
+    private Document find(String collection, Object reference) {
+        Object id = ((Document) reference).get("_id");
+        return collections.getOrDefault(collection, List.of()).stream()
+                .filter(document -> id.equals(document.get("_id")))
+                .findFirst().orElseThrow();
+    }
+
+    // --- Base en memoria: solo find por {_id}, {_id: {$in}} y $or de esos filtros ---
+
+    private MongoDatabaseFactory databaseFactory() {
+        MongoDatabase database = fake(MongoDatabase.class, (method, args) -> switch (method) {
+            case "getCollection" -> collection((String) args[0]);
+            case "getName" -> "sirha";
+            default -> throw new UnsupportedOperationException(method);
+        });
+        return fake(MongoDatabaseFactory.class, (method, args) -> switch (method) {
+            case "getMongoDatabase" -> database;
+            case "getExceptionTranslator" -> new MongoExceptionTranslator();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private MongoCollection<?> collection(String name) {
+        return fake(MongoCollection.class, (method, args) -> switch (method) {
+            case "find" -> findIterable(name, (Bson) args[0]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private FindIterable<?> findIterable(String collection, Bson filter) {
+        queries.incrementAndGet();
+        List<Document> result = collections.getOrDefault(collection, List.of()).stream()
+                .filter(document -> matches(document, (Document) filter))
+                .toList();
+        FindIterable<?>[] self = new FindIterable<?>[1];
+        self[0] = fake(FindIterable.class, (method, args) -> switch (method) {
+            case "iterator", "cursor" -> cursor(result.iterator());
+            case "first" -> result.isEmpty() ? null : result.get(0);
+            case "sort", "limit", "skip", "batchSize", "projection", "collation" -> self[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+        return self[0];
+    }
+
+    private static MongoCursor<?> cursor(Iterator<Document> iterator) {
+        return fake(MongoCursor.class, (method, args) -> switch (method) {
+            case "hasNext" -> iterator.hasNext();
+            case "next" -> iterator.next();
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static boolean matches(Document document, Document filter) {
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            if (condition.getKey().equals("$or")) {
+                if (((List<?>) condition.getValue()).stream().noneMatch(f -> matches(document, (Document) f))) {
+                    return false;
+                }
+            } else if (condition.getValue() instanceof Document operator && operator.containsKey("$in")) {
+                if (!((List<?>) operator.get("$in")).contains(document.get(condition.getKey()))) {
+                    return false;
+                }
+            } else if (!condition.getValue().equals(document.get(condition.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T fake(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(StudentReferenceMappingTest.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    // Método por defecto de Iterator: recorre con hasNext/next del propio fake
+                    case "forEachRemaining" -> InvocationHandler.invokeDefault(proxy, method, args);
+                    default -> handler.handle(method.getName(), args);
+                }));
+    }
+}
@@ -0,0 +1,46 @@
+package edu.dosw.sirha.sirha_backend;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import edu.dosw.sirha.sirha_backend.domain.model.enums.BatchEnrollmentMode;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.StudentMongoRepository;
+import edu.dosw.sirha.sirha_backend.service.impl.SeatReservationServiceImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.StudentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Arma {@link StudentServiceImpl} para las pruebas, con en null los colaboradores que cada
+ * caso no usa. Así un cambio del constructor se ajusta solo aquí.
+ */
+final class StudentServices {
+
+    static final int MAX_BATCH_ITEMS = 4;
+
+    private StudentServices() {
+    }
+
+    /** Servicio para consultas: solo lee del repositorio de estudiantes. */
+    static StudentServiceImpl reading(StudentMongoRepository students) {
+        return new StudentServiceImpl(students, null, null, null, null, null, null, null, 12, BatchEnrollmentMode.ALL_OR_NOTHING);
+    }
+
+    /** Servicio para inscripciones sobre el catálogo y los cupos dados. */
+    static StudentServiceImpl enrolling(StudentMongoRepository students, CatalogCache catalog,
+                                        GroupSeatRepository seats, TransactionRunner transactions) {
+        return new StudentServiceImpl(students, null, catalog, new SeatReservationServiceImpl(seats),
+                new SirhaMetrics(new SimpleMeterRegistry()),
+                new GroupCompatibilityIndex(null, null, new SimpleMeterRegistry(), 8, Duration.ofMinutes(10)),
+                null, transactions, MAX_BATCH_ITEMS, BatchEnrollmentMode.ALL_OR_NOTHING);
+    }
+
+    /** Ejecutor sin gestor de transacciones; repite hasta tres veces por conflicto de versión. */
+    static TransactionRunner withoutTransactions() {
+        return new TransactionRunner(Optional.empty(), new SimpleMeterRegistry(), 1, Duration.ZERO, 3, Duration.ZERO);
+    }
+}
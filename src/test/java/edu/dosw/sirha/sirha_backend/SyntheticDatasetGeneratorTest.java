@@ -0,0 +1,105 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Decanate;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.domain.model.staterequest.BaseRequest;
+import edu.dosw.sirha.sirha_backend.domain.model.statesubjectdec.SubjectDecorator;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.util.SyntheticDatasetGenerator;
+
+class SyntheticDatasetGeneratorTest {
+
+    private static SyntheticDatasetGenerator generator(long seed) throws SirhaException {
+        return new SyntheticDatasetGenerator(seed, 2, 30, 3, 3, 40, "Sirha2025*");
+    }
+
+    @Test
+    void mismaSemillaGeneraLosMismosDatos() throws SirhaException {
+        SyntheticDatasetGenerator first = generator(7);
+        SyntheticDatasetGenerator second = generator(7);
+
+        assertEquals(fingerprint(first.nextStudents(120)), fingerprint(second.nextStudents(120)));
+        assertEquals(first.getGroups().stream().map(Group::getId).toList(),
+                second.getGroups().stream().map(Group::getId).toList());
+        assertEquals(first.getGroups().stream().map(Group::getInscritos).toList(),
+                second.getGroups().stream().map(Group::getInscritos).toList());
+
+        assertNotEquals(fingerprint(generator(7).nextStudents(50)), fingerprint(generator(8).nextStudents(50)));
+    }
+
+    @Test
+    void inscripcionesRespetanCuposYHorarios() throws SirhaException {
+        SyntheticDatasetGenerator generator = generator(11);
+        List<Student> students = new ArrayList<>();
+        for (int batch = 0; batch < 4; batch++) {
+            students.addAll(generator.nextStudents(100));
+        }
+        assertEquals(400, generator.getGeneratedStudents());
+
+        int enrollments = 0;
+        for (Student student : students) {
+            List<Group> current = new ArrayList<>();
+            for (SubjectDecorator inProgress : student.getSubjectsInProgress()) {
+                Group group = inProgress.getGroup();
+                assertTrue(group.contieneEstudiante(student));
+                assertEquals(generator.getCurrentPeriod(), group.getCurrentPeriod());
+                for (Group other : current) {
+                    assertFalse(group.getTimetable().conflictsWith(other.getTimetable()), student.getCodigo());
+                }
+                current.add(group);
+            }
+            enrollments += current.size();
+        }
+        assertTrue(enrollments > 0);
+        assertEquals(enrollments, generator.getGroups().stream().mapToInt(Group::getInscritos).sum());
+        for (Group group : generator.getGroups()) {
+            assertTrue(group.getInscritos() <= group.getCapacity());
+        }
+    }
+
+    @Test
+    void catalogoConCodigosUnicosYColasAcotadas() throws SirhaException {
+        SyntheticDatasetGenerator generator = generator(3);
+        List<Student> students = generator.nextStudents(300);
+
+        Set<String> codes = new HashSet<>();
+        generator.getGroups().forEach(group -> assertTrue(codes.add(group.getCode()), group.getCode()));
+        assertEquals(2 * 30 * 3 * 2, generator.getGroups().size());
+        assertEquals(2, generator.getStudyPlans().size());
+        generator.getStudyPlans().forEach(plan -> assertFalse(plan.getPrerequisiteGraph().hasCycle()));
+
+        long requests = students.stream().mapToLong(s -> s.getSolicitudes().size()).sum();
+        assertTrue(requests > 0);
+        for (Decanate decanate : generator.getDecanates()) {
+            assertFalse(decanate.getPendingRequests().isEmpty());
+            assertTrue(decanate.getPendingRequests().size() <= 40);
+            for (BaseRequest request : decanate.getPendingRequests()) {
+                assertEquals(decanate.getCareer(), request.getStudentCareer());
+            }
+        }
+    }
+
+    private static List<String> fingerprint(List<Student> students) {
+        List<String> result = new ArrayList<>();
+        for (Student student : students) {
+            StringBuilder line = new StringBuilder(student.getId()).append(' ').append(student.getCodigo())
+                .append(' ').append(student.getCareer());
+            student.getSubjectsInProgress().forEach(d -> line.append(' ').append(d.getName()));
+            ((Semaforo) student.getAcademicProgress()).getPassedSubjects().forEach(d -> line.append(" +").append(d.getName()));
+            student.getSolicitudes().forEach(r -> line.append(" #").append(r.getId()).append(r.getActualState()));
+            result.add(line.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.TimetablePlanner;
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+class TimetablePlannerTest {
+
+    private static final AcademicPeriod PERIOD = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    private static final Duration BUDGET = Duration.ofSeconds(10);
+
+    private static Group group(Subject subject, DiasSemana day, int from, int to) throws SirhaException {
+        Group g = new Group(subject, 30, PERIOD);
+        g.addSchedule(new Schedule(day, LocalTime.of(from, 0), LocalTime.of(to, 0)));
+        return g;
+    }
+
+    private static List<String> codes(TimetablePlanner.Plan plan) {
+        return plan.assignments().stream().map(a -> a.group().getCode()).toList();
+    }
+
+    private static TimetablePlanner planner(int maxPlans, long parallelThreshold) {
+        return new TimetablePlanner(maxPlans, BUDGET, parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void soloCombinacionesSinCrucesOrdenadasPorDiasYHuecos() throws SirhaException {
+        Subject calculo = new Subject("cal", "Calculo", 4);
+        Subject fisica = new Subject("fis", "Fisica", 4);
+        Group c1 = group(calculo, DiasSemana.LUNES, 8, 10);
+        Group c2 = group(calculo, DiasSemana.MARTES, 8, 10);
+        Group f1 = group(fisica, DiasSemana.LUNES, 8, 10);
+        Group f2 = group(fisica, DiasSemana.LUNES, 10, 12);
+        Group f3 = group(fisica, DiasSemana.LUNES, 14, 16);
+
+        TimetablePlanner.Result result = planner(10, Long.MAX_VALUE).plan(WeeklyTimetable.empty(), List.of(
+                new TimetablePlanner.Candidates("Calculo", List.of(c1, c2)),
+                new TimetablePlanner.Candidates("Fisica", List.of(f1, f2, f3))));
+
+        assertFalse(result.truncated());
+        // c1 choca con f1: quedan 5 combinaciones completas
+        assertEquals(5, result.plans().size());
+        TimetablePlanner.Plan first = result.plans().get(0);
+        assertEquals(List.of(c1.getCode(), f2.getCode()), codes(first));
+        assertEquals(1, first.days());
+        assertEquals(0, first.gapMinutes());
+        TimetablePlanner.Plan second = result.plans().get(1);
+        assertEquals(List.of(c1.getCode(), f3.getCode()), codes(second));
+        assertEquals(240, second.gapMinutes());
+        for (TimetablePlanner.Plan plan : result.plans()) {
+            assertEquals(2, plan.coverage());
+            assertNotEquals(List.of(c1.getCode(), f1.getCode()), codes(plan));
+        }
+    }
+
+    @Test
+    void materiaQueNoCabeQuedaSinAsignar() throws SirhaException {
+        Subject calculo = new Subject("cal", "Calculo", 4);
+        Subject fisica = new Subject("fis", "Fisica", 4);
+        Subject quimica = new Subject("qui", "Quimica", 3);
+        Group c1 = group(calculo, DiasSemana.JUEVES, 7, 9);
+        Group f1 = group(fisica, DiasSemana.JUEVES, 8, 10);
+        Group q1 = group(quimica, DiasSemana.VIERNES, 7, 9);
+
+        TimetablePlanner.Result result = planner(10, Long.MAX_VALUE).plan(WeeklyTimetable.empty(), List.of(
+                new TimetablePlanner.Candidates("Calculo", List.of(c1)),
+                new TimetablePlanner.Candidates("Fisica", List.of(f1)),
+                new TimetablePlanner.Candidates("Quimica", List.of(q1))));
+
+        assertEquals(2, result.plans().size());
+        for (TimetablePlanner.Plan plan : result.plans()) {
+            assertEquals(2, plan.coverage());
+            assertEquals(1, plan.unassigned().size());
+            assertTrue(codes(plan).contains(q1.getCode()));
+        }
+    }
+
+    @Test
+    void ocupacionActualCuentaEnLasMetricas() throws SirhaException {
+        Subject calculo = new Subject("cal", "Calculo", 4);
+        Group c1 = group(calculo, DiasSemana.MIERCOLES, 8, 10);
+        Group c2 = group(calculo, DiasSemana.LUNES, 10, 12);
+        WeeklyTimetable occupied = WeeklyTimetable.of(List.of(
+                new Schedule(DiasSemana.LUNES, LocalTime.of(7, 0), LocalTime.of(9, 0))));
+
+        TimetablePlanner.Result result = planner(10, Long.MAX_VALUE).plan(occupied, List.of(
+                new TimetablePlanner.Candidates("Calculo", List.of(c1, c2))));
+
+        TimetablePlanner.Plan first = result.plans().get(0);
+        assertEquals(List.of(c2.getCode()), codes(first));
+        assertEquals(1, first.days());
+        assertEquals(60, first.gapMinutes());
+    }
+
+    @Test
+    void busquedaParalelaCoincideConLaSecuencial() throws SirhaException {
+        Random random = new Random(7);
+        DiasSemana[] days = DiasSemana.values();
+        List<TimetablePlanner.Candidates> requested = new ArrayList<>();
+        for (int s = 0; s < 7; s++) {
+            Subject subject = new Subject("m" + s, "Materia" + s, 3);
+            List<Group> groups = new ArrayList<>();
+            for (int g = 0; g < 4; g++) {
+                int from = 7 + random.nextInt(10);
+                groups.add(group(subject, days[random.nextInt(6)], from, from + 2));
+            }
+            requested.add(new TimetablePlanner.Candidates(subject.getName(), groups));
+        }
+
+        TimetablePlanner.Result sequential = planner(8, Long.MAX_VALUE).plan(WeeklyTimetable.empty(), requested);
+        TimetablePlanner.Result parallel = planner(8, 10).plan(WeeklyTimetable.empty(), requested);
+
+        assertFalse(sequential.plans().isEmpty());
+        assertEquals(sequential.plans().size(), parallel.plans().size());
+        for (int i = 0; i < sequential.plans().size(); i++) {
+            assertEquals(codes(sequential.plans().get(i)), codes(parallel.plans().get(i)));
+        }
+    }
+
+    @Test
+    void presupuestoAgotadoMarcaElResultadoComoTruncado() throws SirhaException {
+        Subject calculo = new Subject("cal", "Calculo", 4);
+        Group c1 = group(calculo, DiasSemana.LUNES, 8, 10);
+
+        TimetablePlanner.Result result = new TimetablePlanner(5, Duration.ZERO, Long.MAX_VALUE, ForkJoinPool.commonPool())
+                .plan(WeeklyTimetable.empty(), List.of(new TimetablePlanner.Candidates("Calculo", List.of(c1))));
+
+        assertTrue(result.truncated());
+        assertTrue(result.plans().isEmpty());
+    }
+}
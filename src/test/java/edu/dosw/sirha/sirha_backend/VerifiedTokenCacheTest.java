@@ -0,0 +1,97 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import edu.dosw.sirha.sirha_backend.config.JwtAuthenticationFilter;
+import edu.dosw.sirha.sirha_backend.util.JwtUtil;
+import edu.dosw.sirha.sirha_backend.util.VerifiedTokenCache;
+import edu.dosw.sirha.sirha_backend.util.VerifiedTokenCache.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+class VerifiedTokenCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("01234567890123456789012345678901", "test-issuer", 60);
+        cache = new VerifiedTokenCache(jwtUtil, registry, 100);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tags("cache", "auth.tokens", "result", result).functionCounter().count();
+    }
+
+    @Test
+    void tokenConocidoSeResuelveDesdeLaCache() {
+        String token = jwtUtil.generate("ana", "STUDENT");
+
+        VerifiedToken first = cache.verify(token);
+        VerifiedToken second = cache.verify(token);
+
+        assertSame(first, second);
+        assertEquals("ana", first.username());
+        assertEquals("ROLE_STUDENT", first.authorities().get(0).getAuthority());
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    void tokenAlteradoSeRechazaSiempre() {
+        String token = jwtUtil.generate("ana", "STUDENT");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertEquals(0, gets("hit"));
+    }
+
+    @Test
+    void filtroAutenticaConLaCacheYOmiteRutasPublicas() throws IOException, ServletException {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(cache);
+        String token = jwtUtil.generate("decano", "DEAN");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/exports/students");
+        request.setServletPath("/api/exports/students");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("decano", auth.getName());
+        assertEquals("ROLE_DEAN", auth.getAuthorities().iterator().next().getAuthority());
+
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest publicRequest = new MockHttpServletRequest("GET", "/actuator/health");
+        publicRequest.setServletPath("/actuator/health");
+        publicRequest.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(publicRequest, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        MockHttpServletRequest docs = new MockHttpServletRequest("GET", "/swagger-ui");
+        docs.setServletPath("/swagger-ui");
+        docs.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(docs, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
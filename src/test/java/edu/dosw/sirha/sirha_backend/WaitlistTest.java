@@ -0,0 +1,343 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import edu.dosw.sirha.sirha_backend.domain.model.AcademicPeriod;
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.Semaforo;
+import edu.dosw.sirha.sirha_backend.domain.model.Student;
+import edu.dosw.sirha.sirha_backend.domain.model.StudyPlan;
+import edu.dosw.sirha.sirha_backend.domain.model.Subject;
+import edu.dosw.sirha.sirha_backend.domain.model.WaitlistEntry;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.Careers;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.WaitlistPriority;
+import edu.dosw.sirha.sirha_backend.domain.model.stategroup.Group;
+import edu.dosw.sirha.sirha_backend.dto.WaitlistPositionDTO;
+import edu.dosw.sirha.sirha_backend.exception.ErrorCodeSirha;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+import edu.dosw.sirha.sirha_backend.infrastructure.metrics.SirhaMetrics;
+import edu.dosw.sirha.sirha_backend.infrastructure.transaction.TransactionRunner;
+import edu.dosw.sirha.sirha_backend.repository.cache.CatalogCache;
+import edu.dosw.sirha.sirha_backend.repository.cache.GroupCompatibilityIndex;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupSeatRepositoryImpl;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepository;
+import edu.dosw.sirha.sirha_backend.repository.mongo.GroupWaitlistRepositoryImpl;
+import edu.dosw.sirha.sirha_backend.service.impl.WaitlistServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WaitlistTest {
+
+    private final AcademicPeriod period = new AcademicPeriod("2025-1", LocalDate.now(), LocalDate.now().plusMonths(4));
+    private final InMemoryStudents students = new InMemoryStudents();
+    private final InMemoryGroupSeats groups = new InMemoryGroupSeats();
+
+    private Subject calculo;
+    private Subject fisica;
+    private StudyPlan plan;
+    private Group grupo;
+    private WaitlistServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws SirhaException {
+        calculo = new Subject("cal", "Calculo", 4);
+        fisica = new Subject("fis", "Fisica", 4);
+        plan = new StudyPlan(Careers.INGENIERIA_DE_SISTEMAS);
+        plan.addSubject(calculo);
+        plan.addSubject(fisica);
+
+        grupo = new Group(calculo, 1, period);
+        grupo.addSchedule(new Schedule(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(10, 0)));
+        grupo.enrollStudent(student("titular", "100"));
+        groups.register(grupo);
+
+        service = service(groups, groups);
+    }
+
+    private WaitlistServiceImpl service(GroupSeatRepository seats, GroupWaitlistRepository waitlists) {
+        CatalogCache catalog = new CatalogCache(null, null, null, null, null, new SimpleMeterRegistry(), 10, Duration.ofMinutes(5)) {
+            @Override
+            public Optional<Subject> findSubjectByName(String name) {
+                return Optional.ofNullable(plan.getSubjects().get(name));
+            }
+        };
+        GroupCompatibilityIndex index = new GroupCompatibilityIndex(null, null, new SimpleMeterRegistry(), 8, Duration.ofMinutes(10));
+        return new WaitlistServiceImpl(students.repository(), catalog, seats, waitlists, index,
+                new SirhaMetrics(new SimpleMeterRegistry()),
+                new TransactionRunner(Optional.empty(), new SimpleMeterRegistry(), 1, Duration.ZERO, 3, Duration.ZERO),
+                10, WaitlistPriority.FIFO);
+    }
+
+    private Student student(String username, String codigo) throws SirhaException {
+        Student student = new Student(username, username + "@universidad.edu", InMemoryStudents.HASH, codigo);
+        student.setAcademicProgress(new Semaforo(plan));
+        student.setCurrentPeriod(period);
+        return students.add(student);
+    }
+
+    @Test
+    void cupoLiberadoQuedaRetenidoParaLaListaDeEspera() throws SirhaException {
+        Group g = new Group(calculo, 2, period);
+        g.enrollStudent(student("a", "1"));
+        g.enrollStudent(student("b", "2"));
+        assertFalse(g.isOpen());
+        g.addToWaitlist(new WaitlistEntry("3", "c", "Calculo", 0, Instant.now()), 10);
+
+        g.unenrollStudent(students.get("a"));
+
+        assertFalse(g.isOpen());
+        assertEquals(0, g.getCuposDisponibles());
+        assertEquals(1, g.getCuposRetenidos());
+
+        g.assignHeldSeat("3");
+        assertTrue(g.contieneCodigo("3"));
+        assertEquals(0, g.getCuposRetenidos());
+        assertEquals(0, g.getWaitlistSize());
+
+        // Sin nadie en espera el cupo vuelve al grupo como antes
+        g.unenrollStudent(students.get("b"));
+        assertTrue(g.isOpen());
+        assertEquals(1, g.getCuposDisponibles());
+    }
+
+    @Test
+    void devolverElCupoRecuperaPrimeroElRetenido() throws SirhaException {
+        grupo.addToWaitlist(new WaitlistEntry("200", "ana", "Calculo", 0, Instant.now()), 10);
+        groups.releaseSeat(grupo.getCode(), "100").orElseThrow();
+        assertEquals(1, grupo.getCuposRetenidos());
+
+        Group restored = groups.restoreSeat(grupo.getCode(), "100").orElseThrow();
+
+        assertTrue(restored.contieneCodigo("100"));
+        assertEquals(0, restored.getCuposRetenidos());
+        assertFalse(restored.isOpen());
+        assertEquals(1, restored.getWaitlistSize());
+        assertTrue(groups.restoreSeat(grupo.getCode(), "100").isEmpty());
+        assertTrue(groups.restoreSeat(grupo.getCode(), "300").isEmpty());
+    }
+
+    @Test
+    void prioridadYLuegoOrdenDeLlegada() throws SirhaException {
+        Instant now = Instant.now();
+        grupo.addToWaitlist(new WaitlistEntry("1", "a", "Calculo", 3, now.plusSeconds(2)), 10);
+        grupo.addToWaitlist(new WaitlistEntry("2", "b", "Calculo", 5, now.plusSeconds(3)), 10);
+        grupo.addToWaitlist(new WaitlistEntry("3", "c", "Calculo", 3, now.plusSeconds(1)), 10);
+
+        assertEquals("2", grupo.nextInWaitlist().orElseThrow().getCodigo());
+        assertEquals(2, grupo.getWaitlistPosition("3"));
+        assertEquals(3, grupo.getWaitlistPosition("1"));
+
+        SirhaException llena = assertThrows(SirhaException.class,
+                () -> grupo.addToWaitlist(new WaitlistEntry("4", "d", "Calculo", 0, now), 3));
+        assertEquals(ErrorCodeSirha.OPERATION_NOT_ALLOWED, llena.getErrorCode());
+    }
+
+    @Test
+    void promueveAlSiguienteQueCumpleLasReglasDeInscripcion() throws SirhaException {
+        Student ana = student("ana", "200");
+        student("luis", "300");
+        assertEquals(1, service.joinWaitlist("ana", "Calculo", grupo.getCode()).getPosition());
+        WaitlistPositionDTO luis = service.joinWaitlist("luis", "Calculo", grupo.getCode());
+        assertEquals(2, luis.getPosition());
+        assertEquals(2, luis.getWaiting());
+
+        // Mientras espera, ana inscribe un grupo que choca con el horario del grupo lleno
+        Group fisicaLunes = new Group(fisica, 30, period);
+        fisicaLunes.addSchedule(new Schedule(DiasSemana.LUNES, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        ana.enrollSubject(fisica, fisicaLunes);
+
+        groups.releaseSeat(grupo.getCode(), "100");
+        assertEquals(1, grupo.getCuposRetenidos());
+        assertFalse(grupo.isOpen());
+
+        assertEquals(1, service.promote(grupo.getCode()));
+
+        assertTrue(grupo.contieneCodigo("300"));
+        assertFalse(grupo.contieneCodigo("200"));
+        assertEquals(0, grupo.getWaitlistSize());
+        assertEquals(0, grupo.getCuposRetenidos());
+        assertFalse(grupo.isOpen());
+        assertEquals(List.of("luis"), students.saved().stream().map(Student::getUsername).toList());
+        assertTrue(students.get("luis").hasSubject(calculo));
+    }
+
+    @Test
+    void sinNadieEnEsperaLosCuposRetenidosVuelvenAlGrupo() throws SirhaException {
+        student("ana", "200");
+        service.joinWaitlist("ana", "Calculo", grupo.getCode());
+        groups.releaseSeat(grupo.getCode(), "100");
+        assertEquals(1, grupo.getCuposRetenidos());
+
+        service.leaveWaitlist("ana", grupo.getCode());
+
+        assertEquals(0, grupo.getCuposRetenidos());
+        assertEquals(1, grupo.getCuposDisponibles());
+        assertTrue(grupo.isOpen());
+        assertTrue(students.saved().isEmpty());
+    }
+
+    @Test
+    void soloSeEsperaEnGruposCerrados() throws SirhaException {
+        student("ana", "200");
+        SirhaException inscrito = assertThrows(SirhaException.class,
+                () -> service.joinWaitlist("titular", "Calculo", grupo.getCode()));
+        assertEquals(ErrorCodeSirha.STUDENT_ALREADY_IN_GROUP, inscrito.getErrorCode());
+
+        groups.releaseSeat(grupo.getCode(), "100");
+        assertTrue(grupo.isOpen());
+        SirhaException abierto = assertThrows(SirhaException.class,
+                () -> service.joinWaitlist("ana", "Calculo", grupo.getCode()));
+        assertEquals(ErrorCodeSirha.OPERATION_NOT_ALLOWED, abierto.getErrorCode());
+    }
+
+    @Test
+    void siFallaGuardarAlPromovidoRecuperaSuLugarYElCupoSigueRetenido() throws SirhaException {
+        student("ana", "200");
+        student("luis", "300");
+        service.joinWaitlist("ana", "Calculo", grupo.getCode());
+        service.joinWaitlist("luis", "Calculo", grupo.getCode());
+        groups.releaseSeat(grupo.getCode(), "100");
+        students.failNextSave(() -> new IllegalStateException("Fallo simulado al guardar a ana"));
+
+        assertThrows(SirhaException.class, () -> service.promote(grupo.getCode()));
+
+        assertFalse(grupo.contieneCodigo("200"));
+        assertEquals(1, grupo.getWaitlistPosition("200"));
+        assertEquals(2, grupo.getWaitlistSize());
+        assertEquals(1, grupo.getCuposRetenidos());
+        assertFalse(grupo.isOpen());
+        assertTrue(students.saved().isEmpty());
+    }
+
+    /**
+     * Las actualizaciones de la lista de espera contra un mongod real, a través de
+     * {@link GroupSeatRepositoryImpl} y {@link GroupWaitlistRepositoryImpl}.
+     */
+    @Nested
+    @Testcontainers(disabledWithoutDocker = true)
+    class AgainstMongo {
+
+        private MongoTemplate mongo;
+        private GroupSeatRepositoryImpl seats;
+        private GroupWaitlistRepositoryImpl waitlists;
+
+        @BeforeEach
+        void setUpMongo() {
+            mongo = MongoTestContainer.freshTemplate();
+            seats = new GroupSeatRepositoryImpl(mongo);
+            waitlists = new GroupWaitlistRepositoryImpl(mongo);
+            mongo.insert(grupo);
+        }
+
+        @AfterEach
+        void dropDatabase() {
+            mongo.getDb().drop();
+        }
+
+        private Group stored() {
+            return seats.findSeatSnapshot(grupo.getCode()).orElseThrow();
+        }
+
+        private WaitlistEntry entry(String codigo, String username) {
+            return new WaitlistEntry(codigo, username, "Calculo", 0, Instant.now());
+        }
+
+        @Test
+        void liberarConEsperaRetieneElCupo() {
+            assertTrue(waitlists.joinWaitlist(grupo.getCode(), entry("200", "ana"), 10).isPresent());
+
+            Group released = seats.releaseSeat(grupo.getCode(), "100").orElseThrow();
+
+            assertFalse(released.contieneCodigo("100"));
+            assertEquals(1, released.getCuposRetenidos());
+            assertEquals(0, released.getCuposDisponibles());
+            assertFalse(released.isOpen());
+            assertEquals(List.of(grupo.getCode()), waitlists.findCodesWithHeldSeats());
+            // Nadie fuera de la lista puede tomar el cupo retenido
+            assertTrue(seats.reserveSeat(grupo.getCode(), "999").isEmpty());
+        }
+
+        @Test
+        void elPrimeroDeLaListaTomaElCupoRetenido() {
+            waitlists.joinWaitlist(grupo.getCode(), entry("200", "ana"), 10);
+            seats.releaseSeat(grupo.getCode(), "100");
+
+            assertTrue(waitlists.claimHeldSeat(grupo.getCode(), "999").isEmpty());
+            Group claimed = waitlists.claimHeldSeat(grupo.getCode(), "200").orElseThrow();
+
+            assertTrue(claimed.contieneCodigo("200"));
+            assertEquals(0, claimed.getWaitlistSize());
+            assertEquals(0, claimed.getCuposRetenidos());
+            assertEquals(0, claimed.getCuposDisponibles());
+            assertFalse(claimed.isOpen());
+            assertTrue(waitlists.claimHeldSeat(grupo.getCode(), "200").isEmpty());
+        }
+
+        @Test
+        void sinNadieEnEsperaElCupoRetenidoVuelveAlGrupo() {
+            waitlists.joinWaitlist(grupo.getCode(), entry("200", "ana"), 10);
+            seats.releaseSeat(grupo.getCode(), "100");
+            assertTrue(waitlists.releaseHeldSeats(grupo.getCode()).isEmpty());
+
+            waitlists.leaveWaitlist(grupo.getCode(), "200");
+            Group released = waitlists.releaseHeldSeats(grupo.getCode()).orElseThrow();
+
+            assertEquals(0, released.getCuposRetenidos());
+            assertEquals(1, released.getCuposDisponibles());
+            assertTrue(released.isOpen());
+            assertTrue(waitlists.findCodesWithHeldSeats().isEmpty());
+            assertTrue(seats.reserveSeat(grupo.getCode(), "999").isPresent());
+        }
+
+        @Test
+        void devolverElCupoDeshaceLaAsignacion() {
+            WaitlistEntry ana = entry("200", "ana");
+            waitlists.joinWaitlist(grupo.getCode(), ana, 10);
+            seats.releaseSeat(grupo.getCode(), "100");
+            waitlists.claimHeldSeat(grupo.getCode(), "200");
+
+            Group returned = waitlists.returnHeldSeat(grupo.getCode(), ana).orElseThrow();
+
+            assertFalse(returned.contieneCodigo("200"));
+            assertTrue(returned.isWaitlisted("200"));
+            assertEquals(ana.getJoinedAt().toEpochMilli(), returned.getWaitlist().get(0).getJoinedAt().toEpochMilli());
+            assertEquals(1, returned.getCuposRetenidos());
+            assertFalse(returned.isOpen());
+            assertTrue(waitlists.returnHeldSeat(grupo.getCode(), ana).isEmpty());
+        }
+
+        @Test
+        void promocionFallidaDevuelveElCupoEnLaBase() throws SirhaException {
+            student("ana", "200");
+            WaitlistServiceImpl mongoService = service(seats, waitlists);
+            mongoService.joinWaitlist("ana", "Calculo", grupo.getCode());
+            seats.releaseSeat(grupo.getCode(), "100");
+            students.failNextSave(() -> new IllegalStateException("Fallo simulado al guardar a ana"));
+
+            assertThrows(SirhaException.class, () -> mongoService.promote(grupo.getCode()));
+
+            Group restored = stored();
+            assertFalse(restored.contieneCodigo("200"));
+            assertTrue(restored.isWaitlisted("200"));
+            assertEquals(1, restored.getCuposRetenidos());
+            assertFalse(restored.isOpen());
+            // El cupo sigue retenido para ella
+            assertTrue(waitlists.claimHeldSeat(grupo.getCode(), "200").isPresent());
+        }
+    }
+}
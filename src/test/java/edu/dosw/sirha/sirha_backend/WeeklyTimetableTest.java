@@ -0,0 +1,100 @@
+package edu.dosw.sirha.sirha_backend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.dosw.sirha.sirha_backend.domain.model.Schedule;
+import edu.dosw.sirha.sirha_backend.domain.model.WeeklyTimetable;
+import edu.dosw.sirha.sirha_backend.domain.model.enums.DiasSemana;
+import edu.dosw.sirha.sirha_backend.exception.SirhaException;
+
+class WeeklyTimetableTest {
+
+    @Test
+    void slotMaskCubreFranjasTocadas() throws SirhaException {
+        Schedule s = new Schedule(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(9, 10));
+        // 8:00-8:30, 8:30-9:00 y la franja parcial 9:00-9:30
+        assertEquals(0b111L << 16, s.getSlotMask());
+        assertFalse(WeeklyTimetable.isSlotAligned(s));
+
+        Schedule ultima = new Schedule(DiasSemana.DOMINGO, LocalTime.of(23, 30), LocalTime.of(23, 59, 59));
+        assertEquals(1L << 47, ultima.getSlotMask());
+    }
+
+    @Test
+    void horariosContiguosNoSeSolapan() throws SirhaException {
+        WeeklyTimetable a = WeeklyTimetable.of(List.of(new Schedule(DiasSemana.MARTES, LocalTime.of(7, 0), LocalTime.of(8, 30))));
+        WeeklyTimetable b = WeeklyTimetable.of(List.of(new Schedule(DiasSemana.MARTES, LocalTime.of(8, 30), LocalTime.of(10, 0))));
+        assertFalse(a.conflictsWith(b));
+        assertFalse(b.conflictsWith(a));
+    }
+
+    @Test
+    void franjaCompartidaSinSolapamientoRealNoEsConflicto() throws SirhaException {
+        // Ambos tocan la franja 9:00-9:30 pero no se cruzan
+        WeeklyTimetable a = WeeklyTimetable.of(List.of(new Schedule(DiasSemana.JUEVES, LocalTime.of(8, 0), LocalTime.of(9, 10))));
+        Schedule b = new Schedule(DiasSemana.JUEVES, LocalTime.of(9, 10), LocalTime.of(10, 0));
+        assertFalse(a.conflictsWith(b));
+        assertFalse(a.conflictsWith(WeeklyTimetable.of(List.of(b))));
+    }
+
+    @Test
+    void coincideConOverlapsWithParaHorasNoAlineadas() throws SirhaException {
+        Random random = new Random(20241);
+        for (int i = 0; i < 20_000; i++) {
+            List<Schedule> left = randomSchedules(random, 1 + random.nextInt(4));
+            List<Schedule> right = randomSchedules(random, 1 + random.nextInt(4));
+
+            boolean expected = false;
+            for (Schedule l : left) {
+                for (Schedule r : right) {
+                    expected |= l.overlapsWith(r);
+                }
+            }
+            WeeklyTimetable lt = WeeklyTimetable.of(left);
+            WeeklyTimetable rt = WeeklyTimetable.of(right);
+            assertEquals(expected, lt.conflictsWith(rt), () -> left + " vs " + right);
+            assertEquals(expected, rt.conflictsWith(lt), () -> right + " vs " + left);
+
+            Schedule single = right.get(0);
+            boolean expectedSingle = left.stream().anyMatch(l -> l.overlapsWith(single));
+            assertEquals(expectedSingle, lt.conflictsWith(single), () -> left + " vs " + single);
+        }
+    }
+
+    @Test
+    void mergeUneOcupaciones() throws SirhaException {
+        WeeklyTimetable a = WeeklyTimetable.of(List.of(new Schedule(DiasSemana.LUNES, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+        WeeklyTimetable b = WeeklyTimetable.of(List.of(new Schedule(DiasSemana.MIERCOLES, LocalTime.of(14, 0), LocalTime.of(16, 0))));
+        WeeklyTimetable merged = WeeklyTimetable.merge(List.of(a, b, WeeklyTimetable.empty()));
+
+        assertEquals(a.getDayMask(DiasSemana.LUNES), merged.getDayMask(DiasSemana.LUNES));
+        assertEquals(b.getDayMask(DiasSemana.MIERCOLES), merged.getDayMask(DiasSemana.MIERCOLES));
+        assertTrue(merged.conflictsWith(new Schedule(DiasSemana.MIERCOLES, LocalTime.of(15, 0), LocalTime.of(17, 0))));
+        assertTrue(WeeklyTimetable.empty().isEmpty());
+        assertFalse(WeeklyTimetable.empty().conflictsWith(a));
+    }
+
+    private static List<Schedule> randomSchedules(Random random, int count) throws SirhaException {
+        List<Schedule> result = new ArrayList<>();
+        DiasSemana[] days = DiasSemana.values();
+        for (int i = 0; i < count; i++) {
+            // Minutos y segundos arbitrarios para forzar horarios no alineados a franjas
+            int start = 6 * 3600 + random.nextInt(14 * 3600);
+            int length = random.nextBoolean() ? 60 * (30 * (1 + random.nextInt(6))) : 1 + random.nextInt(4 * 3600);
+            if (random.nextBoolean()) {
+                start -= start % 1800;
+            }
+            int end = Math.min(start + length, 24 * 3600 - 1);
+            result.add(new Schedule(days[random.nextInt(days.length)],
+                    LocalTime.ofSecondOfDay(start), LocalTime.ofSecondOfDay(end)));
+        }
+        return result;
+    }
+}